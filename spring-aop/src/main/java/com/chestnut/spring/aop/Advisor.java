@@ -0,0 +1,11 @@
+package com.chestnut.spring.aop;
+
+/**
+ * 通知器，包含切点和方法拦截器，被切点匹配的方法调用交由拦截器处理
+ * 一个Bean上的所有通知器组成一条有序的拦截器链，共用同一个代理对象
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+public record Advisor(Pointcut pointcut, MethodInterceptor interceptor) {
+}
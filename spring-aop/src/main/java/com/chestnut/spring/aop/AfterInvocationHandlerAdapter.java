@@ -1,6 +1,5 @@
 package com.chestnut.spring.aop;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
 /**
@@ -9,11 +8,11 @@ import java.lang.reflect.Method;
  * @author: Chestnut
  * @since: 2023-07-19
  **/
-public abstract class AfterInvocationHandlerAdapter implements InvocationHandler {
+public abstract class AfterInvocationHandlerAdapter implements MethodInterceptor {
     /**
      * 定义代理对象方法调用后的额外逻辑，after允许修改方法返回值
      *
-     * @param proxy       代理对象
+     * @param proxy       原始Bean
      * @param returnValue 原始方法调用后的返回值
      * @param method      被调用的方法对象
      * @param args        调用方法时传递的参数数组
@@ -24,17 +23,15 @@ public abstract class AfterInvocationHandlerAdapter implements InvocationHandler
     /**
      * 代理对象的方法被调用时执行，在原始方法执行后执行after方法
      *
-     * @param proxy  代理对象
-     * @param method 被调用的方法对象
-     * @param args   调用方法时传递的参数数组
+     * @param invocation 方法调用
      * @return after方法返回值
      * @throws Throwable invoke过程中抛出异常
      */
     @Override
-    public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    public final Object invoke(MethodInvocation invocation) throws Throwable {
         // 原始方法
-        Object ret = method.invoke(proxy, args);
+        Object ret = invocation.proceed();
         // 实际方法调用后执行的逻辑
-        return after(proxy, ret, method, args);
+        return after(invocation.getThis(), ret, invocation.getMethod(), invocation.getArguments());
     }
 }
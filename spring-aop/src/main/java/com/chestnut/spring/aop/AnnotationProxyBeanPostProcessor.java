@@ -5,13 +5,18 @@ import com.chestnut.spring.context.BeanDefinition;
 import com.chestnut.spring.context.BeanPostProcessor;
 import com.chestnut.spring.context.ConfigurableApplicationContext;
 import com.chestnut.spring.exception.AopConfigException;
+import com.chestnut.spring.utils.ClassUtils;
+import jakarta.annotation.Nullable;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 注解代理Bean后处理器
@@ -21,9 +26,9 @@ import java.util.Map;
  **/
 public class AnnotationProxyBeanPostProcessor<A extends Annotation> implements BeanPostProcessor {
     /**
-     * 原始Bean集合
+     * 原始Bean集合，并行刷新时会被多个线程同时访问
      */
-    private Map<String, Object> originBeans = new HashMap<>();
+    private final Map<String, Object> originBeans = new ConcurrentHashMap<>();
     /**
      * 当前类的直接父类的泛型参数类型
      * 例如：public class TransactionalProxyBeanPostProcessor extends AnnotationProxyBeanPostProcessor<Transactional> {}
@@ -40,31 +45,26 @@ public class AnnotationProxyBeanPostProcessor<A extends Annotation> implements B
 
     /**
      * 在给定bean初始化之前应用此BeanPostProcessor，用于在目标对象上添加代理
+     * 如果bean已经被其他注解代理Bean后处理器代理，则把本处理器的通知器加入已有的拦截器链，并为原始Bean重新创建一个代理对象，
+     * 而不是再代理一次代理对象，因此无论有多少个处理器匹配，都只生成一层代理
      *
      * @param bean     要代理的对象实例，或其他
      * @param beanName 要代理的对象名称，或其他
-     * @return 如果检测到目标对象类上存在指定的类级别注解，则返回代理对象，否则返回原始目标对象
+     * @return 如果检测到目标对象类上或其public方法上存在指定的注解，则返回代理对象，否则返回原始目标对象
      */
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) {
-        // 获取要代理的对象的类
-        Class<?> beanClass = bean.getClass();
-        // 检查是否有类级别注解
-        A anno = beanClass.getAnnotation(this.annotationClass);
-        // 如果检测到目标对象类上存在指定的类级别注解，则返回代理对象
-        if (anno != null) {
-            // 代理处理器的名称
-            String handlerName;
-            try {
-                // 获取代理处理器的名称，例：获取@Around("aroundInvocationHandler")中的"aroundInvocationHandler"
-                handlerName = (String) anno.annotationType().getMethod("value").invoke(anno);
-            } catch (ReflectiveOperationException e) {
-                throw new AopConfigException(String.format("@%s must have value() returned String type.", this.annotationClass.getSimpleName()), e);
-            }
-            // 创建代理对象
-            Object proxy = createProxy(beanClass, bean, handlerName);
+        // 获取原始Bean及其类，注解标注在原始Bean的类上
+        Object target = ProxyResolver.getInstance().getTarget(bean);
+        Class<?> beanClass = target.getClass();
+        // 代理处理器的名称
+        String handlerName = findHandlerName(beanClass);
+        // 如果检测到类级别或方法级别注解，则返回代理对象
+        if (handlerName != null) {
+            // 创建代理对象，后应用的处理器的拦截器先执行
+            Object proxy = ProxyResolver.getInstance().createProxy(bean, new Advisor(getPointcut(), getInterceptor(handlerName)));
             // 保存要被代理的对象实例
-            this.originBeans.put(beanName, bean);
+            this.originBeans.put(beanName, target);
             // 返回代理对象
             return proxy;
         }
@@ -73,14 +73,64 @@ public class AnnotationProxyBeanPostProcessor<A extends Annotation> implements B
     }
 
     /**
-     * 创建一个代理对象
+     * 获取切点，默认按注解匹配：类上标注了注解时拦截所有public方法，否则只拦截标注了注解的方法，均不拦截继承自Object的方法
+     * 子类可以重写此方法，例如与Pointcut.nameMatches()组合
+     *
+     * @return 切点
+     */
+    protected Pointcut getPointcut() {
+        return Pointcut.annotatedWith(this.annotationClass);
+    }
+
+    /**
+     * 查找代理处理器的名称，类级别注解优先；没有类级别注解时，各方法级别注解须指定相同的代理处理器
+     *
+     * @param beanClass 要代理的对象的类
+     * @return 代理处理器的名称，如果没有注解，则返回null
+     */
+    @Nullable
+    private String findHandlerName(Class<?> beanClass) {
+        // 检查是否有类级别注解
+        A anno = ClassUtils.getAnnotation(beanClass, this.annotationClass);
+        if (anno != null) {
+            return getHandlerName(anno);
+        }
+        // 检查是否有方法级别注解
+        Set<String> handlerNames = new TreeSet<>();
+        for (Method method : beanClass.getMethods()) {
+            A methodAnno = method.getAnnotation(this.annotationClass);
+            if (methodAnno != null) {
+                handlerNames.add(getHandlerName(methodAnno));
+            }
+        }
+        if (handlerNames.size() > 1) {
+            throw new AopConfigException(String.format("@%s on methods of %s must use the same proxy handler, but found %s.",
+                    this.annotationClass.getSimpleName(), beanClass.getName(), handlerNames));
+        }
+        return handlerNames.isEmpty() ? null : handlerNames.iterator().next();
+    }
+
+    /**
+     * 获取注解指定的代理处理器名称，例：获取@Around("aroundInvocationHandler")中的"aroundInvocationHandler"
+     *
+     * @param anno 注解
+     * @return 代理处理器的名称
+     */
+    private String getHandlerName(A anno) {
+        try {
+            return (String) anno.annotationType().getMethod("value").invoke(anno);
+        } catch (ReflectiveOperationException e) {
+            throw new AopConfigException(String.format("@%s must have value() returned String type.", this.annotationClass.getSimpleName()), e);
+        }
+    }
+
+    /**
+     * 获取代理处理器对应的方法拦截器
      *
-     * @param beanClass   要代理的对象的类
-     * @param bean        要代理的对象实例
      * @param handlerName 代理处理器的名称
-     * @return 代理对象
+     * @return 方法拦截器
      */
-    private Object createProxy(Class<?> beanClass, Object bean, String handlerName) {
+    private MethodInterceptor getInterceptor(String handlerName) {
         // 获取Spring容器的应用上下文（ApplicationContext）对象
         ConfigurableApplicationContext ctx = (ConfigurableApplicationContext) ApplicationContextUtils.getRequiredApplicationContext();
         // 在应用上下文中找到对应的Spring Bean定义
@@ -95,14 +145,18 @@ public class AnnotationProxyBeanPostProcessor<A extends Annotation> implements B
         if (handlerBean == null) {
             handlerBean = ctx.createBeanAsEarlySingleton(handlerDef);
         }
+        // 优先使用MethodInterceptor，原始方法经由生成的调用器直接调用
+        if (handlerBean instanceof MethodInterceptor interceptor) {
+            return interceptor;
+        }
         // 检查代理处理器是InvocationHandler类型
         if (handlerBean instanceof InvocationHandler handler) {
-            // 创建代理对象，代理bean，并指定代理对象的调用处理器为handler（代理处理器）
-            return ProxyResolver.getInstance().createProxy(bean, handler);
+            // 被切点匹配的方法交由handler（代理处理器）处理，第一个参数为原始Bean，handler结束拦截器链，因此须位于拦截器链末尾（最先应用）
+            return ProxyResolver.toInterceptor(handler);
         } else {
-            throw new AopConfigException(String.format("@%s proxy handler '%s' is not type of %s.", this.annotationClass.getSimpleName(), handlerName, InvocationHandler.class.getName()));
+            throw new AopConfigException(String.format("@%s proxy handler '%s' is not type of %s or %s.", this.annotationClass.getSimpleName(), handlerName,
+                    MethodInterceptor.class.getName(), InvocationHandler.class.getName()));
         }
-
     }
 
     /**
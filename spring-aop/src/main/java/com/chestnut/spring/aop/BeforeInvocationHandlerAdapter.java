@@ -1,6 +1,5 @@
 package com.chestnut.spring.aop;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
 /**
@@ -9,11 +8,11 @@ import java.lang.reflect.Method;
  * @author: Chestnut
  * @since: 2023-07-19
  **/
-public abstract class BeforeInvocationHandlerAdapter implements InvocationHandler {
+public abstract class BeforeInvocationHandlerAdapter implements MethodInterceptor {
     /**
      * 定义代理对象方法调用前的额外逻辑
      *
-     * @param proxy  代理对象
+     * @param proxy  原始Bean
      * @param method 被调用的方法对象
      * @param args   调用方法时传递的参数数组
      */
@@ -22,17 +21,15 @@ public abstract class BeforeInvocationHandlerAdapter implements InvocationHandle
     /**
      * 代理对象的方法被调用时执行，在原始方法执行前执行before方法
      *
-     * @param proxy  代理对象
-     * @param method 被调用的方法对象
-     * @param args   调用方法时传递的参数数组
+     * @param invocation 方法调用
      * @return 原始方法返回值
      * @throws Throwable invoke过程中抛出异常
      */
     @Override
-    public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    public final Object invoke(MethodInvocation invocation) throws Throwable {
         // 实际方法调用前执行的逻辑
-        before(proxy, method, args);
+        before(invocation.getThis(), invocation.getMethod(), invocation.getArguments());
         // 原始方法
-        return method.invoke(proxy, args);
+        return invocation.proceed();
     }
 }
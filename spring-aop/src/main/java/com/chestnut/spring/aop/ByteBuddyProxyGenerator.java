@@ -0,0 +1,166 @@
+package com.chestnut.spring.aop;
+
+import jakarta.annotation.Nullable;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.scaffold.TypeValidation;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+/**
+ * 基于ByteBuddy在运行时生成代理类和方法调用器
+ * 只有在找不到编译期生成的代理类时才会被ProxyResolver使用，此时才加载和初始化ByteBuddy。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-20
+ **/
+final class ByteBuddyProxyGenerator {
+    /**
+     * 代理类中保存调用处理器的字段名称
+     */
+    private static final String HANDLER_FIELD = "$$handler";
+    /**
+     * 代理类中保存原始Bean的字段名称，未被切点匹配的方法直接调用该字段
+     */
+    private static final String TARGET_FIELD = "$$target";
+    /**
+     * 被代理的方法调用的分派方法，参数为调用处理器、代理对象、方法的下标和参数数组
+     */
+    private static final Method DISPATCH;
+
+    static {
+        try {
+            DISPATCH = ProxyResolver.class.getMethod("dispatch", InvocationHandler.class, Object.class, int.class, Object[].class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * 日志记录器
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    /**
+     * ByteBuddy 对象，用于创建代理类，代理类结构固定，因此关闭类型校验以加快生成
+     */
+    private final ByteBuddy byteBuddy = new ByteBuddy().with(TypeValidation.DISABLED);
+
+    /**
+     * 生成目标类的代理类，被代理的方法在生成时绑定其下标，调用时连同下标一起交由调用处理器分派
+     *
+     * @param targetClass 目标类
+     * @param methods     被代理的方法，数组下标即方法在代理类中的下标
+     * @return 代理类
+     */
+    Class<?> generateProxyClass(Class<?> targetClass, Method[] methods) {
+        long start = System.nanoTime();
+        // 使用ByteBuddy动态创建Proxy的Class
+        DynamicType.Builder<?> builder = this.byteBuddy
+                // 子类用默认无参数构造方法，This strategy is adding a default constructor that calls its super types default constructor.
+                .subclass(targetClass, ConstructorStrategy.Default.DEFAULT_CONSTRUCTOR)
+                // 保存调用处理器和原始Bean的实例字段
+                .defineField(HANDLER_FIELD, InvocationHandler.class, Visibility.PRIVATE)
+                .defineField(TARGET_FIELD, targetClass, Visibility.PRIVATE)
+                // 未被代理的public方法直接调用原始Bean的同一方法，没有拦截开销
+                .method(ElementMatchers.isPublic())
+                .intercept(MethodCall.invokeSelf().onField(TARGET_FIELD).withAllArguments());
+        for (int i = 0; i < methods.length; i++) {
+            // 后定义的规则优先，被代理的方法调用ProxyResolver.dispatch($$handler, this, i, args)，返回值转换（拆箱）为方法的返回类型
+            builder = builder
+                    .method(ElementMatchers.hasSignature(new MethodDescription.ForLoadedMethod(methods[i]).asSignatureToken()))
+                    .intercept(MethodCall.invoke(DISPATCH).withField(HANDLER_FIELD).withThis().with(i).withArgumentArray()
+                            .withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC));
+        }
+        DynamicType.Unloaded<?> unloaded = builder
+                // 后定义的规则优先，ProxyHandlerAware的方法用于设置调用处理器和原始Bean
+                .implement(ProxyResolver.ProxyHandlerAware.class)
+                .method(ElementMatchers.named("setProxyHandler").and(ElementMatchers.isDeclaredBy(ProxyResolver.ProxyHandlerAware.class)))
+                .intercept(FieldAccessor.ofField(HANDLER_FIELD))
+                .method(ElementMatchers.named("getProxyHandler").and(ElementMatchers.isDeclaredBy(ProxyResolver.ProxyHandlerAware.class)))
+                .intercept(FieldAccessor.ofField(HANDLER_FIELD))
+                .method(ElementMatchers.named("setProxyTarget").and(ElementMatchers.isDeclaredBy(ProxyResolver.ProxyHandlerAware.class)))
+                .intercept(FieldAccessor.ofField(TARGET_FIELD).withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC))
+                // 编译生成代理类
+                .make();
+        Class<?> proxyClass = load(targetClass, unloaded);
+        logger.atDebug().log("generated proxy class {} for {} in {} ms", proxyClass.getName(), targetClass.getName(), (System.nanoTime() - start) / 1_000_000);
+        return proxyClass;
+    }
+
+    /**
+     * 生成直接调用方法的调用器，定义为方法声明类所在包中的隐藏类，无法定义时回退为基于MethodHandle的调用器
+     *
+     * @param method 方法
+     * @return 方法调用器
+     */
+    MethodInvoker generateMethodInvoker(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        // 第一个参数转换为声明类后作为调用目标，参数数组中的元素依次转换（拆箱）为方法的参数，返回值装箱
+        MethodCall call = MethodCall.invoke(method).onArgument(0);
+        if (method.getParameterCount() > 0) {
+            call = call.withArgumentArrayElements(1, method.getParameterCount());
+        }
+        DynamicType.Unloaded<?> unloaded = this.byteBuddy
+                .subclass(MethodInvoker.class)
+                .name(declaringClass.getName() + "$$MethodInvoker")
+                .method(ElementMatchers.named("invoke"))
+                .intercept(call.withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC))
+                .make();
+        Class<?> invokerClass = defineHiddenClass(declaringClass, unloaded);
+        if (invokerClass != null) {
+            try {
+                return (MethodInvoker) invokerClass.getConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                logger.atDebug().log("cannot instantiate method invoker for {}: {}", method, e.toString());
+            }
+        }
+        return ProxyResolver.createMethodHandleInvoker(method);
+    }
+
+    /**
+     * 加载代理类，优先在目标类所在的包中定义为隐藏类，无法定义时回退为由新的类加载器加载
+     *
+     * @param targetClass 目标类
+     * @param unloaded    尚未加载的代理类
+     * @return 代理类
+     */
+    private Class<?> load(Class<?> targetClass, DynamicType.Unloaded<?> unloaded) {
+        Class<?> hiddenClass = defineHiddenClass(targetClass, unloaded);
+        // 加载代理类
+        return hiddenClass != null ? hiddenClass : unloaded.load(targetClass.getClassLoader()).getLoaded();
+    }
+
+    /**
+     * 在指定类所在的包中定义隐藏类
+     *
+     * @param lookupClass 隐藏类所在包中的类
+     * @param unloaded    尚未加载的类
+     * @return 隐藏类，如果无法定义，则返回null
+     */
+    @Nullable
+    private Class<?> defineHiddenClass(Class<?> lookupClass, DynamicType.Unloaded<?> unloaded) {
+        // 隐藏类无法在加载后再执行初始化回调，也无法引用辅助类
+        if (!unloaded.getAuxiliaryTypes().isEmpty() || unloaded.hasAliveLoadedTypeInitializers()) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(lookupClass, MethodHandles.lookup());
+            return lookup.defineHiddenClass(unloaded.getBytes(), true).lookupClass();
+        } catch (IllegalAccessException | IllegalArgumentException | LinkageError e) {
+            // 例如类所在的模块未开放，或生成的类与指定类不在同一个包中
+            logger.atDebug().log("cannot define hidden class in package of {}: {}", lookupClass.getName(), e.toString());
+            return null;
+        }
+    }
+}
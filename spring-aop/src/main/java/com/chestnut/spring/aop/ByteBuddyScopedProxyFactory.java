@@ -0,0 +1,27 @@
+package com.chestnut.spring.aop;
+
+import com.chestnut.spring.context.ScopedProxyFactory;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * 基于ByteBuddy的作用域代理工厂，通过ServiceLoader注册到容器
+ * 为声明类型为类的request或thread作用域Bean创建子类代理
+ *
+ * @author: Chestnut
+ * @since: 2023-08-11
+ **/
+public class ByteBuddyScopedProxyFactory implements ScopedProxyFactory {
+    /**
+     * 创建作用域代理对象
+     *
+     * @param targetClass 目标类
+     * @param handler     调用处理器
+     * @param <T>         目标类型
+     * @return 代理对象
+     */
+    @Override
+    public <T> T createProxy(Class<T> targetClass, InvocationHandler handler) {
+        return ProxyResolver.getInstance().createProxy(targetClass, handler);
+    }
+}
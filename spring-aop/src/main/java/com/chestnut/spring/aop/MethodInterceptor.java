@@ -0,0 +1,20 @@
+package com.chestnut.spring.aop;
+
+/**
+ * 方法拦截器，代理对象的方法被调用时执行
+ * 与InvocationHandler不同，拦截器通过MethodInvocation.proceed()调用原始方法，原始方法经由缓存的MethodHandle直接调用，不经过反射
+ *
+ * @author: Chestnut
+ * @since: 2023-08-17
+ **/
+@FunctionalInterface
+public interface MethodInterceptor {
+    /**
+     * 拦截方法调用
+     *
+     * @param invocation 方法调用
+     * @return 方法的返回值
+     * @throws Throwable 拦截过程中抛出的异常
+     */
+    Object invoke(MethodInvocation invocation) throws Throwable;
+}
@@ -0,0 +1,40 @@
+package com.chestnut.spring.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 方法调用，由MethodInterceptor通过proceed()继续执行原始方法
+ *
+ * @author: Chestnut
+ * @since: 2023-08-17
+ **/
+public interface MethodInvocation {
+    /**
+     * 获取被调用的方法
+     *
+     * @return 被调用的方法
+     */
+    Method getMethod();
+
+    /**
+     * 获取调用方法时传递的参数，修改数组中的元素会影响proceed()传递给原始方法的参数
+     *
+     * @return 参数数组，无参数时为空数组
+     */
+    Object[] getArguments();
+
+    /**
+     * 获取原始Bean，即代理的目标对象
+     *
+     * @return 原始Bean
+     */
+    Object getThis();
+
+    /**
+     * 调用拦截器链中的下一个拦截器，没有下一个拦截器时调用原始方法，原始方法抛出的异常原样抛出，不会包装为InvocationTargetException
+     *
+     * @return 下一个拦截器或原始方法的返回值，void方法返回null
+     * @throws Throwable 原始方法抛出的异常
+     */
+    Object proceed() throws Throwable;
+}
@@ -0,0 +1,21 @@
+package com.chestnut.spring.aop;
+
+/**
+ * 方法调用器，以统一的签名调用原始Bean的某个方法
+ * 由ProxyResolver为每个方法生成一次，生成的实现直接调用目标方法，不经过Method.invoke()
+ *
+ * @author: Chestnut
+ * @since: 2023-08-17
+ **/
+@FunctionalInterface
+public interface MethodInvoker {
+    /**
+     * 调用方法，方法抛出的异常原样抛出
+     *
+     * @param target 目标对象
+     * @param args   参数数组
+     * @return 方法的返回值，基本类型的返回值被装箱，void方法返回null
+     * @throws Throwable 方法抛出的异常
+     */
+    Object invoke(Object target, Object[] args) throws Throwable;
+}
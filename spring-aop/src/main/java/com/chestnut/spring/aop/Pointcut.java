@@ -0,0 +1,152 @@
+package com.chestnut.spring.aop;
+
+import com.chestnut.spring.utils.ClassUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * 切点，决定目标类的哪些public方法需要被拦截
+ * 切点只在生成代理类时对每个方法求值一次，未被匹配的方法在代理类中直接调用原始Bean，没有任何拦截开销。
+ * 切点的实现均为记录类型，相同的切点相等，以便代理类按目标类和切点缓存。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-18
+ **/
+@FunctionalInterface
+public interface Pointcut {
+    /**
+     * 匹配所有public方法，包括继承自Object的方法
+     */
+    Pointcut ALL = new All();
+
+    /**
+     * 判断方法是否需要被拦截
+     *
+     * @param targetClass 目标类
+     * @param method      目标类的public方法
+     * @return 如果需要被拦截，则返回true；否则返回false
+     */
+    boolean matches(Class<?> targetClass, Method method);
+
+    /**
+     * 创建一个同时满足当前切点和另一个切点的切点
+     *
+     * @param other 另一个切点
+     * @return 组合后的切点
+     */
+    default Pointcut and(Pointcut other) {
+        return new And(this, other);
+    }
+
+    /**
+     * 创建一个与当前切点相反的切点
+     *
+     * @return 相反的切点
+     */
+    default Pointcut negate() {
+        return new Not(this);
+    }
+
+    /**
+     * 按注解匹配：类上标注了注解时匹配所有方法，否则只匹配标注了注解的方法，继承自Object的方法均不匹配
+     *
+     * @param annotationClass 注解类型
+     * @return 切点
+     */
+    static Pointcut annotatedWith(Class<? extends Annotation> annotationClass) {
+        return new Annotated(annotationClass);
+    }
+
+    /**
+     * 按方法名匹配，"*"匹配任意字符，例如"get*"
+     *
+     * @param patterns 方法名模式，匹配任意一个即可
+     * @return 切点
+     */
+    static Pointcut nameMatches(String... patterns) {
+        return new NameMatches(Arrays.stream(patterns)
+                .map(pattern -> Arrays.stream(pattern.split("\\*", -1)).map(Pattern::quote).reduce((a, b) -> a + ".*" + b).orElse(""))
+                .reduce((a, b) -> a + "|" + b)
+                .orElse(""));
+    }
+
+    /**
+     * 检查方法是否为Object中声明的方法，包括目标类重写的equals()、hashCode()和toString()
+     *
+     * @param method 方法
+     * @return 如果是，则返回true；否则返回false
+     */
+    static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 匹配所有方法的切点
+     */
+    record All() implements Pointcut {
+        @Override
+        public boolean matches(Class<?> targetClass, Method method) {
+            return true;
+        }
+    }
+
+    /**
+     * 按注解匹配的切点
+     *
+     * @param annotationClass 注解类型
+     */
+    record Annotated(Class<? extends Annotation> annotationClass) implements Pointcut {
+        @Override
+        public boolean matches(Class<?> targetClass, Method method) {
+            if (isObjectMethod(method)) {
+                return false;
+            }
+            return ClassUtils.getAnnotation(targetClass, this.annotationClass) != null || method.isAnnotationPresent(this.annotationClass);
+        }
+    }
+
+    /**
+     * 按方法名匹配的切点
+     *
+     * @param regex 由方法名模式转换得到的正则表达式
+     */
+    record NameMatches(String regex) implements Pointcut {
+        @Override
+        public boolean matches(Class<?> targetClass, Method method) {
+            return method.getName().matches(this.regex);
+        }
+    }
+
+    /**
+     * 同时满足两个切点的切点
+     *
+     * @param left  切点
+     * @param right 切点
+     */
+    record And(Pointcut left, Pointcut right) implements Pointcut {
+        @Override
+        public boolean matches(Class<?> targetClass, Method method) {
+            return this.left.matches(targetClass, method) && this.right.matches(targetClass, method);
+        }
+    }
+
+    /**
+     * 与指定切点相反的切点
+     *
+     * @param pointcut 切点
+     */
+    record Not(Pointcut pointcut) implements Pointcut {
+        @Override
+        public boolean matches(Class<?> targetClass, Method method) {
+            return !this.pointcut.matches(targetClass, method);
+        }
+    }
+}
@@ -1,17 +1,35 @@
 package com.chestnut.spring.aop;
 
-import net.bytebuddy.ByteBuddy;
-import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
-import net.bytebuddy.implementation.InvocationHandlerAdapter;
-import net.bytebuddy.matcher.ElementMatchers;
+import com.chestnut.spring.aop.aot.GeneratedProxy;
+import com.chestnut.spring.exception.AopConfigException;
+import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 /**
  * 代理解析器，用于创建动态代理对象
  * Create proxy by subclassing and override methods with interceptor.
+ * <p>
+ * 被切点匹配的public方法转发给实例字段中的调用处理器，其他public方法直接调用实例字段中的原始Bean，代理类本身不依赖具体的Bean和处理器，
+ * 因此每个目标类和切点只生成一次代理类并缓存，之后创建代理对象只需实例化代理类并设置调用处理器和原始Bean。
+ * 代理类尽量定义为目标类所在包中的隐藏类，不再使用时其元空间可以被回收。
+ * 如果ProxyClassProcessor在编译期生成了目标类的代理类，则直接加载该类及其方法调用器，不再加载ByteBuddy，也不在运行时生成任何类。
+ * 使用MethodInterceptor时，每个被代理的方法另外生成一个直接调用该方法的MethodInvoker，MethodInvocation.proceed()不再经过反射。
+ * 同一个Bean上的多个通知器组成一条拦截器链，只生成一层代理。代理类中的每个被代理方法在生成时绑定一个下标，
+ * 调用时把下标传给dispatch()，按下标直接取得该方法的拦截器链，不再按Method查找，再按下标依次调用匹配的拦截器。
  *
  * @author: Chestnut
  * @since: 2023-07-19
@@ -22,13 +40,27 @@ public class ProxyResolver {
      */
     private final Logger logger = LoggerFactory.getLogger(getClass());
     /**
-     * ByteBuddy 对象，用于创建代理类
+     * 目标类到代理类的缓存，同一个目标类按切点列表区分代理类，ClassValue可并发访问，且不会阻止目标类被卸载
      */
-    private final ByteBuddy byteBuddy = new ByteBuddy();
+    private final ClassValue<Map<List<Pointcut>, ProxyClass>> proxyClasses = new ClassValue<>() {
+        @Override
+        protected Map<List<Pointcut>, ProxyClass> computeValue(Class<?> targetClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    /**
+     * 方法声明类到其方法调用器的缓存，调用器引用声明类，保存在声明类的ClassValue中不会阻止声明类被卸载
+     */
+    private final ClassValue<Map<Method, MethodInvoker>> methodInvokers = new ClassValue<>() {
+        @Override
+        protected Map<Method, MethodInvoker> computeValue(Class<?> declaringClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
     /**
-     * 代理解析器实例
+     * 代理解析器实例，并行刷新时可能被多个线程同时获取，因此在类加载时创建
      */
-    private static ProxyResolver INSTANCE = null;
+    private static final ProxyResolver INSTANCE = new ProxyResolver();
 
     /**
      * 创建一个ProxyResolver实例，禁止外部访问
@@ -42,50 +74,596 @@ public class ProxyResolver {
      * @return 代理解析器实例
      */
     public static ProxyResolver getInstance() {
-        if (INSTANCE == null) {
-            INSTANCE = new ProxyResolver();
-        }
         return INSTANCE;
     }
 
     /**
-     * 创建动态代理对象的方法
+     * 创建动态代理对象的方法，调用处理器的第一个参数为原始Bean
+     * 调用处理器无法继续执行拦截器链，因此为已有的代理对象添加调用处理器时，被已有拦截器匹配的方法会导致AopConfigException，
+     * 需要与其他拦截器组合时应使用MethodInterceptor
      *
      * @param bean    原始Bean，要被代理的目标对象
      * @param handler 拦截器，代理对象的调用处理器
      * @param <T>     代理对象的类型参数
      * @return 代理后的实例，动态代理对象
      */
-    @SuppressWarnings("unchecked")
     public <T> T createProxy(T bean, InvocationHandler handler) {
+        return createProxy(bean, new Advisor(Pointcut.ALL, toInterceptor(handler)));
+    }
+
+    /**
+     * 将调用处理器适配为拦截器，处理器的第一个参数为原始Bean，处理器直接调用原始Bean的方法，结束拦截器链。
+     * 因此适配的拦截器必须位于匹配方法的拦截器链末尾，否则创建代理对象时抛出AopConfigException
+     *
+     * @param handler 调用处理器
+     * @return 方法拦截器
+     */
+    static MethodInterceptor toInterceptor(InvocationHandler handler) {
+        return new InvocationHandlerInterceptor(handler);
+    }
+
+    /**
+     * 创建动态代理对象，所有public方法均交由拦截器处理
+     *
+     * @param bean        原始Bean，要被代理的目标对象
+     * @param interceptor 方法拦截器
+     * @param <T>         代理对象的类型参数
+     * @return 代理后的实例，动态代理对象
+     */
+    public <T> T createProxy(T bean, MethodInterceptor interceptor) {
+        return createProxy(bean, interceptor, Pointcut.ALL);
+    }
+
+    /**
+     * 创建动态代理对象，被切点匹配的方法交由拦截器处理，拦截器通过MethodInvocation.proceed()直接调用原始Bean的方法；
+     * 其他方法直接调用原始Bean的方法，不经过拦截器
+     *
+     * @param bean        原始Bean，要被代理的目标对象
+     * @param interceptor 方法拦截器
+     * @param pointcut    切点
+     * @param <T>         代理对象的类型参数
+     * @return 代理后的实例，动态代理对象
+     */
+    public <T> T createProxy(T bean, MethodInterceptor interceptor, Pointcut pointcut) {
+        return createProxy(bean, new Advisor(pointcut, interceptor));
+    }
+
+    /**
+     * 为原始Bean添加一个通知器。如果bean已经是由通知器创建的代理对象，则新的通知器排在已有通知器之前（最先执行），
+     * 并为原始Bean重新创建一个代理对象，而不是代理已有的代理对象，因此无论添加多少个通知器，调用时都只经过一层代理
+     *
+     * @param bean    原始Bean或由通知器创建的代理对象
+     * @param advisor 通知器
+     * @param <T>     代理对象的类型参数
+     * @return 代理后的实例，动态代理对象
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T createProxy(T bean, Advisor advisor) {
+        List<Advisor> advisors = new ArrayList<>();
+        advisors.add(advisor);
+        advisors.addAll(getAdvisors(bean));
+        return (T) createProxy(getTarget(bean), advisors);
+    }
+
+    /**
+     * 创建动态代理对象，所有通知器组成一条有序的拦截器链，被任意切点匹配的方法按顺序经过匹配该方法的拦截器，最后直接调用原始Bean的方法；
+     * 其他方法直接调用原始Bean的方法，不经过拦截器
+     *
+     * @param bean     原始Bean，要被代理的目标对象
+     * @param advisors 通知器，靠前的通知器先执行
+     * @param <T>      代理对象的类型参数
+     * @return 代理后的实例，动态代理对象
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T createProxy(T bean, List<Advisor> advisors) {
+        if (advisors.isEmpty()) {
+            throw new AopConfigException("No advisor for proxy of " + bean.getClass().getName());
+        }
         // 获取目标Bean的类信息
-        Class<?> targetClass = bean.getClass();
-        logger.atDebug().log("create proxy for bean {} @{}", targetClass.getName(), Integer.toHexString(bean.hashCode()));
-        // 使用ByteBuddy动态创建Proxy的Class
-        Class<?> proxyClass = this.byteBuddy
-                // 子类用默认无参数构造方法，This strategy is adding a default constructor that calls its super types default constructor.
-                .subclass(targetClass, ConstructorStrategy.Default.DEFAULT_CONSTRUCTOR)
-                // 拦截/代理所有public方法
-                .method(ElementMatchers.isPublic())
-                // 设置代理对象的调用处理器，使用传入的 handler 来处理代理方法的调用
-                .intercept(InvocationHandlerAdapter.of((proxy, method, args) -> handler.invoke(bean, method, args)))
-                // 编译生成代理类
-                .make()
-                // 加载代理类
-                .load(targetClass.getClassLoader())
-                // 获取代理类
-                .getLoaded();
+        Class<T> targetClass = (Class<T>) bean.getClass();
+        logger.atDebug().log("create proxy for bean {} @{} with {} advisor(s)", targetClass.getName(), Integer.toHexString(bean.hashCode()), advisors.size());
+        List<Pointcut> pointcuts = advisors.stream().map(Advisor::pointcut).toList();
+        ProxyClass proxyClass = getProxyClass(targetClass, pointcuts);
+        MethodInterceptor[] interceptors = advisors.stream().map(Advisor::interceptor).toArray(MethodInterceptor[]::new);
+        checkInvocationHandlersLast(proxyClass, interceptors);
+        return newProxy(proxyClass, bean, new ChainInvocationHandler(proxyClass, bean, List.copyOf(advisors), interceptors));
+    }
+
+    /**
+     * 检查由调用处理器适配的拦截器均位于匹配方法的拦截器链末尾，调用处理器直接调用原始Bean的方法，排在其后的拦截器不会被执行
+     *
+     * @param proxyClass   代理类
+     * @param interceptors 通知器的拦截器，与通知器一一对应
+     */
+    private static void checkInvocationHandlersLast(ProxyClass proxyClass, MethodInterceptor[] interceptors) {
+        for (MethodChain chain : proxyClass.chains()) {
+            int[] indexes = chain.indexes;
+            for (int i = 0; i < indexes.length - 1; i++) {
+                if (interceptors[indexes[i]] instanceof InvocationHandlerInterceptor interceptor) {
+                    throw new AopConfigException(String.format("Invocation handler %s must be the last interceptor of method %s, use %s to proceed with the remaining interceptors.",
+                            interceptor.handler().getClass().getName(), chain.method, MethodInterceptor.class.getName()));
+                }
+            }
+        }
+    }
+
+    /**
+     * 创建目标类的子类代理对象，代理对象的所有public方法均交由调用处理器处理
+     *
+     * @param targetClass 目标类，需要有无参构造方法
+     * @param handler     调用处理器，第一个参数为代理对象
+     * @param <T>         代理对象的类型参数
+     * @return 动态代理对象
+     */
+    public <T> T createProxy(Class<T> targetClass, InvocationHandler handler) {
+        ProxyClass proxyClass = getProxyClass(targetClass, List.of(Pointcut.ALL));
+        return newProxy(proxyClass, null, new DelegatingInvocationHandler(proxyClass, handler));
+    }
+
+    /**
+     * 代理类中被代理的方法调用此方法，按方法在代理类中的下标取得拦截器链并执行，仅供运行时和编译期生成的代理类调用
+     *
+     * @param handler 代理对象的调用处理器，由ProxyResolver创建
+     * @param proxy   代理对象
+     * @param index   方法在代理类中的下标
+     * @param args    调用方法时传递的参数
+     * @return 方法的返回值
+     * @throws Throwable 拦截器或原始方法抛出的异常
+     */
+    public static Object dispatch(InvocationHandler handler, Object proxy, int index, Object[] args) throws Throwable {
+        return ((IndexedInvocationHandler) handler).dispatch(proxy, index, args);
+    }
+
+    /**
+     * 获取由通知器创建的代理对象的原始Bean
+     *
+     * @param bean 代理对象或其他对象
+     * @return 如果bean是由通知器创建的代理对象，则返回其原始Bean，否则返回bean本身
+     */
+    public Object getTarget(Object bean) {
+        ChainInvocationHandler handler = getChainHandler(bean);
+        return handler != null ? handler.target : bean;
+    }
+
+    /**
+     * 获取由通知器创建的代理对象的通知器
+     *
+     * @param bean 代理对象或其他对象
+     * @return 如果bean是由通知器创建的代理对象，则返回其通知器，否则返回空列表
+     */
+    public List<Advisor> getAdvisors(Object bean) {
+        ChainInvocationHandler handler = getChainHandler(bean);
+        return handler != null ? handler.advisors : List.of();
+    }
+
+    /**
+     * 获取由通知器创建的代理对象的调用处理器
+     *
+     * @param bean 代理对象或其他对象
+     * @return 调用处理器，如果bean不是由通知器创建的代理对象，则返回null
+     */
+    @Nullable
+    private static ChainInvocationHandler getChainHandler(Object bean) {
+        if (bean instanceof ProxyHandlerAware aware && aware.getProxyHandler() instanceof ChainInvocationHandler handler) {
+            return handler;
+        }
+        return null;
+    }
+
+    /**
+     * 获取（或首次生成）目标类在指定切点下的代理类
+     *
+     * @param targetClass 目标类
+     * @param pointcuts   切点，与通知器一一对应
+     * @return 代理类
+     */
+    private ProxyClass getProxyClass(Class<?> targetClass, List<Pointcut> pointcuts) {
+        return this.proxyClasses.get(targetClass).computeIfAbsent(pointcuts, p -> createProxyClass(targetClass, p));
+    }
+
+    /**
+     * 创建代理类，优先使用编译期生成的代理类，不存在时才在运行时通过ByteBuddy生成
+     *
+     * @param targetClass 目标类
+     * @param pointcuts   切点，与通知器一一对应
+     * @return 代理类及其默认构造函数
+     */
+    private ProxyClass createProxyClass(Class<?> targetClass, List<Pointcut> pointcuts) {
+        Method[] methods = getAdvisedMethods(targetClass, pointcuts);
+        MethodInvoker[] invokers = new MethodInvoker[methods.length];
+        Class<?> proxyClass = findGeneratedProxyClass(targetClass);
+        if (proxyClass != null) {
+            Method[] generatedMethods = (Method[]) getGeneratedProxyField(proxyClass, GeneratedProxy.METHODS_FIELD);
+            // 编译期生成的代理类只代理标注了代理注解的方法，切点匹配了其他方法时（例如作用域代理）仍在运行时生成代理类
+            if (List.of(generatedMethods).containsAll(List.of(methods))) {
+                methods = generatedMethods.clone();
+                invokers = ((MethodInvoker[]) getGeneratedProxyField(proxyClass, GeneratedProxy.INVOKERS_FIELD)).clone();
+            } else {
+                logger.atDebug().log("generated proxy class {} does not proxy all advised methods, generate at runtime", proxyClass.getName());
+                proxyClass = null;
+            }
+        }
+        if (proxyClass == null) {
+            proxyClass = Generator.INSTANCE.generateProxyClass(targetClass, methods);
+        }
+        // 每个被代理的方法只对切点求值一次，下标与方法在代理类中的下标一致
+        MethodChain[] chains = new MethodChain[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            int[] indexes = IntStream.range(0, pointcuts.size())
+                    .filter(j -> pointcuts.get(j).matches(targetClass, method))
+                    .toArray();
+            chains[i] = new MethodChain(method, indexes, invokers[i]);
+        }
+        try {
+            return new ProxyClass(targetClass, proxyClass, proxyClass.getConstructor(), chains);
+        } catch (NoSuchMethodException e) {
+            throw new AopConfigException("Proxy class of " + targetClass.getName() + " has no default constructor.", e);
+        }
+    }
+
+    /**
+     * 获取目标类中被任意切点匹配的方法，即运行时生成的代理类中交由调用处理器处理的方法
+     * 只包括可以重写的public方法，桥接方法由编译器生成，会调用被重写的实际方法，因此不包括在内
+     *
+     * @param targetClass 目标类
+     * @param pointcuts   切点
+     * @return 被代理的方法，数组下标即方法在代理类中的下标
+     */
+    private static Method[] getAdvisedMethods(Class<?> targetClass, List<Pointcut> pointcuts) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : targetClass.getMethods()) {
+            int mod = method.getModifiers();
+            if (Modifier.isStatic(mod) || Modifier.isFinal(mod) || method.isBridge()) {
+                continue;
+            }
+            if (pointcuts.stream().anyMatch(pointcut -> pointcut.matches(targetClass, method))) {
+                methods.add(method);
+            }
+        }
+        return methods.toArray(Method[]::new);
+    }
+
+    /**
+     * 读取编译期生成的代理类中的静态字段，例如被代理的方法及其调用器
+     *
+     * @param proxyClass 编译期生成的代理类
+     * @param name       字段名称
+     * @return 字段的值
+     */
+    private static Object getGeneratedProxyField(Class<?> proxyClass, String name) {
+        try {
+            return proxyClass.getField(name).get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new AopConfigException("Cannot read field " + name + " of generated proxy class " + proxyClass.getName(), e);
+        }
+    }
+
+    /**
+     * 查找ProxyClassProcessor在编译期为目标类生成的代理类，类名为目标类的二进制名称加上后缀 {@link GeneratedProxy#CLASS_NAME_SUFFIX}
+     *
+     * @param targetClass 目标类
+     * @return 生成的代理类，如果不存在，则返回null
+     */
+    @Nullable
+    private Class<?> findGeneratedProxyClass(Class<?> targetClass) {
+        String proxyName = targetClass.getName() + GeneratedProxy.CLASS_NAME_SUFFIX;
+        Class<?> proxyClass;
+        try {
+            proxyClass = Class.forName(proxyName, true, targetClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        if (proxyClass.getSuperclass() != targetClass || !GeneratedProxy.class.isAssignableFrom(proxyClass)) {
+            throw new AopConfigException(String.format("Generated proxy class %s must extend %s and implement %s.",
+                    proxyName, targetClass.getName(), GeneratedProxy.class.getName()));
+        }
+        logger.atDebug().log("use generated proxy class {} for {}", proxyName, targetClass.getName());
+        return proxyClass;
+    }
+
+    /**
+     * 创建代理对象
+     *
+     * @param proxyClass 代理类
+     * @param target     原始Bean，所有方法均被拦截时可以为null
+     * @param handler    调用处理器
+     * @param <T>        代理对象的类型参数
+     * @return 动态代理对象
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T newProxy(ProxyClass proxyClass, @Nullable Object target, InvocationHandler handler) {
         // 创建代理对象
         Object proxy = null;
         try {
-            // 通过反射获取代理类的默认构造函数，并创建代理对象
-            proxy = proxyClass.getConstructor().newInstance();
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            // 通过缓存的默认构造函数创建代理对象
+            proxy = proxyClass.constructor().newInstance();
+        } catch (InvocationTargetException e) {
+            throw new AopConfigException("Exception when create proxy of " + proxyClass.targetClass().getName(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new AopConfigException("Exception when create proxy of " + proxyClass.targetClass().getName(), e);
+        }
+        // 构造完成后再绑定调用处理器和原始Bean
+        ProxyHandlerAware aware = (ProxyHandlerAware) proxy;
+        aware.setProxyHandler(handler);
+        if (target != null) {
+            aware.setProxyTarget(target);
         }
-
         return (T) proxy;
     }
+
+    /**
+     * 获取方法的调用器，每个方法只生成一次
+     *
+     * @param method 方法
+     * @return 方法调用器
+     */
+    MethodInvoker getMethodInvoker(Method method) {
+        Map<Method, MethodInvoker> invokers = this.methodInvokers.get(method.getDeclaringClass());
+        MethodInvoker invoker = invokers.get(method);
+        return invoker != null ? invoker : invokers.computeIfAbsent(method, Generator.INSTANCE::generateMethodInvoker);
+    }
+
+    /**
+     * 创建基于MethodHandle的方法调用器，用于无法生成隐藏类的方法，例如声明在java.*中的方法
+     *
+     * @param method 方法
+     * @return 方法调用器
+     */
+    static MethodInvoker createMethodHandleInvoker(Method method) {
+        MethodHandle handle;
+        try {
+            // 在方法的声明类中查找，以便调用非public类中的public方法
+            handle = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()).unreflect(method);
+        } catch (IllegalAccessException e) {
+            try {
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException ex) {
+                throw new AopConfigException("Cannot access method " + method, ex);
+            }
+        }
+        // 先把参数和返回值转换为Object，再把参数数组展开为各个参数，即(Object, Object[])Object
+        MethodHandle invoker = handle.asType(handle.type().generic()).asSpreader(Object[].class, method.getParameterCount());
+        return (target, args) -> invoker.invokeExact(target, args);
+    }
+
+    /**
+     * 代理类实现的接口，用于在构造完成后设置调用处理器和原始Bean，以及获取已有代理对象的调用处理器
+     */
+    public interface ProxyHandlerAware {
+        /**
+         * 设置代理对象的调用处理器
+         *
+         * @param handler 调用处理器
+         */
+        void setProxyHandler(InvocationHandler handler);
+
+        /**
+         * 获取代理对象的调用处理器
+         *
+         * @return 调用处理器
+         */
+        InvocationHandler getProxyHandler();
+
+        /**
+         * 设置原始Bean，未被切点匹配的方法直接调用原始Bean
+         *
+         * @param target 原始Bean
+         */
+        void setProxyTarget(Object target);
+    }
+
+    /**
+     * 延迟创建的ByteBuddy代理生成器，所有代理类均在编译期生成时，启动过程不会加载ByteBuddy
+     */
+    private static final class Generator {
+        /**
+         * 代理生成器实例
+         */
+        private static final ByteBuddyProxyGenerator INSTANCE = new ByteBuddyProxyGenerator();
+    }
+
+    /**
+     * 缓存的代理类
+     *
+     * @param targetClass 目标类
+     * @param type        代理类
+     * @param constructor 代理类的默认构造函数
+     * @param chains      被代理方法的拦截器链，按方法在代理类中的下标排列
+     */
+    private record ProxyClass(Class<?> targetClass, Class<?> type, Constructor<?> constructor, MethodChain[] chains) {
+        /**
+         * 获取方法在代理类中的下标
+         *
+         * @param method 被代理的方法
+         * @return 方法的下标
+         */
+        int indexOf(Method method) {
+            for (int i = 0; i < this.chains.length; i++) {
+                if (this.chains[i].method.equals(method)) {
+                    return i;
+                }
+            }
+            throw new AopConfigException("Method " + method + " is not proxied by " + this.type.getName());
+        }
+    }
+
+    /**
+     * 一个被代理方法的拦截器链
+     */
+    private static final class MethodChain {
+        /**
+         * 被代理的方法
+         */
+        private final Method method;
+        /**
+         * 匹配该方法的通知器的下标，按通知器的顺序排列
+         */
+        private final int[] indexes;
+        /**
+         * 直接调用原始Bean方法的调用器，编译期生成的代理类自带调用器，否则首次调用时获取
+         */
+        private MethodInvoker invoker;
+
+        /**
+         * 创建一个MethodChain实例
+         *
+         * @param method  被代理的方法
+         * @param indexes 匹配该方法的通知器的下标
+         * @param invoker 编译期生成的调用器，没有时为null
+         */
+        MethodChain(Method method, int[] indexes, @Nullable MethodInvoker invoker) {
+            this.method = method;
+            this.indexes = indexes;
+            this.invoker = invoker;
+        }
+
+        /**
+         * 获取直接调用原始Bean方法的调用器
+         * 调用器均已缓存且不可变，并发时重复获取得到的是同一个调用器，因此无需同步
+         *
+         * @return 方法调用器
+         */
+        MethodInvoker getInvoker() {
+            MethodInvoker invoker = this.invoker;
+            if (invoker == null) {
+                invoker = INSTANCE.getMethodInvoker(this.method);
+                this.invoker = invoker;
+            }
+            return invoker;
+        }
+    }
+
+    /**
+     * 由ProxyResolver创建的调用处理器，代理类按方法的下标调用dispatch()
+     */
+    private abstract static class IndexedInvocationHandler implements InvocationHandler {
+        /**
+         * 代理类
+         */
+        final ProxyClass proxyClass;
+
+        /**
+         * 创建一个IndexedInvocationHandler实例
+         *
+         * @param proxyClass 代理类
+         */
+        IndexedInvocationHandler(ProxyClass proxyClass) {
+            this.proxyClass = proxyClass;
+        }
+
+        /**
+         * 处理代理对象的方法调用
+         *
+         * @param proxy 代理对象
+         * @param index 方法在代理类中的下标
+         * @param args  调用方法时传递的参数
+         * @return 方法的返回值
+         * @throws Throwable 拦截器或原始方法抛出的异常
+         */
+        abstract Object dispatch(Object proxy, int index, Object[] args) throws Throwable;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return dispatch(proxy, this.proxyClass.indexOf(method), args);
+        }
+    }
+
+    /**
+     * 将方法调用依次交由匹配的拦截器处理的调用处理器
+     */
+    private static final class ChainInvocationHandler extends IndexedInvocationHandler {
+        /**
+         * 原始Bean
+         */
+        final Object target;
+        /**
+         * 通知器
+         */
+        final List<Advisor> advisors;
+        /**
+         * 通知器的拦截器，与通知器一一对应
+         */
+        final MethodInterceptor[] interceptors;
+
+        /**
+         * 创建一个ChainInvocationHandler实例
+         *
+         * @param proxyClass   代理类
+         * @param target       原始Bean
+         * @param advisors     通知器
+         * @param interceptors 通知器的拦截器，与通知器一一对应
+         */
+        ChainInvocationHandler(ProxyClass proxyClass, Object target, List<Advisor> advisors, MethodInterceptor[] interceptors) {
+            super(proxyClass);
+            this.target = target;
+            this.advisors = advisors;
+            this.interceptors = interceptors;
+        }
+
+        @Override
+        Object dispatch(Object proxy, int index, Object[] args) throws Throwable {
+            MethodChain chain = this.proxyClass.chains()[index];
+            int[] indexes = chain.indexes;
+            // 编译期生成的代理类代理所有标注了代理注解的方法，没有匹配的拦截器时直接调用原始Bean
+            if (indexes.length == 0) {
+                return chain.getInvoker().invoke(this.target, args);
+            }
+            // 只有一个拦截器时使用不记录位置的调用对象，此方法保持足够小，整个调用可以被内联，调用对象和参数数组不在堆上分配
+            if (indexes.length == 1) {
+                return this.interceptors[indexes[0]].invoke(new SingleMethodInvocation(this.target, chain.method, args, chain.getInvoker()));
+            }
+            return proceedChain(chain, args);
+        }
+
+        /**
+         * 依次调用匹配方法的多个拦截器
+         *
+         * @param chain 方法的拦截器链
+         * @param args  调用方法时传递的参数
+         * @return 方法的返回值
+         * @throws Throwable 拦截器或原始方法抛出的异常
+         */
+        private Object proceedChain(MethodChain chain, Object[] args) throws Throwable {
+            return new TargetMethodInvocation(this.target, chain.method, args, this.interceptors, chain.indexes, chain.getInvoker()).proceed();
+        }
+    }
+
+    /**
+     * 将所有方法调用交由指定的调用处理器处理的调用处理器，第一个参数为代理对象
+     */
+    private static final class DelegatingInvocationHandler extends IndexedInvocationHandler {
+        /**
+         * 调用处理器
+         */
+        final InvocationHandler handler;
+
+        /**
+         * 创建一个DelegatingInvocationHandler实例
+         *
+         * @param proxyClass 代理类
+         * @param handler    调用处理器
+         */
+        DelegatingInvocationHandler(ProxyClass proxyClass, InvocationHandler handler) {
+            super(proxyClass);
+            this.handler = handler;
+        }
+
+        @Override
+        Object dispatch(Object proxy, int index, Object[] args) throws Throwable {
+            return this.handler.invoke(proxy, this.proxyClass.chains()[index].method, args);
+        }
+    }
+
+    /**
+     * 由调用处理器适配的拦截器，调用处理器的第一个参数为原始Bean，位于匹配方法的拦截器链末尾
+     *
+     * @param handler 调用处理器
+     */
+    private record InvocationHandlerInterceptor(InvocationHandler handler) implements MethodInterceptor {
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return this.handler.invoke(invocation.getThis(), invocation.getMethod(), invocation.getArguments());
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.chestnut.spring.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 只有一个拦截器匹配时的方法调用，proceed()直接调用原始Bean的方法
+ * 不记录拦截器链的位置，也不会递归调用拦截器，从代理方法到原始方法的整个调用可以被JIT内联，调用对象及参数数组随之被标量替换，不在堆上分配
+ *
+ * @author: Chestnut
+ * @since: 2023-08-21
+ **/
+final class SingleMethodInvocation implements MethodInvocation {
+    /**
+     * 空参数数组
+     */
+    private static final Object[] NO_ARGS = new Object[0];
+
+    /**
+     * 原始Bean
+     */
+    private final Object target;
+    /**
+     * 被调用的方法
+     */
+    private final Method method;
+    /**
+     * 调用方法时传递的参数，无参数时可以为null
+     */
+    private final Object[] args;
+    /**
+     * 方法调用器
+     */
+    private final MethodInvoker invoker;
+
+    /**
+     * 创建一个SingleMethodInvocation实例
+     *
+     * @param target  原始Bean
+     * @param method  被调用的方法
+     * @param args    调用方法时传递的参数，可以为null
+     * @param invoker 方法调用器
+     */
+    SingleMethodInvocation(Object target, Method method, Object[] args, MethodInvoker invoker) {
+        this.target = target;
+        this.method = method;
+        // 不在此处替换null，否则参数数组与共享的空数组合并后无法被标量替换
+        this.args = args;
+        this.invoker = invoker;
+    }
+
+    @Override
+    public Method getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return this.args != null ? this.args : NO_ARGS;
+    }
+
+    @Override
+    public Object getThis() {
+        return this.target;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        return this.invoker.invoke(this.target, this.args);
+    }
+}
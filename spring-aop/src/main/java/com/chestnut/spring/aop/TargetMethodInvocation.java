@@ -0,0 +1,87 @@
+package com.chestnut.spring.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 以原始Bean为目标的方法调用，proceed()依次调用拦截器链中匹配该方法的拦截器，最后直接调用原始Bean的方法
+ *
+ * @author: Chestnut
+ * @since: 2023-08-17
+ **/
+final class TargetMethodInvocation implements MethodInvocation {
+    /**
+     * 空参数数组
+     */
+    private static final Object[] NO_ARGS = new Object[0];
+
+    /**
+     * 原始Bean
+     */
+    private final Object target;
+    /**
+     * 被调用的方法
+     */
+    private final Method method;
+    /**
+     * 调用方法时传递的参数
+     */
+    private final Object[] args;
+    /**
+     * 代理对象的所有拦截器
+     */
+    private final MethodInterceptor[] interceptors;
+    /**
+     * 匹配该方法的拦截器的下标
+     */
+    private final int[] indexes;
+    /**
+     * 方法调用器
+     */
+    private final MethodInvoker invoker;
+    /**
+     * 下一个要调用的拦截器在indexes中的位置
+     */
+    private int position;
+
+    /**
+     * 创建一个TargetMethodInvocation实例
+     *
+     * @param target       原始Bean
+     * @param method       被调用的方法
+     * @param args         调用方法时传递的参数，可以为null
+     * @param interceptors 代理对象的所有拦截器
+     * @param indexes      匹配该方法的拦截器的下标
+     * @param invoker      方法调用器
+     */
+    TargetMethodInvocation(Object target, Method method, Object[] args, MethodInterceptor[] interceptors, int[] indexes, MethodInvoker invoker) {
+        this.target = target;
+        this.method = method;
+        this.args = args != null ? args : NO_ARGS;
+        this.interceptors = interceptors;
+        this.indexes = indexes;
+        this.invoker = invoker;
+    }
+
+    @Override
+    public Method getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return this.args;
+    }
+
+    @Override
+    public Object getThis() {
+        return this.target;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        if (this.position < this.indexes.length) {
+            return this.interceptors[this.indexes[this.position++]].invoke(this);
+        }
+        return this.invoker.invoke(this.target, this.args);
+    }
+}
@@ -0,0 +1,40 @@
+package com.chestnut.spring.aop.aot;
+
+import com.chestnut.spring.aop.ProxyResolver;
+
+/**
+ * 编译期生成的代理类，由ProxyClassProcessor为需要代理的组件类生成，类名为目标类的二进制名称加上后缀 {@link #CLASS_NAME_SUFFIX}
+ * <p>
+ * 生成的代理类继承目标类，被代理注解匹配的方法按其在静态字段 {@link #METHODS_FIELD} 中的下标交由ProxyResolver.dispatch()处理，
+ * 其他方法直接调用原始Bean；静态字段 {@link #INVOKERS_FIELD} 中保存按同一下标直接调用原始Bean方法的调用器。ProxyResolver发现生成的代理类后，不再通过ByteBuddy在运行时生成代理类和调用器。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-20
+ **/
+public interface GeneratedProxy extends ProxyResolver.ProxyHandlerAware {
+    /**
+     * 生成的代理类类名的后缀
+     */
+    String CLASS_NAME_SUFFIX = "__Proxy";
+    /**
+     * 生成的代理类中保存被代理方法的public静态字段名称，数组下标即生成的代码调用dispatch()时传递的下标
+     */
+    String METHODS_FIELD = "$$methods";
+    /**
+     * 生成的代理类中保存方法调用器的public静态字段名称，与 {@link #METHODS_FIELD} 中的方法一一对应
+     */
+    String INVOKERS_FIELD = "$$invokers";
+
+    /**
+     * 原样抛出调用处理器抛出的异常，与运行时生成的代理类一致，不会把受检异常包装为UndeclaredThrowableException
+     *
+     * @param e   调用处理器抛出的异常
+     * @param <E> 异常的类型参数，由编译器推断为RuntimeException
+     * @return 不会返回，仅用于在生成的代码中书写throw语句
+     * @throws E 原样抛出的异常
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Throwable> RuntimeException rethrow(Throwable e) throws E {
+        throw (E) e;
+    }
+}
@@ -0,0 +1,519 @@
+package com.chestnut.spring.aop.aot;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Inherited;
+import java.util.*;
+
+/**
+ * 代理类注解处理器，在编译期为标注了代理注解（默认为@Around和@Transactional）的组件类生成GeneratedProxy的实现
+ * 生成的代理类与运行时通过ByteBuddy生成的代理类行为一致：类上标注了代理注解时，除继承自Object的方法外的所有public方法交由调用处理器处理，
+ * 否则只有标注了代理注解的方法交由调用处理器处理，其他方法直接调用原始Bean；并且为这些方法生成直接调用原始Bean方法的调用器，
+ * 运行时无需加载ByteBuddy，也无需在元空间中定义新的类。
+ * <p>
+ * 需要通过编译参数 -Achestnut.aot=true 启用，自定义的代理注解通过 -Achestnut.aot.proxyAnnotations=注解全限定名,... 指定。
+ * 无法生成子类（例如final类、没有可访问的无参构造方法）或方法签名中含有无法访问的类型的组件类不生成代理类，
+ * 由ProxyResolver在运行时通过ByteBuddy生成。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-20
+ **/
+@SupportedAnnotationTypes("*")
+@SupportedOptions({ ProxyClassProcessor.AOT_OPTION, ProxyClassProcessor.PROXY_ANNOTATIONS_OPTION })
+public class ProxyClassProcessor extends AbstractProcessor {
+    /**
+     * 启用处理器的编译参数
+     */
+    static final String AOT_OPTION = "chestnut.aot";
+    /**
+     * 指定自定义代理注解的编译参数，多个注解以逗号分隔
+     */
+    static final String PROXY_ANNOTATIONS_OPTION = "chestnut.aot.proxyAnnotations";
+    /**
+     * @Component注解的全限定名
+     */
+    private static final String COMPONENT = "com.chestnut.spring.annotation.Component";
+    /**
+     * 默认的代理注解的全限定名
+     */
+    private static final List<String> DEFAULT_PROXY_ANNOTATIONS = List.of(
+            "com.chestnut.spring.annotation.Around",
+            "com.chestnut.spring.annotation.Transactional");
+
+    /**
+     * 已生成代理类的组件类
+     */
+    private final Set<String> generated = new HashSet<>();
+
+    /**
+     * 获取支持的源码版本
+     *
+     * @return 最新支持的源码版本
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * 处理每一轮的根元素，为新出现的需要代理的组件类生成代理类
+     *
+     * @param annotations 本轮请求处理的注解类型
+     * @param roundEnv    本轮的环境信息
+     * @return 始终返回false，不声明独占任何注解
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!"true".equals(processingEnv.getOptions().get(AOT_OPTION)) || roundEnv.processingOver()) {
+            return false;
+        }
+        Set<String> proxyAnnotations = getProxyAnnotations();
+        List<TypeElement> types = new ArrayList<>();
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element, types);
+        }
+        for (TypeElement type : types) {
+            if (type.getKind() == ElementKind.CLASS && isAnnotated(type, COMPONENT, new HashSet<>()) && isAdvised(type, proxyAnnotations)
+                    && this.generated.add(binaryName(type))) {
+                generate(type, proxyAnnotations);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取代理注解，包括默认的代理注解和通过编译参数指定的代理注解
+     *
+     * @return 代理注解的全限定名
+     */
+    private Set<String> getProxyAnnotations() {
+        Set<String> names = new HashSet<>(DEFAULT_PROXY_ANNOTATIONS);
+        String option = processingEnv.getOptions().get(PROXY_ANNOTATIONS_OPTION);
+        if (option != null) {
+            Arrays.stream(option.split(",")).map(String::trim).filter(name -> !name.isEmpty()).forEach(names::add);
+        }
+        return names;
+    }
+
+    /**
+     * 收集类型，包括嵌套类
+     *
+     * @param element 要收集的元素
+     * @param types   收集到的类型
+     */
+    private void collect(Element element, List<TypeElement> types) {
+        if (element.getKind().isClass() || element.getKind().isInterface()) {
+            types.add((TypeElement) element);
+            for (Element enclosed : element.getEnclosedElements()) {
+                collect(enclosed, types);
+            }
+        }
+    }
+
+    /**
+     * 检查组件类是否需要代理，与运行时的AnnotationProxyBeanPostProcessor一致：类上（包括从父类继承）或其public方法上标注了代理注解
+     *
+     * @param type             组件类
+     * @param proxyAnnotations 代理注解的全限定名
+     * @return 如果需要代理，则返回true；否则返回false
+     */
+    private boolean isAdvised(TypeElement type, Set<String> proxyAnnotations) {
+        if (hasAnyAnnotation(type, proxyAnnotations)) {
+            return true;
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getModifiers().contains(Modifier.PUBLIC) && hasAnyAnnotation(method, proxyAnnotations)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 为组件类生成代理类
+     *
+     * @param type             组件类
+     * @param proxyAnnotations 代理注解的全限定名
+     */
+    private void generate(TypeElement type, Set<String> proxyAnnotations) {
+        String pkg = packageOf(type);
+        List<ExecutableElement> methods = getProxyMethods(type, pkg);
+        if (methods == null || !isSubclassable(type, pkg)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Cannot generate proxy class for " + type.getQualifiedName() + ", it will be generated at runtime.", type);
+            return;
+        }
+        // 交由调用处理器处理的方法，与运行时按注解匹配的切点一致
+        boolean typeAdvised = hasAnyAnnotation(type, proxyAnnotations);
+        List<ExecutableElement> advised = methods.stream()
+                .filter(method -> typeAdvised ? !isObjectMethod(type, method) : hasAnyAnnotation(method, proxyAnnotations))
+                .toList();
+        DeclaredType declared = (DeclaredType) type.asType();
+        Types types = processingEnv.getTypeUtils();
+        String typeName = type.getQualifiedName().toString();
+        String simpleName = binaryName(type).substring(pkg.isEmpty() ? 0 : pkg.length() + 1) + GeneratedProxy.CLASS_NAME_SUFFIX;
+
+        StringBuilder sb = new StringBuilder();
+        if (!pkg.isEmpty()) {
+            sb.append("package ").append(pkg).append(";\n\n");
+        }
+        sb.append("/**\n * ").append(typeName).append("的代理类，由").append(getClass().getSimpleName()).append("生成，请勿修改\n */\n");
+        sb.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public class ").append(simpleName).append(" extends ").append(typeName)
+                .append(" implements com.chestnut.spring.aop.aot.GeneratedProxy {\n");
+        // 被代理的方法及其调用器，数组下标即调用ProxyResolver.dispatch()时传递的下标
+        sb.append("    public static final java.lang.reflect.Method[] ").append(GeneratedProxy.METHODS_FIELD)
+                .append(" = new java.lang.reflect.Method[").append(advised.size()).append("];\n");
+        sb.append("    public static final com.chestnut.spring.aop.MethodInvoker[] ").append(GeneratedProxy.INVOKERS_FIELD)
+                .append(" = new com.chestnut.spring.aop.MethodInvoker[").append(advised.size()).append("];\n\n");
+        if (!advised.isEmpty()) {
+            sb.append("    static {\n");
+            sb.append("        try {\n");
+            for (int i = 0; i < advised.size(); i++) {
+                ExecutableElement method = advised.get(i);
+                StringJoiner parameterTypes = new StringJoiner(", ");
+                parameterTypes.add(literal(method.getSimpleName().toString()));
+                for (VariableElement parameter : method.getParameters()) {
+                    parameterTypes.add(typeName(parameter.asType()) + ".class");
+                }
+                sb.append("            $$methods[").append(i).append("] = ").append(typeName).append(".class.getMethod(").append(parameterTypes).append(");\n");
+            }
+            sb.append("        } catch (NoSuchMethodException e) {\n");
+            sb.append("            throw new ExceptionInInitializerError(e);\n");
+            sb.append("        }\n");
+            sb.append("        for (int i = 0; i < $$invokers.length; i++) {\n");
+            sb.append("            $$invokers[i] = new $$Invoker(i);\n");
+            sb.append("        }\n");
+            sb.append("    }\n\n");
+        }
+        sb.append("    private java.lang.reflect.InvocationHandler $$handler;\n\n");
+        sb.append("    private ").append(typeName).append(" $$target;\n\n");
+        sb.append("    public ").append(simpleName).append("() {\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public void setProxyHandler(java.lang.reflect.InvocationHandler handler) {\n");
+        sb.append("        this.$$handler = handler;\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public java.lang.reflect.InvocationHandler getProxyHandler() {\n");
+        sb.append("        return this.$$handler;\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public void setProxyTarget(Object target) {\n");
+        sb.append("        this.$$target = (").append(typeName).append(") target;\n");
+        sb.append("    }\n");
+
+        StringBuilder cases = new StringBuilder();
+        for (ExecutableElement method : methods) {
+            int index = advised.indexOf(method);
+            // 父类的类型参数替换为组件类中的实际类型后再擦除，使生成的方法重写原方法
+            ExecutableType member = (ExecutableType) types.asMemberOf(declared, method);
+            TypeMirror returnType = member.getReturnType();
+            boolean isVoid = returnType.getKind() == TypeKind.VOID;
+            StringJoiner params = new StringJoiner(", ");
+            StringJoiner args = new StringJoiner(", ");
+            StringJoiner invokeArgs = new StringJoiner(", ");
+            List<? extends TypeMirror> parameterTypes = member.getParameterTypes();
+            for (int j = 0; j < parameterTypes.size(); j++) {
+                String parameterType = typeName(parameterTypes.get(j));
+                // 可变参数方法的最后一个参数保持为可变参数
+                if (method.isVarArgs() && j == parameterTypes.size() - 1) {
+                    parameterType = parameterType.substring(0, parameterType.length() - 2) + "...";
+                }
+                params.add(parameterType + " arg" + j);
+                args.add("arg" + j);
+                invokeArgs.add(cast(parameterTypes.get(j)) + "args[" + j + "]");
+            }
+            StringJoiner thrown = new StringJoiner(", ", " throws ", "").setEmptyValue("");
+            member.getThrownTypes().forEach(t -> thrown.add(typeName(t)));
+
+            sb.append("\n    @Override\n");
+            sb.append("    public ").append(isVoid ? "void" : typeName(returnType)).append(" ")
+                    .append(method.getSimpleName()).append("(").append(params).append(")").append(thrown).append(" {\n");
+            if (index < 0) {
+                // 未被代理的方法直接调用原始Bean，不经过调用处理器
+                String directCall = "this.$$target." + method.getSimpleName() + "(" + args + ")";
+                sb.append("        ").append(isVoid ? "" : "return ").append(directCall).append(";\n");
+                sb.append("    }\n");
+                continue;
+            }
+            String handlerCall = "com.chestnut.spring.aop.ProxyResolver.dispatch(this.$$handler, this, " + index + ", "
+                    + (args.length() == 0 ? "new Object[0]" : "new Object[] { " + args + " }") + ")";
+            sb.append("        try {\n");
+            if (isVoid) {
+                sb.append("            ").append(handlerCall).append(";\n");
+            } else {
+                sb.append("            return ").append(cast(returnType)).append(handlerCall).append(";\n");
+            }
+            sb.append("        } catch (Throwable e) {\n");
+            sb.append("            throw com.chestnut.spring.aop.aot.GeneratedProxy.rethrow(e);\n");
+            sb.append("        }\n");
+            sb.append("    }\n");
+
+            String targetCall = "((" + typeName + ") target)." + method.getSimpleName() + "(" + invokeArgs + ")";
+            cases.append("                case ").append(index).append(":\n");
+            if (isVoid) {
+                cases.append("                    ").append(targetCall).append(";\n");
+                cases.append("                    return null;\n");
+            } else {
+                cases.append("                    return ").append(targetCall).append(";\n");
+            }
+        }
+
+        // 一个调用器类按下标调用原始Bean的方法，避免为每个方法定义一个类
+        sb.append("\n    private record $$Invoker(int index) implements com.chestnut.spring.aop.MethodInvoker {\n");
+        sb.append("        @Override\n");
+        sb.append("        public Object invoke(Object target, Object[] args) throws Throwable {\n");
+        sb.append("            switch (this.index) {\n");
+        sb.append(cases);
+        sb.append("                default:\n");
+        sb.append("                    throw new IllegalStateException(\"Unknown method index \" + this.index);\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        String qualifiedName = pkg.isEmpty() ? simpleName : pkg + "." + simpleName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(sb.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write proxy class " + qualifiedName + ": " + e, type);
+        }
+    }
+
+    /**
+     * 获取需要重写的方法，与运行时生成的代理类一致：所有可重写的public方法，包括继承的方法
+     *
+     * @param type 组件类
+     * @param pkg  组件类所在的包
+     * @return 方法列表，如果方法签名中含有无法访问的类型，则返回null
+     */
+    private List<ExecutableElement> getProxyMethods(TypeElement type, String pkg) {
+        DeclaredType declared = (DeclaredType) type.asType();
+        Types types = processingEnv.getTypeUtils();
+        Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            Set<Modifier> mods = method.getModifiers();
+            if (!mods.contains(Modifier.PUBLIC) || mods.contains(Modifier.STATIC) || mods.contains(Modifier.FINAL)) {
+                continue;
+            }
+            ExecutableType member = (ExecutableType) types.asMemberOf(declared, method);
+            List<TypeMirror> signature = new ArrayList<>(member.getParameterTypes());
+            signature.addAll(member.getThrownTypes());
+            // 查找方法时使用声明处擦除后的参数类型
+            method.getParameters().forEach(parameter -> signature.add(parameter.asType()));
+            if (member.getReturnType().getKind() != TypeKind.VOID) {
+                signature.add(member.getReturnType());
+            }
+            if (!signature.stream().allMatch(t -> isAccessible(t, pkg))) {
+                return null;
+            }
+            StringJoiner key = new StringJoiner(",", method.getSimpleName() + "(", ")");
+            member.getParameterTypes().forEach(t -> key.add(typeName(t)));
+            methods.putIfAbsent(key.toString(), method);
+        }
+        return new ArrayList<>(methods.values());
+    }
+
+    /**
+     * 检查组件类能否在同一个包中生成子类：不是final或抽象类，不是私有类或内部类，有可访问的无参构造方法，
+     * 并且不会把标注了@Inherited的组件注解继承给代理类
+     *
+     * @param type 组件类
+     * @param pkg  组件类所在的包
+     * @return 如果可以生成子类，则返回true；否则返回false
+     */
+    private boolean isSubclassable(TypeElement type, String pkg) {
+        Set<Modifier> mods = type.getModifiers();
+        if (mods.contains(Modifier.FINAL) || mods.contains(Modifier.ABSTRACT) || !isAccessible(type, pkg)) {
+            return false;
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !mods.contains(Modifier.STATIC)) {
+            return false;
+        }
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            return false;
+        }
+        for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(type)) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annoType.getAnnotation(Inherited.class) != null && isAnnotated(annoType, COMPONENT, new HashSet<>())) {
+                return false;
+            }
+        }
+        return ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+    }
+
+    /**
+     * 检查方法是否为Object中声明的public方法，包括组件类重写的equals()、hashCode()和toString()，与Pointcut.isObjectMethod()一致
+     *
+     * @param type   组件类
+     * @param method 方法
+     * @return 如果是，则返回true；否则返回false
+     */
+    private boolean isObjectMethod(TypeElement type, ExecutableElement method) {
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement object = elements.getTypeElement(Object.class.getName());
+        for (ExecutableElement objectMethod : ElementFilter.methodsIn(object.getEnclosedElements())) {
+            if (objectMethod.getModifiers().contains(Modifier.PUBLIC)
+                    && (method.equals(objectMethod) || elements.overrides(method, objectMethod, type))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 检查元素是否直接（类包括从父类继承）标注了任意一个指定注解
+     *
+     * @param element   元素
+     * @param annoNames 注解类名
+     * @return 如果标注了，则返回true；否则返回false
+     */
+    private boolean hasAnyAnnotation(Element element, Set<String> annoNames) {
+        for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(element)) {
+            if (annoNames.contains(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 递归检查元素是否直接或通过元注解标注了指定注解，包括从父类继承（@Inherited）的注解
+     *
+     * @param element  要检查的元素
+     * @param annoName 注解类名
+     * @param visited  已访问过的注解类型，防止注解间相互引用导致的无限递归
+     * @return 如果标注了指定注解，则返回true；否则返回false
+     */
+    private boolean isAnnotated(Element element, String annoName, Set<String> visited) {
+        for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(element)) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            String name = annoType.getQualifiedName().toString();
+            if (annoName.equals(name)) {
+                return true;
+            }
+            if (!name.startsWith("java.lang.annotation.") && visited.add(name) && isAnnotated(annoType, annoName, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 检查元素在生成的代理类中能否直接访问：元素及其所有外部类均不是私有的，且为公共的或位于同一个包中
+     *
+     * @param element 类、字段或方法
+     * @param pkg     生成的代理类所在的包
+     * @return 如果可以直接访问，则返回true；否则返回false
+     */
+    private boolean isAccessible(Element element, String pkg) {
+        for (Element e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            Set<Modifier> mods = e.getModifiers();
+            if (mods.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!mods.contains(Modifier.PUBLIC) && !packageOf(e).equals(pkg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 检查类型在生成的代理类中能否直接访问
+     *
+     * @param type 类型
+     * @param pkg  生成的代理类所在的包
+     * @return 如果可以直接访问，则返回true；否则返回false
+     */
+    private boolean isAccessible(TypeMirror type, String pkg) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        return switch (erasure.getKind()) {
+            case ARRAY -> isAccessible(((ArrayType) erasure).getComponentType(), pkg);
+            case DECLARED -> isAccessible(((DeclaredType) erasure).asElement(), pkg);
+            default -> erasure.getKind().isPrimitive();
+        };
+    }
+
+    /**
+     * 获取类型擦除后在源码中的名称
+     *
+     * @param type 类型
+     * @return 类型名称
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        return switch (erasure.getKind()) {
+            case ARRAY -> typeName(((ArrayType) erasure).getComponentType()) + "[]";
+            case DECLARED -> ((TypeElement) ((DeclaredType) erasure).asElement()).getQualifiedName().toString();
+            default -> erasure.toString();
+        };
+    }
+
+    /**
+     * 生成把Object转换为指定类型的代码，基本类型转换为包装类型后自动拆箱
+     *
+     * @param type 类型
+     * @return 类型转换代码，转换为Object时为空字符串
+     */
+    private String cast(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            Types types = processingEnv.getTypeUtils();
+            return "(" + types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName() + ") ";
+        }
+        String name = typeName(type);
+        return "java.lang.Object".equals(name) ? "" : "(" + name + ") ";
+    }
+
+    /**
+     * 生成字符串字面量
+     *
+     * @param value 字符串
+     * @return 字符串字面量
+     */
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    /**
+     * 获取元素所在的包名
+     *
+     * @param element 元素
+     * @return 包名
+     */
+    private String packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+    }
+
+    /**
+     * 获取类的二进制名称
+     *
+     * @param type 类
+     * @return 二进制名称，嵌套类使用$分隔
+     */
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+}
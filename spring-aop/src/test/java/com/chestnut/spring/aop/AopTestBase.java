@@ -0,0 +1,26 @@
+package com.chestnut.spring.aop;
+
+import java.util.Map;
+import java.util.Properties;
+
+import com.chestnut.spring.io.PropertyResolver;
+
+/**
+ * AOP测试的基类，提供创建应用上下文所需的属性解析器
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+public class AopTestBase {
+
+    public PropertyResolver createPropertyResolver() {
+        return createPropertyResolver(Map.of());
+    }
+
+    public PropertyResolver createPropertyResolver(Map<String, String> properties) {
+        var ps = new Properties();
+        ps.putAll(properties);
+        var pr = new PropertyResolver(ps);
+        return pr;
+    }
+}
@@ -0,0 +1,16 @@
+package com.chestnut.spring.aop.advisor;
+
+import com.chestnut.spring.annotation.ComponentScan;
+import com.chestnut.spring.annotation.Configuration;
+
+/**
+ * 通知器测试的配置类
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+@Configuration
+@ComponentScan
+public class AdvisorApplication {
+
+}
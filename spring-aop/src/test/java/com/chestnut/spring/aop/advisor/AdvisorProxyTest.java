@@ -0,0 +1,88 @@
+package com.chestnut.spring.aop.advisor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.aop.AopTestBase;
+import com.chestnut.spring.aop.MethodInterceptor;
+import com.chestnut.spring.aop.MethodInvocation;
+import com.chestnut.spring.aop.ProxyResolver;
+import com.chestnut.spring.context.AnnotationConfigApplicationContext;
+import com.chestnut.spring.exception.AopConfigException;
+
+/**
+ * 多个注解代理Bean后处理器组合为一条拦截器链的测试，无论匹配多少个处理器都只生成一层代理
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+public class AdvisorProxyTest extends AopTestBase {
+
+    @Test
+    public void testSingleProxyChain() {
+        try (var ctx = new AnnotationConfigApplicationContext(AdvisorApplication.class, createPropertyResolver())) {
+            TransferService proxy = ctx.getBean(TransferService.class);
+            // one proxy level over the origin class:
+            assertSame(TransferService.class, proxy.getClass().getSuperclass());
+            // proxy.recorder not injected:
+            assertNull(proxy.recorder);
+            assertEquals(3, ProxyResolver.getInstance().getAdvisors(proxy).size());
+            TransferService origin = (TransferService) ProxyResolver.getInstance().getTarget(proxy);
+            assertSame(TransferService.class, origin.getClass());
+            assertNotNull(origin.recorder);
+
+            CallRecorder recorder = ctx.getBean(CallRecorder.class);
+            assertEquals(10, proxy.transfer(10));
+            // processor applied last runs first:
+            assertEquals(List.of("audit:transfer", "trace:transfer", "transfer"), recorder.calls);
+
+            recorder.calls.clear();
+            assertEquals(10, proxy.getTotal());
+            assertEquals("transfer", proxy.getName());
+            // only matching interceptors are called:
+            assertEquals(List.of("audit:getTotal"), recorder.calls);
+        }
+    }
+
+    @Test
+    public void testInvocationHandlerWithInterceptor() {
+        try (var ctx = new AnnotationConfigApplicationContext(AdvisorApplication.class, createPropertyResolver())) {
+            TransferService proxy = ctx.getBean(TransferService.class);
+            CallRecorder recorder = ctx.getBean(CallRecorder.class);
+            // the handler applied first is the last interceptor and calls the origin bean:
+            assertEquals(10, proxy.deposit(15));
+            assertEquals(List.of("trace:deposit", "round:deposit", "deposit"), recorder.calls);
+
+            recorder.calls.clear();
+            assertEquals(30, proxy.deposit(29));
+            assertEquals(List.of("trace:deposit", "round:deposit", "deposit"), recorder.calls);
+        }
+    }
+
+    @Test
+    public void testInvocationHandlerMustBeLast() {
+        InvocationHandler handler = (bean, method, args) -> method.invoke(bean, args);
+        MethodInterceptor interceptor = MethodInvocation::proceed;
+        // interceptor added later runs before the handler:
+        TransferService proxy = ProxyResolver.getInstance().createProxy(ProxyResolver.getInstance().createProxy(new TransferService(), handler), interceptor);
+        assertEquals(2, ProxyResolver.getInstance().getAdvisors(proxy).size());
+        // handler added later would skip the interceptor:
+        TransferService intercepted = ProxyResolver.getInstance().createProxy(new TransferService(), interceptor);
+        assertThrows(AopConfigException.class, () -> ProxyResolver.getInstance().createProxy(intercepted, handler));
+    }
+
+    @Test
+    public void testProxyClassReused() {
+        Class<?> proxyClass;
+        try (var ctx = new AnnotationConfigApplicationContext(AdvisorApplication.class, createPropertyResolver())) {
+            proxyClass = ctx.getBean(TransferService.class).getClass();
+        }
+        try (var ctx = new AnnotationConfigApplicationContext(AdvisorApplication.class, createPropertyResolver())) {
+            assertSame(proxyClass, ctx.getBean(TransferService.class).getClass());
+        }
+    }
+}
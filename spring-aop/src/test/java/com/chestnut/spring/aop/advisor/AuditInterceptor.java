@@ -0,0 +1,25 @@
+package com.chestnut.spring.aop.advisor;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.aop.MethodInterceptor;
+import com.chestnut.spring.aop.MethodInvocation;
+
+/**
+ * 记录审计调用的方法拦截器
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+@Component
+public class AuditInterceptor implements MethodInterceptor {
+
+    @Autowired
+    CallRecorder recorder;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        recorder.calls.add("audit:" + invocation.getMethod().getName());
+        return invocation.proceed();
+    }
+}
@@ -0,0 +1,24 @@
+package com.chestnut.spring.aop.advisor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 审计注解，指定处理被标注方法的拦截器名称
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface Audited {
+
+    String value();
+
+}
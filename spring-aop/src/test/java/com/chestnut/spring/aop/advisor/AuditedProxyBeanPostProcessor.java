@@ -0,0 +1,17 @@
+package com.chestnut.spring.aop.advisor;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Order;
+import com.chestnut.spring.aop.AnnotationProxyBeanPostProcessor;
+
+/**
+ * 标注了@Audited的代理处理类的后处理器
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+@Order(2)
+@Component
+public class AuditedProxyBeanPostProcessor extends AnnotationProxyBeanPostProcessor<Audited> {
+
+}
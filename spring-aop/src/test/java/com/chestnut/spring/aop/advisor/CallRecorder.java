@@ -0,0 +1,19 @@
+package com.chestnut.spring.aop.advisor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chestnut.spring.annotation.Component;
+
+/**
+ * 按顺序记录拦截器和原始方法的调用
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+@Component
+public class CallRecorder {
+
+    public final List<String> calls = new ArrayList<>();
+
+}
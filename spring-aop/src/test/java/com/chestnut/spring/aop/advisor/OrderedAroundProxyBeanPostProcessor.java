@@ -0,0 +1,18 @@
+package com.chestnut.spring.aop.advisor;
+
+import com.chestnut.spring.annotation.Around;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Order;
+import com.chestnut.spring.aop.AnnotationProxyBeanPostProcessor;
+
+/**
+ * 标注了@Around的代理处理类的后处理器，最先应用，因此@Around的调用处理器位于拦截器链末尾
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+@Order(0)
+@Component
+public class OrderedAroundProxyBeanPostProcessor extends AnnotationProxyBeanPostProcessor<Around> {
+
+}
@@ -0,0 +1,27 @@
+package com.chestnut.spring.aop.advisor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+/**
+ * 将金额向下取整到10的调用处理器，直接调用原始Bean的方法，因此须位于拦截器链末尾
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+@Component
+public class RoundingInvocationHandler implements InvocationHandler {
+
+    @Autowired
+    CallRecorder recorder;
+
+    @Override
+    public Object invoke(Object bean, Method method, Object[] args) throws Throwable {
+        recorder.calls.add("round:" + method.getName());
+        args[0] = (int) args[0] / 10 * 10;
+        return method.invoke(bean, args);
+    }
+}
@@ -0,0 +1,45 @@
+package com.chestnut.spring.aop.advisor;
+
+import com.chestnut.spring.annotation.Around;
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+/**
+ * 被多个注解代理的转账服务，各方法标注的注解不同
+ *
+ * @author: Chestnut
+ * @since: 2023-08-19
+ **/
+@Component
+public class TransferService {
+
+    @Autowired
+    public CallRecorder recorder;
+
+    int total = 0;
+
+    @Traced("traceInterceptor")
+    @Audited("auditInterceptor")
+    public int transfer(int amount) {
+        recorder.calls.add("transfer");
+        total += amount;
+        return total;
+    }
+
+    @Around("roundingInvocationHandler")
+    @Traced("traceInterceptor")
+    public int deposit(int amount) {
+        recorder.calls.add("deposit");
+        total += amount;
+        return total;
+    }
+
+    @Audited("auditInterceptor")
+    public int getTotal() {
+        return total;
+    }
+
+    public String getName() {
+        return "transfer";
+    }
+}
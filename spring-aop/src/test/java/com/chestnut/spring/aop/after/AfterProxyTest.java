@@ -2,14 +2,12 @@ package com.chestnut.spring.aop.after;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.Properties;
-
 import org.junit.jupiter.api.Test;
 
+import com.chestnut.spring.aop.AopTestBase;
 import com.chestnut.spring.context.AnnotationConfigApplicationContext;
-import com.chestnut.spring.io.PropertyResolver;
 
-public class AfterProxyTest {
+public class AfterProxyTest extends AopTestBase {
 
     @Test
     public void testAfterProxy() {
@@ -20,10 +18,4 @@ public class AfterProxyTest {
             assertEquals("Morning, Alice!", proxy.morning("Alice"));
         }
     }
-
-    PropertyResolver createPropertyResolver() {
-        var ps = new Properties();
-        var pr = new PropertyResolver(ps);
-        return pr;
-    }
 }
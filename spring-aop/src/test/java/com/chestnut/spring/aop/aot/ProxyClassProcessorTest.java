@@ -0,0 +1,191 @@
+package com.chestnut.spring.aop.aot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.annotation.Around;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.aop.MethodInterceptor;
+import com.chestnut.spring.aop.Pointcut;
+import com.chestnut.spring.aop.ProxyResolver;
+
+public class ProxyClassProcessorTest {
+
+    static final Map<String, String> SOURCES = Map.of(
+            "aot/app/BaseService.java", """
+                    package aot.app;
+                    public class BaseService<T> {
+                        public T echo(T value) {
+                            return value;
+                        }
+                    }
+                    """,
+            "aot/app/OrderService.java", """
+                    package aot.app;
+                    import com.chestnut.spring.annotation.*;
+                    import java.util.function.Function;
+                    @Component
+                    public class OrderService extends BaseService<String> implements Function<String, String> {
+                        String prefix = "order-";
+                        int count;
+                        @Around("countingInterceptor")
+                        public int place(int amount) {
+                            count += amount;
+                            return count;
+                        }
+                        @Around("countingInterceptor")
+                        public void check() throws java.io.IOException {
+                            throw new java.io.IOException(prefix);
+                        }
+                        public String apply(String id) {
+                            return prefix + id;
+                        }
+                    }
+                    """,
+            "aot/skipped/FinalService.java", """
+                    package aot.skipped;
+                    import com.chestnut.spring.annotation.*;
+                    @Component
+                    public final class FinalService {
+                        @Around("countingInterceptor")
+                        public String hello() {
+                            return "hello";
+                        }
+                    }
+                    """);
+
+    Path dir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("aot");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void generatedProxyUsedByResolver() throws Exception {
+        compile();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.resolve("classes").toUri().toURL() }, getClass().getClassLoader())) {
+            Object bean = loader.loadClass("aot.app.OrderService").getConstructor().newInstance();
+            List<String> invoked = new ArrayList<>();
+            MethodInterceptor interceptor = invocation -> {
+                invoked.add(invocation.getMethod().getName());
+                return invocation.proceed();
+            };
+            Object proxy = ProxyResolver.getInstance().createProxy(bean, interceptor, Pointcut.annotatedWith(Around.class));
+            // generated class, not a runtime generated hidden class:
+            assertEquals("aot.app.OrderService__Proxy", proxy.getClass().getName());
+            assertFalse(proxy.getClass().isHidden());
+            assertTrue(proxy instanceof GeneratedProxy);
+            assertSame(bean, ProxyResolver.getInstance().getTarget(proxy));
+
+            assertEquals(3, proxy.getClass().getMethod("place", int.class).invoke(proxy, 3));
+            assertEquals("order-1", ((Function<String, String>) proxy).apply("1"));
+            assertEquals("x", proxy.getClass().getMethod("echo", Object.class).invoke(proxy, "x"));
+            // checked exceptions are thrown as is:
+            var e = assertThrows(InvocationTargetException.class, () -> proxy.getClass().getMethod("check").invoke(proxy));
+            assertTrue(e.getCause() instanceof IOException);
+            assertEquals("order-", e.getCause().getMessage());
+            // only methods matched by the pointcut are intercepted:
+            assertEquals(List.of("place", "check"), invoked);
+
+            // only annotated methods go to the handler, others including Object's call the bean directly:
+            Method[] methods = (Method[]) proxy.getClass().getField(GeneratedProxy.METHODS_FIELD).get(null);
+            assertEquals(List.of("place", "check"), Stream.of(methods).map(Method::getName).toList());
+            assertEquals(bean.toString(), proxy.toString());
+            assertEquals(bean.hashCode(), proxy.hashCode());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void runtimeProxyForWiderPointcut() throws Exception {
+        compile();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.resolve("classes").toUri().toURL() }, getClass().getClassLoader())) {
+            Object bean = loader.loadClass("aot.app.OrderService").getConstructor().newInstance();
+            List<String> invoked = new ArrayList<>();
+            MethodInterceptor interceptor = invocation -> {
+                invoked.add(invocation.getMethod().getName());
+                return invocation.proceed();
+            };
+            Object proxy = ProxyResolver.getInstance().createProxy(bean, interceptor, Pointcut.nameMatches("apply"));
+            // generated class does not proxy apply(), proxy class generated at runtime:
+            assertNotEquals("aot.app.OrderService__Proxy", proxy.getClass().getName());
+            assertEquals("order-1", ((Function<String, String>) proxy).apply("1"));
+            assertEquals(List.of("apply"), invoked);
+        }
+    }
+
+    @Test
+    public void finalClassNotGenerated() throws Exception {
+        compile();
+        assertTrue(Files.exists(dir.resolve("generated/aot/app/OrderService__Proxy.java")));
+        assertFalse(Files.exists(dir.resolve("generated/aot/skipped/FinalService__Proxy.java")));
+        assertFalse(Files.exists(dir.resolve("generated/aot/app/CountingInterceptor__Proxy.java")));
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        compile(List.of());
+        assertFalse(Files.exists(dir.resolve("generated/aot/app/OrderService__Proxy.java")));
+    }
+
+    void compile() throws Exception {
+        compile(List.of("-A" + ProxyClassProcessor.AOT_OPTION + "=true"));
+    }
+
+    void compile(List<String> extraOptions) throws Exception {
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<String, String> entry : SOURCES.entrySet()) {
+            Path file = dir.resolve("src").resolve(entry.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, entry.getValue());
+            files.add(file.toFile());
+        }
+        Files.createDirectories(dir.resolve("classes"));
+        Files.createDirectories(dir.resolve("generated"));
+        // 类路径只包含框架本身，不依赖测试运行器的类路径
+        String classPath = Stream.of(ProxyClassProcessor.class, Component.class)
+                .map(c -> new File(c.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath())
+                .reduce((a, b) -> a + File.pathSeparator + b).orElseThrow();
+        List<String> options = new ArrayList<>(List.of("-cp", classPath, "-s", dir.resolve("generated").toString(), "-d", dir.resolve("classes").toString()));
+        options.addAll(extraOptions);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(List.of(new ProxyClassProcessor()));
+            assertTrue(task.call());
+        }
+    }
+}
@@ -2,14 +2,15 @@ package com.chestnut.spring.aop.around;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.Properties;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
+import com.chestnut.spring.aop.AopTestBase;
 import com.chestnut.spring.context.AnnotationConfigApplicationContext;
 import com.chestnut.spring.io.PropertyResolver;
 
-public class AroundProxyTest {
+public class AroundProxyTest extends AopTestBase {
 
     @Test
     public void testAroundProxy() {
@@ -33,10 +34,22 @@ public class AroundProxyTest {
         }
     }
 
-    PropertyResolver createPropertyResolver() {
-        var ps = new Properties();
-        ps.put("customer.name", "Bob");
-        var pr = new PropertyResolver(ps);
-        return pr;
+    @Test
+    public void testProxyClassReused() {
+        try (var first = new AnnotationConfigApplicationContext(AroundApplication.class, createPropertyResolver());
+             var second = new AnnotationConfigApplicationContext(AroundApplication.class, createPropertyResolver())) {
+            OriginBean proxy1 = first.getBean(OriginBean.class);
+            OriginBean proxy2 = second.getBean(OriginBean.class);
+            assertNotSame(proxy1, proxy2);
+            // one proxy class per target class, the bean and handler are bound per instance:
+            assertSame(proxy1.getClass(), proxy2.getClass());
+            assertEquals("Hello, Bob!", proxy1.hello());
+            assertEquals("Hello, Bob!", proxy2.hello());
+        }
+    }
+
+    @Override
+    public PropertyResolver createPropertyResolver() {
+        return createPropertyResolver(Map.of("customer.name", "Bob"));
     }
 }
@@ -2,14 +2,12 @@ package com.chestnut.spring.aop.before;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.Properties;
-
 import org.junit.jupiter.api.Test;
 
+import com.chestnut.spring.aop.AopTestBase;
 import com.chestnut.spring.context.AnnotationConfigApplicationContext;
-import com.chestnut.spring.io.PropertyResolver;
 
-public class BeforeProxyTest {
+public class BeforeProxyTest extends AopTestBase {
 
     @Test
     public void testBeforeProxy() {
@@ -18,12 +16,9 @@ public class BeforeProxyTest {
             // should print log:
             assertEquals("Hello, Bob.", proxy.hello("Bob"));
             assertEquals("Morning, Alice.", proxy.morning("Alice"));
+            // primitive return value and exception thrown by the origin method are passed through as is:
+            assertEquals(5, proxy.count("hello"));
+            assertThrows(IllegalArgumentException.class, () -> proxy.count(null));
         }
     }
-
-    PropertyResolver createPropertyResolver() {
-        var ps = new Properties();
-        var pr = new PropertyResolver(ps);
-        return pr;
-    }
 }
@@ -21,4 +21,11 @@ public class BusinessBean {
         logger.info("Morning, {}.", name);
         return "Morning, " + name + ".";
     }
+
+    public int count(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("text must not be null");
+        }
+        return text.length();
+    }
 }
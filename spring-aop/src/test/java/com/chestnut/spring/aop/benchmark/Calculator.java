@@ -0,0 +1,11 @@
+package com.chestnut.spring.aop.benchmark;
+
+public class Calculator {
+
+    int total;
+
+    public int add(int amount) {
+        total += amount;
+        return total;
+    }
+}
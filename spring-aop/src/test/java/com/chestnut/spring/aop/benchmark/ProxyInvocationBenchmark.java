@@ -0,0 +1,98 @@
+package com.chestnut.spring.aop.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.concurrent.TimeUnit;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.matcher.ElementMatchers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chestnut.spring.aop.MethodInterceptor;
+import com.chestnut.spring.aop.MethodInvocation;
+import com.chestnut.spring.aop.ProxyResolver;
+
+/**
+ * 代理方法调用的JMH基准测试：直接调用、最初的ByteBuddy InvocationHandlerAdapter代理（按Method分派）、
+ * InvocationHandler（经由dispatch()按下标分派，再经由Method.invoke()调用原始Bean）和MethodInterceptor（经由proceed()直接调用原始Bean）
+ * 运行方式：mvn -Pjmh -DskipTests test（3次fork，每次5轮预热、10轮测量）
+ *
+ * @author: Chestnut
+ * @since: 2023-08-17
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ProxyInvocationBenchmark {
+
+    Calculator plain;
+
+    Calculator adapter;
+
+    Calculator invocationHandler;
+
+    Calculator methodInterceptor;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        plain = new Calculator();
+        adapter = createAdapterProxy(new Calculator(), (bean, method, args) -> method.invoke(bean, args));
+        adapter.add(0);
+        invocationHandler = ProxyResolver.getInstance().createProxy(new Calculator(), (InvocationHandler) (bean, method, args) -> method.invoke(bean, args));
+        invocationHandler.add(0);
+        methodInterceptor = ProxyResolver.getInstance().createProxy(new Calculator(), (MethodInterceptor) MethodInvocation::proceed);
+        methodInterceptor.add(0);
+    }
+
+    @Benchmark
+    public int plainCall() {
+        return plain.add(1);
+    }
+
+    @Benchmark
+    public int invocationHandlerAdapter() {
+        return adapter.add(1);
+    }
+
+    @Benchmark
+    public int invocationHandler() {
+        return invocationHandler.add(1);
+    }
+
+    @Benchmark
+    public int methodInterceptor() {
+        return methodInterceptor.add(1);
+    }
+
+    /**
+     * 按最初的ProxyResolver创建代理：所有public方法经由ByteBuddy的InvocationHandlerAdapter交给调用处理器，每次调用按Method分派
+     *
+     * @param bean    原始Bean
+     * @param handler 调用处理器，第一个参数为原始Bean
+     * @return 代理对象
+     */
+    static Calculator createAdapterProxy(Calculator bean, InvocationHandler handler) throws ReflectiveOperationException {
+        Class<? extends Calculator> proxyClass = new ByteBuddy()
+                .subclass(Calculator.class, ConstructorStrategy.Default.DEFAULT_CONSTRUCTOR)
+                .method(ElementMatchers.isPublic())
+                .intercept(InvocationHandlerAdapter.of((proxy, method, args) -> handler.invoke(bean, method, args)))
+                .make()
+                .load(Calculator.class.getClassLoader())
+                .getLoaded();
+        return proxyClass.getConstructor().newInstance();
+    }
+}
@@ -2,14 +2,12 @@ package com.chestnut.spring.aop.metric;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.Properties;
-
 import org.junit.jupiter.api.Test;
 
+import com.chestnut.spring.aop.AopTestBase;
 import com.chestnut.spring.context.AnnotationConfigApplicationContext;
-import com.chestnut.spring.io.PropertyResolver;
 
-public class MetricProxyTest {
+public class MetricProxyTest extends AopTestBase {
 
     @Test
     public void testMetricProxy() {
@@ -35,10 +33,4 @@ public class MetricProxyTest {
             assertNull(metrics.lastProcessedTime.get("SHA-1"));
         }
     }
-
-    PropertyResolver createPropertyResolver() {
-        var ps = new Properties();
-        var pr = new PropertyResolver(ps);
-        return pr;
-    }
 }
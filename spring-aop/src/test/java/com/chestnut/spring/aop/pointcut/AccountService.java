@@ -0,0 +1,33 @@
+package com.chestnut.spring.aop.pointcut;
+
+import com.chestnut.spring.annotation.Around;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Value;
+
+@Component
+public class AccountService {
+
+    @Value("${account.owner}")
+    public String owner;
+
+    int balance = 100;
+
+    @Around("countingInterceptor")
+    public int withdraw(int amount) {
+        balance -= amount;
+        return balance;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public int getBalance() {
+        return balance;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountService[" + owner + "]";
+    }
+}
@@ -0,0 +1,20 @@
+package com.chestnut.spring.aop.pointcut;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.aop.MethodInterceptor;
+import com.chestnut.spring.aop.MethodInvocation;
+
+@Component
+public class CountingInterceptor implements MethodInterceptor {
+
+    public final List<String> invoked = new ArrayList<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        invoked.add(invocation.getMethod().getName());
+        return invocation.proceed();
+    }
+}
@@ -0,0 +1,16 @@
+package com.chestnut.spring.aop.pointcut;
+
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.ComponentScan;
+import com.chestnut.spring.annotation.Configuration;
+import com.chestnut.spring.aop.AroundProxyBeanPostProcessor;
+
+@Configuration
+@ComponentScan
+public class PointcutApplication {
+
+    @Bean
+    AroundProxyBeanPostProcessor createAroundProxyBeanPostProcessor() {
+        return new AroundProxyBeanPostProcessor();
+    }
+}
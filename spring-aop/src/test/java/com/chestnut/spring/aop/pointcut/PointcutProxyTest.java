@@ -0,0 +1,58 @@
+package com.chestnut.spring.aop.pointcut;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.annotation.Around;
+import com.chestnut.spring.aop.AopTestBase;
+import com.chestnut.spring.aop.Pointcut;
+import com.chestnut.spring.context.AnnotationConfigApplicationContext;
+import com.chestnut.spring.io.PropertyResolver;
+
+public class PointcutProxyTest extends AopTestBase {
+
+    @Test
+    public void testMethodLevelAdvice() {
+        try (var ctx = new AnnotationConfigApplicationContext(PointcutApplication.class, createPropertyResolver())) {
+            AccountService proxy = ctx.getBean(AccountService.class);
+            // proxy class, not origin class:
+            assertNotSame(AccountService.class, proxy.getClass());
+            // proxy.owner not injected:
+            assertNull(proxy.owner);
+
+            assertEquals(70, proxy.withdraw(30));
+            // not advised methods are called on the origin bean directly:
+            assertEquals("Bob", proxy.getOwner());
+            assertEquals(70, proxy.getBalance());
+            assertEquals("AccountService[Bob]", proxy.toString());
+
+            CountingInterceptor interceptor = ctx.getBean(CountingInterceptor.class);
+            assertEquals(List.of("withdraw"), interceptor.invoked);
+        }
+    }
+
+    @Test
+    public void testPointcuts() throws Exception {
+        Pointcut getters = Pointcut.nameMatches("get*");
+        assertTrue(getters.matches(AccountService.class, AccountService.class.getMethod("getOwner")));
+        assertFalse(getters.matches(AccountService.class, AccountService.class.getMethod("withdraw", int.class)));
+        assertTrue(getters.negate().matches(AccountService.class, AccountService.class.getMethod("withdraw", int.class)));
+
+        Pointcut annotated = Pointcut.annotatedWith(Around.class);
+        assertTrue(annotated.matches(AccountService.class, AccountService.class.getMethod("withdraw", int.class)));
+        assertFalse(annotated.matches(AccountService.class, AccountService.class.getMethod("getOwner")));
+        assertFalse(annotated.and(getters).matches(AccountService.class, AccountService.class.getMethod("withdraw", int.class)));
+        // pointcuts are compared by value to share proxy classes:
+        assertEquals(Pointcut.nameMatches("get*"), getters);
+        assertTrue(Pointcut.isObjectMethod(AccountService.class.getMethod("toString")));
+    }
+
+    @Override
+    public PropertyResolver createPropertyResolver() {
+        return createPropertyResolver(Map.of("account.owner", "Bob"));
+    }
+}
@@ -0,0 +1,25 @@
+package com.chestnut.spring.aop.scope;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Scope;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Scope(Scope.REQUEST)
+public class RequestVisitor {
+
+    static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    final int id = SEQUENCE.incrementAndGet();
+
+    int visits = 0;
+
+    public int getId() {
+        return id;
+    }
+
+    public int visit() {
+        return ++visits;
+    }
+}
@@ -0,0 +1,36 @@
+package com.chestnut.spring.aop.scope;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.aop.AopTestBase;
+import com.chestnut.spring.context.AnnotationConfigApplicationContext;
+import com.chestnut.spring.context.ScopedInstances;
+
+public class ScopedProxyTest extends AopTestBase {
+
+    @Test
+    public void testScopedProxy() {
+        try (var ctx = new AnnotationConfigApplicationContext(ScopeApplication.class, createPropertyResolver())) {
+            VisitorController controller = ctx.getBean(VisitorController.class);
+            RequestVisitor proxy = controller.visitor;
+            // proxy class, not origin class:
+            assertNotSame(RequestVisitor.class, proxy.getClass());
+            assertSame(proxy, ctx.getBean(RequestVisitor.class));
+
+            int first;
+            try (ScopedInstances scope = ctx.openRequestScope()) {
+                first = proxy.getId();
+                assertEquals(1, proxy.visit());
+                assertEquals(2, proxy.visit());
+                assertEquals(first, proxy.getId());
+            }
+            try (ScopedInstances scope = ctx.openRequestScope()) {
+                // new request, new instance:
+                assertNotEquals(first, proxy.getId());
+                assertEquals(1, proxy.visit());
+            }
+        }
+    }
+}
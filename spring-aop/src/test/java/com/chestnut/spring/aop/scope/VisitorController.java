@@ -0,0 +1,14 @@
+package com.chestnut.spring.aop.scope;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+@Component
+public class VisitorController {
+
+    public RequestVisitor visitor;
+
+    public VisitorController(@Autowired RequestVisitor visitor) {
+        this.visitor = visitor;
+    }
+}
@@ -1,12 +1,18 @@
 package com.chestnut.spring.boot;
 
+import com.chestnut.spring.context.ApplicationContextUtils;
+import com.chestnut.spring.context.ConfigurableApplicationContext;
+import com.chestnut.spring.exception.BeanCreationException;
 import com.chestnut.spring.io.PropertyResolver;
 import com.chestnut.spring.utils.ClassPathUtils;
 import com.chestnut.spring.utils.YamlUtils;
 import com.chestnut.spring.web.ContextLoaderInitializer;
 import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
 import org.apache.catalina.Server;
+import org.apache.catalina.Service;
 import org.apache.catalina.WebResourceRoot;
+import org.apache.catalina.connector.Connector;
 import org.apache.catalina.startup.Tomcat;
 import org.apache.catalina.webresources.DirResourceSet;
 import org.apache.catalina.webresources.StandardRoot;
@@ -21,6 +27,8 @@ import java.nio.file.Paths;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Spring应用程序启动类
@@ -41,6 +49,10 @@ public class SpringApplication {
      * 应用配置属性
      */
     private static final String CONFIG_APP_PROP = "/application.properties";
+    /**
+     * Tomcat服务器是否已停止，关闭钩子和主线程都可能触发停止
+     */
+    private final AtomicBoolean stopped = new AtomicBoolean();
 
     /**
      * 启动应用
@@ -78,6 +90,8 @@ public class SpringApplication {
         PropertyResolver propertyResolver = createPropertyResolver();
         // 启动Tomcat服务器
         Server server = startTomcat(webDir, baseDir, configClass, propertyResolver);
+        // 收到终止信号时优雅停止Tomcat服务器
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> stopTomcat(server), "spring-shutdown"));
         // 记录启动信息
         final long endTime = System.currentTimeMillis();
         final String appTime = String.format("%.3f", (endTime - startTime) / 1000.0);
@@ -85,6 +99,32 @@ public class SpringApplication {
         logger.info("Started {} in {} seconds (process running for {})", configClass.getSimpleName(), appTime, jvmTime);
 
         server.await();
+        stopTomcat(server);
+    }
+
+    /**
+     * 优雅停止Tomcat服务器
+     * 先暂停所有连接器，不再接收新请求；再停止服务器，DispatcherServlet在销毁时等待处理中的请求完成后关闭容器，容器按依赖关系的逆序销毁Bean
+     *
+     * @param server Tomcat服务器实例
+     */
+    protected void stopTomcat(Server server) {
+        if (!this.stopped.compareAndSet(false, true)) {
+            return;
+        }
+        logger.info("stopping Tomcat...");
+        for (Service service : server.findServices()) {
+            for (Connector connector : service.findConnectors()) {
+                connector.pause();
+            }
+        }
+        try {
+            server.stop();
+            server.destroy();
+            logger.info("Tomcat stopped.");
+        } catch (LifecycleException e) {
+            logger.warn("Failed to stop Tomcat.", e);
+        }
     }
 
     /**
@@ -103,14 +143,30 @@ public class SpringApplication {
         Tomcat tomcat = new Tomcat();
         tomcat.setBaseDir(Paths.get(System.getProperty("user.home")).resolve(".tomcat").toString());
         tomcat.setPort(port);
-        tomcat.getConnector().setThrowOnFailure(true);
+        // 连接器在容器就绪之后才启动，先从服务中移除，避免在后台初始化完成之前接收请求
+        Connector connector = tomcat.getConnector();
+        connector.setThrowOnFailure(true);
+        tomcat.getService().removeConnector(connector);
         Context ctx = tomcat.addWebapp("", new File(webDir).getAbsolutePath());
         WebResourceRoot resources = new StandardRoot(ctx);
         // 添加WEB-INF/classes目录到资源路径，以便加载应用的类文件
         resources.addPreResources(new DirResourceSet(resources, "/WEB-INF/classes", new File(baseDir).getAbsolutePath(), "/"));
         ctx.setResources(resources);
         ctx.addServletContainerInitializer(new ContextLoaderInitializer(configClass, propertyResolver), Set.of());
-        tomcat.start();
+        try {
+            tomcat.start();
+            // 等待所有@AsyncInit Bean完成初始化后再启动连接器
+            long readyTimeout = propertyResolver.getProperty("${spring.context.async-init.timeout:60000}", long.class);
+            ConfigurableApplicationContext applicationContext = (ConfigurableApplicationContext) ApplicationContextUtils.getRequiredApplicationContext();
+            if (!applicationContext.awaitReady(readyTimeout, TimeUnit.MILLISECONDS)) {
+                throw new BeanCreationException("Application context not ready after " + readyTimeout + " ms.");
+            }
+            tomcat.getService().addConnector(connector);
+        } catch (Exception | Error e) {
+            // 启动失败时停止并销毁已启动的服务器，其中的容器随之关闭，不留下仍在运行的Tomcat
+            stopTomcat(tomcat.getServer());
+            throw e;
+        }
         logger.info("Tomcat started at port {}...", port);
         return tomcat.getServer();
     }
@@ -135,6 +191,7 @@ public class SpringApplication {
             // 尝试加载application.yml
             Map<String, Object> ymlMap = YamlUtils.loadYamlAsPlainMap(CONFIG_APP_YAML);
             logger.info("load config: {}", CONFIG_APP_YAML);
+            // 列表中的元素已按下标展开为字符串，列表本身不作为属性值
             for (String key : ymlMap.keySet()) {
                 Object value = ymlMap.get(key);
                 if (value instanceof String strValue) {
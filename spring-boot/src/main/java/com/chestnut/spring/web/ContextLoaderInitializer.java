@@ -2,7 +2,6 @@ package com.chestnut.spring.web;
 
 import com.chestnut.spring.context.AnnotationConfigApplicationContext;
 import com.chestnut.spring.context.ApplicationContext;
-import com.chestnut.spring.context.ApplicationContextUtils;
 import com.chestnut.spring.io.PropertyResolver;
 import jakarta.servlet.*;
 import org.slf4j.Logger;
@@ -65,18 +64,18 @@ public class ContextLoaderInitializer implements ServletContainerInitializer {
         logger.info("Application context created: {}", applicationContext);
 
         // 配置过滤器和调度器
-        registerFilters(ctx);
-        registerDispatcherServlet(ctx, this.propertyResolver);
+        registerFilters(ctx, applicationContext);
+        registerDispatcherServlet(ctx, applicationContext, this.propertyResolver);
 
     }
 
     /**
      * 在Servlet容器中注册过滤器
      *
-     * @param servletContext Servlet上下文对象，用于注册Filter
+     * @param servletContext     Servlet上下文对象，用于注册Filter
+     * @param applicationContext 应用程序上下文
      */
-    private void registerFilters(ServletContext servletContext) {
-        ApplicationContext applicationContext = ApplicationContextUtils.getRequiredApplicationContext();
+    private void registerFilters(ServletContext servletContext, ApplicationContext applicationContext) {
         // 遍历所有 FilterRegistrationBean 类型的 bean，这些 bean 是在 Spring 配置中定义的过滤器
         for (FilterRegistrationBean filterRegBean : applicationContext.getBeans(FilterRegistrationBean.class)) {
             // 获取过滤器的 URL 模式列表
@@ -96,11 +95,11 @@ public class ContextLoaderInitializer implements ServletContainerInitializer {
     /**
      * 在Servlet容器中注册调度器
      *
-     * @param servletContext   Servlet上下文对象，用于注册Servlet
-     * @param propertyResolver 用于解析Servlet配置属性的PropertyResolver
+     * @param servletContext     Servlet上下文对象，用于注册Servlet
+     * @param applicationContext 应用程序上下文
+     * @param propertyResolver   用于解析Servlet配置属性的PropertyResolver
      */
-    private void registerDispatcherServlet(ServletContext servletContext, PropertyResolver propertyResolver) {
-        ApplicationContext applicationContext = ApplicationContextUtils.getRequiredApplicationContext();
+    private void registerDispatcherServlet(ServletContext servletContext, ApplicationContext applicationContext, PropertyResolver propertyResolver) {
         // 获取 DispatcherServlet 实例
         DispatcherServlet dispatcherServlet = new DispatcherServlet(applicationContext, propertyResolver);
         logger.info("register servlet {} for URL '/'", dispatcherServlet.getClass().getName());
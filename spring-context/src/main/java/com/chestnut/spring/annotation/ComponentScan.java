@@ -10,4 +10,33 @@ public @interface ComponentScan {
      * Package names to scan. Default to current package.
      */
     String[] value() default {};
+
+    /**
+     * If not empty, only @Component classes matching at least one of these filters are registered.
+     */
+    Filter[] includeFilters() default {};
+
+    /**
+     * @Component classes matching any of these filters are not registered.
+     */
+    Filter[] excludeFilters() default {};
+
+    @Target({})
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Filter {
+        /**
+         * How classes and patterns are matched.
+         */
+        FilterType type() default FilterType.ANNOTATION;
+
+        /**
+         * Annotation types or assignable types, for ANNOTATION and ASSIGNABLE_TYPE.
+         */
+        Class<?>[] classes() default {};
+
+        /**
+         * Class name patterns, for REGEX and ANT.
+         */
+        String[] pattern() default {};
+    }
 }
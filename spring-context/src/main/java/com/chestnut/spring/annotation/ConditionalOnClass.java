@@ -0,0 +1,13 @@
+package com.chestnut.spring.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnClass {
+    /**
+     * Fully qualified class names that must be present on the classpath.
+     */
+    String[] value();
+}
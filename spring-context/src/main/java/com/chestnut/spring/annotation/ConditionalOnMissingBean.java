@@ -0,0 +1,13 @@
+package com.chestnut.spring.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnMissingBean {
+    /**
+     * Bean types that must not be defined. Default to the type of the annotated bean.
+     */
+    Class<?>[] value() default {};
+}
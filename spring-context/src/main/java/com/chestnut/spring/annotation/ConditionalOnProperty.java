@@ -0,0 +1,23 @@
+package com.chestnut.spring.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnProperty {
+    /**
+     * Property name.
+     */
+    String name();
+
+    /**
+     * Expected value, case-insensitive. Default to any value except "false".
+     */
+    String havingValue() default "";
+
+    /**
+     * Whether the condition matches if the property is not set.
+     */
+    boolean matchIfMissing() default false;
+}
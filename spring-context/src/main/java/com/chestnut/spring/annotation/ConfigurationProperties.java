@@ -0,0 +1,13 @@
+package com.chestnut.spring.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConfigurationProperties {
+    /**
+     * Prefix of the properties to bind, e.g. "app.datasource".
+     */
+    String prefix();
+}
@@ -0,0 +1,13 @@
+package com.chestnut.spring.annotation;
+
+import java.lang.annotation.*;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventListener {
+    /**
+     * Deliver events on the context's async event thread instead of the publishing thread.
+     */
+    boolean async() default false;
+}
@@ -0,0 +1,21 @@
+package com.chestnut.spring.annotation;
+
+public enum FilterType {
+    /**
+     * Class annotated, directly or via meta-annotations, with one of the given annotations.
+     */
+    ANNOTATION,
+    /**
+     * Class assignable to one of the given types.
+     */
+    ASSIGNABLE_TYPE,
+    /**
+     * Fully qualified class name matching one of the given regular expressions.
+     */
+    REGEX,
+    /**
+     * Fully qualified class name matching one of the given ant-style patterns,
+     * where "*" matches within a package segment and "**" matches across packages, e.g. "com.example.**.dto.*".
+     */
+    ANT
+}
@@ -0,0 +1,13 @@
+package com.chestnut.spring.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Pooled {
+    /**
+     * Max idle instances kept in the pool.
+     */
+    int max() default 8;
+}
@@ -0,0 +1,30 @@
+package com.chestnut.spring.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Scope {
+    /**
+     * Single shared instance per container.
+     */
+    String SINGLETON = "singleton";
+    /**
+     * New instance on each lookup or injection.
+     */
+    String PROTOTYPE = "prototype";
+    /**
+     * One instance per request, injected into singletons as a scoped proxy.
+     */
+    String REQUEST = "request";
+    /**
+     * One instance per thread, injected into singletons as a scoped proxy.
+     */
+    String THREAD = "thread";
+
+    /**
+     * The scope name.
+     */
+    String value() default SINGLETON;
+}
@@ -1,9 +1,20 @@
 package com.chestnut.spring.context;
 
 import com.chestnut.spring.annotation.*;
+import com.chestnut.spring.annotation.EventListener;
+import com.chestnut.spring.context.InjectionPlan.InjectionPoint;
+import com.chestnut.spring.context.aot.BeanResolver;
+import com.chestnut.spring.context.aot.GeneratedBean;
+import com.chestnut.spring.context.aot.GeneratedBeanFactory;
+import com.chestnut.spring.context.event.*;
+import com.chestnut.spring.context.index.ComponentIndex;
 import com.chestnut.spring.exception.*;
+import com.chestnut.spring.io.ClassMetadata;
+import com.chestnut.spring.io.ClassMetadataReader;
+import com.chestnut.spring.io.PropertyBinder;
 import com.chestnut.spring.io.PropertyResolver;
 import com.chestnut.spring.io.ResourceResolver;
+import com.chestnut.spring.utils.ClassPathUtils;
 import com.chestnut.spring.utils.ClassUtils;
 import jakarta.annotation.Nullable;
 import jakarta.annotation.PostConstruct;
@@ -11,9 +22,21 @@ import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -40,22 +63,147 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      * 属性解析器，用于解析属性配置
      */
     protected final PropertyResolver propertyResolver;
+    /**
+     * 父上下文，在当前上下文中找不到的Bean从父上下文中查找，为null时为根上下文
+     */
+    @Nullable
+    private final AnnotationConfigApplicationContext parent;
+    /**
+     * 配置类及扫描设置到组件扫描结果的缓存，由根上下文创建并被所有子上下文共享，使用相同配置类和扫描设置的子上下文无需再次扫描类路径
+     */
+    private final Map<ScanKey, SortedSet<String>> scanResults;
+    /**
+     * 属性绑定器，用于创建和绑定@ConfigurationProperties Bean
+     */
+    private final PropertyBinder propertyBinder;
+    /**
+     * 条件注解求值器，在创建Bean定义时使用
+     */
+    private final ConditionEvaluator conditionEvaluator;
+    /**
+     * 因不满足条件而未注册的Bean名称到原因的映射，并行创建Bean定义时会被多个线程同时写入
+     */
+    private final Map<String, String> skippedBeans = new ConcurrentHashMap<>();
+    /**
+     * 标注了@ConditionalOnMissingBean的Bean名称到检查类型的映射，在所有Bean定义创建完成后求值
+     */
+    private final Map<String, Class<?>[]> missingBeanConditions = new ConcurrentHashMap<>();
     /**
      * 字符串到Bean定义的映射表
      * 用于存储通过注解配置的所有Bean定义，键为Bean的名称，值为对应的BeanDefinition对象
+     * 刷新完成后替换为不可变映射，之后的查找均为无锁读取
+     */
+    protected volatile Map<String, BeanDefinition> beans;
+    /**
+     * Bean类型索引，在Bean定义确定后构建，用于按类型查找Bean定义
+     */
+    private volatile BeanTypeIndex typeIndex = BeanTypeIndex.EMPTY;
+    /**
+     * Bean声明类型到注入计划的缓存，刷新完成后清空，之后只缓存延迟Bean的注入计划
      */
-    protected final Map<String, BeanDefinition> beans;
+    private volatile Map<Class<?>, InjectionPlan> injectionPlans = new ConcurrentHashMap<>();
     /**
      * 后处理器列表，后处理器用于替换Bean
      * 在Bean创建过程中，会调用这些后处理器对Bean进行额外的处理，以满足特定需求
      */
-    private List<BeanPostProcessor> beanPostProcessors = new ArrayList<>();
+    private volatile List<BeanPostProcessor> beanPostProcessors = List.of();
+    /**
+     * 逆序的后处理器列表，用于还原被代理的原始Bean
+     */
+    private volatile List<BeanPostProcessor> reversedBeanPostProcessors = List.of();
     /**
      * 跟踪当前正在创建的所有Bean的名称，以检测循环依赖
      * 当一个Bean正在创建时，它的名称会被添加到这个集合中。
      * 如果在创建Bean的过程中发现同一个Bean正在被递归创建，就表示存在循环依赖，将抛出异常。
+     * 并行刷新时会被多个线程同时修改，刷新完成后替换为空集合
+     */
+    private volatile Set<String> creatingBeanNames = ConcurrentHashMap.newKeySet();
+    /**
+     * 启动时间线，记录刷新各阶段以及每个Bean的耗时
+     */
+    private final StartupTimeline startupTimeline = new StartupTimeline();
+    /**
+     * 已创建的单例Bean名称到其依赖的Bean名称的映射，在释放创建元数据之前记录，关闭时按依赖关系的逆序销毁
+     */
+    private final Map<String, List<String>> beanDependencies = new ConcurrentHashMap<>();
+    /**
+     * 在启动时创建的@AsyncInit Bean名称到其后台初始化结果的映射，刷新前预先登记，依赖方据此等待
+     */
+    private final Map<String, CompletableFuture<Void>> asyncInits = new ConcurrentHashMap<>();
+    /**
+     * 执行@AsyncInit Bean初始化方法的线程池，没有@AsyncInit Bean时为null，全部完成后关闭
+     */
+    @Nullable
+    private ExecutorService asyncInitExecutor;
+    /**
+     * 所有@AsyncInit Bean初始化完成的屏障，在初始化阶段结束时创建
+     */
+    private volatile CompletableFuture<Void> readiness;
+    /**
+     * 延迟到首次获取时创建的Bean名称，不包括被非延迟Bean依赖的@Lazy Bean
      */
-    private Set<String> creatingBeanNames = new HashSet<>();
+    private final Set<String> lazyBeanNames;
+    /**
+     * 已完成创建、注入和初始化的延迟Bean，其他线程只能从这里获取延迟创建的Bean
+     */
+    private final Map<String, Object> lazySingletons = new ConcurrentHashMap<>();
+    /**
+     * 延迟创建Bean时持有的锁，同一时刻只有一个线程创建延迟Bean，避免相互依赖的延迟Bean在不同线程中死锁
+     */
+    private final Object lazyLock = new Object();
+    /**
+     * @Pooled原型Bean名称到对象池的映射，在Bean定义确定后构建
+     */
+    private final Map<String, BeanPool> beanPools;
+    /**
+     * 当前线程中正在创建的原型Bean名称，以检测原型Bean之间的循环依赖
+     * 同一个原型Bean可以在多个线程中同时创建，因此不使用creatingBeanNames
+     */
+    private final ThreadLocal<Set<String>> creatingPrototypeNames = ThreadLocal.withInitial(HashSet::new);
+    /**
+     * 按下标排列的request作用域Bean定义，长度即每个请求中实例数组的长度
+     */
+    private final BeanDefinition[] requestScopedDefinitions;
+    /**
+     * thread作用域的Bean数量，即每个线程中实例数组的长度
+     */
+    private final int threadScopeSize;
+    /**
+     * 绑定到当前线程的请求中的request作用域实例
+     */
+    private final ThreadLocal<ScopedInstances> requestInstances = new ThreadLocal<>();
+    /**
+     * 当前线程中的thread作用域实例，随线程结束而回收，不调用销毁方法
+     */
+    private final ThreadLocal<ScopedInstances> threadInstances = ThreadLocal.withInitial(this::createThreadInstances);
+    /**
+     * request和thread作用域Bean名称到作用域代理的映射，代理在首次获取或注入时创建
+     */
+    private final Map<String, Object> scopedProxies = new ConcurrentHashMap<>();
+    /**
+     * 为声明类型为类的作用域Bean创建代理的工厂，首次需要时通过ServiceLoader加载
+     */
+    private volatile ScopedProxyFactory scopedProxyFactory;
+    /**
+     * 事件分发器，刷新完成后创建，之前为null
+     */
+    private volatile ApplicationEventMulticaster eventMulticaster;
+    /**
+     * 刷新完成前发布的事件，在事件分发器创建后分发
+     */
+    private final List<Object> earlyEvents = new ArrayList<>();
+    /**
+     * 容器冻结后自身占用的内存估算
+     */
+    private volatile ContextFootprint footprint;
+    /**
+     * 是否已开始冻结，后台初始化完成时据此决定由谁释放创建元数据
+     */
+    private volatile boolean frozen;
+    /**
+     * 是否已关闭，重复调用close()时只有第一次生效
+     */
+    private final AtomicBoolean closed = new AtomicBoolean();
 
     /**
      * 创建一个AnnotationConfigApplicationContext实例
@@ -79,25 +227,98 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      * @param propertyResolver 属性解析器，用于解析属性配置，可以用于配置Bean的属性值
      */
     public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver) {
-        // 设置应用程序上下文
-        ApplicationContextUtils.setApplicationContext(this);
+        this(null, configClass, propertyResolver);
+    }
+
+    /**
+     * 创建一个以parent为父上下文的AnnotationConfigApplicationContext实例
+     * <p>
+     * 子上下文只创建配置类扫描到的Bean，其中未满足的依赖从父上下文中解析，父上下文中的Bean不会被重复创建；
+     * 父上下文必须已刷新完成（即已冻结）且未关闭，其Bean定义不再变化，因此可以被多个子上下文同时使用。
+     * 使用相同配置类的子上下文复用根上下文中缓存的扫描结果，关闭子上下文只销毁子上下文自身的Bean。
+     *
+     * @param parent           父上下文，为null时创建根上下文
+     * @param configClass      配置类
+     * @param propertyResolver 属性解析器，子上下文可以使用与父上下文不同的属性
+     */
+    public AnnotationConfigApplicationContext(@Nullable AnnotationConfigApplicationContext parent, Class<?> configClass, PropertyResolver propertyResolver) {
+        if (parent != null && (parent.footprint == null || parent.closed.get())) {
+            throw new IllegalArgumentException("Parent context must be refreshed and not closed: " + parent);
+        }
+        this.parent = parent;
+        this.scanResults = parent == null ? new ConcurrentHashMap<>() : parent.scanResults;
+        // 设置应用程序上下文，子上下文只在创建和获取Bean期间绑定到当前线程，不替换默认上下文
+        if (parent == null) {
+            ApplicationContextUtils.setApplicationContext(this);
+        }
 
         // 将传入的属性解析器赋值给当前对象的 propertyResolver 成员变量
         this.propertyResolver = propertyResolver;
+        this.propertyBinder = new PropertyBinder(propertyResolver);
+        this.conditionEvaluator = new ConditionEvaluator(propertyResolver, getClass().getClassLoader());
+
+        // 编译期为配置类生成的 Bean 工厂，存在时无需扫描其所在的类路径根目录
+        final GeneratedBeanFactory generatedFactory = loadGeneratedBeanFactory(configClass);
+        if (generatedFactory != null) {
+            long phaseStart = System.nanoTime();
+            // Bean 工厂只包含与其一起编译的组件，其他根目录（例如其他JAR）中的组件仍需扫描
+            final String factoryRoot = getClassPathRoot(generatedFactory.getClass());
+            final Set<String> uncoveredClassNames = this.scanResults.computeIfAbsent(createScanKey(configClass),
+                    key -> Collections.unmodifiableSortedSet(new TreeSet<>(scanForClassNames(configClass, null, root -> !root.equals(factoryRoot)))));
+            this.startupTimeline.recordPhase("scan", phaseStart);
+            phaseStart = System.nanoTime();
+            this.beans = new ConcurrentHashMap<>(createBeanDefinitions(generatedFactory, uncoveredClassNames));
+            this.typeIndex = new BeanTypeIndex(this.beans.values());
+            this.startupTimeline.recordPhase("definition", phaseStart);
+        } else {
+            // 扫描配置类 configClass 中的所有 Bean 类的类名
+            // 并行扫描模式下使用的线程池，扫描和创建 Bean 定义后即关闭
+            final ForkJoinPool scanPool = createScanPool();
+            try {
+                long phaseStart = System.nanoTime();
+                // 扫描结果只取决于配置类、扫描设置和类路径，同一配置类在相同设置下只扫描一次，缓存的结果保持类名顺序
+                final Set<String> beanClassNames = this.scanResults.computeIfAbsent(createScanKey(configClass),
+                        key -> Collections.unmodifiableSortedSet(new TreeSet<>(scanForClassNames(configClass, scanPool))));
+                this.startupTimeline.recordPhase("scan", phaseStart);
+
+                // 此时所有 要加载的类 均已知
 
-        // 扫描配置类 configClass 中的所有 Bean 类的类名
-        final Set<String> beanClassNames = scanForClassNames(configClass);
+                // 创建所有 Bean 的定义
+                // 对于 @Component 定义的Bean，名称为注解指定的 value 或 小驼峰(类名)，声明类型为Class本身
+                // 对于 @Bean 定义的Bean，名称为注解指定的 value 或 方法名，声明类型为@Bean方法签名中的返回值类型
+                // 并行刷新时会被多个线程同时读取
+                phaseStart = System.nanoTime();
+                this.beans = new ConcurrentHashMap<>(createBeanDefinitions(beanClassNames, scanPool));
+                // 构建类型索引，此后按类型查找Bean定义只需一次哈希查找
+                this.typeIndex = new BeanTypeIndex(this.beans.values());
+                this.startupTimeline.recordPhase("definition", phaseStart);
+            } finally {
+                if (scanPool != null) {
+                    scanPool.shutdown();
+                }
+            }
+        }
 
-        // 此时所有 要加载的类 均已知
+        // 此时所有 Bean 均被定义，不满足条件的 Bean 已被跳过
+        if (!this.skippedBeans.isEmpty()) {
+            logger.atInfo().log("{} beans skipped by conditions: {}", this.skippedBeans.size(), new TreeMap<>(this.skippedBeans));
+        }
 
-        // 创建所有 Bean 的定义
-        // 对于 @Component 定义的Bean，名称为注解指定的 value 或 小驼峰(类名)，声明类型为Class本身
-        // 对于 @Bean 定义的Bean，名称为注解指定的 value 或 方法名，声明类型为@Bean方法签名中的返回值类型
-        this.beans = createBeanDefinitions(beanClassNames);
+        // 确定延迟创建的 Bean，被非延迟 Bean 依赖的 @Lazy Bean 仍在启动时创建
+        this.lazyBeanNames = findLazyBeanNames();
+        // 为 @Pooled 原型 Bean 创建对象池
+        this.beanPools = createBeanPools();
+        // 为 request 和 thread 作用域的 Bean 分配实例数组的下标
+        this.requestScopedDefinitions = assignScopeSlots(Scope.REQUEST);
+        this.threadScopeSize = assignScopeSlots(Scope.THREAD).length;
 
-        // 此时所有 Bean 均被定义
+        // 绑定 @ConfigurationProperties 类型的 Bean，所有Bean的绑定错误一并报告
+        long phaseStart = System.nanoTime();
+        bindConfigurationProperties();
+        this.startupTimeline.recordPhase("configuration-properties", phaseStart);
 
         // 创建 @Configuration 类型的 Bean，先创建已保证后续 @Bean注解的Bean 的创建
+        phaseStart = System.nanoTime();
         this.beans.values().stream()
                 // 过滤出具有 @Configuration 注解的 Bean 定义
                 .filter(this::isConfigurationDefinition)
@@ -107,8 +328,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     createBeanAsEarlySingleton(def);
                     return def.getName();
                 }).collect(Collectors.toList());
+        this.startupTimeline.recordPhase("configuration-beans", phaseStart);
 
         // 创建 BeanPostProcessor 类型的Bean，先创建已保证 Bean 可被后处理（也就是被替换）
+        phaseStart = System.nanoTime();
         List<BeanPostProcessor> processors = this.beans.values().stream()
                 // 过滤出为 BeanPostProcessor 的 Bean 定义
                 .filter(this::isBeanPostProcessorDefinition)
@@ -116,23 +339,66 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                 // 根据定义创建早期单例（不进行字段和方法级别的注入）
                 .map(def -> (BeanPostProcessor) createBeanAsEarlySingleton(def))
                 .toList();
-        this.beanPostProcessors.addAll(processors);
+        this.beanPostProcessors = List.copyOf(processors);
+        List<BeanPostProcessor> reversed = new ArrayList<>(processors);
+        Collections.reverse(reversed);
+        this.reversedBeanPostProcessors = List.copyOf(reversed);
+        this.startupTimeline.recordPhase("post-processors", phaseStart);
+
+        // 登记需要在后台初始化的 @AsyncInit Bean
+        prepareAsyncInits();
+        if (this.propertyResolver.getProperty("${spring.context.refresh.parallel:false}", boolean.class)) {
+            // 按依赖图分层并行创建、注入和初始化
+            refreshInParallel();
+        } else {
+            // 创建其他普通 Bean
+            phaseStart = System.nanoTime();
+            createNormalBeans();
+            this.startupTimeline.recordPhase("normal-beans", phaseStart);
 
-        // 创建其他普通 Bean
-        createNormalBeans();
+            // 此时所有 Bean 均被创建，且各个 Bean 的 instance 均已被设置，且已被 BeanPostProcessor 处理
 
-        // 此时所有 Bean 均被创建，且各个 Bean 的 instance 均已被设置，且已被 BeanPostProcessor 处理
+            // 通过字段和set方法注入依赖，延迟Bean和原型Bean在创建时注入
+            phaseStart = System.nanoTime();
+            this.beans.values().stream().filter(this::isEagerDefinition).forEach(this::injectBean);
+            this.startupTimeline.recordPhase("injection", phaseStart);
 
-        // 通过字段和set方法注入依赖
-        this.beans.values().forEach(this::injectBean);
+            // 按依赖图分层调用初始化方法，@AsyncInit Bean 在其依赖的 Bean 初始化之后才在后台启动，
+            // 同一层中先启动 @AsyncInit Bean，依赖它们的 Bean 在自身初始化前等待
+            phaseStart = System.nanoTime();
+            for (List<List<BeanDefinition>> level : createInitGraph().getLevels()) {
+                level.stream().flatMap(List::stream).filter(BeanDefinition::isAsyncInit).forEach(this::startAsyncInit);
+                level.stream().flatMap(List::stream).filter(def -> !def.isAsyncInit()).forEach(this::initBean);
+            }
+            this.startupTimeline.recordPhase("init", phaseStart);
+        }
+        this.readiness = finishAsyncInits();
+
+        // 查找所有 @EventListener 方法并创建事件分发器
+        phaseStart = System.nanoTime();
+        ApplicationEventMulticaster multicaster = createEventMulticaster();
+        this.startupTimeline.recordPhase("event-listeners", phaseStart);
+
+        // 完成启动时间线并按需输出
+        finishStartupTimeline();
 
-        // 调用初始化方法
-        this.beans.values().forEach(this::initBean);
+        // 冻结容器，释放仅在刷新时使用的状态
+        freeze();
 
         // 使用日志记录器输出初始化的Bean
         if (logger.isDebugEnabled()) {
             this.beans.values().stream().sorted().forEach(def -> logger.debug("bean initialized: {}", def));
         }
+
+        // 分发刷新过程中暂存的事件，然后发布刷新完成事件
+        List<Object> events;
+        synchronized (this.earlyEvents) {
+            this.eventMulticaster = multicaster;
+            events = List.copyOf(this.earlyEvents);
+            this.earlyEvents.clear();
+        }
+        events.forEach(multicaster::multicastEvent);
+        publishEvent(new ContextRefreshedEvent(this));
     }
 
     /**
@@ -142,21 +408,19 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      * @return 如果容器中包含指定名称的Bean，则返回true；否则返回false
      */
     public boolean containsBean(String name) {
-        return this.beans.containsKey(name);
+        return this.beans.containsKey(name) || (this.parent != null && this.parent.containsBean(name));
     }
 
     /**
      * 根据指定类型获取所有符合条件的Bean定义列表，如果未找到，则返回空列表
      *
      * @param type 要获取的Bean定义类型
-     * @return 指定类型的Bean定义列表
+     * @return 指定类型的Bean定义列表，已排序且不可修改
      */
     public List<BeanDefinition> findBeanDefinitions(Class<?> type) {
-        return this.beans.values().stream()
-                // 检查type是否为def.getBeanClass()（即def的声明类型）的父类，若可以则保留
-                .filter(def -> type.isAssignableFrom(def.getBeanClass()))
-                .sorted()
-                .collect(Collectors.toList());
+        // 只查找当前上下文，不包括父上下文中的Bean定义
+        // 类型索引中保存了声明类型的所有父类与接口，返回的列表已排序且不可修改
+        return this.typeIndex.getDefinitions(type);
     }
 
     /**
@@ -167,7 +431,12 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      */
     @Nullable
     public BeanDefinition findBeanDefinition(String name) {
-        return this.beans.get(name);
+        BeanDefinition def = this.beans.get(name);
+        // 当前上下文中的定义优先，找不到时从父上下文中查找
+        if (def == null && this.parent != null) {
+            return this.parent.findBeanDefinition(name);
+        }
+        return def;
     }
 
     /**
@@ -201,30 +470,12 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      */
     @Nullable
     public BeanDefinition findBeanDefinition(Class<?> type) {
-        List<BeanDefinition> defs = findBeanDefinitions(type);
-        // 如果列表 defs 是空的，表示不存在符合条件的 Bean 定义，直接返回 null
-        if (defs.isEmpty()) {
-            return null;
-        }
-        // 如果列表 defs 的大小为 1，表示只存在一个符合条件的 Bean 定义，直接返回该 Bean 定义
-        if (defs.size() == 1) {
-            return defs.get(0);
-        }
-        // 流式操作筛选出标记了 @Primary 注解的 Bean 定义，将它们存储在列表 primaryDefs 中
-        List<BeanDefinition> primaryDefs = defs.stream()
-                .filter(BeanDefinition::isPrimary)
-                .toList();
-        // 只存在一个标记了 @Primary 注解的 Bean 定义
-        if (primaryDefs.size() == 1) {
-            return primaryDefs.get(0);
-        }
-        if (primaryDefs.isEmpty()) {
-            // 没有标记了 @Primary 注解的 Bean 定义
-            throw new NoUniqueBeanDefinitionException(String.format("Multiple bean with type '%s' found, but no @Primary specified.", type.getName()));
-        } else {
-            // 存在多个标记了 @Primary 注解的 Bean 定义
-            throw new NoUniqueBeanDefinitionException(String.format("Multiple bean with type '%s' found, and multiple @Primary specified.", type.getName()));
+        // 唯一解析的结果（包括@Primary的选择和错误）已在类型索引中缓存
+        BeanDefinition def = this.typeIndex.getUniqueDefinition(type);
+        if (def == null && this.parent != null) {
+            return this.parent.findBeanDefinition(type);
         }
+        return def;
     }
 
     /**
@@ -238,7 +489,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     @SuppressWarnings("unchecked")
     protected <T> List<T> findBeans(Class<T> requiredType) {
         return findBeanDefinitions(requiredType).stream()
-                .map(def -> (T) def.getRequiredInstance())
+                .map(def -> (T) getBeanInstance(def))
                 .collect(Collectors.toList());
     }
 
@@ -256,7 +507,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     /**
@@ -274,7 +525,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     /**
@@ -291,7 +542,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     /**
@@ -304,7 +555,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     @SuppressWarnings("unchecked")
     public <T> List<T> getBeans(Class<T> requiredType) {
         return findBeanDefinitions(requiredType).stream()
-                .map(def -> (T) def.getRequiredInstance())
+                .map(def -> (T) getBeanInstance(def))
                 .collect(Collectors.toList());
     }
 
@@ -321,7 +572,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with name '%s'.", name));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     /**
@@ -338,7 +589,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with name '%s' and type '%s'.", name, requiredType));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     /**
@@ -354,202 +605,1088 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with type '%s'.", requiredType));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     /**
-     * 执行组件扫描并返回类名集合
+     * 获取指定类型的Bean的ObjectProvider，此时不查找也不创建Bean
      *
-     * @param configClass 配置类
-     * @return 类名集合
+     * @param requiredType 要获取的Bean类型
+     * @param <T>          Bean的类型
+     * @return ObjectProvider
      */
-    protected Set<String> scanForClassNames(Class<?> configClass) {
-        // 获取要扫描的package名称
-        // 查找配置类 configClass 上的 ComponentScan 注解
-        ComponentScan scan = ClassUtils.findAnnotation(configClass, ComponentScan.class);
-        // 根据 ComponentScan 注解的值获取要扫描的包名，如果 ComponentScan 注解不存在或其值为空，则默认扫描配置类所在的包
-        final String[] scanPackages = scan == null || scan.value().length == 0 ? new String[]{configClass.getPackage().getName()} : scan.value();
-        // 使用日志记录器输出组件扫描的包名信息
-        logger.atInfo().log("component scan in packages: {}", Arrays.toString(scanPackages));
+    public <T> ObjectProvider<T> getBeanProvider(Class<T> requiredType) {
+        return new BeanProvider<>(requiredType, "");
+    }
 
-        Set<String> classNameSet = new HashSet<>();
-        // 扫描package
-        // 遍历扫描包的数组，每次处理一个包
-        for (String pkg : scanPackages) {
-            // 使用日志记录器输出当前正在扫描的包名
-            logger.atDebug().log("scan package: {}", pkg);
-            // 创建资源解析器
-            ResourceResolver rr = new ResourceResolver(pkg);
-            // 扫描包中的资源，并返回符合条件的类名集合
-            List<String> classList = rr.scan(res -> {
-                String name = res.name();
-                if (name.endsWith(".class")) {
-                    return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
-                }
-                return null;
-            });
-            // 如果调试日志可用，则遍历类名列表，并使用日志记录器输出每个类名
-            if (logger.isDebugEnabled()) {
-                classList.forEach((className) -> logger.debug("class found by component scan: {}", className));
-            }
-            // 将扫描到的类名集合添加到总的类名集合中
-            classNameSet.addAll(classList);
+    /**
+     * 获取Bean定义对应的实例，延迟Bean在首次获取时创建
+     *
+     * @param def Bean的定义
+     * @return Bean实例
+     */
+    private Object getBeanInstance(BeanDefinition def) {
+        // 父上下文中的Bean由父上下文获取
+        if (!isLocalDefinition(def)) {
+            return this.parent.getBeanInstance(def);
         }
-
-        // 查找@Import(Xyz.class)
-        // 获取配置类上的 Import 注解，Import 注解用于指定要导入的其他类
-        Import importConfig = configClass.getAnnotation(Import.class);
-        // 如果 Import 注解不存在，则直接返回当前的类名集合
-        if (importConfig == null) {
-            return classNameSet;
+        if (def.isPrototype()) {
+            return def.getPoolSize() > 0 ? borrowPooledInstance(def) : createPrototype(def);
         }
-        // 遍历 Import 注解中指定的要导入的其他类
-        for (Class<?> importConfigClass : importConfig.value()) {
-            String importClassName = importConfigClass.getName();
-            if (classNameSet.contains(importClassName)) {
-                // 如果类名集合中已经包含当前要导入的类名，则输出警告信息
-                logger.warn("ignore import: " + importClassName + " for it is already been scanned.");
-            } else {
-                // 将当前要导入的类名添加到类名集合中
-                logger.debug("class found by import: {}", importClassName);
-                classNameSet.add(importClassName);
-            }
+        if (!def.isSingleton()) {
+            return getScopedProxy(def);
         }
-        return classNameSet;
+        return isLazyDefinition(def) ? getLazyInstance(def) : def.getRequiredInstance();
     }
 
     /**
-     * 根据扫描的ClassName创建Bean定义
-     * 对于 @Component 定义的Bean，名称为注解指定的 value 或 小驼峰(类名)，声明类型为Class本身
-     * 对于 @Bean 定义的Bean，名称为注解指定的 value 或 方法名，声明类型为@Bean方法签名中的返回值类型
+     * 获取要注入的依赖Bean实例
+     * 原型Bean可能在启动时被其他Bean的构造方法依赖而立即完成注入，此时其依赖的单例可能尚未创建，因此先将其创建为早期单例
      *
-     * @param classNameSet 扫描到的类名集合
-     * @return Bean定义集合
+     * @param def 依赖Bean的定义
+     * @return Bean实例
      */
-    private Map<String, BeanDefinition> createBeanDefinitions(Set<String> classNameSet) {
-        Map<String, BeanDefinition> defs = new HashMap<>();
-        // 遍历扫描到的类名集合，每次处理一个类名
-        for (String className : classNameSet) {
-            // 获取Class对象
-            Class<?> clazz = null;
-            try {
-                clazz = Class.forName(className);
-            } catch (ClassNotFoundException e) {
-                throw new BeanCreationException(e);
-            }
-            // 检查类是否为注解、枚举、接口或记录类型，如果是，则跳过
-            if (clazz.isAnnotation() || clazz.isEnum() || clazz.isInterface() || clazz.isRecord()) {
-                continue;
-            }
+    private Object getDependencyInstance(BeanDefinition def) {
+        if (def.getInstance() == null && isLocalDefinition(def) && isEagerDefinition(def)) {
+            return createBeanAsEarlySingleton(def);
+        }
+        return getBeanInstance(def);
+    }
 
-            // 是否标注@Component
-            Component component = ClassUtils.findAnnotation(clazz, Component.class);
-            // 如果注解不存在，则跳过当前类的处理
-            if (component == null) {
-                continue;
+    /**
+     * 获取延迟Bean的实例，首次获取时在锁内依次完成创建、注入和初始化
+     * 其他线程只能获取到已完成初始化的实例；当前线程在初始化过程中再次获取（字段间相互依赖）时返回早期实例
+     *
+     * @param def 延迟Bean的定义
+     * @return Bean实例
+     */
+    private Object getLazyInstance(BeanDefinition def) {
+        Object instance = this.lazySingletons.get(def.getName());
+        if (instance != null) {
+            return instance;
+        }
+        synchronized (this.lazyLock) {
+            instance = this.lazySingletons.get(def.getName());
+            if (instance != null) {
+                return instance;
             }
-            logger.atDebug().log("found component: {}", clazz.getName());
-            // 获取当前类的修饰符
-            int mod = clazz.getModifiers();
-            // 检查当前类是否为抽象类
-            if (Modifier.isAbstract(mod)) {
-                throw new BeanDefinitionException("@Component class " + clazz.getName() + " must not be abstract.");
+            // 只有持有锁的线程会创建延迟Bean，实例已存在说明当前线程正在初始化该Bean
+            if (def.getInstance() != null) {
+                return def.getInstance();
             }
-            // 检查当前类是否为私有类，嵌套类可以是私有的
-            if (Modifier.isPrivate(mod)) {
-                throw new BeanDefinitionException("@Component class " + clazz.getName() + " must not be private.");
+            logger.atDebug().log("create lazy bean '{}': {}", def.getName(), def.getBeanClass().getName());
+            try {
+                createEarlySingleton(def);
+                injectBean(def);
+                initBean(def);
+            } catch (RuntimeException | Error e) {
+                // 创建失败后允许再次尝试
+                def.clearInstance();
+                this.creatingBeanNames.remove(def.getName());
+                throw e;
             }
+            instance = def.getRequiredInstance();
+            recordDependencies(def);
+            // 创建完成后释放创建元数据，与冻结时的其他Bean一致
+            if (this.footprint != null) {
+                def.releaseCreationMetadata();
+            }
+            this.lazySingletons.put(def.getName(), instance);
+            registerLazyEventListeners(def, instance);
+            return instance;
+        }
+    }
 
-            // 使用 ClassUtils.getBeanName() 方法根据类获取 Bean 的名称
-            String beanName = ClassUtils.getBeanName(clazz);
-            // 创建一个新的 BeanDefinition 对象
-            BeanDefinition def = new BeanDefinition(beanName,
-                    clazz,
-                    // 构造函数，包括私有/默认构造函数
-                    getSuitableConstructor(clazz),
-                    getOrder(clazz),
-                    clazz.isAnnotationPresent(Primary.class),
-                    null,
-                    null,
-                    // 类中找带有特定注解的方法（此处为找初始方法），若没有则返回null
-                    ClassUtils.findAnnotationMethod(clazz, PostConstruct.class),
-                    // 类中找带有特定注解的方法（此处为找销毁方法），若没有则返回null
-                    ClassUtils.findAnnotationMethod(clazz, PreDestroy.class));
-            addBeanDefinitions(defs, def);
-            logger.atDebug().log("define bean: {}", def);
-
-            // 是否标注@Configuration
-            Configuration configuration = ClassUtils.findAnnotation(clazz, Configuration.class);
-            if (configuration != null) {
-                // 如果当前类是配置类，则调用 scanFactoryMethods() 方法扫描工厂方法，并将其添加到 Bean 定义集合中
-                scanFactoryMethods(beanName, clazz, defs);
+    /**
+     * 创建原型Bean的新实例，依次完成创建、BeanPostProcessor处理、注入和初始化，实例不保存在定义中
+     * 构造方法或工厂方法通过缓存的调用器调用，注入使用按类型缓存的注入计划或编译期生成的代码，不再重新解析注解
+     *
+     * @param def 原型Bean的定义
+     * @return Bean实例
+     */
+    private Object createPrototype(BeanDefinition def) {
+        Set<String> creating = this.creatingPrototypeNames.get();
+        if (!creating.add(def.getName())) {
+            throw new UnsatisfiedDependencyException(String.format("Circular dependency detected when create prototype bean '%s'", def.getName()));
+        }
+        try {
+            Object instance;
+            ApplicationContext previous = ApplicationContextUtils.bind(this);
+            try {
+                instance = def.getGenerated() != null ? instantiateGenerated(def) : instantiate(def);
+                def.checkInstance(instance);
+                instance = postProcessBeforeInitialization(def, instance);
+                injectInstance(def, getProxiedInstance(def.getName(), instance));
+            } finally {
+                ApplicationContextUtils.restore(previous);
             }
+            awaitAsyncInitDependencies(def);
+            return initInstance(def, instance);
+        } finally {
+            creating.remove(def.getName());
         }
-        return defs;
     }
 
     /**
-     * 创建一个Bean，但不进行字段和方法级别的注入。
-     * 如果创建的Bean不是Configuration或BeanPostProcessor，则在*构造方法中注入的依赖Bean*会自动创建。
+     * 从对象池中取出@Pooled原型Bean的空闲实例，池为空时创建新的实例
      *
-     * @param def Bean的定义
-     * @return Bean的实例
+     * @param def 原型Bean的定义
+     * @return Bean实例
      */
-    public Object createBeanAsEarlySingleton(BeanDefinition def) {
-        logger.atDebug().log("Try create bean '{}' as early singleton: {}", def.getName(), def.getBeanClass().getName());
-        // 检测循环依赖，并将当前正在创建的Bean放入集合中
-        // add方法若creatingBeanNames存在该元素则返回False，即抛出异常
-        if (!this.creatingBeanNames.add(def.getName())) {
-            throw new UnsatisfiedDependencyException(String.format("Circular dependency detected when create bean '%s'", def.getName()));
+    private Object borrowPooledInstance(BeanDefinition def) {
+        Object instance = this.beanPools.get(def.getName()).poll();
+        return instance != null ? instance : createPrototype(def);
+    }
+
+    /**
+     * 归还原型Bean的实例：@Pooled原型Bean放回对象池，池已满或未使用对象池时调用销毁方法，单例Bean由容器管理，忽略归还
+     *
+     * @param def  Bean的定义
+     * @param bean 要归还的实例
+     */
+    private void releaseBeanInstance(BeanDefinition def, Object bean) {
+        if (!def.isPrototype()) {
+            return;
+        }
+        if (!isLocalDefinition(def)) {
+            this.parent.releaseBeanInstance(def, bean);
+            return;
         }
+        def.checkInstance(bean);
+        BeanPool pool = this.beanPools.get(def.getName());
+        if (pool != null && pool.offer(bean)) {
+            return;
+        }
+        destroyInstance(def, bean);
+    }
 
-        // 根据 BeanDefinition 中的信息确定创建 Bean 的方式
-        Executable createFn = null;
-        if (def.getFactoryName() == null) {
-            // 构造方法构造
-            createFn = def.getConstructor();
-        } else {
-            // 工厂方法构造
-            createFn = def.getFactoryMethod();
+    /**
+     * 为当前线程绑定一个新的请求，直到返回的作用域关闭
+     * 请求中首次使用request作用域的Bean时创建实例，关闭时调用其销毁方法，并恢复之前绑定的请求（如果有）
+     *
+     * @return 请求作用域，不存在request作用域的Bean时返回空作用域
+     */
+    public ScopedInstances openRequestScope() {
+        if (this.requestScopedDefinitions.length == 0) {
+            return ScopedInstances.EMPTY;
         }
+        final ScopedInstances previous = this.requestInstances.get();
+        ScopedInstances instances = new ScopedInstances(this.requestScopedDefinitions.length, created -> {
+            if (previous == null) {
+                this.requestInstances.remove();
+            } else {
+                this.requestInstances.set(previous);
+            }
+            destroyRequestInstances(created);
+        });
+        this.requestInstances.set(instances);
+        return instances;
+    }
 
-        // 获取创建 Bean 所需的参数
-        // 如果创建的Bean不是Configuration或BeanPostProcessor，则在*构造方法中注入的依赖Bean*会自动创建。
-        final Parameter[] parameters = createFn.getParameters();
-        final Annotation[][] parametersAnnos = createFn.getParameterAnnotations();
-        Object[] args = new Object[parameters.length];
-        for (int i = 0; i < parameters.length; i++) {
-            // 参数
-            final Parameter param = parameters[i];
-            // 注解列表
-            final Annotation[] paramAnnos = parametersAnnos[i];
-            // 检查是否存在 @Value 注解
-            final Value value = ClassUtils.getAnnotation(paramAnnos, Value.class);
-            // 检查是否存在 @Autowired 注解
-            final Autowired autowired = ClassUtils.getAnnotation(paramAnnos, Autowired.class);
+    /**
+     * 获取request或thread作用域Bean的代理，每次调用代理的方法时转发到当前请求或线程中的实例
+     *
+     * @param def 作用域Bean的定义
+     * @return 代理
+     */
+    private Object getScopedProxy(BeanDefinition def) {
+        Object proxy = this.scopedProxies.get(def.getName());
+        return proxy != null ? proxy : this.scopedProxies.computeIfAbsent(def.getName(), name -> createScopedProxy(def));
+    }
 
-            // 参数校验
-            final boolean isConfiguration = isConfigurationDefinition(def);
-            // @Configuration类型的Bean是工厂，不允许使用@Autowired创建
-            if (isConfiguration && autowired != null) {
-                throw new BeanCreationException(String.format("Cannot specify @Autowired when create @Configuration bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
-            }
-            // 参数需要 @Value 或 @Autowired 两者之一
-            if (value != null && autowired != null) {
-                throw new BeanCreationException(String.format("Cannot specify both @Autowired and @Value when create bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
+    /**
+     * 创建作用域代理：声明类型为接口时使用JDK动态代理，为类时使用ScopedProxyFactory
+     *
+     * @param def 作用域Bean的定义
+     * @return 代理
+     */
+    private Object createScopedProxy(BeanDefinition def) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            ScopedInstances instances = getScopedInstances(def);
+            // 请求之外打印代理（例如调试日志）时不创建实例
+            if (instances == null && method.getName().equals("toString") && method.getParameterCount() == 0) {
+                return "ScopedProxy[" + def.getName() + "]";
             }
-            // 创建Bean时需要 @Value 或 @Autowired 两者之一
-            if (value == null && autowired == null) {
-                throw new BeanCreationException(String.format("Must specify @Autowired or @Value when create bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
+            try {
+                return method.invoke(getScopedInstance(def, instances), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
             }
-
-            // 参数类型
-            final Class<?> type = param.getType();
-            // 参数设置为查询的 @Value
+        };
+        Class<?> beanClass = def.getBeanClass();
+        logger.atDebug().log("create scoped proxy for {} bean '{}': {}", def.getScope(), def.getName(), beanClass.getName());
+        if (beanClass.isInterface()) {
+            return Proxy.newProxyInstance(beanClass.getClassLoader(), new Class<?>[] { beanClass }, handler);
+        }
+        ScopedProxyFactory factory = this.scopedProxyFactory;
+        if (factory == null) {
+            factory = ServiceLoader.load(ScopedProxyFactory.class, ClassPathUtils.getContextClassLoader()).findFirst()
+                    .orElseThrow(() -> new BeanCreationException(String.format("No ScopedProxyFactory found to create scoped proxy for bean '%s': %s, add spring-aop or declare the bean as an interface.", def.getName(), beanClass.getName())));
+            this.scopedProxyFactory = factory;
+        }
+        try {
+            return factory.createProxy(beanClass, handler);
+        } catch (RuntimeException e) {
+            throw new BeanCreationException(String.format("Cannot create scoped proxy for bean '%s': %s", def.getName(), beanClass.getName()), e);
+        }
+    }
+
+    /**
+     * 获取作用域Bean在当前请求或线程中的实例存储
+     *
+     * @param def 作用域Bean的定义
+     * @return 实例存储，request作用域在当前线程未绑定请求时为null
+     */
+    @Nullable
+    private ScopedInstances getScopedInstances(BeanDefinition def) {
+        return Scope.REQUEST.equals(def.getScope()) ? this.requestInstances.get() : this.threadInstances.get();
+    }
+
+    /**
+     * 获取作用域Bean在当前请求或线程中的实例，首次获取时创建
+     *
+     * @param def       作用域Bean的定义
+     * @param instances 当前请求或线程中的实例存储
+     * @return Bean实例
+     */
+    private Object getScopedInstance(BeanDefinition def, @Nullable ScopedInstances instances) {
+        if (instances == null) {
+            throw new BeanCreationException(String.format("No request bound to current thread when access request scoped bean '%s': %s", def.getName(), def.getBeanClass().getName()));
+        }
+        Object instance = instances.get(def.getScopeSlot());
+        if (instance == null) {
+            instance = createPrototype(def);
+            instances.set(def.getScopeSlot(), instance);
+        }
+        return instance;
+    }
+
+    /**
+     * 创建当前线程的thread作用域实例存储
+     *
+     * @return 实例存储
+     */
+    private ScopedInstances createThreadInstances() {
+        return this.threadScopeSize == 0 ? ScopedInstances.EMPTY : new ScopedInstances(this.threadScopeSize, created -> {
+        });
+    }
+
+    /**
+     * 销毁请求结束时已创建的request作用域实例，单个实例销毁失败时记录日志并继续销毁其他实例
+     *
+     * @param created 按下标保存的实例
+     */
+    private void destroyRequestInstances(Object[] created) {
+        for (int slot = 0; slot < created.length; slot++) {
+            if (created[slot] == null) {
+                continue;
+            }
+            BeanDefinition def = this.requestScopedDefinitions[slot];
+            try {
+                destroyInstance(def, created[slot]);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to destroy request scoped bean '" + def.getName() + "'.", e);
+            }
+        }
+    }
+
+    /**
+     * 为指定作用域的Bean按排序依次分配实例数组的下标
+     *
+     * @param scope 作用域
+     * @return 按下标排列的Bean定义
+     */
+    private BeanDefinition[] assignScopeSlots(String scope) {
+        BeanDefinition[] defs = this.beans.values().stream().filter(def -> scope.equals(def.getScope())).sorted().toArray(BeanDefinition[]::new);
+        for (int i = 0; i < defs.length; i++) {
+            defs[i].setScopeSlot(i);
+        }
+        return defs;
+    }
+
+    /**
+     * 为@Pooled原型Bean创建对象池
+     *
+     * @return Bean名称到对象池的映射
+     */
+    private Map<String, BeanPool> createBeanPools() {
+        Map<String, BeanPool> pools = new HashMap<>();
+        for (BeanDefinition def : this.beans.values()) {
+            if (def.getPoolSize() > 0) {
+                pools.put(def.getName(), new BeanPool(def.getPoolSize()));
+            }
+        }
+        return Map.copyOf(pools);
+    }
+
+    /**
+     * 确定延迟创建的Bean：标注了@Lazy的普通Bean，且没有被非延迟Bean直接或间接依赖
+     * 配置类和BeanPostProcessor总是在启动时创建
+     *
+     * @return 延迟Bean的名称
+     */
+    private Set<String> findLazyBeanNames() {
+        Set<String> lazy = new HashSet<>();
+        for (BeanDefinition def : this.beans.values()) {
+            if (def.isLazy() && def.isSingleton() && !isConfigurationDefinition(def) && !isBeanPostProcessorDefinition(def)) {
+                lazy.add(def.getName());
+            }
+        }
+        if (lazy.isEmpty()) {
+            return Set.of();
+        }
+        // 从非延迟Bean出发，沿构造和注入依赖找到必须在启动时创建的@Lazy Bean
+        Deque<BeanDefinition> eager = this.beans.values().stream().filter(def -> !lazy.contains(def.getName())).collect(Collectors.toCollection(ArrayDeque::new));
+        while (!eager.isEmpty()) {
+            BeanDefinition def = eager.poll();
+            List<BeanDefinition> deps = new ArrayList<>(findConstructionDependencies(def));
+            deps.addAll(findInjectionDependencies(def));
+            for (BeanDefinition dep : deps) {
+                if (lazy.remove(dep.getName())) {
+                    logger.atDebug().log("@Lazy bean '{}' is required by bean '{}' and will be created on startup.", dep.getName(), def.getName());
+                    eager.add(dep);
+                }
+            }
+        }
+        return Set.copyOf(lazy);
+    }
+
+    /**
+     * 获取容器冻结后自身占用的内存估算
+     *
+     * @return 内存估算
+     */
+    public ContextFootprint getFootprint() {
+        return this.footprint;
+    }
+
+    /**
+     * 发布事件，容器刷新完成前发布的事件会被暂存，在刷新完成后再分发
+     *
+     * @param event 事件，可以是ApplicationEvent或任意对象
+     */
+    @Override
+    public void publishEvent(Object event) {
+        Objects.requireNonNull(event, "event");
+        ApplicationEventMulticaster multicaster = this.eventMulticaster;
+        if (multicaster == null) {
+            synchronized (this.earlyEvents) {
+                multicaster = this.eventMulticaster;
+                if (multicaster == null) {
+                    this.earlyEvents.add(event);
+                    return;
+                }
+            }
+        }
+        multicaster.multicastEvent(event);
+    }
+
+    /**
+     * 查找所有单例Bean中的@EventListener方法，创建事件分发器
+     * 已创建的Bean按实例的实际类型（被代理时为原始Bean的类型）查找，@Bean方法声明的返回类型可能是接口或父类；
+     * 尚未创建的延迟Bean先按声明类型查找，在首次分发事件时获取，创建后再由registerLazyEventListeners()查找实际类型中的其他监听方法
+     *
+     * @return 事件分发器
+     */
+    private ApplicationEventMulticaster createEventMulticaster() {
+        List<ApplicationListenerMethod> listeners = new ArrayList<>();
+        for (BeanDefinition def : this.beans.values()) {
+            final Object instance = def.getInstance();
+            if (instance != null && def.isSingleton()) {
+                listeners.addAll(findEventListeners(def, getProxiedInstance(def).getClass(), null, () -> instance));
+            } else {
+                final String name = def.getName();
+                listeners.addAll(findEventListeners(def, def.getBeanClass(), null, () -> getBean(name)));
+            }
+        }
+        RingBufferExecutor executor = null;
+        if (listeners.stream().anyMatch(ApplicationListenerMethod::isAsync)) {
+            executor = createEventExecutor();
+        }
+        logger.atDebug().log("found {} event listeners.", listeners.size());
+        return new ApplicationEventMulticaster(listeners, executor);
+    }
+
+    /**
+     * 在类型（包括父类）中查找@EventListener方法
+     *
+     * @param def       Bean定义
+     * @param beanClass 要查找的类型
+     * @param scanned   已经查找过的类型，该类型及其父类不再查找，没有时为null
+     * @param target    获取监听方法所在的Bean实例
+     * @return 监听方法
+     */
+    private List<ApplicationListenerMethod> findEventListeners(BeanDefinition def, Class<?> beanClass, @Nullable Class<?> scanned, Supplier<Object> target) {
+        List<ApplicationListenerMethod> listeners = new ArrayList<>();
+        for (Class<?> clazz = beanClass; clazz != null && clazz != Object.class && (scanned == null || !clazz.isAssignableFrom(scanned)); clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(EventListener.class)) {
+                    if (!def.isSingleton()) {
+                        throw new BeanDefinitionException(String.format("@EventListener is only supported in singleton beans: %s.%s", def.getName(), method.getName()));
+                    }
+                    int order = method.isAnnotationPresent(Order.class) ? getOrder(method) : def.getOrder();
+                    listeners.add(new ApplicationListenerMethod(def.getName(), method, order, target));
+                }
+            }
+        }
+        return listeners;
+    }
+
+    /**
+     * 延迟Bean创建后，注册其实际类型中未在声明类型中声明的@EventListener方法
+     * 刷新过程中创建的延迟Bean在创建事件分发器时已按实际类型查找，无需注册
+     *
+     * @param def      延迟Bean的定义
+     * @param instance 延迟Bean的实例
+     */
+    private void registerLazyEventListeners(BeanDefinition def, Object instance) {
+        ApplicationEventMulticaster multicaster = this.eventMulticaster;
+        if (multicaster == null) {
+            return;
+        }
+        List<ApplicationListenerMethod> listeners = findEventListeners(def, getProxiedInstance(def.getName(), instance).getClass(), def.getBeanClass(), () -> instance);
+        if (!listeners.isEmpty()) {
+            logger.atDebug().log("found {} event listeners in lazy bean '{}'.", listeners.size(), def.getName());
+            multicaster.addListeners(listeners, this::createEventExecutor);
+        }
+    }
+
+    /**
+     * 创建执行异步监听方法的环形缓冲区执行器，容量、批大小和队列已满时的处理策略分别由以下属性配置：
+     * spring.context.event.async.capacity、spring.context.event.async.batch-size、spring.context.event.async.backpressure
+     *
+     * @return 执行器
+     */
+    private RingBufferExecutor createEventExecutor() {
+        int capacity = this.propertyResolver.getProperty("${spring.context.event.async.capacity:1024}", int.class);
+        int batchSize = this.propertyResolver.getProperty("${spring.context.event.async.batch-size:64}", int.class);
+        String policy = this.propertyResolver.getProperty("${spring.context.event.async.backpressure:block}", String.class);
+        return new RingBufferExecutor("event-multicaster", capacity, batchSize, BackpressurePolicy.valueOf(policy.toUpperCase().replace('-', '_')));
+    }
+
+    /**
+     * 冻结容器：将Bean定义映射替换为不可变映射，释放仅在刷新时使用的状态以及已创建Bean的创建元数据，并估算容器自身占用的内存
+     * 冻结后按名称和类型查找Bean均为无锁读取，尚未创建的延迟Bean保留创建元数据，在创建完成后释放，原型Bean始终保留创建元数据
+     */
+    private void freeze() {
+        this.frozen = true;
+        int released = 0;
+        for (BeanDefinition def : this.beans.values()) {
+            // 仍在后台初始化的Bean在完成后释放
+            CompletableFuture<Void> asyncInit = this.asyncInits.get(def.getName());
+            if (def.getInstance() != null && (asyncInit == null || asyncInit.isDone())) {
+                released += def.releaseCreationMetadata();
+            }
+        }
+        this.beans = Map.copyOf(this.beans);
+        this.creatingBeanNames = ConcurrentHashMap.newKeySet();
+        this.injectionPlans = new ConcurrentHashMap<>();
+
+        long bytes = ContextFootprint.shallowBytes(getClass())
+                + ContextFootprint.immutableHashBytes(2, this.beans.size())
+                + this.typeIndex.estimateRetainedBytes()
+                + ContextFootprint.immutableListBytes(this.beanPostProcessors.size()) * 2
+                + ContextFootprint.immutableHashBytes(1, this.lazyBeanNames.size())
+                + ContextFootprint.immutableHashBytes(2, this.beanPools.size())
+                + ContextFootprint.arrayBytes(this.requestScopedDefinitions.length)
+                // 延迟Bean、正在创建的Bean名称、注入计划、作用域代理、跳过的Bean、条件、Bean依赖和后台初始化使用的八个ConcurrentHashMap，作用域代理在首次使用时创建
+                + ContextFootprint.shallowBytes(ConcurrentHashMap.class) * 8
+                // 扫描结果缓存由根上下文持有，子上下文与之共享
+                + (this.parent == null ? ContextFootprint.shallowBytes(ConcurrentHashMap.class) : 0);
+        int lazyBeanCount = 0;
+        for (BeanDefinition def : this.beans.values()) {
+            bytes += def.estimateRetainedBytes();
+            if (def.getInstance() == null && isLazyDefinition(def)) {
+                lazyBeanCount++;
+            }
+        }
+        for (BeanPool pool : this.beanPools.values()) {
+            bytes += pool.estimateRetainedBytes();
+        }
+        this.footprint = new ContextFootprint(this.beans.size(), lazyBeanCount, this.typeIndex.size(), released, bytes);
+        logger.atInfo().log("context frozen: {} beans ({} lazy), {} types indexed, {} reflective handles released, about {} KB retained.",
+                this.footprint.beanCount(), lazyBeanCount, this.footprint.typeIndexEntries(), released, (bytes + 1023) / 1024);
+    }
+
+    /**
+     * 获取启动时间线
+     *
+     * @return 启动时间线
+     */
+    public StartupTimeline getStartupTimeline() {
+        return this.startupTimeline;
+    }
+
+    /**
+     * 完成启动时间线：记录每个Bean的依赖关系以计算关键路径，输出关键路径，
+     * 并在设置了属性 spring.context.startup.timeline-file 时将时间线以JSON格式写入该文件
+     */
+    private void finishStartupTimeline() {
+        for (BeanDefinition def : this.beans.values()) {
+            // 尚未创建的延迟Bean不在时间线中
+            if (def.getInstance() == null) {
+                continue;
+            }
+            this.startupTimeline.recordDependencies(def.getName(), recordDependencies(def));
+        }
+        this.startupTimeline.finish();
+        List<StartupTimeline.BeanStartup> criticalPath = this.startupTimeline.getCriticalPath();
+        logger.atInfo().log("context refreshed in {} ms, critical path {} ms: {}",
+                this.startupTimeline.getTotalNanos() / 1_000_000,
+                this.startupTimeline.getCriticalPathNanos() / 1_000_000,
+                criticalPath.stream().map(StartupTimeline.BeanStartup::getName).toList());
+        String file = this.propertyResolver.getProperty("spring.context.startup.timeline-file");
+        if (file != null && !file.isEmpty()) {
+            try {
+                Files.writeString(Path.of(file), this.startupTimeline.toJson());
+                logger.atInfo().log("startup timeline written to {}.", file);
+            } catch (IOException e) {
+                // 时间线仅用于诊断，写入失败不影响启动
+                logger.warn("Failed to write startup timeline to " + file + ".", e);
+            }
+        }
+    }
+
+    /**
+     * 创建组件扫描结果的缓存键，包含影响扫描结果的设置：是否使用组件索引以及是否使用编译期生成的Bean工厂
+     *
+     * @param configClass 配置类
+     * @return 缓存键
+     */
+    private ScanKey createScanKey(Class<?> configClass) {
+        return new ScanKey(configClass,
+                this.propertyResolver.getProperty("${spring.context.component-index.enabled:true}", boolean.class),
+                this.propertyResolver.getProperty("${spring.context.aot.enabled:true}", boolean.class));
+    }
+
+    /**
+     * 执行组件扫描并返回类名集合
+     *
+     * @param configClass 配置类
+     * @param scanPool    并行扫描使用的线程池，为null时顺序扫描
+     * @return 类名集合
+     */
+    protected Set<String> scanForClassNames(Class<?> configClass, @Nullable ForkJoinPool scanPool) {
+        return scanForClassNames(configClass, scanPool, root -> true);
+    }
+
+    /**
+     * 在指定的类路径根目录中执行组件扫描并返回类名集合
+     *
+     * @param configClass 配置类
+     * @param scanPool    并行扫描使用的线程池，为null时顺序扫描
+     * @param rootFilter  类路径根目录过滤器，返回false的根目录不会被扫描
+     * @return 类名集合
+     */
+    private Set<String> scanForClassNames(Class<?> configClass, @Nullable ForkJoinPool scanPool, Predicate<String> rootFilter) {
+        // 获取要扫描的package名称
+        // 查找配置类 configClass 上的 ComponentScan 注解
+        ComponentScan scan = ClassUtils.findAnnotation(configClass, ComponentScan.class);
+        // 根据 ComponentScan 注解的值获取要扫描的包名，如果 ComponentScan 注解不存在或其值为空，则默认扫描配置类所在的包
+        final String[] scanPackages = scan == null || scan.value().length == 0 ? new String[]{configClass.getPackage().getName()} : scan.value();
+        // 使用日志记录器输出组件扫描的包名信息
+        logger.atInfo().log("component scan in packages: {}", Arrays.toString(scanPackages));
+        // 包含和排除过滤器，按类名匹配的过滤器在读取class文件之前求值
+        final ComponentScanFilters filters = ComponentScanFilters.of(scan);
+
+        // 加载编译期生成的组件索引，已被索引的类路径根目录无需遍历
+        final ComponentIndex index = loadComponentIndex();
+
+        // 直接读取class文件判断是否为组件，避免加载和初始化非组件类
+        final ClassMetadataReader metadataReader = new ClassMetadataReader(ClassPathUtils.getContextClassLoader());
+
+        // 排序以保证后续创建 Bean 定义的顺序与扫描方式无关
+        Set<String> classNameSet = new TreeSet<>();
+        // 扫描package，所有包共用同一个资源解析器，以便共享已打开的JAR文件系统
+        try (ResourceResolver rr = new ResourceResolver(scanPool, scanPackages)) {
+            // 扫描未被索引的根目录中的资源，并返回符合条件的类名集合
+            List<String> classList = rr.scan(root -> rootFilter.test(root) && !index.isIndexed(root), path -> acceptPath(filters, path), res -> {
+                String name = res.name();
+                if (name.endsWith(".class")) {
+                    String className = name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
+                    return isComponentCandidate(metadataReader, filters, className) ? className : null;
+                }
+                return null;
+            });
+            // 已被索引的根目录直接使用索引中的组件类名，设置了过滤器时仍需过滤
+            for (String pkg : scanPackages) {
+                for (String className : index.getCandidates(pkg, rootFilter)) {
+                    if (filters.isEmpty() || (acceptPath(filters, className.replace('.', '/') + ".class") && isComponentCandidate(metadataReader, filters, className))) {
+                        classList.add(className);
+                    }
+                }
+            }
+            // 如果调试日志可用，则遍历类名列表，并使用日志记录器输出每个类名
+            if (logger.isDebugEnabled()) {
+                classList.forEach((className) -> logger.debug("class found by component scan: {}", className));
+            }
+            // 将扫描到的类名集合添加到总的类名集合中
+            classNameSet.addAll(classList);
+        }
+
+        // 查找@Import(Xyz.class)
+        // 获取配置类上的 Import 注解，Import 注解用于指定要导入的其他类
+        Import importConfig = ClassUtils.getAnnotation(configClass, Import.class);
+        // 如果 Import 注解不存在，则直接返回当前的类名集合
+        if (importConfig == null) {
+            return classNameSet;
+        }
+        // 遍历 Import 注解中指定的要导入的其他类
+        for (Class<?> importConfigClass : importConfig.value()) {
+            String importClassName = importConfigClass.getName();
+            if (classNameSet.contains(importClassName)) {
+                // 如果类名集合中已经包含当前要导入的类名，则输出警告信息
+                logger.warn("ignore import: " + importClassName + " for it is already been scanned.");
+            } else {
+                // 将当前要导入的类名添加到类名集合中
+                logger.debug("class found by import: {}", importClassName);
+                classNameSet.add(importClassName);
+            }
+        }
+        return classNameSet;
+    }
+
+    /**
+     * 创建并行扫描使用的线程池，可通过属性 spring.context.scan.parallel=true 启用，
+     * 并通过 spring.context.scan.parallelism 指定并行度（默认为CPU核数）
+     *
+     * @return 线程池，未启用时返回null
+     */
+    @Nullable
+    private ForkJoinPool createScanPool() {
+        boolean parallel = this.propertyResolver.getProperty("${spring.context.scan.parallel:false}", boolean.class);
+        if (!parallel) {
+            return null;
+        }
+        int parallelism = this.propertyResolver.getProperty("${spring.context.scan.parallelism:" + Runtime.getRuntime().availableProcessors() + "}", int.class);
+        logger.atInfo().log("component scan in parallel with parallelism {}.", parallelism);
+        // 工作线程使用与当前线程相同的上下文类加载器，保证在容器等环境中能找到同样的资源
+        final ClassLoader classLoader = ClassPathUtils.getContextClassLoader();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setContextClassLoader(classLoader);
+            thread.setName("component-scan-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * 根据扫描过滤器判断是否需要处理扫描到的路径，在读取class文件之前调用
+     * 被整体排除的包目录不再遍历，按类名被排除的class文件不再读取
+     *
+     * @param filters 扫描过滤器
+     * @param path    相对于类路径根目录的路径，目录以"/"结尾
+     * @return 如果需要处理，则返回true；否则返回false
+     */
+    private boolean acceptPath(ComponentScanFilters filters, String path) {
+        if (filters.isEmpty()) {
+            return true;
+        }
+        if (path.endsWith("/")) {
+            return !filters.isExcludedPackage(path.substring(0, path.length() - 1).replace('/', '.'));
+        }
+        if (path.endsWith(".class")) {
+            String className = path.substring(0, path.length() - 6).replace('/', '.');
+            int n = className.lastIndexOf('.');
+            return (n < 0 || !filters.isExcludedPackage(className.substring(0, n))) && filters.acceptName(className);
+        }
+        return true;
+    }
+
+    /**
+     * 根据class文件元数据判断类是否为组件候选，判断过程不会加载类
+     * 抽象类仍作为候选返回，以便在创建Bean定义时报告错误
+     *
+     * @param metadataReader 类元数据读取器
+     * @param filters        扫描过滤器
+     * @param className      类名
+     * @return 如果是组件候选，则返回true；否则返回false
+     */
+    private boolean isComponentCandidate(ClassMetadataReader metadataReader, ComponentScanFilters filters, String className) {
+        ClassMetadata metadata = metadataReader.getMetadata(className);
+        // 无法读取class文件时交由后续的类加载判断
+        if (metadata == null) {
+            return true;
+        }
+        if (metadata.isAnnotation() || metadata.isEnum() || metadata.isInterface()) {
+            return false;
+        }
+        // 记录类只有标注了 @ConfigurationProperties 时才作为组件
+        if (metadata.isRecord() && !metadataReader.hasAnnotation(metadata, ConfigurationProperties.class.getName())) {
+            return false;
+        }
+        if (!metadataReader.hasAnnotation(metadata, Component.class.getName())) {
+            return false;
+        }
+        return filters.isEmpty() || filters.accept(className,
+                annotationName -> metadataReader.hasAnnotation(metadata, annotationName),
+                typeName -> metadataReader.isAssignable(metadata, typeName));
+    }
+
+    /**
+     * 加载组件索引，可通过属性 spring.context.component-index.enabled=false 禁用
+     *
+     * @return 组件索引，禁用时返回空索引
+     */
+    private ComponentIndex loadComponentIndex() {
+        boolean enabled = this.propertyResolver.getProperty("${spring.context.component-index.enabled:true}", boolean.class);
+        ComponentIndex index = enabled ? ComponentIndex.load(ClassPathUtils.getContextClassLoader()) : ComponentIndex.empty();
+        if (!index.isEmpty()) {
+            logger.atInfo().log("component index found, indexed class path roots will not be scanned.");
+        }
+        return index;
+    }
+
+    /**
+     * 加载编译期为配置类生成的Bean工厂，可通过属性 spring.context.aot.enabled=false 禁用
+     *
+     * @param configClass 配置类
+     * @return Bean工厂，如果不存在或已禁用，则返回null
+     */
+    @Nullable
+    private GeneratedBeanFactory loadGeneratedBeanFactory(Class<?> configClass) {
+        if (!this.propertyResolver.getProperty("${spring.context.aot.enabled:true}", boolean.class)) {
+            return null;
+        }
+        String factoryName = configClass.getName() + GeneratedBeanFactory.CLASS_NAME_SUFFIX;
+        Class<?> factoryClass;
+        try {
+            factoryClass = Class.forName(factoryName, true, configClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            GeneratedBeanFactory factory = (GeneratedBeanFactory) factoryClass.getDeclaredConstructor().newInstance();
+            logger.atInfo().log("generated bean factory found, component scan is skipped in its class path root: {}", factoryName);
+            return factory;
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new BeanDefinitionException("Cannot create generated bean factory " + factoryName + ".", e);
+        }
+    }
+
+    /**
+     * 获取类所在的类路径根目录，格式与组件扫描中的根目录一致
+     *
+     * @param clazz 类
+     * @return 根目录，形如 "file:/path/to/classes" 或 "jar:file:/path/to/x.jar!"，如果无法确定，则返回null
+     */
+    @Nullable
+    private static String getClassPathRoot(Class<?> clazz) {
+        String resource = clazz.getName().replace('.', '/') + ".class";
+        URL url = clazz.getClassLoader() == null ? null : clazz.getClassLoader().getResource(resource);
+        if (url == null) {
+            return null;
+        }
+        String urlStr = URLDecoder.decode(url.toString(), StandardCharsets.UTF_8);
+        return urlStr.substring(0, urlStr.length() - resource.length() - 1);
+    }
+
+    /**
+     * 根据编译期生成的Bean工厂创建Bean定义，生成的代码无法直接访问的组件类仍通过反射创建Bean定义
+     *
+     * @param factory             编译期生成的Bean工厂
+     * @param uncoveredClassNames 在Bean工厂所在根目录之外扫描到的类名集合，Bean工厂中已包含的类会被忽略
+     * @return Bean定义集合
+     */
+    private Map<String, BeanDefinition> createBeanDefinitions(GeneratedBeanFactory factory, Set<String> uncoveredClassNames) {
+        Map<String, BeanDefinition> defs = new HashMap<>();
+        Set<String> coveredClassNames = new HashSet<>(factory.getReflectiveClassNames());
+        for (GeneratedBean generated : factory.getBeans()) {
+            BeanDefinition def = new BeanDefinition(generated);
+            addBeanDefinitions(defs, def);
+            if (generated.factoryName() == null) {
+                coveredClassNames.add(generated.beanClass().getName());
+            }
+            logger.atDebug().log("define generated bean: {}", def);
+        }
+        Set<String> classNames = new TreeSet<>(factory.getReflectiveClassNames());
+        for (String className : uncoveredClassNames) {
+            if (!coveredClassNames.contains(className)) {
+                logger.atDebug().log("class found outside generated bean factory: {}", className);
+                classNames.add(className);
+            }
+        }
+        for (String className : classNames) {
+            for (BeanDefinition def : createBeanDefinitions(className)) {
+                addBeanDefinitions(defs, def);
+            }
+        }
+        skipOnMissingBean(defs);
+        return defs;
+    }
+
+    /**
+     * 根据扫描的ClassName创建Bean定义
+     * 对于 @Component 定义的Bean，名称为注解指定的 value 或 小驼峰(类名)，声明类型为Class本身
+     * 对于 @Bean 定义的Bean，名称为注解指定的 value 或 方法名，声明类型为@Bean方法签名中的返回值类型
+     *
+     * @param classNameSet 扫描到的类名集合
+     * @param scanPool     并行创建使用的线程池，为null时顺序创建
+     * @return Bean定义集合
+     */
+    private Map<String, BeanDefinition> createBeanDefinitions(Set<String> classNameSet, @Nullable ForkJoinPool scanPool) {
+        List<String> classNames = new ArrayList<>(classNameSet);
+        // 逐个类加载并解析 Bean 定义，并行模式下在线程池中进行，结果仍按类名顺序排列
+        List<List<BeanDefinition>> classDefs = scanPool == null
+                ? classNames.stream().map(this::createBeanDefinitions).toList()
+                : scanPool.submit(() -> classNames.parallelStream().map(this::createBeanDefinitions).toList()).join();
+        // 按顺序合并，保证重名检查的结果与扫描方式无关
+        Map<String, BeanDefinition> defs = new HashMap<>();
+        for (List<BeanDefinition> list : classDefs) {
+            for (BeanDefinition def : list) {
+                addBeanDefinitions(defs, def);
+            }
+        }
+        skipOnMissingBean(defs);
+        return defs;
+    }
+
+    /**
+     * 根据单个ClassName创建Bean定义，包括@Configuration类中@Bean方法定义的Bean
+     * 该方法不访问容器状态，可以并行调用
+     *
+     * @param className 类名
+     * @return 该类产生的Bean定义列表，如果不是组件，则返回空列表
+     */
+    private List<BeanDefinition> createBeanDefinitions(String className) {
+        Map<String, BeanDefinition> defs = new LinkedHashMap<>();
+        // 获取Class对象
+        Class<?> clazz = null;
+        try {
+            clazz = Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new BeanCreationException(e);
+        }
+        // 检查类是否为注解、枚举、接口或记录类型，如果是，则跳过，标注了@ConfigurationProperties的记录类型由绑定创建
+        if (clazz.isAnnotation() || clazz.isEnum() || clazz.isInterface() || (clazz.isRecord() && !clazz.isAnnotationPresent(ConfigurationProperties.class))) {
+            return List.of();
+        }
+
+        // 是否标注@Component
+        Component component = ClassUtils.findAnnotation(clazz, Component.class);
+        // 如果注解不存在，则跳过当前类的处理
+        if (component == null) {
+            return List.of();
+        }
+        logger.atDebug().log("found component: {}", clazz.getName());
+        // 使用 ClassUtils.getBeanName() 方法根据类获取 Bean 的名称
+        String beanName = ClassUtils.getBeanName(clazz);
+        // 不满足条件的组件不注册，配置类中的 @Bean 方法也不再解析
+        String skipped = this.conditionEvaluator.evaluate(clazz);
+        if (skipped != null) {
+            skipBean(beanName, skipped);
+            return List.of();
+        }
+        // 获取当前类的修饰符
+        int mod = clazz.getModifiers();
+        // 检查当前类是否为抽象类
+        if (Modifier.isAbstract(mod)) {
+            throw new BeanDefinitionException("@Component class " + clazz.getName() + " must not be abstract.");
+        }
+        // 检查当前类是否为私有类，嵌套类可以是私有的
+        if (Modifier.isPrivate(mod)) {
+            throw new BeanDefinitionException("@Component class " + clazz.getName() + " must not be private.");
+        }
+
+        // 创建一个新的 BeanDefinition 对象
+        BeanDefinition def = new BeanDefinition(beanName,
+                clazz,
+                // 构造函数，包括私有/默认构造函数
+                getSuitableConstructor(clazz),
+                getOrder(clazz),
+                ClassUtils.getAnnotation(clazz, Primary.class) != null,
+                ClassUtils.getAnnotation(clazz, Lazy.class) != null,
+                ClassUtils.getAnnotation(clazz, AsyncInit.class) != null,
+                getScope(ClassUtils.getAnnotation(clazz, Scope.class), ClassUtils.getAnnotation(clazz, Pooled.class)),
+                getPoolSize(ClassUtils.getAnnotation(clazz, Pooled.class)),
+                null,
+                null,
+                // 类中找带有特定注解的方法（此处为找初始方法），若没有则返回null
+                ClassUtils.findAnnotationMethod(clazz, PostConstruct.class),
+                // 类中找带有特定注解的方法（此处为找销毁方法），若没有则返回null
+                ClassUtils.findAnnotationMethod(clazz, PreDestroy.class));
+        addBeanDefinitions(defs, def);
+        addMissingBeanCondition(clazz, def);
+        logger.atDebug().log("define bean: {}", def);
+
+        // 是否标注@Configuration
+        Configuration configuration = ClassUtils.findAnnotation(clazz, Configuration.class);
+        if (configuration != null) {
+            // 如果当前类是配置类，则调用 scanFactoryMethods() 方法扫描工厂方法，并将其添加到 Bean 定义集合中
+            scanFactoryMethods(beanName, clazz, defs);
+        }
+        return new ArrayList<>(defs.values());
+    }
+
+    /**
+     * 创建一个Bean，但不进行字段和方法级别的注入。
+     * 如果创建的Bean不是Configuration或BeanPostProcessor，则在*构造方法中注入的依赖Bean*会自动创建。
+     * 延迟Bean不会被单独提前创建，而是直接完成创建、注入和初始化；原型Bean每次都返回完成初始化的新实例，request和thread作用域的Bean返回作用域代理。
+     *
+     * @param def Bean的定义
+     * @return Bean的实例
+     */
+    public Object createBeanAsEarlySingleton(BeanDefinition def) {
+        // 父上下文已冻结，其中的Bean由父上下文获取
+        if (!isLocalDefinition(def)) {
+            return this.parent.getBeanInstance(def);
+        }
+        if (!def.isSingleton()) {
+            return getBeanInstance(def);
+        }
+        if (isLazyDefinition(def)) {
+            return getLazyInstance(def);
+        }
+        return createEarlySingleton(def);
+    }
+
+    /**
+     * 创建一个Bean，但不进行字段和方法级别的注入
+     *
+     * @param def Bean的定义
+     * @return Bean的实例
+     */
+    private Object createEarlySingleton(BeanDefinition def) {
+        // 并行刷新时，同一个Bean可能被多个线程同时请求创建（例如由BeanPostProcessor创建的代理处理器），因此加锁后再次检查
+        synchronized (def) {
+            Object instance = def.getInstance();
+            if (instance != null) {
+                return instance;
+            }
+            // 当前线程中正在创建的Bean即为导致该Bean被创建的依赖链
+            this.startupTimeline.beanCreationStarted(def.getName(), def.getBeanClass().getName());
+            ApplicationContext previous = ApplicationContextUtils.bind(this);
+            try {
+                return doCreateBeanAsEarlySingleton(def);
+            } finally {
+                ApplicationContextUtils.restore(previous);
+                this.startupTimeline.beanCreationFinished(def.getName());
+            }
+        }
+    }
+
+    /**
+     * 实际创建Bean的内部方法，调用方需持有Bean定义的锁
+     *
+     * @param def Bean的定义
+     * @return Bean的实例
+     */
+    private Object doCreateBeanAsEarlySingleton(BeanDefinition def) {
+        logger.atDebug().log("Try create bean '{}' as early singleton: {}", def.getName(), def.getBeanClass().getName());
+        // 检测循环依赖，并将当前正在创建的Bean放入集合中
+        // add方法若creatingBeanNames存在该元素则返回False，即抛出异常
+        if (!this.creatingBeanNames.add(def.getName())) {
+            throw new UnsatisfiedDependencyException(String.format("Circular dependency detected when create bean '%s'", def.getName()));
+        }
+
+        // 编译期生成的Bean直接由生成的代码创建，否则通过构造方法或工厂方法创建
+        Object instance = def.getGenerated() != null ? instantiateGenerated(def) : instantiate(def);
+        // 设置 Bean 定义的实例
+        def.setInstance(instance);
+        this.startupTimeline.beanConstructed(def.getName());
+
+        // 调用 BeanPostProcessor 处理Bean（也就是替换Bean）
+        // BeanDefinition 中的 instance 将被替换为 Proxy
+        Object processed = postProcessBeforeInitialization(def, instance);
+        if (processed != instance) {
+            def.setInstance(processed);
+        }
+        return def.getInstance();
+    }
+
+    /**
+     * 按beanPostProcessors的顺序依次调用postProcessBeforeInitialization()处理已构建完成（但还未注入依赖）的Bean实例
+     * 一个Bean如果被Proxy替换，则依赖它的Bean应注入Proxy
+     *
+     * @param def      Bean的定义
+     * @param instance Bean的实例
+     * @return 处理后的Bean实例
+     */
+    private Object postProcessBeforeInitialization(BeanDefinition def, Object instance) {
+        for (BeanPostProcessor processor : this.beanPostProcessors) {
+            long processStart = System.nanoTime();
+            Object processed = processor.postProcessBeforeInitialization(instance, def.getName());
+            this.startupTimeline.recordPostProcessor(def.getName(), processor.getClass().getName(), System.nanoTime() - processStart);
+            if (processed == null) {
+                throw new BeanCreationException(String.format("PostBeanProcessor returns null when process bean '%s' by %s", def.getName(), processor));
+            }
+            // 如果一个BeanPostProcessor替换了原始Bean，则更新Bean的引用
+            if (instance != processed) {
+                logger.atDebug().log("Bean '{}' was replaced by post processor {}.", def.getName(), processor.getClass().getName());
+                def.checkInstance(processed);
+                instance = processed;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 通过构造方法或工厂方法创建Bean实例
+     *
+     * @param def Bean的定义
+     * @return Bean的实例
+     */
+    private Object instantiate(BeanDefinition def) {
+        // @ConfigurationProperties 组件类由属性绑定器创建
+        if (def.getFactoryName() == null) {
+            ConfigurationProperties properties = def.getBeanClass().getAnnotation(ConfigurationProperties.class);
+            if (properties != null) {
+                return bindProperties(def, properties, null);
+            }
+        }
+        // 根据 BeanDefinition 中的信息确定创建 Bean 的方式
+        Executable createFn = null;
+        if (def.getFactoryName() == null) {
+            // 构造方法构造
+            createFn = def.getConstructor();
+        } else {
+            // 工厂方法构造
+            createFn = def.getFactoryMethod();
+        }
+
+        // 获取创建 Bean 所需的参数
+        // 如果创建的Bean不是Configuration或BeanPostProcessor，则在*构造方法中注入的依赖Bean*会自动创建。
+        final Parameter[] parameters = createFn.getParameters();
+        final Annotation[][] parametersAnnos = createFn.getParameterAnnotations();
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            // 参数
+            final Parameter param = parameters[i];
+            // 注解列表
+            final Annotation[] paramAnnos = parametersAnnos[i];
+            // 检查是否存在 @Value 注解
+            final Value value = ClassUtils.getAnnotation(paramAnnos, Value.class);
+            // 检查是否存在 @Autowired 注解
+            final Autowired autowired = ClassUtils.getAnnotation(paramAnnos, Autowired.class);
+
+            // 参数校验
+            final boolean isConfiguration = isConfigurationDefinition(def);
+            // @Configuration类型的Bean是工厂，不允许使用@Autowired创建
+            if (isConfiguration && autowired != null) {
+                throw new BeanCreationException(String.format("Cannot specify @Autowired when create @Configuration bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
+            }
+            // 参数需要 @Value 或 @Autowired 两者之一
+            if (value != null && autowired != null) {
+                throw new BeanCreationException(String.format("Cannot specify both @Autowired and @Value when create bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
+            }
+            // 创建Bean时需要 @Value 或 @Autowired 两者之一
+            if (value == null && autowired == null) {
+                throw new BeanCreationException(String.format("Must specify @Autowired or @Value when create bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
+            }
+
+            // 参数类型
+            final Class<?> type = param.getType();
+            // 参数设置为查询的 @Value
             if (value != null) {
                 // 获取指定属性的值，并将其转换为当前参数的类型
                 args[i] = this.propertyResolver.getRequiredProperty(value.value(), type);
             }
+            // 参数是ObjectProvider，注入时不查找也不创建目标Bean
+            if (autowired != null && type == ObjectProvider.class) {
+                Class<?> providedType = InjectionPlan.getProvidedType(param.getParameterizedType(), def.getBeanClass().getSimpleName() + "(" + param.getName() + ")");
+                args[i] = new BeanProvider<>(providedType, autowired.name());
+                continue;
+            }
             // 参数是@Autowired，查找依赖的BeanDefinition
             if (autowired != null) {
                 String name = autowired.name();
@@ -561,59 +1698,90 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     throw new BeanCreationException(String.format("Missing autowired bean with type '%s' when create bean '%s': %s.", type.getName(), def.getName(), def.getBeanClass().getName()));
                 }
                 if (dependsOnDef != null) {
-                    // 获取依赖Bean实例
-                    Object autowiredBeanInstance = dependsOnDef.getInstance();
-                    // 当前依赖Bean尚未初始化，递归调用初始化该依赖Bean
-                    if (autowiredBeanInstance == null/* && !isConfiguration */) {
-                        // 当前依赖Bean尚未初始化，递归调用初始化该依赖Bean
-                        autowiredBeanInstance = createBeanAsEarlySingleton(dependsOnDef);
-                    }
-                    args[i] = autowiredBeanInstance;
+                    // 获取依赖Bean实例，当前依赖Bean尚未初始化时递归调用初始化该依赖Bean，原型Bean每次创建新的实例
+                    args[i] = getDependencyInstance(dependsOnDef);
                 } else {
                     args[i] = null;
                 }
             }
         }
 
-        // 创建Bean实例
+        // 创建Bean实例，构造方法和@Bean方法均通过缓存的调用器调用
+        // 用@Bean方法创建时，configInstance为配置类实例，此时配置类已完成创建，故正常情况下getBean不会报错
+        Object configInstance = def.getFactoryName() == null ? null : getBean(def.getFactoryName());
         Object instance = null;
-        if (def.getFactoryName() == null) {
-            // 用构造方法创建
-            try {
-                instance = def.getConstructor().newInstance(args);
-            } catch (Exception e) {
-                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
-            }
-        } else {
-            // 用@Bean方法创建
-            // configInstance为配置类实例，此时配置类已完成创建，故正常情况下getBean不会报错
-            Object configInstance = getBean(def.getFactoryName());
+        try {
+            instance = def.getInvoker().invoke(configInstance, args);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+        }
+        // @ConfigurationProperties @Bean 方法返回的实例绑定属性
+        ConfigurationProperties properties = def.getFactoryName() == null ? null : def.getFactoryMethod().getAnnotation(ConfigurationProperties.class);
+        if (properties != null) {
+            instance = bindProperties(def, properties, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * 绑定@ConfigurationProperties Bean的属性
+     *
+     * @param def        Bean的定义
+     * @param properties @ConfigurationProperties注解
+     * @param instance   @Bean方法返回的实例，为null时由属性绑定器创建
+     * @return 绑定后的实例
+     */
+    private Object bindProperties(BeanDefinition def, ConfigurationProperties properties, @Nullable Object instance) {
+        try {
+            return instance == null ? this.propertyBinder.bind(properties.prefix(), def.getBeanClass()) : this.propertyBinder.bindTo(properties.prefix(), instance);
+        } catch (PropertyBindingException e) {
+            throw new BeanCreationException(String.format("Exception when bind bean '%s': %s", def.getName(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 在启动时先创建所有@ConfigurationProperties组件类对应的单例Bean，延迟Bean除外
+     * 每个Bean的绑定错误均被收集，全部绑定后一并报告，避免每次启动只发现一个配置错误
+     */
+    private void bindConfigurationProperties() {
+        List<BeanDefinition> defs = this.beans.values().stream()
+                .filter(def -> def.isSingleton() && !isLazyDefinition(def) && isConfigurationPropertiesDefinition(def))
+                .sorted()
+                .toList();
+        List<String> errors = new ArrayList<>();
+        for (BeanDefinition def : defs) {
             try {
-                instance = def.getFactoryMethod().invoke(configInstance, args);
-            } catch (Exception e) {
-                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+                createBeanAsEarlySingleton(def);
+            } catch (BeanCreationException e) {
+                if (!(e.getCause() instanceof PropertyBindingException bindingException)) {
+                    throw e;
+                }
+                // 创建失败后不保留正在创建的状态
+                this.creatingBeanNames.remove(def.getName());
+                errors.add(String.format("bean '%s': %s", def.getName(), bindingException.getMessage()));
             }
         }
-        // 设置 Bean 定义的实例
-        def.setInstance(instance);
+        if (!errors.isEmpty()) {
+            throw new BeanCreationException(String.format("Failed to bind %d @ConfigurationProperties beans:\n%s", errors.size(), String.join("\n", errors)));
+        }
+    }
 
-        // 调用 BeanPostProcessor 处理Bean（也就是替换Bean）
-        // 一个Bean如果被Proxy替换，则依赖它的Bean应注入Proxy
-        // BeanDefinition 中的 instance 将被替换为 Proxy
-        // 按beanPostProcessors的顺序依次进行替换
-        for (BeanPostProcessor processor : beanPostProcessors) {
-            // Bean 定义的实例已经构建完成（但还未注入依赖）
-            Object processed = processor.postProcessBeforeInitialization(def.getInstance(), def.getName());
-            if (processed == null) {
-                throw new BeanCreationException(String.format("PostBeanProcessor returns null when process bean '%s' by %s", def.getName(), processor));
-            }
-            // 如果一个BeanPostProcessor替换了原始Bean，则更新Bean的引用
-            if (def.getInstance() != processed) {
-                logger.atDebug().log("Bean '{}' was replaced by post processor {}.", def.getName(), processor.getClass().getName());
-                def.setInstance(processed);
-            }
+    /**
+     * 通过编译期生成的代码创建Bean实例
+     *
+     * @param def Bean的定义
+     * @return Bean的实例
+     */
+    private Object instantiateGenerated(BeanDefinition def) {
+        try {
+            return def.getGenerated().instantiator().instantiate(new GeneratedBeanResolver(def));
+        } catch (Error | BeansException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
         }
-        return def.getInstance();
     }
 
     /**
@@ -622,8 +1790,8 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     private void createNormalBeans() {
         // 获取所有未创建实例的 BeanDefinition 列表
         List<BeanDefinition> defs = this.beans.values().stream()
-                // 过滤出所有未创建实例的 BeanDefinition
-                .filter(def -> def.getInstance() == null)
+                // 过滤出所有未创建实例的 BeanDefinition，延迟Bean和原型Bean在首次获取时创建
+                .filter(def -> def.getInstance() == null && isEagerDefinition(def))
                 // 排序
                 .sorted()
                 .toList();
@@ -634,25 +1802,262 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                 // 创建Bean
                 createBeanAsEarlySingleton(def);
             }
-        });
+        });
+    }
+
+    /**
+     * 并行刷新：根据构造方法/工厂方法参数以及@Autowired字段和方法构建依赖图，
+     * 然后分三个阶段逐层并行处理，每个阶段结束后才进入下一阶段，与顺序刷新的语义保持一致：
+     * 1. 按构造依赖分层创建尚未创建的Bean，构造依赖存在循环时直接报错；
+     * 2. 并行注入所有Bean的字段和set方法，注入只读取已创建的实例，无需排序；
+     * 3. 按全部依赖分层调用初始化方法，保证被依赖的Bean先完成初始化，字段间的相互依赖在同一组内按顺序初始化。
+     * 可通过属性 spring.context.refresh.parallelism 指定线程数（默认为CPU核数）
+     */
+    private void refreshInParallel() {
+        int parallelism = this.propertyResolver.getProperty("${spring.context.refresh.parallelism:" + Runtime.getRuntime().availableProcessors() + "}", int.class);
+        logger.atInfo().log("refresh beans in parallel with parallelism {}.", parallelism);
+        // 工作线程使用与当前线程相同的上下文类加载器
+        final ClassLoader classLoader = ClassPathUtils.getContextClassLoader();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "bean-refresh-" + threadNumber.incrementAndGet());
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+        try {
+            // 创建阶段，只包含尚未创建的Bean
+            List<BeanDefinition> pending = this.beans.values().stream().filter(def -> def.getInstance() == null && isEagerDefinition(def)).toList();
+            BeanDependencyGraph createGraph = new BeanDependencyGraph(pending);
+            pending.forEach(def -> findConstructionDependencies(def).forEach(dep -> createGraph.addDependency(def, dep)));
+            List<BeanDefinition> cycle = createGraph.findCycle();
+            if (!cycle.isEmpty()) {
+                throw new UnsatisfiedDependencyException(String.format("Circular dependency detected when create bean '%s': %s", cycle.get(0).getName(),
+                        cycle.stream().map(BeanDefinition::getName).toList()));
+            }
+            long phaseStart = System.nanoTime();
+            runInLevels(executor, createGraph.getLevels(), this::createBeanAsEarlySingleton);
+            this.startupTimeline.recordPhase("normal-beans", phaseStart);
+
+            // 注入阶段，每个Bean单独成组，延迟Bean和原型Bean在创建时注入
+            phaseStart = System.nanoTime();
+            List<BeanDefinition> eager = this.beans.values().stream().filter(this::isEagerDefinition).toList();
+            List<List<BeanDefinition>> all = eager.stream().sorted().map(List::of).toList();
+            runInLevels(executor, List.of(all), this::injectBean);
+            this.startupTimeline.recordPhase("injection", phaseStart);
+
+            // 初始化阶段，包含所有在启动时创建的Bean
+            phaseStart = System.nanoTime();
+            runInLevels(executor, createInitGraph().getLevels(), def -> {
+                if (def.isAsyncInit()) {
+                    startAsyncInit(def);
+                } else {
+                    initBean(def);
+                }
+            });
+            this.startupTimeline.recordPhase("init", phaseStart);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 创建初始化阶段的依赖图，包含所有在启动时创建的Bean，被依赖方先于依赖方初始化
+     *
+     * @return 依赖图
+     */
+    private BeanDependencyGraph createInitGraph() {
+        List<BeanDefinition> eager = this.beans.values().stream().filter(this::isEagerDefinition).toList();
+        BeanDependencyGraph graph = new BeanDependencyGraph(eager);
+        for (BeanDefinition def : eager) {
+            findConstructionDependencies(def).forEach(dep -> graph.addDependency(def, dep));
+            findInjectionDependencies(def).forEach(dep -> graph.addDependency(def, dep));
+        }
+        return graph;
+    }
+
+    /**
+     * 逐层处理Bean定义，同一层中的各组并行处理，组内按顺序处理，每层全部完成后才处理下一层
+     * 任务失败时，抛出该层中排序最靠前的失败任务的异常，保证报告的错误与线程调度无关
+     *
+     * @param executor 线程池
+     * @param levels   按拓扑顺序排列的层
+     * @param action   对每个Bean定义执行的操作
+     */
+    private void runInLevels(ExecutorService executor, List<List<List<BeanDefinition>>> levels, Consumer<BeanDefinition> action) {
+        for (List<List<BeanDefinition>> level : levels) {
+            // 只有一组时直接在当前线程执行
+            if (level.size() == 1) {
+                level.get(0).forEach(action);
+                continue;
+            }
+            List<Callable<Void>> tasks = level.stream().map(group -> (Callable<Void>) () -> {
+                group.forEach(action);
+                return null;
+            }).toList();
+            try {
+                for (Future<Void> future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BeanCreationException("Interrupted when refresh beans in parallel.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException re) {
+                    throw re;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new BeanCreationException(cause);
+            }
+        }
+    }
+
+    /**
+     * 记录已创建的单例Bean依赖的Bean名称，必须在释放创建元数据之前调用
+     *
+     * @param def Bean的定义
+     * @return 依赖的Bean名称列表
+     */
+    private List<String> recordDependencies(BeanDefinition def) {
+        List<String> deps = new ArrayList<>();
+        findConstructionDependencies(def).forEach(dep -> deps.add(dep.getName()));
+        findInjectionDependencies(def).forEach(dep -> deps.add(dep.getName()));
+        this.beanDependencies.put(def.getName(), List.copyOf(deps));
+        return deps;
+    }
+
+    /**
+     * 查找Bean在创建时依赖的Bean定义，包括工厂Bean以及构造方法/工厂方法中@Autowired参数对应的Bean
+     *
+     * @param def Bean的定义
+     * @return 依赖的Bean定义列表
+     */
+    private List<BeanDefinition> findConstructionDependencies(BeanDefinition def) {
+        List<BeanDefinition> deps = new ArrayList<>();
+        if (def.getFactoryName() != null) {
+            BeanDefinition factoryDef = findBeanDefinition(def.getFactoryName());
+            if (factoryDef != null && isLocalDefinition(factoryDef)) {
+                deps.add(factoryDef);
+            }
+        }
+        // 编译期生成的Bean已记录依赖
+        if (def.getGenerated() != null) {
+            def.getGenerated().constructionDependencies().forEach(dep -> addAutowiredDependency(deps, dep.name(), dep.type()));
+            return deps;
+        }
+        Executable createFn = def.getFactoryName() == null ? def.getConstructor() : def.getFactoryMethod();
+        // 创建元数据在容器冻结后已释放
+        if (createFn == null) {
+            return deps;
+        }
+        final Parameter[] parameters = createFn.getParameters();
+        final Annotation[][] parametersAnnos = createFn.getParameterAnnotations();
+        for (int i = 0; i < parameters.length; i++) {
+            Autowired autowired = ClassUtils.getAnnotation(parametersAnnos[i], Autowired.class);
+            // ObjectProvider不是创建时的依赖
+            if (autowired != null && parameters[i].getType() != ObjectProvider.class) {
+                addAutowiredDependency(deps, autowired.name(), parameters[i].getType());
+            }
+        }
+        return deps;
+    }
+
+    /**
+     * 查找Bean在注入时依赖的Bean定义，即声明类型及其父类中@Autowired字段和set方法对应的Bean
+     *
+     * @param def Bean的定义
+     * @return 依赖的Bean定义列表
+     */
+    private List<BeanDefinition> findInjectionDependencies(BeanDefinition def) {
+        List<BeanDefinition> deps = new ArrayList<>();
+        if (def.getGenerated() != null) {
+            def.getGenerated().injectionDependencies().forEach(dep -> addAutowiredDependency(deps, dep.name(), dep.type()));
+            return deps;
+        }
+        for (InjectionPoint point : getInjectionPlan(def).getPoints()) {
+            if (point.autowired() != null && point.providedType() == null) {
+                addAutowiredDependency(deps, point.autowired().name(), point.type());
+            }
+        }
+        return deps;
+    }
+
+    /**
+     * 解析@Autowired对应的Bean定义并加入依赖列表，找不到时由实际创建或注入时报告
+     * 父上下文中的Bean已创建完成，不影响当前上下文中Bean的创建、初始化和销毁顺序，因此不加入依赖列表
+     *
+     * @param deps 依赖的Bean定义列表
+     * @param name 注解指定的Bean名称，为空字符串时按类型查找
+     * @param type 依赖的类型
+     */
+    private void addAutowiredDependency(List<BeanDefinition> deps, String name, Class<?> type) {
+        BeanDefinition dep = name.isEmpty() ? findBeanDefinition(type) : findBeanDefinition(name, type);
+        if (dep != null && isLocalDefinition(dep)) {
+            deps.add(dep);
+        }
+    }
+
+    /**
+     * 注入依赖，但不调用init方法
+     *
+     * @param def 要进行属性注入的 Bean定义
+     */
+    private void injectBean(BeanDefinition def) {
+        long injectStart = System.nanoTime();
+        ApplicationContext previous = ApplicationContextUtils.bind(this);
+        try {
+            // 获取Bean实例，或被代理的原始实例
+            // 一个Bean如果被Proxy替换，如果要注入依赖，则应该注入到原始对象
+            // getProxiedInstance 用于获取原始的未经过代理的 Bean 实例
+            injectInstance(def, getProxiedInstance(def));
+        } finally {
+            ApplicationContextUtils.restore(previous);
+        }
+        this.startupTimeline.recordInjection(def.getName(), System.nanoTime() - injectStart);
+    }
+
+    /**
+     * 将属性值和依赖Bean注入到Bean实例中
+     *
+     * @param def          Bean的定义
+     * @param beanInstance Bean实例，或被代理的原始实例
+     */
+    private void injectInstance(BeanDefinition def, Object beanInstance) {
+        if (def.getGenerated() != null) {
+            // 编译期生成的Bean由生成的代码直接注入
+            try {
+                def.getGenerated().injector().inject(beanInstance, new GeneratedBeanResolver(def));
+            } catch (Error | BeansException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new BeanCreationException(String.format("Exception when inject bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+            }
+        } else {
+            // 按def的声明类型的注入计划依次注入
+            for (InjectionPoint point : getInjectionPlan(def).getPoints()) {
+                injectProperty(def, beanInstance, point);
+            }
+        }
     }
 
     /**
-     * 注入依赖，但不调用init方法
+     * 获取Bean声明类型的注入计划，每个类型只解析一次
      *
-     * @param def 要进行属性注入的 Bean定义
+     * @param def Bean的定义
+     * @return 注入计划
      */
-    private void injectBean(BeanDefinition def) {
-        // 获取Bean实例，或被代理的原始实例
-        // 一个Bean如果被Proxy替换，如果要注入依赖，则应该注入到原始对象
-        // getProxiedInstance 用于获取原始的未经过代理的 Bean 实例
-        final Object beanInstance = getProxiedInstance(def);
-        try {
-            // 为指定的Bean实例注入属性值，会传入def的声明类型
-            injectProperties(def, def.getBeanClass(), beanInstance);
-        } catch (ReflectiveOperationException e) {
-            throw new BeanCreationException(e);
+    private InjectionPlan getInjectionPlan(BeanDefinition def) {
+        InjectionPlan plan = this.injectionPlans.get(def.getBeanClass());
+        if (plan == null) {
+            plan = InjectionPlan.build(def, def.getBeanClass());
+            InjectionPlan previous = this.injectionPlans.putIfAbsent(def.getBeanClass(), plan);
+            if (previous != null) {
+                plan = previous;
+            }
         }
+        return plan;
     }
 
     /**
@@ -665,13 +2070,21 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      */
     private Object getProxiedInstance(BeanDefinition def) {
         // BeanDefinition 中的 instance 为 原始对象 或 Proxy
-        Object beanInstance = def.getInstance();
+        return getProxiedInstance(def.getName(), def.getInstance());
+    }
+
+    /**
+     * 获取Bean实例被代理的原始实例，原型Bean的实例不保存在定义中，直接传入实例
+     *
+     * @param name         Bean的名称
+     * @param beanInstance Bean实例，为原始对象或Proxy
+     * @return Bean实例，或被代理的原始实例
+     */
+    private Object getProxiedInstance(String name, Object beanInstance) {
         // 如果Proxy改变了原始Bean，又希望注入到原始Bean，则由BeanPostProcessor指定原始Bean
-        List<BeanPostProcessor> reversedBeanPostProcessors = new ArrayList<>(this.beanPostProcessors);
-        Collections.reverse(reversedBeanPostProcessors);
         // 按beanPostProcessors的逆序依次进行还原
-        for (BeanPostProcessor beanPostProcessor : reversedBeanPostProcessors) {
-            Object restoredInstance = beanPostProcessor.postProcessOnSetProperty(beanInstance, def.getName());
+        for (BeanPostProcessor beanPostProcessor : this.reversedBeanPostProcessors) {
+            Object restoredInstance = beanPostProcessor.postProcessOnSetProperty(beanInstance, name);
             if (restoredInstance != beanInstance) {
                 logger.atDebug().log("BeanPostProcessor {} specified injection from {} to {}.", beanPostProcessor.getClass().getSimpleName(), beanInstance.getClass().getSimpleName(), restoredInstance.getClass().getSimpleName());
                 beanInstance = restoredInstance;
@@ -686,18 +2099,173 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      * @param def 要进行初始化的 Bean定义
      */
     private void initBean(BeanDefinition def) {
-        // 获取Bean实例，或被代理的原始实例
-        final Object beanInstance = getProxiedInstance(def);
-        // 调用init方法
-        callMethod(beanInstance, def.getInitMethod(), def.getInitMethodName());
-        // 调用BeanPostProcessor.postProcessAfterInitialization():
-        beanPostProcessors.forEach(beanPostProcessor -> {
-            Object processedInstance = beanPostProcessor.postProcessAfterInitialization(def.getInstance(), def.getName());
-            if (processedInstance != def.getInstance()) {
-                logger.atDebug().log("BeanPostProcessor {} return different bean from {} to {}.", beanPostProcessor.getClass().getSimpleName(), def.getInstance().getClass().getName(), processedInstance.getClass().getName());
-                def.setInstance(processedInstance);
+        awaitAsyncInitDependencies(def);
+        Object processed = initInstance(def, def.getInstance());
+        if (processed != def.getInstance()) {
+            def.setInstance(processed);
+        }
+    }
+
+    /**
+     * 为在启动时创建的@AsyncInit Bean预先登记初始化结果并创建线程池
+     * 结果在启动初始化之前登记，依赖方无论先于还是后于被依赖方处理，都可以直接等待或串联，不会因登记顺序而遗漏
+     */
+    private void prepareAsyncInits() {
+        List<BeanDefinition> defs = this.beans.values().stream().filter(def -> def.isAsyncInit() && isEagerDefinition(def)).toList();
+        if (defs.isEmpty()) {
+            return;
+        }
+        // @AsyncInit Bean之间的依赖通过串联结果实现，存在循环时将永远无法完成
+        BeanDependencyGraph graph = new BeanDependencyGraph(defs);
+        for (BeanDefinition def : defs) {
+            findConstructionDependencies(def).forEach(dep -> graph.addDependency(def, dep));
+            findInjectionDependencies(def).forEach(dep -> graph.addDependency(def, dep));
+        }
+        List<BeanDefinition> cycle = graph.findCycle();
+        if (!cycle.isEmpty()) {
+            throw new UnsatisfiedDependencyException(String.format("Circular dependency detected between @AsyncInit beans: %s", cycle.stream().map(BeanDefinition::getName).toList()));
+        }
+        defs.forEach(def -> this.asyncInits.put(def.getName(), new CompletableFuture<>()));
+        int parallelism = this.propertyResolver.getProperty("${spring.context.async-init.parallelism:" + Runtime.getRuntime().availableProcessors() + "}", int.class);
+        // 工作线程使用与当前线程相同的上下文类加载器，并设置为守护线程，启动失败时不阻止JVM退出
+        final ClassLoader classLoader = ClassPathUtils.getContextClassLoader();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.asyncInitExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread thread = new Thread(r, "bean-async-init-" + threadNumber.incrementAndGet());
+            thread.setContextClassLoader(classLoader);
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.atInfo().log("{} beans will be initialized in background: {}", defs.size(), defs.stream().sorted().map(BeanDefinition::getName).toList());
+    }
+
+    /**
+     * 在后台初始化@AsyncInit Bean，在其依赖的@AsyncInit Bean全部完成后才开始，等待期间不占用线程
+     * 调用方按初始化依赖图分层启动，依赖的其他Bean此时均已初始化
+     *
+     * @param def @AsyncInit Bean的定义
+     */
+    private void startAsyncInit(BeanDefinition def) {
+        CompletableFuture<Void> result = this.asyncInits.get(def.getName());
+        List<CompletableFuture<Void>> deps = new ArrayList<>();
+        findConstructionDependencies(def).forEach(dep -> addAsyncInitDependency(deps, def, dep));
+        findInjectionDependencies(def).forEach(dep -> addAsyncInitDependency(deps, def, dep));
+        CompletableFuture.allOf(deps.toArray(CompletableFuture[]::new))
+                .thenRunAsync(() -> initBean(def), this.asyncInitExecutor)
+                .whenComplete((v, e) -> {
+                    if (e == null) {
+                        logger.atDebug().log("bean '{}' initialized in background.", def.getName());
+                        result.complete(null);
+                        // 先完成再检查冻结标志：冻结时要么看到已完成并释放，要么由此释放创建元数据
+                        if (this.frozen) {
+                            def.releaseCreationMetadata();
+                        }
+                    } else {
+                        result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    }
+                });
+    }
+
+    /**
+     * 将依赖的@AsyncInit Bean的初始化结果加入列表
+     *
+     * @param deps 初始化结果列表
+     * @param def  依赖方
+     * @param dep  被依赖方
+     */
+    private void addAsyncInitDependency(List<CompletableFuture<Void>> deps, BeanDefinition def, BeanDefinition dep) {
+        CompletableFuture<Void> future = this.asyncInits.get(dep.getName());
+        if (future != null && dep != def) {
+            deps.add(future);
+        }
+    }
+
+    /**
+     * 在初始化Bean之前等待其依赖的@AsyncInit Bean初始化完成
+     *
+     * @param def 要进行初始化的Bean定义
+     */
+    private void awaitAsyncInitDependencies(BeanDefinition def) {
+        // 没有@AsyncInit Bean或已全部成功完成时无需查找依赖
+        CompletableFuture<Void> ready = this.readiness;
+        if (this.asyncInits.isEmpty() || (ready != null && ready.isDone() && !ready.isCompletedExceptionally())) {
+            return;
+        }
+        List<BeanDefinition> deps = new ArrayList<>(findConstructionDependencies(def));
+        deps.addAll(findInjectionDependencies(def));
+        for (BeanDefinition dep : deps) {
+            CompletableFuture<Void> future = this.asyncInits.get(dep.getName());
+            if (future == null || dep == def) {
+                continue;
+            }
+            if (!future.isDone()) {
+                logger.atDebug().log("bean '{}' waits for @AsyncInit bean '{}'.", def.getName(), dep.getName());
+            }
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                throw new BeanCreationException(String.format("@AsyncInit bean '%s' required by bean '%s' failed to initialize.", dep.getName(), def.getName()), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * 结束初始化阶段，得到所有@AsyncInit Bean初始化完成的屏障，全部完成后关闭线程池
+     *
+     * @return 屏障，没有@AsyncInit Bean时已完成
+     */
+    private CompletableFuture<Void> finishAsyncInits() {
+        if (this.asyncInits.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final ExecutorService executor = this.asyncInitExecutor;
+        final long start = System.nanoTime();
+        CompletableFuture<Void> barrier = CompletableFuture.allOf(this.asyncInits.values().toArray(CompletableFuture[]::new));
+        barrier.whenComplete((v, e) -> {
+            executor.shutdown();
+            if (e == null) {
+                logger.atInfo().log("background initialization finished {} ms after refresh.", (System.nanoTime() - start) / 1_000_000);
             }
         });
+        return barrier;
+    }
+
+    /**
+     * 调用Bean实例的初始化方法，然后按beanPostProcessors的顺序依次调用postProcessAfterInitialization()
+     *
+     * @param def      Bean的定义
+     * @param instance Bean的实例，为原始对象或Proxy
+     * @return 处理后的Bean实例
+     */
+    private Object initInstance(BeanDefinition def, Object instance) {
+        // 初始化方法和后处理器可能在后台线程中执行，通过ApplicationContextUtils获取到的应为当前上下文
+        ApplicationContext previous = ApplicationContextUtils.bind(this);
+        try {
+            // 获取Bean实例，或被代理的原始实例
+            final Object beanInstance = getProxiedInstance(def.getName(), instance);
+            // 调用init方法
+            long initStart = System.nanoTime();
+            if (def.getGenerated() != null && def.getGenerated().initMethod() != null) {
+                callGenerated(def, beanInstance, def.getGenerated().initMethod());
+            } else {
+                callMethod(beanInstance, def.getInitMethod(), def.getInitMethodName());
+            }
+            this.startupTimeline.recordInit(def.getName(), System.nanoTime() - initStart);
+            // 调用BeanPostProcessor.postProcessAfterInitialization():
+            for (BeanPostProcessor beanPostProcessor : this.beanPostProcessors) {
+                long processStart = System.nanoTime();
+                Object processedInstance = beanPostProcessor.postProcessAfterInitialization(instance, def.getName());
+                this.startupTimeline.recordPostProcessor(def.getName(), beanPostProcessor.getClass().getName(), System.nanoTime() - processStart);
+                if (processedInstance != instance) {
+                    logger.atDebug().log("BeanPostProcessor {} return different bean from {} to {}.", beanPostProcessor.getClass().getSimpleName(), instance.getClass().getName(), processedInstance.getClass().getName());
+                    def.checkInstance(processedInstance);
+                    instance = processedInstance;
+                }
+            }
+            return instance;
+        } finally {
+            ApplicationContextUtils.restore(previous);
+        }
     }
 
     /**
@@ -728,141 +2296,132 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
     }
 
+    /**
+     * 调用编译期生成的初始化或销毁方法
+     *
+     * @param def          Bean的定义
+     * @param beanInstance 调用方法的对象实例
+     * @param callback     生成的初始化或销毁方法
+     */
+    private void callGenerated(BeanDefinition def, Object beanInstance, GeneratedBean.Callback callback) {
+        try {
+            callback.invoke(beanInstance);
+        } catch (Error | BeansException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new BeanCreationException(String.format("Exception when call init or destroy method of bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+        }
+    }
+
     /**
      * 关闭并执行所有bean的destroy方法
      * 在关闭容器之前，会依次执行所有bean的destroy方法，以释放资源或执行清理操作。
      */
     @Override
     public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
         logger.info("Closing {}...", this.getClass().getName());
-        // 遍历所有BeanDefinition，执行每个bean的destroy方法
-        this.beans.values().forEach(def -> {
-            final Object beanInstance = getProxiedInstance(def);
-            callMethod(beanInstance, def.getDestroyMethod(), def.getDestroyMethodName());
-        });
+        // 发布关闭事件，并等待已提交的异步事件分发完成
+        publishEvent(new ContextClosedEvent(this));
+        long timeout = this.propertyResolver.getProperty("${spring.context.event.async.shutdown-timeout:5000}", long.class);
+        this.eventMulticaster.close(timeout, TimeUnit.MILLISECONDS);
+        // 按依赖关系的逆序并行销毁单例Bean，跳过未创建的延迟Bean
+        destroySingletons();
+        // 销毁对象池中的空闲实例，已取出但尚未归还的原型Bean由调用方负责
+        this.beanPools.forEach((name, pool) -> pool.drain().forEach(instance -> destroyInstance(this.beans.get(name), instance)));
         // 清空BeanDefinition集合
-        this.beans.clear();
-        // 将ApplicationContextUtils中的ApplicationContext设置为null，表示容器已关闭
+        this.beans = Map.of();
+        this.typeIndex = BeanTypeIndex.EMPTY;
+        // 如果ApplicationContextUtils中的默认ApplicationContext为当前上下文，则将其设置为null，表示容器已关闭
+        // 子上下文只销毁自身的Bean，父上下文及其他子上下文不受影响
         logger.info("{} closed.", this.getClass().getName());
-        ApplicationContextUtils.setApplicationContext(null);
+        ApplicationContextUtils.clearApplicationContext(this);
     }
 
     /**
-     * 为指定的Bean实例注入属性值
-     *
-     * @param def   Bean的定义
-     * @param clazz Bean的声明类型，或Bean的声明类型的父类
-     * @param bean  要进行属性注入的Bean实例，可能为原始未经代理的Bean实例
-     * @throws ReflectiveOperationException 如果在注入属性值时发生反射操作异常，则抛出此异常
+     * 按依赖关系的逆序销毁所有已创建的单例Bean：依赖方先于被依赖方销毁，互不依赖的Bean并行销毁，
+     * 每个Bean和整个过程均有超时时间，超时或失败的Bean只记录日志，最后输出耗时最长的几个Bean
      */
-    private void injectProperties(BeanDefinition def, Class<?> clazz, Object bean) throws ReflectiveOperationException {
-        // 在当前类查找 Field 和 Method 并注入
-        for (Field f : clazz.getDeclaredFields()) {
-            tryInjectProperties(def, clazz, bean, f);
+    private void destroySingletons() {
+        long timeout = this.propertyResolver.getProperty("${spring.context.shutdown.timeout:30000}", long.class);
+        // 先等待后台初始化结束，避免销毁仍在初始化的Bean
+        try {
+            if (!awaitReady(timeout, TimeUnit.MILLISECONDS)) {
+                logger.warn("background initialization not finished after {} ms, destroy beans anyway.", timeout);
+            }
+        } catch (BeanCreationException e) {
+            logger.warn("background initialization failed.", e);
         }
-        for (Method m : clazz.getDeclaredMethods()) {
-            tryInjectProperties(def, clazz, bean, m);
+        List<BeanDefinition> created = this.beans.values().stream().filter(def -> def.getInstance() != null).toList();
+        BeanDependencyGraph graph = new BeanDependencyGraph(created);
+        for (BeanDefinition def : created) {
+            for (String dep : this.beanDependencies.getOrDefault(def.getName(), List.of())) {
+                BeanDefinition depDef = this.beans.get(dep);
+                if (depDef != null) {
+                    graph.addDependency(def, depDef);
+                }
+            }
         }
-        // 在父类查找 Field 和 Method 并注入
-        // If this Class object represents either the Object class, an interface, a primitive type, or void, then null is returned
-        Class<?> superClazz = clazz.getSuperclass();
-        if (superClazz != null) {
-            injectProperties(def, superClazz, bean);
+        int parallelism = this.propertyResolver.getProperty("${spring.context.shutdown.parallelism:" + Runtime.getRuntime().availableProcessors() + "}", int.class);
+        long beanTimeout = this.propertyResolver.getProperty("${spring.context.shutdown.bean-timeout:10000}", long.class);
+        long start = System.nanoTime();
+        ShutdownEngine.Report report = new ShutdownEngine(parallelism, beanTimeout, timeout, TimeUnit.MILLISECONDS)
+                .shutdown(graph.getLevels(), def -> destroyInstance(def, def.getInstance()));
+        logger.atInfo().log("{} beans destroyed in {} ms, slowest: {}", created.size(), (System.nanoTime() - start) / 1_000_000,
+                report.getSlowest(5).stream().map(bean -> bean.name() + " (" + bean.nanos() / 1_000_000 + " ms)").toList());
+    }
+
+    /**
+     * 调用Bean实例的销毁方法
+     *
+     * @param def      Bean的定义
+     * @param instance Bean的实例，为原始对象或Proxy
+     */
+    private void destroyInstance(BeanDefinition def, Object instance) {
+        final Object beanInstance = getProxiedInstance(def.getName(), instance);
+        if (def.getGenerated() != null && def.getGenerated().destroyMethod() != null) {
+            callGenerated(def, beanInstance, def.getGenerated().destroyMethod());
+        } else {
+            callMethod(beanInstance, def.getDestroyMethod(), def.getDestroyMethodName());
         }
     }
 
     /**
-     * 尝试将属性或方法注入到Bean实例中
+     * 将属性值或依赖Bean注入到一个注入点
      *
      * @param def   Bean的定义
-     * @param clazz Bean的声明类型，或Bean的声明类型的父类
      * @param bean  要进行属性注入的Bean实例，可能为原始未经代理的Bean实例
-     * @param acc   可访问对象（属性或方法）
-     * @throws ReflectiveOperationException 如果发生依赖不满足的异常，则抛出此异常
-     */
-    private void tryInjectProperties(BeanDefinition def, Class<?> clazz, Object bean, AccessibleObject acc) throws ReflectiveOperationException {
-        Value value = acc.getAnnotation(Value.class);
-        Autowired autowired = acc.getAnnotation(Autowired.class);
-        // 无需注入
-        if (value == null && autowired == null) {
-            return;
-        }
-        Field field = null;
-        Method method = null;
-        if (acc instanceof Field f) {
-            checkFieldOrMethod(f);
-            f.setAccessible(true);
-            field = f;
-        }
-        if (acc instanceof Method m) {
-            checkFieldOrMethod(m);
-            if (m.getParameters().length != 1) {
-                throw new BeanDefinitionException(String.format("Cannot inject a non-setter method %s for bean '%s': %s", m.getName(), def.getName(), def.getBeanClass().getName()));
-            }
-            m.setAccessible(true);
-            method = m;
-        }
-        String accessibleName = field != null ? field.getName() : method.getName();
-        Class<?> accessibleType = field != null ? field.getType() : method.getParameterTypes()[0];
-        // 参数需要 @Value 或 @Autowired 两者之一
-        if (value != null && autowired != null) {
-            throw new BeanCreationException(String.format("Cannot specify both @Autowired and @Value when inject %s.%s for bean '%s': %s", clazz.getSimpleName(), accessibleName, def.getName(), def.getBeanClass().getName()));
-        }
+     * @param point 注入点
+     */
+    private void injectProperty(BeanDefinition def, Object bean, InjectionPoint point) {
         // 参数设置为查询的 @Value
-        if (value != null) {
-            Object propValue = this.propertyResolver.getRequiredProperty(value.value(), accessibleType);
-            if (field != null) {
-                logger.atDebug().log("Field injection: {}.{} = {}", def.getBeanClass().getName(), accessibleName, propValue);
-                field.set(bean, propValue);
-            }
-            if (method != null) {
-                logger.atDebug().log("Field injection: {}.{} = {}", def.getBeanClass().getName(), accessibleName, propValue);
-                method.invoke(bean, propValue);
-            }
+        if (point.value() != null) {
+            Object propValue = this.propertyResolver.getRequiredProperty(point.value().value(), point.type());
+            logger.atDebug().log("Field injection: {}.{} = {}", def.getBeanClass().getName(), point.name(), propValue);
+            point.inject(bean, propValue);
+        }
+        // ObjectProvider总是注入，注入时不查找也不创建目标Bean
+        if (point.providedType() != null) {
+            point.inject(bean, new BeanProvider<>(point.providedType(), point.autowired().name()));
+            return;
         }
         // 参数是@Autowired，查找依赖的BeanDefinition
-        if (autowired != null) {
-            String name = autowired.name();
-            boolean required = autowired.value();
-            // 依赖的Bean
-            Object depends = name.isEmpty() ? findBean(accessibleType) : findBean(name, accessibleType);
+        if (point.autowired() != null) {
+            String name = point.autowired().name();
+            boolean required = point.autowired().value();
+            // 依赖的Bean，原型Bean在启动时注入的依赖可能尚未创建
+            BeanDefinition dependsOnDef = name.isEmpty() ? findBeanDefinition(point.type()) : findBeanDefinition(name, point.type());
+            Object depends = dependsOnDef == null ? null : getDependencyInstance(dependsOnDef);
             // 检测required == true，注意 Bean 的应该存在，若不存在则报错
             if (required && depends == null) {
-                throw new UnsatisfiedDependencyException(String.format("Dependency bean not found when inject %s.%s for bean '%s': %s", clazz.getSimpleName(), accessibleName, def.getName(), def.getBeanClass().getName()));
+                throw new UnsatisfiedDependencyException(String.format("Dependency bean not found when inject %s.%s for bean '%s': %s", point.declaringClass().getSimpleName(), point.name(), def.getName(), def.getBeanClass().getName()));
             }
             // 依赖的Bean不为空，需要设置
             if (depends != null) {
-                if (field != null) {
-                    logger.atDebug().log("Field injection: {}.{} = {}", def.getBeanClass().getName(), accessibleName, depends);
-                    field.set(bean, depends);
-                }
-                if (method != null) {
-                    logger.atDebug().log("Mield injection: {}.{} ({})", def.getBeanClass().getName(), accessibleName, depends);
-                    method.invoke(bean, depends);
-                }
-            }
-        }
-    }
-
-    /**
-     * 检查成员（字段或方法）是否可以注入到Bean实例中
-     *
-     * @param m 要检查的成员（属性或方法）
-     */
-    private void checkFieldOrMethod(Member m) {
-        // 获取属性或方法的修饰符
-        int mod = m.getModifiers();
-        // 静态属性/方法，不能注入
-        if (Modifier.isStatic(mod)) {
-            throw new BeanDefinitionException("Cannot inject static field: " + m);
-        }
-        // 常量属性/方法
-        if (Modifier.isFinal(mod)) {
-            if (m instanceof Field field) {
-                throw new BeanDefinitionException("Cannot inject final field: " + field);
-            }
-            if (m instanceof Method) {
-                logger.warn("Inject final method should be careful because it is not called on target bean when bean is proxied and may cause NullPointerException.");
+                logger.atDebug().log("{} injection: {}.{} = {}", point.isField() ? "Field" : "Method", def.getBeanClass().getName(), point.name(), depends);
+                point.inject(bean, depends);
             }
         }
     }
@@ -909,6 +2468,12 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
             if (bean == null) {
                 continue;
             }
+            // 不满足条件的 @Bean 方法不注册
+            String skipped = this.conditionEvaluator.evaluate(method);
+            if (skipped != null) {
+                skipBean(ClassUtils.getBeanName(method), skipped);
+                continue;
+            }
             // 获取方法的修饰符
             int mod = method.getModifiers();
             // 检查方法是否为抽象方法
@@ -946,6 +2511,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     method,
                     getOrder(method),
                     method.isAnnotationPresent(Primary.class),
+                    method.isAnnotationPresent(Lazy.class),
+                    method.isAnnotationPresent(AsyncInit.class),
+                    getScope(method.getAnnotation(Scope.class), method.getAnnotation(Pooled.class)),
+                    getPoolSize(method.getAnnotation(Pooled.class)),
                     // 注解中指定找初始方法名称，若没有则返回null
                     bean.initMethod().isEmpty() ? null : bean.initMethod(),
                     // 注解中指定找销毁方法名称，若没有则返回null
@@ -953,10 +2522,134 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     null,
                     null);
             addBeanDefinitions(defs, def);
+            addMissingBeanCondition(method, def);
             logger.atDebug().log("define bean: {}", def);
         }
     }
 
+    /**
+     * 记录因不满足条件而未注册的Bean
+     *
+     * @param name   Bean名称
+     * @param reason 原因
+     */
+    private void skipBean(String name, String reason) {
+        this.skippedBeans.put(name, reason);
+        logger.atDebug().log("skip bean {}: {}", name, reason);
+    }
+
+    /**
+     * 记录Bean定义上的@ConditionalOnMissingBean条件
+     *
+     * @param element 组件类或@Bean方法
+     * @param def     Bean定义
+     */
+    private void addMissingBeanCondition(AnnotatedElement element, BeanDefinition def) {
+        Class<?>[] types = this.conditionEvaluator.getMissingBeanTypes(element, def.getBeanClass());
+        if (types != null) {
+            this.missingBeanConditions.put(def.getName(), types);
+        }
+    }
+
+    /**
+     * 对@ConditionalOnMissingBean求值并移除不满足条件的Bean定义
+     * 无条件的Bean定义总是保留，有条件的Bean定义按顺序依次求值，已保留的Bean定义中不存在指定类型时才保留，
+     * 因此多个同类型的候选中只保留第一个；被移除的配置类中的@Bean方法定义的Bean也一并移除
+     *
+     * @param defs Bean定义集合
+     */
+    private void skipOnMissingBean(Map<String, BeanDefinition> defs) {
+        if (this.missingBeanConditions.isEmpty()) {
+            return;
+        }
+        List<BeanDefinition> candidates = defs.values().stream()
+                .filter(def -> this.missingBeanConditions.containsKey(def.getName()))
+                .sorted().toList();
+        candidates.forEach(def -> defs.remove(def.getName()));
+        for (BeanDefinition candidate : candidates) {
+            String existing = null;
+            for (Class<?> type : this.missingBeanConditions.get(candidate.getName())) {
+                existing = defs.values().stream()
+                        .filter(def -> type.isAssignableFrom(def.getBeanClass()))
+                        .map(def -> String.format("@ConditionalOnMissingBean found bean '%s' of type %s", def.getName(), type.getName()))
+                        .findFirst().orElse(null);
+                // 父上下文中已存在的Bean同样满足条件
+                for (AnnotationConfigApplicationContext ancestor = this.parent; existing == null && ancestor != null; ancestor = ancestor.parent) {
+                    existing = ancestor.findBeanDefinitions(type).stream()
+                            .map(def -> String.format("@ConditionalOnMissingBean found bean '%s' of type %s in parent context", def.getName(), type.getName()))
+                            .findFirst().orElse(null);
+                }
+                if (existing != null) {
+                    break;
+                }
+            }
+            if (existing == null) {
+                defs.put(candidate.getName(), candidate);
+            } else {
+                skipBean(candidate.getName(), existing);
+            }
+        }
+        // 移除工厂Bean已被移除的Bean定义
+        List<BeanDefinition> orphans;
+        do {
+            orphans = defs.values().stream()
+                    .filter(def -> def.getFactoryName() != null && !defs.containsKey(def.getFactoryName()) && this.skippedBeans.containsKey(def.getFactoryName()))
+                    .toList();
+            for (BeanDefinition def : orphans) {
+                defs.remove(def.getName());
+                skipBean(def.getName(), String.format("factory bean '%s' skipped", def.getFactoryName()));
+            }
+        } while (!orphans.isEmpty());
+        this.missingBeanConditions.clear();
+    }
+
+    /**
+     * 获取因不满足条件而未注册的Bean及原因
+     *
+     * @return Bean名称到原因的映射，按名称排序且不可修改
+     */
+    @Override
+    public SortedMap<String, String> getSkippedBeans() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(this.skippedBeans));
+    }
+
+    /**
+     * 获取父上下文
+     *
+     * @return 父上下文，根上下文返回null
+     */
+    @Override
+    @Nullable
+    public ConfigurableApplicationContext getParent() {
+        return this.parent;
+    }
+
+    /**
+     * 等待所有@AsyncInit Bean在后台完成初始化
+     *
+     * @param timeout 等待时间
+     * @param unit    时间单位
+     * @return 如果已就绪，则返回true；如果超时或等待被中断，则返回false
+     */
+    @Override
+    public boolean awaitReady(long timeout, TimeUnit unit) {
+        try {
+            this.readiness.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof BeanCreationException bce) {
+                throw bce;
+            }
+            throw new BeanCreationException("Exception when initialize @AsyncInit bean.", cause);
+        }
+    }
+
     /**
      * 检查并添加Bean定义，可以确保每个 Bean 的名称在定义集合中是唯一的，避免命名冲突
      *
@@ -968,6 +2661,34 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (defs.put(def.getName(), def) != null) {
             throw new BeanDefinitionException("Duplicate bean name: " + def.getName());
         }
+        // 配置类和BeanPostProcessor在启动时创建且只能有一个实例
+        if (!def.isSingleton() && (isConfigurationDefinition(def) || isBeanPostProcessorDefinition(def))) {
+            throw new BeanDefinitionException(String.format("@Configuration or BeanPostProcessor bean '%s' must be singleton: %s", def.getName(), def.getBeanClass().getName()));
+        }
+    }
+
+    /**
+     * 根据@Scope和@Pooled注解获取作用域，只标注@Pooled时为原型
+     *
+     * @param scope  @Scope注解
+     * @param pooled @Pooled注解
+     * @return 作用域
+     */
+    private String getScope(@Nullable Scope scope, @Nullable Pooled pooled) {
+        if (scope != null) {
+            return scope.value();
+        }
+        return pooled != null ? Scope.PROTOTYPE : Scope.SINGLETON;
+    }
+
+    /**
+     * 根据@Pooled注解获取对象池中最多保留的空闲实例数
+     *
+     * @param pooled @Pooled注解
+     * @return 空闲实例数，未标注时为0
+     */
+    private int getPoolSize(@Nullable Pooled pooled) {
+        return pooled == null ? 0 : pooled.max();
     }
 
     /**
@@ -978,7 +2699,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      */
     private int getOrder(Class<?> clazz) {
         // 使用 getAnnotation(Order.class) 方法获取类上的 @Order 注解
-        Order order = clazz.getAnnotation(Order.class);
+        Order order = ClassUtils.getAnnotation(clazz, Order.class);
         // 如果 order 变量为 null，说明类上没有 @Order 注解，返回 Integer.MAX_VALUE 表示最高优先级
         // 如果 order 变量不为 null，调用 value() 方法获取 @Order 注解的排序值，并返回该值
         return order == null ? Integer.MAX_VALUE : order.value();
@@ -1005,10 +2726,54 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      * @return 如果是配置类的定义，则返回true；否则返回false
      */
     private boolean isConfigurationDefinition(BeanDefinition def) {
+        // 编译期生成的Bean已记录是否为配置类
+        if (def.getGenerated() != null) {
+            return def.getGenerated().configuration();
+        }
         // 检查def的声明类型中是否包含 @Configuration 注解
         return ClassUtils.findAnnotation(def.getBeanClass(), Configuration.class) != null;
     }
 
+    /**
+     * 检查Bean定义是否属于当前上下文，根上下文中的所有Bean定义都属于自身
+     *
+     * @param def Bean定义
+     * @return 如果属于当前上下文，则返回true；如果属于父上下文，则返回false
+     */
+    private boolean isLocalDefinition(BeanDefinition def) {
+        return this.parent == null || this.beans.get(def.getName()) == def;
+    }
+
+    /**
+     * 检查是否为@ConfigurationProperties组件类的Bean定义，@Bean方法定义的Bean依赖配置类实例，不在此列
+     *
+     * @param def Bean定义
+     * @return 如果是@ConfigurationProperties组件类的Bean定义，则返回true；否则返回false
+     */
+    private boolean isConfigurationPropertiesDefinition(BeanDefinition def) {
+        return def.getFactoryName() == null && def.getBeanClass().isAnnotationPresent(ConfigurationProperties.class);
+    }
+
+    /**
+     * 检查是否是延迟到首次获取时创建的Bean定义
+     *
+     * @param def Bean定义
+     * @return 如果是延迟Bean的定义，则返回true；否则返回false
+     */
+    private boolean isLazyDefinition(BeanDefinition def) {
+        return !this.lazyBeanNames.isEmpty() && this.lazyBeanNames.contains(def.getName());
+    }
+
+    /**
+     * 检查是否是在启动时创建的Bean定义，即非延迟的单例Bean
+     *
+     * @param def Bean定义
+     * @return 如果在启动时创建，则返回true；否则返回false
+     */
+    private boolean isEagerDefinition(BeanDefinition def) {
+        return def.isSingleton() && !isLazyDefinition(def);
+    }
+
     /**
      * 检查是否是Bean后处理类的定义
      *
@@ -1019,4 +2784,133 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         // 检查def的声明类型中是否为 BeanPostProcessor 子类
         return BeanPostProcessor.class.isAssignableFrom(def.getBeanClass());
     }
+
+    /**
+     * 组件扫描结果的缓存键，按Class区分同名但由不同类加载器加载的配置类
+     *
+     * @param configClass           配置类
+     * @param componentIndexEnabled 是否使用组件索引
+     * @param aotEnabled            是否使用编译期生成的Bean工厂
+     */
+    private record ScanKey(Class<?> configClass, boolean componentIndexEnabled, boolean aotEnabled) {
+    }
+
+    /**
+     * 为编译期生成的代码解析属性和依赖Bean，行为与通过反射创建和注入时一致
+     */
+    private class GeneratedBeanResolver implements BeanResolver {
+        /**
+         * 正在创建或注入的Bean的定义
+         */
+        private final BeanDefinition def;
+
+        /**
+         * 创建一个GeneratedBeanResolver实例
+         *
+         * @param def 正在创建或注入的Bean的定义
+         */
+        GeneratedBeanResolver(BeanDefinition def) {
+            this.def = def;
+        }
+
+        @Override
+        public Object getProperty(String expression, Class<?> type) {
+            return propertyResolver.getRequiredProperty(expression, type);
+        }
+
+        @Override
+        @Nullable
+        public Object getBean(Class<?> type, String name, boolean required) {
+            BeanDefinition dependsOnDef = name.isEmpty() ? findBeanDefinition(type) : findBeanDefinition(name, type);
+            if (required && dependsOnDef == null) {
+                throw new BeanCreationException(String.format("Missing autowired bean with type '%s' when create bean '%s': %s.", type.getName(), this.def.getName(), this.def.getBeanClass().getName()));
+            }
+            if (dependsOnDef == null) {
+                return null;
+            }
+            // 依赖Bean尚未创建时先创建
+            return getDependencyInstance(dependsOnDef);
+        }
+
+        @Override
+        @Nullable
+        public Object getInjectedBean(String member, Class<?> type, String name, boolean required) {
+            BeanDefinition dependsOnDef = name.isEmpty() ? findBeanDefinition(type) : findBeanDefinition(name, type);
+            Object depends = dependsOnDef == null ? null : getDependencyInstance(dependsOnDef);
+            if (required && depends == null) {
+                throw new UnsatisfiedDependencyException(String.format("Dependency bean not found when inject %s.%s for bean '%s': %s", this.def.getBeanClass().getSimpleName(), member, this.def.getName(), this.def.getBeanClass().getName()));
+            }
+            return depends;
+        }
+
+        @Override
+        public ObjectProvider<?> getProvider(Class<?> type, String name) {
+            return new BeanProvider<>(type, name);
+        }
+
+        @Override
+        public Object getFactoryBean() {
+            return AnnotationConfigApplicationContext.this.getBean(this.def.getFactoryName());
+        }
+    }
+
+    /**
+     * 按类型或名称延迟获取Bean的ObjectProvider，每次调用时从容器中获取
+     *
+     * @param <T> 目标Bean的类型
+     */
+    private class BeanProvider<T> implements ObjectProvider<T> {
+        /**
+         * 目标Bean的类型
+         */
+        private final Class<T> type;
+        /**
+         * 目标Bean名称，为空字符串时按类型查找
+         */
+        private final String name;
+
+        /**
+         * 创建一个BeanProvider实例
+         *
+         * @param type 目标Bean的类型
+         * @param name 目标Bean名称，为空字符串时按类型查找
+         */
+        BeanProvider(Class<T> type, String name) {
+            this.type = type;
+            this.name = name;
+        }
+
+        @Override
+        public T getObject() {
+            return this.name.isEmpty() ? getBean(this.type) : getBean(this.name, this.type);
+        }
+
+        @Override
+        @Nullable
+        public T getIfAvailable() {
+            return this.name.isEmpty() ? findBean(this.type) : findBean(this.name, this.type);
+        }
+
+        @Override
+        public List<T> getObjects() {
+            if (this.name.isEmpty()) {
+                return getBeans(this.type);
+            }
+            T bean = findBean(this.name, this.type);
+            return bean == null ? List.of() : List.of(bean);
+        }
+
+        @Override
+        public void release(T bean) {
+            BeanDefinition def = this.name.isEmpty() ? findBeanDefinition(this.type) : findBeanDefinition(this.name, this.type);
+            if (def != null) {
+                releaseBeanInstance(def, bean);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ObjectProvider<" + this.type.getName() + (this.name.isEmpty() ? "" : ", " + this.name) + ">";
+        }
+    }
 }
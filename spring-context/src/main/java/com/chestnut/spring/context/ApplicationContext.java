@@ -5,7 +5,7 @@ import java.util.List;
 /**
  * 给用户使用的ApplicationContext接口
  **/
-public interface ApplicationContext extends AutoCloseable {
+public interface ApplicationContext extends ApplicationEventPublisher, AutoCloseable {
     /**
      * 判断容器中是否包含指定名称的Bean
      *
@@ -51,6 +51,15 @@ public interface ApplicationContext extends AutoCloseable {
      */
     <T> T getBean(Class<T> requiredType);
 
+    /**
+     * 获取指定类型的Bean的ObjectProvider，此时不查找也不创建Bean，每次调用时才从容器中获取
+     *
+     * @param requiredType 要获取的Bean类型
+     * @param <T>          Bean的类型
+     * @return ObjectProvider
+     */
+    <T> ObjectProvider<T> getBeanProvider(Class<T> requiredType);
+
     /**
      * 关闭并执行所有bean的destroy方法
      */
@@ -7,12 +7,23 @@ import java.util.Objects;
 
 /**
  * 应用上下文工具类
+ * <p>
+ * 同一个JVM中可以同时存在多个上下文（例如共享同一个父上下文的多个子上下文），因此不再假定只有一个全局上下文：
+ * 上下文在刷新、创建延迟Bean和原型Bean期间将自身绑定到当前线程，此时获取到的是正在工作的上下文；
+ * 其他情况下获取到的是默认上下文，即最近创建且尚未关闭的根上下文。
  *
  * @author: Chestnut
  * @since: 2023-07-18
  **/
 public class ApplicationContextUtils {
-    private static ApplicationContext applicationContext = null;
+    /**
+     * 默认上下文，即最近创建且尚未关闭的根上下文
+     */
+    private static volatile ApplicationContext applicationContext = null;
+    /**
+     * 绑定到当前线程的上下文
+     */
+    private static final ThreadLocal<ApplicationContext> CURRENT = new ThreadLocal<>();
 
     /**
      * 获取应用程序上下文。如果应用程序上下文未设置，此方法将抛出一个NullPointerException并带有指定的错误消息
@@ -25,21 +36,59 @@ public class ApplicationContextUtils {
     }
 
     /**
-     * 获取应用程序上下文
+     * 获取应用程序上下文，优先返回绑定到当前线程的上下文
      *
      * @return 应用程序上下文，如果应用程序上下文未设置，则返回null
      */
     @Nullable
     public static ApplicationContext getApplicationContext() {
-        return applicationContext;
+        ApplicationContext current = CURRENT.get();
+        return current != null ? current : applicationContext;
     }
 
     /**
-     * 设置应用程序上下文
+     * 设置默认的应用程序上下文
      *
      * @param ctx 应用程序上下文，用于设置应用程序上下文
      */
-    public static void setApplicationContext(ApplicationContext ctx) {
+    public static synchronized void setApplicationContext(ApplicationContext ctx) {
         applicationContext = ctx;
     }
+
+    /**
+     * 如果默认的应用程序上下文为指定的上下文，则将其清除，其他上下文关闭时不影响默认上下文
+     *
+     * @param ctx 要清除的应用程序上下文
+     */
+    public static synchronized void clearApplicationContext(ApplicationContext ctx) {
+        if (applicationContext == ctx) {
+            applicationContext = null;
+        }
+    }
+
+    /**
+     * 将上下文绑定到当前线程，需要在finally中通过restore()恢复
+     *
+     * @param ctx 应用程序上下文
+     * @return 之前绑定到当前线程的上下文，可能为null
+     */
+    @Nullable
+    static ApplicationContext bind(ApplicationContext ctx) {
+        ApplicationContext previous = CURRENT.get();
+        CURRENT.set(ctx);
+        return previous;
+    }
+
+    /**
+     * 恢复之前绑定到当前线程的上下文
+     *
+     * @param previous bind()返回的上下文
+     */
+    static void restore(@Nullable ApplicationContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
 }
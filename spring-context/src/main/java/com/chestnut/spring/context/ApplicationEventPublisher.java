@@ -0,0 +1,17 @@
+package com.chestnut.spring.context;
+
+/**
+ * 应用程序事件发布器，将事件分发给所有监听该事件类型的@EventListener方法
+ *
+ * @author: Chestnut
+ * @since: 2023-08-12
+ **/
+public interface ApplicationEventPublisher {
+    /**
+     * 发布事件，同步监听方法在当前线程中按顺序调用，异步监听方法在容器的事件线程中调用
+     * 容器刷新完成前发布的事件会被暂存，在刷新完成后再分发
+     *
+     * @param event 事件，可以是ApplicationEvent或任意对象
+     */
+    void publishEvent(Object event);
+}
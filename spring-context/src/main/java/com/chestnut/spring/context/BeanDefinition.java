@@ -1,6 +1,9 @@
 package com.chestnut.spring.context;
 
+import com.chestnut.spring.annotation.Scope;
+import com.chestnut.spring.context.aot.GeneratedBean;
 import com.chestnut.spring.exception.BeanCreationException;
+import com.chestnut.spring.exception.BeanDefinitionException;
 import jakarta.annotation.Nullable;
 
 import java.lang.reflect.Constructor;
@@ -15,6 +18,11 @@ import java.util.Objects;
  * @since: 2023-07-14
  **/
 public class BeanDefinition implements Comparable<BeanDefinition> {
+    /**
+     * Bean定义对象自身的估算字节数
+     */
+    private static final long SHALLOW_BYTES = ContextFootprint.shallowBytes(BeanDefinition.class);
+
     /**
      * 全局唯一的Bean名称
      */
@@ -26,21 +34,21 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
      */
     private final Class<?> beanClass;
     /**
-     * Bean的实例
+     * Bean的实例，并行刷新时在多个线程间可见
      */
-    private Object instance = null;
+    private volatile Object instance = null;
     /**
-     * 构造方法/null，包括私有/默认构造函数
+     * 构造方法/null，包括私有/默认构造函数，Bean初始化完成后释放
      */
-    private final Constructor<?> constructor;
+    private Constructor<?> constructor;
     /**
      * 工厂方法名称/null，通常为 "XyzConfiguration"
      */
     private final String factoryName;
     /**
-     * 工厂方法/null，通常为 @Bean 标注的一个方法
+     * 工厂方法/null，通常为 @Bean 标注的一个方法，Bean初始化完成后释放
      */
-    private final Method factoryMethod;
+    private Method factoryMethod;
     /**
      * Bean的顺序
      */
@@ -49,6 +57,36 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
      * 是否标识@Primary
      */
     private final boolean primary;
+    /**
+     * 是否标识@Lazy，延迟到首次获取时创建
+     */
+    private final boolean lazy;
+    /**
+     * 是否标识@AsyncInit，刷新时在后台线程中调用初始化方法
+     */
+    private final boolean asyncInit;
+    /**
+     * 作用域，@Scope指定的singleton、prototype、request或thread
+     */
+    private final String scope;
+    /**
+     * 对象池中最多保留的空闲实例数，为0时不使用对象池，仅用于原型Bean
+     */
+    private final int poolSize;
+    /**
+     * request或thread作用域中实例存储数组的下标，刷新时分配，其他作用域为-1
+     */
+    private int scopeSlot = -1;
+
+    /**
+     * 编译期生成的Bean/null，不为null时构造方法和工厂方法均为null
+     */
+    private final GeneratedBean generated;
+
+    /**
+     * 构造方法或工厂方法的调用器，首次创建实例时生成
+     */
+    private volatile ExecutableInvoker invoker;
 
     /**
      * 初始方法名称
@@ -76,12 +114,16 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
      * @param constructor       构造方法
      * @param order             Bean的顺序
      * @param primary           是否标识@Primary
+     * @param lazy              是否标识@Lazy
+     * @param asyncInit         是否标识@AsyncInit
+     * @param scope             作用域
+     * @param poolSize          对象池中最多保留的空闲实例数，为0时不使用对象池
      * @param initMethodName    初始方法名称
      * @param destroyMethodName 销毁方法名称
      * @param initMethod        初始方法
      * @param destroyMethod     销毁方法
      */
-    public BeanDefinition(String name, Class<?> beanClass, Constructor<?> constructor, int order, boolean primary,
+    public BeanDefinition(String name, Class<?> beanClass, Constructor<?> constructor, int order, boolean primary, boolean lazy, boolean asyncInit, String scope, int poolSize,
                           String initMethodName, String destroyMethodName, Method initMethod, Method destroyMethod) {
         this.name = name;
         this.beanClass = beanClass;
@@ -91,6 +133,12 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
         this.factoryMethod = null;
         this.order = order;
         this.primary = primary;
+        this.lazy = lazy;
+        this.asyncInit = asyncInit;
+        this.scope = scope;
+        this.poolSize = poolSize;
+        this.generated = null;
+        checkScope();
         constructor.setAccessible(true);
         setInitAndDestroyMethod(initMethodName, destroyMethodName, initMethod, destroyMethod);
     }
@@ -104,12 +152,16 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
      * @param factoryMethod     工厂方法
      * @param order             Bean的顺序
      * @param primary           是否标识@Primary
+     * @param lazy              是否标识@Lazy
+     * @param asyncInit         是否标识@AsyncInit
+     * @param scope             作用域
+     * @param poolSize          对象池中最多保留的空闲实例数，为0时不使用对象池
      * @param initMethodName    初始方法名称
      * @param destroyMethodName 销毁方法名称
      * @param initMethod        初始方法
      * @param destroyMethod     销毁方法
      */
-    public BeanDefinition(String name, Class<?> beanClass, String factoryName, Method factoryMethod, int order, boolean primary,
+    public BeanDefinition(String name, Class<?> beanClass, String factoryName, Method factoryMethod, int order, boolean primary, boolean lazy, boolean asyncInit, String scope, int poolSize,
                           String initMethodName, String destroyMethodName, Method initMethod, Method destroyMethod) {
         this.name = name;
         this.beanClass = beanClass;
@@ -120,10 +172,54 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
         this.factoryMethod = factoryMethod;
         this.order = order;
         this.primary = primary;
+        this.lazy = lazy;
+        this.asyncInit = asyncInit;
+        this.scope = scope;
+        this.poolSize = poolSize;
+        this.generated = null;
+        checkScope();
         factoryMethod.setAccessible(true);
         setInitAndDestroyMethod(initMethodName, destroyMethodName, initMethod, destroyMethod);
     }
 
+    /**
+     * 编译期生成的Bean方式创建Bean，创建、注入和初始化均由生成的代码完成
+     *
+     * @param generated 编译期生成的Bean
+     */
+    public BeanDefinition(GeneratedBean generated) {
+        this.name = generated.name();
+        this.beanClass = generated.beanClass();
+        this.constructor = null;
+        this.factoryName = generated.factoryName();
+        this.factoryMethod = null;
+        this.order = generated.order();
+        this.primary = generated.primary();
+        this.lazy = generated.lazy();
+        this.asyncInit = generated.asyncInit();
+        this.scope = generated.scope();
+        this.poolSize = generated.poolSize();
+        this.generated = generated;
+        checkScope();
+        // @Bean指定的初始化和销毁方法仍按名称在实际类型中查找
+        setInitAndDestroyMethod(generated.initMethodName(), generated.destroyMethodName(), null, null);
+    }
+
+    /**
+     * 检查作用域是否受支持，对象池只能用于原型Bean
+     */
+    private void checkScope() {
+        if (!Scope.SINGLETON.equals(this.scope) && !Scope.PROTOTYPE.equals(this.scope) && !Scope.REQUEST.equals(this.scope) && !Scope.THREAD.equals(this.scope)) {
+            throw new BeanDefinitionException(String.format("Unsupported scope '%s' of bean '%s': %s", this.scope, this.name, this.beanClass.getName()));
+        }
+        if (this.poolSize < 0 || (this.poolSize > 0 && !isPrototype())) {
+            throw new BeanDefinitionException(String.format("@Pooled bean '%s' must be prototype with positive max: %s", this.name, this.beanClass.getName()));
+        }
+        if (this.asyncInit && !isSingleton()) {
+            throw new BeanDefinitionException(String.format("@AsyncInit bean '%s' must be singleton: %s", this.name, this.beanClass.getName()));
+        }
+    }
+
     /**
      * 设置初始方法和销毁方法，存储在BeanDefinition的方法名称与方法，其中总有一个为null
      * 对于构造方法构建，初始/销毁方法名称必为null，可能存在初始/销毁方法
@@ -152,7 +248,7 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
     }
 
     /**
-     * 获取构造方法对象
+     * 获取构造方法对象，容器冻结后已释放
      *
      * @return 构造方法对象
      */
@@ -161,6 +257,34 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
         return this.constructor;
     }
 
+    /**
+     * 获取编译期生成的Bean
+     *
+     * @return 编译期生成的Bean，如果不是编译期生成的，则返回null
+     */
+    @Nullable
+    public GeneratedBean getGenerated() {
+        return this.generated;
+    }
+
+    /**
+     * 获取构造方法或工厂方法的调用器，并发时可能重复生成，但结果等价
+     *
+     * @return 调用器
+     */
+    ExecutableInvoker getInvoker() {
+        ExecutableInvoker invoker = this.invoker;
+        if (invoker == null) {
+            try {
+                invoker = ExecutableInvoker.of(this.constructor != null ? this.constructor : this.factoryMethod);
+            } catch (IllegalAccessException e) {
+                throw new BeanCreationException(String.format("Cannot access constructor or factory method of bean '%s': %s", this.name, this.beanClass.getName()), e);
+            }
+            this.invoker = invoker;
+        }
+        return invoker;
+    }
+
     /**
      * 获取工厂方法名称，通常为 "XyzConfiguration"
      *
@@ -172,7 +296,7 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
     }
 
     /**
-     * 获取工厂方法对象，通常为 @Bean 标注的一个方法
+     * 获取工厂方法对象，通常为 @Bean 标注的一个方法，容器冻结后已释放
      *
      * @return 工厂方法对象
      */
@@ -182,7 +306,7 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
     }
 
     /**
-     * 获取初始方法对象
+     * 获取初始方法对象，容器冻结后已释放
      *
      * @return 初始方法对象
      */
@@ -270,13 +394,81 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
      * @param instance Bean的实例
      */
     public void setInstance(Object instance) {
+        checkInstance(instance);
+        this.instance = instance;
+    }
+
+    /**
+     * 检查实例不为null且类型与声明类型兼容，原型Bean的实例不保存在定义中，创建和归还时同样需要检查
+     *
+     * @param instance Bean的实例
+     */
+    void checkInstance(Object instance) {
         // 检查传入的实例是否为 null
         Objects.requireNonNull(instance, "Bean instance is null.");
         // 检查传入的实例 instance 的类型是否与当前对象的预期类型兼容
         if (!this.beanClass.isAssignableFrom(instance.getClass())) {
             throw new BeanCreationException(String.format("Instance '%s' of Bean '%s' is not the expected type: %s", instance, instance.getClass().getName(), this.beanClass.getName()));
         }
-        this.instance = instance;
+    }
+
+    /**
+     * 释放仅在创建和初始化时使用的元数据：构造方法、工厂方法及其调用器、初始化方法，在Bean初始化完成后调用
+     * 销毁方法在容器关闭时仍需使用，予以保留
+     *
+     * @return 释放的反射句柄数量
+     */
+    int releaseCreationMetadata() {
+        int released = 0;
+        if (this.constructor != null) {
+            this.constructor = null;
+            released++;
+        }
+        if (this.factoryMethod != null) {
+            this.factoryMethod = null;
+            released++;
+        }
+        if (this.invoker != null) {
+            this.invoker = null;
+            released++;
+        }
+        if (this.initMethod != null) {
+            this.initMethod = null;
+            released++;
+        }
+        this.initMethodName = null;
+        return released;
+    }
+
+    /**
+     * 估算Bean定义自身占用的字节数，包括名称和仍持有的反射句柄，不包括Bean实例
+     *
+     * @return 估算的字节数
+     */
+    long estimateRetainedBytes() {
+        long bytes = SHALLOW_BYTES + ContextFootprint.stringBytes(this.name);
+        for (Object handle : new Object[] { this.constructor, this.factoryMethod, this.invoker, this.initMethod, this.destroyMethod }) {
+            if (handle != null) {
+                bytes += ContextFootprint.EXECUTABLE;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 清除Bean的实例，仅用于延迟Bean创建失败后允许再次创建
+     */
+    void clearInstance() {
+        this.instance = null;
+    }
+
+    /**
+     * 获取Bean的顺序
+     *
+     * @return 排序值
+     */
+    public int getOrder() {
+        return this.order;
     }
 
     /**
@@ -288,6 +480,78 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
         return this.primary;
     }
 
+    /**
+     * 检查是否标识了@Lazy注解
+     *
+     * @return 如果标识了@Lazy注解，则返回true；否则返回false
+     */
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    /**
+     * 检查是否标识了@AsyncInit注解
+     *
+     * @return 如果标识了@AsyncInit注解，则返回true；否则返回false
+     */
+    public boolean isAsyncInit() {
+        return this.asyncInit;
+    }
+
+    /**
+     * 获取作用域
+     *
+     * @return 作用域
+     */
+    public String getScope() {
+        return this.scope;
+    }
+
+    /**
+     * 检查是否为单例Bean，只有单例Bean的实例保存在定义中
+     *
+     * @return 如果是单例Bean，则返回true；否则返回false
+     */
+    public boolean isSingleton() {
+        return Scope.SINGLETON.equals(this.scope);
+    }
+
+    /**
+     * 检查是否为原型Bean，原型Bean每次获取时创建新的实例，实例不保存在定义中
+     *
+     * @return 如果是原型Bean，则返回true；否则返回false
+     */
+    public boolean isPrototype() {
+        return Scope.PROTOTYPE.equals(this.scope);
+    }
+
+    /**
+     * 获取request或thread作用域中实例存储数组的下标
+     *
+     * @return 下标，其他作用域为-1
+     */
+    int getScopeSlot() {
+        return this.scopeSlot;
+    }
+
+    /**
+     * 设置request或thread作用域中实例存储数组的下标，仅在刷新时调用
+     *
+     * @param scopeSlot 下标
+     */
+    void setScopeSlot(int scopeSlot) {
+        this.scopeSlot = scopeSlot;
+    }
+
+    /**
+     * 获取对象池中最多保留的空闲实例数
+     *
+     * @return 空闲实例数，为0时不使用对象池
+     */
+    public int getPoolSize() {
+        return this.poolSize;
+    }
+
     /**
      * 返回BeanDefinition对象的字符串表示形式
      *
@@ -301,6 +565,9 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
                 ", init-method=" + (initMethod == null ? "null" : initMethod.getName()) +
                 ", destroy-method=" + (destroyMethod == null ? "null" : destroyMethod.getName()) +
                 ", primary=" + primary +
+                ", lazy=" + lazy +
+                (asyncInit ? ", async-init" : "") +
+                ", scope=" + scope + (poolSize > 0 ? "(pooled " + poolSize + ")" : "") +
                 ", instance=" + instance + "]";
     }
 
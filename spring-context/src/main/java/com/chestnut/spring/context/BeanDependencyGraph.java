@@ -0,0 +1,170 @@
+package com.chestnut.spring.context;
+
+import java.util.*;
+
+/**
+ * Bean依赖图，用于并行刷新
+ * 节点为Bean定义，边由依赖方指向被依赖方。图中相互依赖的Bean（强连通分量）被合并为一组，
+ * 再按拓扑顺序分层：同一层中的各组之间没有依赖关系，可以并行处理，而每一层都只依赖于之前的层。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-04
+ **/
+class BeanDependencyGraph {
+    /**
+     * 按顺序排列的节点
+     */
+    private final List<BeanDefinition> nodes;
+    /**
+     * 节点到其依赖节点集合的映射
+     */
+    private final Map<BeanDefinition, Set<BeanDefinition>> dependencies = new HashMap<>();
+
+    /**
+     * 创建一个BeanDependencyGraph实例
+     *
+     * @param nodes 节点，即参与处理的Bean定义
+     */
+    BeanDependencyGraph(Collection<BeanDefinition> nodes) {
+        List<BeanDefinition> sorted = new ArrayList<>(nodes);
+        Collections.sort(sorted);
+        this.nodes = sorted;
+        for (BeanDefinition node : sorted) {
+            // 依赖按Bean定义的顺序排列，保证遍历结果稳定
+            this.dependencies.put(node, new TreeSet<>());
+        }
+    }
+
+    /**
+     * 添加依赖关系，被依赖方不在图中（例如已经创建）时忽略
+     *
+     * @param def       依赖方
+     * @param dependsOn 被依赖方
+     */
+    void addDependency(BeanDefinition def, BeanDefinition dependsOn) {
+        Set<BeanDefinition> deps = this.dependencies.get(def);
+        if (deps != null && this.dependencies.containsKey(dependsOn)) {
+            deps.add(dependsOn);
+        }
+    }
+
+    /**
+     * 分层获取各组节点，每组为一个强连通分量（大多数情况下只有一个节点），组内节点按顺序排列
+     *
+     * @return 按拓扑顺序排列的层，每层包含若干组
+     */
+    List<List<List<BeanDefinition>>> getLevels() {
+        List<List<BeanDefinition>> groups = findStronglyConnectedComponents();
+        // 节点到所在组序号的映射
+        Map<BeanDefinition, Integer> groupIndex = new HashMap<>();
+        for (int i = 0; i < groups.size(); i++) {
+            for (BeanDefinition def : groups.get(i)) {
+                groupIndex.put(def, i);
+            }
+        }
+        // Tarjan算法按逆拓扑顺序（被依赖方在前）产生强连通分量，因此依次计算层号即可
+        int[] levelOfGroup = new int[groups.size()];
+        List<List<List<BeanDefinition>>> levels = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            int level = 0;
+            for (BeanDefinition def : groups.get(i)) {
+                for (BeanDefinition dep : this.dependencies.get(def)) {
+                    int depGroup = groupIndex.get(dep);
+                    if (depGroup != i) {
+                        level = Math.max(level, levelOfGroup[depGroup] + 1);
+                    }
+                }
+            }
+            levelOfGroup[i] = level;
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(groups.get(i));
+        }
+        // 每层中的组按组内第一个节点的顺序排列
+        for (List<List<BeanDefinition>> level : levels) {
+            level.sort(Comparator.comparing(group -> group.get(0)));
+        }
+        return levels;
+    }
+
+    /**
+     * 查找任意一个循环依赖
+     *
+     * @return 构成循环的节点，如果不存在循环依赖，则返回空列表
+     */
+    List<BeanDefinition> findCycle() {
+        for (List<BeanDefinition> group : findStronglyConnectedComponents()) {
+            if (group.size() > 1) {
+                return group;
+            }
+            BeanDefinition def = group.get(0);
+            if (this.dependencies.get(def).contains(def)) {
+                return group;
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * 使用Tarjan算法查找所有强连通分量，使用显式栈避免依赖链过长时栈溢出
+     *
+     * @return 按逆拓扑顺序排列的强连通分量，每个分量内的节点按顺序排列
+     */
+    private List<List<BeanDefinition>> findStronglyConnectedComponents() {
+        Map<BeanDefinition, Integer> index = new HashMap<>();
+        Map<BeanDefinition, Integer> lowLink = new HashMap<>();
+        Set<BeanDefinition> onStack = new HashSet<>();
+        Deque<BeanDefinition> stack = new ArrayDeque<>();
+        List<List<BeanDefinition>> components = new ArrayList<>();
+        int counter = 0;
+        for (BeanDefinition root : this.nodes) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            // 模拟递归调用的栈帧：节点及其尚未访问的依赖
+            Deque<Map.Entry<BeanDefinition, Iterator<BeanDefinition>>> frames = new ArrayDeque<>();
+            index.put(root, counter);
+            lowLink.put(root, counter);
+            counter++;
+            stack.push(root);
+            onStack.add(root);
+            frames.push(Map.entry(root, this.dependencies.get(root).iterator()));
+            while (!frames.isEmpty()) {
+                BeanDefinition node = frames.peek().getKey();
+                Iterator<BeanDefinition> it = frames.peek().getValue();
+                if (it.hasNext()) {
+                    BeanDefinition dep = it.next();
+                    if (!index.containsKey(dep)) {
+                        index.put(dep, counter);
+                        lowLink.put(dep, counter);
+                        counter++;
+                        stack.push(dep);
+                        onStack.add(dep);
+                        frames.push(Map.entry(dep, this.dependencies.get(dep).iterator()));
+                    } else if (onStack.contains(dep)) {
+                        lowLink.put(node, Math.min(lowLink.get(node), index.get(dep)));
+                    }
+                    continue;
+                }
+                frames.pop();
+                if (!frames.isEmpty()) {
+                    BeanDefinition parent = frames.peek().getKey();
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(node)));
+                }
+                if (lowLink.get(node).equals(index.get(node))) {
+                    List<BeanDefinition> component = new ArrayList<>();
+                    BeanDefinition member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (member != node);
+                    Collections.sort(component);
+                    components.add(component);
+                }
+            }
+        }
+        return components;
+    }
+}
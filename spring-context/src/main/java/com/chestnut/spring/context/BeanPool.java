@@ -0,0 +1,96 @@
+package com.chestnut.spring.context;
+
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁的Bean对象池，保存@Pooled原型Bean的空闲实例
+ * <p>
+ * 每个槽位保存一个空闲实例或null，取出和归还均通过CAS修改槽位，从随机位置开始查找以减少线程间的竞争。
+ * 池只限制空闲实例的数量：池为空时由容器创建新的实例，池已满时归还的实例被丢弃。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-10
+ **/
+final class BeanPool {
+    /**
+     * 空闲实例槽位
+     */
+    private final AtomicReferenceArray<Object> slots;
+
+    /**
+     * 创建一个BeanPool实例
+     *
+     * @param capacity 最多保留的空闲实例数
+     */
+    BeanPool(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * 取出一个空闲实例
+     *
+     * @return 空闲实例，如果池为空，则返回null
+     */
+    @Nullable
+    Object poll() {
+        int length = this.slots.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            Object instance = this.slots.get(index);
+            if (instance != null && this.slots.compareAndSet(index, instance, null)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 归还一个实例
+     *
+     * @param instance 实例
+     * @return 如果放入池中，则返回true；如果池已满，则返回false
+     */
+    boolean offer(Object instance) {
+        int length = this.slots.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            if (this.slots.get(index) == null && this.slots.compareAndSet(index, null, instance)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 取出所有空闲实例，用于容器关闭时销毁
+     *
+     * @return 空闲实例列表
+     */
+    List<Object> drain() {
+        List<Object> instances = new ArrayList<>();
+        for (int i = 0; i < this.slots.length(); i++) {
+            Object instance = this.slots.getAndSet(i, null);
+            if (instance != null) {
+                instances.add(instance);
+            }
+        }
+        return instances;
+    }
+
+    /**
+     * 估算对象池自身占用的字节数，不包括空闲实例
+     *
+     * @return 估算的字节数
+     */
+    long estimateRetainedBytes() {
+        // 对象池与AtomicReferenceArray各持有一个引用
+        return ContextFootprint.objectBytes(1, 0) * 2 + ContextFootprint.arrayBytes(this.slots.length());
+    }
+}
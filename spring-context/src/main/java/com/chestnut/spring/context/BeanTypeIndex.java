@@ -0,0 +1,207 @@
+package com.chestnut.spring.context;
+
+import com.chestnut.spring.exception.NoUniqueBeanDefinitionException;
+import jakarta.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Bean类型索引，在Bean定义确定后一次性构建
+ * 将每个Bean声明类型的所有父类与接口映射到排好序的Bean定义列表，同时缓存按类型唯一解析（含@Primary）的结果，
+ * 使按类型查找Bean只需一次哈希查找
+ *
+ * @author: Chestnut
+ * @since: 2023-08-03
+ **/
+class BeanTypeIndex {
+    /**
+     * 空索引
+     */
+    static final BeanTypeIndex EMPTY = new BeanTypeIndex(List.of());
+
+    /**
+     * 全部Bean定义，用于数组类型的查找
+     */
+    private final List<BeanDefinition> definitions;
+    /**
+     * 类型到索引项的映射
+     */
+    private final Map<Class<?>, Entry> entries;
+
+    /**
+     * 根据Bean定义构建类型索引
+     *
+     * @param definitions 全部Bean定义
+     */
+    BeanTypeIndex(Collection<BeanDefinition> definitions) {
+        List<BeanDefinition> sorted = new ArrayList<>(definitions);
+        Collections.sort(sorted);
+        this.definitions = List.copyOf(sorted);
+        // 按排序后的顺序加入，每个类型下的列表天然有序
+        Map<Class<?>, List<BeanDefinition>> typeToDefs = new HashMap<>();
+        for (BeanDefinition def : this.definitions) {
+            for (Class<?> type : collectTypes(def.getBeanClass())) {
+                typeToDefs.computeIfAbsent(type, k -> new ArrayList<>()).add(def);
+            }
+        }
+        Map<Class<?>, Entry> entries = new HashMap<>(typeToDefs.size() * 4 / 3 + 1);
+        typeToDefs.forEach((type, defs) -> entries.put(type, new Entry(type, List.copyOf(defs))));
+        // 不可变映射，构建后只读，可被多个线程无锁并发查找
+        this.entries = Map.copyOf(entries);
+    }
+
+    /**
+     * 获取指定类型的所有Bean定义
+     *
+     * @param type 类型
+     * @return 按顺序排列的不可变Bean定义列表
+     */
+    List<BeanDefinition> getDefinitions(Class<?> type) {
+        // 数组类型存在协变，不在索引中，直接遍历
+        if (type.isArray()) {
+            return this.definitions.stream().filter(def -> type.isAssignableFrom(def.getBeanClass())).toList();
+        }
+        Entry entry = this.entries.get(type);
+        return entry == null ? List.of() : entry.definitions;
+    }
+
+    /**
+     * 获取指定类型唯一的Bean定义，存在多个时选择@Primary标注的定义
+     *
+     * @param type 类型
+     * @return Bean定义，如果不存在，则返回null
+     * @throws NoUniqueBeanDefinitionException 如果无法确定唯一的Bean定义
+     */
+    @Nullable
+    BeanDefinition getUniqueDefinition(Class<?> type) {
+        if (type.isArray()) {
+            return new Entry(type, getDefinitions(type)).getUnique();
+        }
+        Entry entry = this.entries.get(type);
+        return entry == null ? null : entry.getUnique();
+    }
+
+    /**
+     * 获取索引中的类型数量
+     *
+     * @return 类型数量
+     */
+    int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * 估算索引占用的字节数，不包括Bean定义本身
+     *
+     * @return 估算的字节数
+     */
+    long estimateRetainedBytes() {
+        long bytes = ContextFootprint.shallowBytes(BeanTypeIndex.class)
+                + ContextFootprint.immutableListBytes(this.definitions.size())
+                + ContextFootprint.immutableHashBytes(2, this.entries.size());
+        long entryBytes = ContextFootprint.shallowBytes(Entry.class);
+        for (Entry entry : this.entries.values()) {
+            bytes += entryBytes + ContextFootprint.immutableListBytes(entry.definitions.size());
+            if (entry.error != null) {
+                bytes += ContextFootprint.stringBytes(entry.error);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 收集类型自身及其所有父类与接口
+     *
+     * @param beanClass Bean的声明类型
+     * @return 所有可以赋值的类型
+     */
+    private static Set<Class<?>> collectTypes(Class<?> beanClass) {
+        Set<Class<?>> types = new HashSet<>();
+        if (beanClass.isArray()) {
+            // 数组类型只在索引中登记其非数组的父类型，数组类型的查找不使用索引
+            types.add(Object.class);
+            types.add(Cloneable.class);
+            types.add(Serializable.class);
+            return types;
+        }
+        for (Class<?> clazz = beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+            collectInterfaces(clazz, types);
+        }
+        // 接口没有父类，但可以赋值给Object
+        types.add(Object.class);
+        return types;
+    }
+
+    /**
+     * 收集类型自身及其所有接口
+     *
+     * @param type  类型
+     * @param types 收集结果
+     */
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> types) {
+        if (types.add(type)) {
+            for (Class<?> anInterface : type.getInterfaces()) {
+                collectInterfaces(anInterface, types);
+            }
+        }
+    }
+
+    /**
+     * 索引项，保存某个类型的Bean定义列表及唯一解析结果
+     */
+    private static class Entry {
+        /**
+         * 按顺序排列的不可变Bean定义列表
+         */
+        final List<BeanDefinition> definitions;
+        /**
+         * 唯一解析的结果
+         */
+        final BeanDefinition unique;
+        /**
+         * 无法唯一解析时的错误信息
+         */
+        final String error;
+
+        /**
+         * 创建索引项并完成唯一解析
+         *
+         * @param type        类型
+         * @param definitions 按顺序排列的不可变Bean定义列表
+         */
+        Entry(Class<?> type, List<BeanDefinition> definitions) {
+            this.definitions = definitions;
+            BeanDefinition unique = null;
+            String error = null;
+            if (definitions.size() == 1) {
+                unique = definitions.get(0);
+            } else if (definitions.size() > 1) {
+                List<BeanDefinition> primaryDefs = definitions.stream().filter(BeanDefinition::isPrimary).toList();
+                if (primaryDefs.size() == 1) {
+                    unique = primaryDefs.get(0);
+                } else if (primaryDefs.isEmpty()) {
+                    error = String.format("Multiple bean with type '%s' found, but no @Primary specified.", type.getName());
+                } else {
+                    error = String.format("Multiple bean with type '%s' found, and multiple @Primary specified.", type.getName());
+                }
+            }
+            this.unique = unique;
+            this.error = error;
+        }
+
+        /**
+         * 获取唯一解析的结果
+         *
+         * @return Bean定义，如果不存在，则返回null
+         * @throws NoUniqueBeanDefinitionException 如果无法确定唯一的Bean定义
+         */
+        @Nullable
+        BeanDefinition getUnique() {
+            if (this.error != null) {
+                throw new NoUniqueBeanDefinitionException(this.error);
+            }
+            return this.unique;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.chestnut.spring.context;
+
+import com.chestnut.spring.annotation.ComponentScan;
+import com.chestnut.spring.annotation.FilterType;
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * @ComponentScan的includeFilters和excludeFilters，在加载类之前判断扫描到的类是否为候选组件
+ * <p>
+ * 按类名匹配的过滤器（REGEX、ANT）只需要类名，在读取class文件之前求值，以"**"结尾的ANT排除规则还可以跳过整个包目录；
+ * 按类型匹配的过滤器（ANNOTATION、ASSIGNABLE_TYPE）通过回调判断，运行时由class文件元数据回答，编译期由注解处理器回答，均不会加载类。
+ * 类型以类名表示，因此同一份过滤器可以同时用于运行时扫描和编译期生成Bean工厂。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-14
+ **/
+public final class ComponentScanFilters {
+    /**
+     * 没有任何过滤器
+     */
+    public static final ComponentScanFilters NONE = new ComponentScanFilters(List.of(), List.of());
+
+    /**
+     * 包含规则，不为空时类至少需要匹配其中一条
+     */
+    private final List<Rule> includes;
+    /**
+     * 排除规则，匹配任意一条的类被排除
+     */
+    private final List<Rule> excludes;
+    /**
+     * 被排除的包，由以".**"结尾的ANT排除规则得到，这些包及其子包中的所有类均被排除
+     */
+    private final List<Pattern> excludedPackages = new ArrayList<>();
+
+    /**
+     * 创建一个ComponentScanFilters实例
+     *
+     * @param includes 包含规则
+     * @param excludes 排除规则
+     */
+    public ComponentScanFilters(List<Rule> includes, List<Rule> excludes) {
+        this.includes = List.copyOf(includes);
+        this.excludes = List.copyOf(excludes);
+        for (Rule rule : this.excludes) {
+            if (rule.type == FilterType.ANT) {
+                for (String pattern : rule.values) {
+                    if (pattern.endsWith(".**")) {
+                        this.excludedPackages.add(toPattern(pattern.substring(0, pattern.length() - 3)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据@ComponentScan注解创建过滤器
+     *
+     * @param scan @ComponentScan注解
+     * @return 过滤器，如果注解不存在或未指定过滤器，则返回NONE
+     */
+    public static ComponentScanFilters of(@Nullable ComponentScan scan) {
+        if (scan == null || (scan.includeFilters().length == 0 && scan.excludeFilters().length == 0)) {
+            return NONE;
+        }
+        return new ComponentScanFilters(toRules(scan.includeFilters()), toRules(scan.excludeFilters()));
+    }
+
+    /**
+     * 检查是否没有任何过滤器
+     *
+     * @return 如果没有任何过滤器，则返回true；否则返回false
+     */
+    public boolean isEmpty() {
+        return this.includes.isEmpty() && this.excludes.isEmpty();
+    }
+
+    /**
+     * 检查包及其子包是否被整体排除，被排除的包目录无需遍历
+     *
+     * @param packageName 包名
+     * @return 如果被排除，则返回true；否则返回false
+     */
+    public boolean isExcludedPackage(String packageName) {
+        for (Pattern pattern : this.excludedPackages) {
+            if (pattern.matcher(packageName).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 只根据类名判断类是否可能为候选组件，返回false的类无需读取class文件
+     *
+     * @param className 类名
+     * @return 如果按类名已确定被排除，则返回false；否则返回true
+     */
+    public boolean acceptName(String className) {
+        for (Rule rule : this.excludes) {
+            if (rule.isNameBased() && rule.matchesName(className)) {
+                return false;
+            }
+        }
+        // 包含规则全部按类名匹配时，可以直接确定是否包含
+        if (!this.includes.isEmpty() && this.includes.stream().allMatch(Rule::isNameBased)) {
+            return this.includes.stream().anyMatch(rule -> rule.matchesName(className));
+        }
+        return true;
+    }
+
+    /**
+     * 判断类是否为候选组件
+     *
+     * @param className  类名
+     * @param annotated  判断类是否直接、通过元注解或通过继承标注了指定注解（以注解类名表示）
+     * @param assignable 判断类是否可以赋值给指定类型（以类名表示）
+     * @return 如果未被排除且满足包含规则，则返回true；否则返回false
+     */
+    public boolean accept(String className, Predicate<String> annotated, Predicate<String> assignable) {
+        for (Rule rule : this.excludes) {
+            if (rule.matches(className, annotated, assignable)) {
+                return false;
+            }
+        }
+        if (this.includes.isEmpty()) {
+            return true;
+        }
+        for (Rule rule : this.includes) {
+            if (rule.matches(className, annotated, assignable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 将@Filter注解转换为过滤规则
+     *
+     * @param filters @Filter注解
+     * @return 过滤规则列表
+     */
+    private static List<Rule> toRules(ComponentScan.Filter[] filters) {
+        List<Rule> rules = new ArrayList<>();
+        for (ComponentScan.Filter filter : filters) {
+            List<String> values = switch (filter.type()) {
+                case ANNOTATION, ASSIGNABLE_TYPE -> Arrays.stream(filter.classes()).map(Class::getName).toList();
+                case REGEX, ANT -> List.of(filter.pattern());
+            };
+            rules.add(new Rule(filter.type(), values));
+        }
+        return rules;
+    }
+
+    /**
+     * 将ANT风格的类名模式转换为正则表达式："**."匹配零或多级包，"**"匹配任意字符，"*"匹配包名中的一段，"?"匹配一个字符
+     *
+     * @param ant ANT风格的类名模式
+     * @return 正则表达式
+     */
+    static Pattern toPattern(String ant) {
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < ant.length()) {
+            char c = ant.charAt(i);
+            if (ant.startsWith("**.", i)) {
+                sb.append("(?:.*\\.)?");
+                i += 3;
+            } else if (ant.startsWith("**", i)) {
+                sb.append(".*");
+                i += 2;
+            } else if (c == '*') {
+                sb.append("[^.]*");
+                i++;
+            } else if (c == '?') {
+                sb.append("[^.]");
+                i++;
+            } else {
+                if ("\\.[]{}()+-^$|".indexOf(c) >= 0) {
+                    sb.append('\\');
+                }
+                sb.append(c);
+                i++;
+            }
+        }
+        return Pattern.compile(sb.toString());
+    }
+
+    /**
+     * 一条过滤规则
+     */
+    public static final class Rule {
+        /**
+         * 匹配方式
+         */
+        private final FilterType type;
+        /**
+         * 注解类名、类型名或类名模式
+         */
+        private final List<String> values;
+        /**
+         * 编译后的类名模式，按类型匹配时为空
+         */
+        private final List<Pattern> patterns;
+
+        /**
+         * 创建一个Rule实例
+         *
+         * @param type   匹配方式
+         * @param values ANNOTATION、ASSIGNABLE_TYPE时为注解类名或类型名，REGEX、ANT时为类名模式
+         */
+        public Rule(FilterType type, List<String> values) {
+            this.type = type;
+            this.values = List.copyOf(values);
+            this.patterns = switch (type) {
+                case REGEX -> this.values.stream().map(Pattern::compile).toList();
+                case ANT -> this.values.stream().map(ComponentScanFilters::toPattern).toList();
+                default -> List.of();
+            };
+        }
+
+        /**
+         * 检查是否只按类名匹配
+         *
+         * @return 如果只按类名匹配，则返回true；否则返回false
+         */
+        boolean isNameBased() {
+            return this.type == FilterType.REGEX || this.type == FilterType.ANT;
+        }
+
+        /**
+         * 按类名匹配
+         *
+         * @param className 类名
+         * @return 如果匹配，则返回true；否则返回false
+         */
+        boolean matchesName(String className) {
+            return this.patterns.stream().anyMatch(pattern -> pattern.matcher(className).matches());
+        }
+
+        /**
+         * 按类名或类型匹配
+         *
+         * @param className  类名
+         * @param annotated  判断类是否标注了指定注解
+         * @param assignable 判断类是否可以赋值给指定类型
+         * @return 如果匹配，则返回true；否则返回false
+         */
+        boolean matches(String className, Predicate<String> annotated, Predicate<String> assignable) {
+            return switch (this.type) {
+                case ANNOTATION -> this.values.stream().anyMatch(annotated);
+                case ASSIGNABLE_TYPE -> this.values.stream().anyMatch(assignable);
+                case REGEX, ANT -> matchesName(className);
+            };
+        }
+    }
+}
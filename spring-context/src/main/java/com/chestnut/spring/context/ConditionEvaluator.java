@@ -0,0 +1,102 @@
+package com.chestnut.spring.context;
+
+import com.chestnut.spring.annotation.ConditionalOnClass;
+import com.chestnut.spring.annotation.ConditionalOnMissingBean;
+import com.chestnut.spring.annotation.ConditionalOnProperty;
+import com.chestnut.spring.io.PropertyResolver;
+import jakarta.annotation.Nullable;
+
+import java.lang.reflect.AnnotatedElement;
+
+/**
+ * 条件注解求值器，在创建Bean定义时根据属性配置和类路径判断组件类或@Bean方法是否注册
+ * <p>
+ * @ConditionalOnProperty和@ConditionalOnClass只依赖属性和类路径，在读取注解时立即求值；
+ * @ConditionalOnMissingBean依赖其他Bean定义，由上下文在所有Bean定义创建完成后求值。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-13
+ **/
+final class ConditionEvaluator {
+    /**
+     * 属性解析器
+     */
+    private final PropertyResolver propertyResolver;
+    /**
+     * 检查类是否存在时使用的类加载器
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * 创建一个ConditionEvaluator实例
+     *
+     * @param propertyResolver 属性解析器
+     * @param classLoader      检查类是否存在时使用的类加载器
+     */
+    ConditionEvaluator(PropertyResolver propertyResolver, ClassLoader classLoader) {
+        this.propertyResolver = propertyResolver;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 对组件类或@Bean方法上的@ConditionalOnProperty和@ConditionalOnClass求值
+     *
+     * @param element 组件类或@Bean方法
+     * @return 不满足条件的原因，如果满足所有条件，则返回null
+     */
+    @Nullable
+    String evaluate(AnnotatedElement element) {
+        ConditionalOnClass onClass = element.getAnnotation(ConditionalOnClass.class);
+        if (onClass != null) {
+            for (String className : onClass.value()) {
+                if (!isPresent(className)) {
+                    return "@ConditionalOnClass " + className + " not found";
+                }
+            }
+        }
+        ConditionalOnProperty onProperty = element.getAnnotation(ConditionalOnProperty.class);
+        if (onProperty != null) {
+            String value = this.propertyResolver.getProperty(onProperty.name());
+            if (value == null) {
+                return onProperty.matchIfMissing() ? null : "@ConditionalOnProperty " + onProperty.name() + " is missing";
+            }
+            String expected = onProperty.havingValue();
+            boolean matched = expected.isEmpty() ? !"false".equalsIgnoreCase(value) : expected.equalsIgnoreCase(value);
+            if (!matched) {
+                return String.format("@ConditionalOnProperty %s = '%s', expected '%s'", onProperty.name(), value, expected.isEmpty() ? "not false" : expected);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取组件类或@Bean方法上@ConditionalOnMissingBean指定的类型
+     *
+     * @param element   组件类或@Bean方法
+     * @param beanClass Bean的声明类型，注解未指定类型时使用
+     * @return 指定的类型，如果没有标注@ConditionalOnMissingBean，则返回null
+     */
+    @Nullable
+    Class<?>[] getMissingBeanTypes(AnnotatedElement element, Class<?> beanClass) {
+        ConditionalOnMissingBean onMissingBean = element.getAnnotation(ConditionalOnMissingBean.class);
+        if (onMissingBean == null) {
+            return null;
+        }
+        return onMissingBean.value().length == 0 ? new Class<?>[]{beanClass} : onMissingBean.value();
+    }
+
+    /**
+     * 判断类路径中是否存在指定的类，不初始化该类
+     *
+     * @param className 类名
+     * @return 如果存在，则返回true；否则返回false
+     */
+    private boolean isPresent(String className) {
+        try {
+            Class.forName(className, false, this.classLoader);
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
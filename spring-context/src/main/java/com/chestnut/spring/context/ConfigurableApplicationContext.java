@@ -3,6 +3,8 @@ package com.chestnut.spring.context;
 import jakarta.annotation.Nullable;
 
 import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Framework级别的代码用的ConfigurableApplicationContext接口
@@ -12,7 +14,7 @@ public interface ConfigurableApplicationContext extends ApplicationContext {
      * 根据指定类型获取所有符合条件的Bean定义列表，如果未找到，则返回空列表
      *
      * @param type 要获取的Bean定义类型
-     * @return 指定类型的Bean定义列表
+     * @return 指定类型的Bean定义列表，已排序且不可修改
      */
     List<BeanDefinition> findBeanDefinitions(Class<?> type);
 
@@ -53,4 +55,50 @@ public interface ConfigurableApplicationContext extends ApplicationContext {
      * @return Bean的实例
      */
     Object createBeanAsEarlySingleton(BeanDefinition definition);
+
+    /**
+     * 获取因不满足@ConditionalOnProperty、@ConditionalOnClass或@ConditionalOnMissingBean条件而未注册的Bean及原因
+     *
+     * @return Bean名称到原因的映射，按名称排序
+     */
+    SortedMap<String, String> getSkippedBeans();
+
+    /**
+     * 获取父上下文，当前上下文中找不到的Bean从父上下文中查找
+     *
+     * @return 父上下文，根上下文返回null
+     */
+    @Nullable
+    ConfigurableApplicationContext getParent();
+
+    /**
+     * 等待所有@AsyncInit Bean在后台完成初始化，即容器就绪，例如Web服务器在开始接收请求之前等待
+     *
+     * @param timeout 等待时间
+     * @param unit    时间单位
+     * @return 如果已就绪，则返回true；如果超时或等待被中断，则返回false
+     * @throws com.chestnut.spring.exception.BeanCreationException 如果某个@AsyncInit Bean初始化失败
+     */
+    boolean awaitReady(long timeout, TimeUnit unit);
+
+    /**
+     * 获取启动时间线，包括刷新各阶段以及每个Bean的耗时和关键路径
+     *
+     * @return 启动时间线
+     */
+    StartupTimeline getStartupTimeline();
+
+    /**
+     * 获取容器冻结后自身占用的内存估算，不包括Bean实例
+     *
+     * @return 内存估算
+     */
+    ContextFootprint getFootprint();
+
+    /**
+     * 为当前线程绑定一个新的请求，直到返回的作用域关闭，关闭时销毁请求中创建的request作用域Bean
+     *
+     * @return 请求作用域
+     */
+    ScopedInstances openRequestScope();
 }
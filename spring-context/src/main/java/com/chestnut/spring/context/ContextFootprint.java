@@ -0,0 +1,135 @@
+package com.chestnut.spring.context;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * 容器冻结后自身占用的内存估算，不包括Bean实例、Class对象以及启动时间线
+ * <p>
+ * 按64位JVM开启压缩指针的对象布局估算：对象头12字节，引用4字节，数组头16字节，对象按8字节对齐。
+ * 仅用于比较不同配置下容器的大致占用，精确值应使用堆转储或JOL等工具测量。
+ *
+ * @param beanCount        Bean定义数量
+ * @param lazyBeanCount    尚未创建的延迟Bean数量
+ * @param typeIndexEntries 类型索引中的类型数量
+ * @param releasedHandles  冻结时释放的构造方法、工厂方法和初始化方法等反射句柄数量
+ * @param retainedBytes    容器自身占用的估算字节数
+ * @author: Chestnut
+ * @since: 2023-08-09
+ **/
+public record ContextFootprint(int beanCount, int lazyBeanCount, int typeIndexEntries, int releasedHandles, long retainedBytes) {
+    /**
+     * 对象头字节数
+     */
+    static final int HEADER = 12;
+    /**
+     * 压缩指针下引用的字节数
+     */
+    static final int REFERENCE = 4;
+    /**
+     * 数组头字节数，包括长度
+     */
+    static final int ARRAY_HEADER = 16;
+
+    /**
+     * 反射句柄（Method或Constructor）的估算字节数，其字段无法通过反射获取，按其主要字段估算
+     */
+    static final int EXECUTABLE = 88;
+
+    /**
+     * 根据声明的实例字段（包括父类）估算对象的浅大小
+     *
+     * @param clazz 类型
+     * @return 按8字节对齐后的字节数
+     */
+    static long shallowBytes(Class<?> clazz) {
+        int references = 0;
+        int primitiveBytes = 0;
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                Class<?> type = field.getType();
+                if (!type.isPrimitive()) {
+                    references++;
+                } else if (type == long.class || type == double.class) {
+                    primitiveBytes += 8;
+                } else if (type == int.class || type == float.class) {
+                    primitiveBytes += 4;
+                } else if (type == short.class || type == char.class) {
+                    primitiveBytes += 2;
+                } else {
+                    primitiveBytes += 1;
+                }
+            }
+        }
+        return objectBytes(references, primitiveBytes);
+    }
+
+    /**
+     * 估算普通对象的浅大小
+     *
+     * @param references     引用类型字段的数量
+     * @param primitiveBytes 基本类型字段的字节数之和
+     * @return 按8字节对齐后的字节数
+     */
+    static long objectBytes(int references, int primitiveBytes) {
+        return align(HEADER + (long) references * REFERENCE + primitiveBytes);
+    }
+
+    /**
+     * 估算引用数组的大小
+     *
+     * @param length 数组长度
+     * @return 按8字节对齐后的字节数
+     */
+    static long arrayBytes(int length) {
+        return align(ARRAY_HEADER + (long) length * REFERENCE);
+    }
+
+    /**
+     * 估算Map.copyOf()或Set.copyOf()创建的不可变集合的大小，其内部使用开放寻址的数组，长度为元素槽位的两倍
+     *
+     * @param slots 每个元素占用的槽位数：Map为2，Set为1
+     * @param size  元素数量
+     * @return 字节数
+     */
+    static long immutableHashBytes(int slots, int size) {
+        return size == 0 ? 0 : objectBytes(1, 4) + arrayBytes(2 * slots * size);
+    }
+
+    /**
+     * 估算List.copyOf()创建的不可变列表的大小
+     *
+     * @param size 元素数量
+     * @return 字节数
+     */
+    static long immutableListBytes(int size) {
+        // 空列表为共享实例，一到两个元素时直接保存在字段中
+        if (size == 0) {
+            return 0;
+        }
+        return size <= 2 ? objectBytes(2, 0) : objectBytes(1, 0) + arrayBytes(size);
+    }
+
+    /**
+     * 估算字符串的大小，按Latin-1紧凑存储
+     *
+     * @param value 字符串
+     * @return 字节数
+     */
+    static long stringBytes(String value) {
+        return objectBytes(1, 4 + 1 + 1) + align(ARRAY_HEADER + value.length());
+    }
+
+    /**
+     * 按8字节对齐
+     *
+     * @param bytes 字节数
+     * @return 对齐后的字节数
+     */
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,82 @@
+package com.chestnut.spring.context;
+
+import jakarta.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 构造方法或工厂方法的调用器，将反射对象转换为MethodHandle后只需一次转换，之后每次创建Bean都直接调用
+ *
+ * @author: Chestnut
+ * @since: 2023-08-05
+ **/
+class ExecutableInvoker {
+    /**
+     * 统一适配后的MethodHandle类型：(Object target, Object[] args)Object，构造方法忽略target
+     */
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * 适配后的MethodHandle
+     */
+    private final MethodHandle handle;
+
+    /**
+     * 创建一个ExecutableInvoker实例
+     *
+     * @param handle 适配后的MethodHandle
+     */
+    private ExecutableInvoker(MethodHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * 为构造方法或工厂方法创建调用器，调用方需保证其已设置为可访问
+     *
+     * @param executable 构造方法或工厂方法
+     * @return 调用器
+     * @throws IllegalAccessException 如果无法访问
+     */
+    static ExecutableInvoker of(Executable executable) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        int count = executable.getParameterCount();
+        MethodHandle handle;
+        if (executable instanceof Constructor<?> constructor) {
+            // (args...)T -> (Object[])Object -> (Object, Object[])Object
+            handle = lookup.unreflectConstructor(constructor).asFixedArity()
+                    .asSpreader(Object[].class, count)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        } else if (Modifier.isStatic(executable.getModifiers())) {
+            // 静态工厂方法 (args...)R -> (Object, Object[])Object
+            handle = lookup.unreflect((Method) executable).asFixedArity()
+                    .asSpreader(Object[].class, count)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        } else {
+            // (Config, args...)R -> (Object, Object[])Object
+            handle = lookup.unreflect((Method) executable).asFixedArity()
+                    .asSpreader(Object[].class, count)
+                    .asType(INVOKER_TYPE);
+        }
+        return new ExecutableInvoker(handle);
+    }
+
+    /**
+     * 调用构造方法或工厂方法
+     *
+     * @param target 工厂方法所在的配置类实例，构造方法时为null
+     * @param args   参数
+     * @return 创建的实例
+     * @throws Throwable 构造方法或工厂方法抛出的异常
+     */
+    Object invoke(@Nullable Object target, Object[] args) throws Throwable {
+        return this.handle.invokeExact(target, args);
+    }
+}
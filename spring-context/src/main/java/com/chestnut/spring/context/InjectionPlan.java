@@ -0,0 +1,216 @@
+package com.chestnut.spring.context;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Value;
+import com.chestnut.spring.exception.BeanCreationException;
+import com.chestnut.spring.exception.BeanDefinitionException;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 注入计划，描述某个类型（包括其父类）上所有需要注入的字段和set方法
+ * 每个类型只需通过反射解析一次，之后每次注入都直接通过MethodHandle写入字段或调用set方法
+ *
+ * @author: Chestnut
+ * @since: 2023-08-05
+ **/
+class InjectionPlan {
+    /**
+     * 日志记录器
+     */
+    private static final Logger logger = LoggerFactory.getLogger(InjectionPlan.class);
+    /**
+     * 注入点统一适配后的MethodHandle类型：(Object bean, Object value)void
+     */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 按注入顺序排列的注入点：先当前类后父类，每个类中先字段后方法
+     */
+    private final List<InjectionPoint> points;
+
+    /**
+     * 创建一个InjectionPlan实例
+     *
+     * @param points 注入点
+     */
+    private InjectionPlan(List<InjectionPoint> points) {
+        this.points = points;
+    }
+
+    /**
+     * 解析指定类型的注入计划
+     *
+     * @param def   Bean的定义，用于错误信息
+     * @param clazz Bean的声明类型
+     * @return 注入计划
+     */
+    static InjectionPlan build(BeanDefinition def, Class<?> clazz) {
+        List<InjectionPoint> points = new ArrayList<>();
+        // If this Class object represents either the Object class, an interface, a primitive type, or void, then null is returned
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                InjectionPoint point = createInjectionPoint(def, c, f);
+                if (point != null) {
+                    points.add(point);
+                }
+            }
+            for (Method m : c.getDeclaredMethods()) {
+                InjectionPoint point = createInjectionPoint(def, c, m);
+                if (point != null) {
+                    points.add(point);
+                }
+            }
+        }
+        return new InjectionPlan(List.copyOf(points));
+    }
+
+    /**
+     * 获取所有注入点
+     *
+     * @return 按注入顺序排列的注入点
+     */
+    List<InjectionPoint> getPoints() {
+        return this.points;
+    }
+
+    /**
+     * 为字段或方法创建注入点
+     *
+     * @param def   Bean的定义，用于错误信息
+     * @param clazz 声明字段或方法的类
+     * @param acc   可访问对象（字段或方法）
+     * @return 注入点，如果无需注入，则返回null
+     */
+    @Nullable
+    private static InjectionPoint createInjectionPoint(BeanDefinition def, Class<?> clazz, AccessibleObject acc) {
+        Value value = acc.getAnnotation(Value.class);
+        Autowired autowired = acc.getAnnotation(Autowired.class);
+        // 无需注入
+        if (value == null && autowired == null) {
+            return null;
+        }
+        Field field = null;
+        Method method = null;
+        if (acc instanceof Field f) {
+            checkFieldOrMethod(f);
+            f.setAccessible(true);
+            field = f;
+        }
+        if (acc instanceof Method m) {
+            checkFieldOrMethod(m);
+            if (m.getParameters().length != 1) {
+                throw new BeanDefinitionException(String.format("Cannot inject a non-setter method %s for bean '%s': %s", m.getName(), def.getName(), def.getBeanClass().getName()));
+            }
+            m.setAccessible(true);
+            method = m;
+        }
+        String accessibleName = field != null ? field.getName() : method.getName();
+        Class<?> accessibleType = field != null ? field.getType() : method.getParameterTypes()[0];
+        Type genericType = field != null ? field.getGenericType() : method.getGenericParameterTypes()[0];
+        // 参数需要 @Value 或 @Autowired 两者之一
+        if (value != null && autowired != null) {
+            throw new BeanCreationException(String.format("Cannot specify both @Autowired and @Value when inject %s.%s for bean '%s': %s", clazz.getSimpleName(), accessibleName, def.getName(), def.getBeanClass().getName()));
+        }
+        MethodHandle setter;
+        try {
+            // 字段与方法均已设置为可访问，统一适配为 (Object, Object)void
+            setter = field != null ? MethodHandles.lookup().unreflectSetter(field) : MethodHandles.lookup().unreflect(method).asFixedArity();
+            setter = setter.asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new BeanDefinitionException(String.format("Cannot access %s.%s for bean '%s': %s", clazz.getSimpleName(), accessibleName, def.getName(), def.getBeanClass().getName()), e);
+        }
+        // ObjectProvider只能用于@Autowired，目标类型在解析注入计划时确定
+        Class<?> providedType = null;
+        if (accessibleType == ObjectProvider.class) {
+            if (autowired == null) {
+                throw new BeanDefinitionException(String.format("Must specify @Autowired when inject ObjectProvider %s.%s for bean '%s': %s", clazz.getSimpleName(), accessibleName, def.getName(), def.getBeanClass().getName()));
+            }
+            providedType = getProvidedType(genericType, clazz.getSimpleName() + "." + accessibleName);
+        }
+        return new InjectionPoint(clazz, accessibleName, accessibleType, field != null, value, autowired, providedType, setter);
+    }
+
+    /**
+     * 获取ObjectProvider的目标类型，即其唯一的类型参数
+     *
+     * @param genericType ObjectProvider的泛型类型
+     * @param member      字段、方法或参数的描述，用于错误信息
+     * @return 目标类型
+     */
+    static Class<?> getProvidedType(Type genericType, String member) {
+        if (genericType instanceof ParameterizedType pt) {
+            Type arg = pt.getActualTypeArguments()[0];
+            if (arg instanceof Class<?> c) {
+                return c;
+            }
+            // 目标类型本身带有泛型时按其原始类型查找
+            if (arg instanceof ParameterizedType argType) {
+                return (Class<?>) argType.getRawType();
+            }
+        }
+        throw new BeanDefinitionException("Cannot determine bean type of ObjectProvider: " + member);
+    }
+
+    /**
+     * 检查成员（字段或方法）是否可以注入到Bean实例中
+     *
+     * @param m 要检查的成员（属性或方法）
+     */
+    private static void checkFieldOrMethod(Member m) {
+        // 获取属性或方法的修饰符
+        int mod = m.getModifiers();
+        // 静态属性/方法，不能注入
+        if (Modifier.isStatic(mod)) {
+            throw new BeanDefinitionException("Cannot inject static field: " + m);
+        }
+        // 常量属性/方法
+        if (Modifier.isFinal(mod)) {
+            if (m instanceof Field field) {
+                throw new BeanDefinitionException("Cannot inject final field: " + field);
+            }
+            if (m instanceof Method) {
+                logger.warn("Inject final method should be careful because it is not called on target bean when bean is proxied and may cause NullPointerException.");
+            }
+        }
+    }
+
+    /**
+     * 注入点，即一个需要注入的字段或set方法
+     *
+     * @param declaringClass 声明字段或方法的类
+     * @param name           字段或方法名称
+     * @param type           注入值的类型
+     * @param isField        是否为字段
+     * @param value          @Value注解，与autowired两者之一不为null
+     * @param autowired      @Autowired注解，与value两者之一不为null
+     * @param providedType   ObjectProvider的目标类型，注入类型不是ObjectProvider时为null
+     * @param setter         写入字段或调用方法的MethodHandle，类型为 (Object, Object)void
+     */
+    record InjectionPoint(Class<?> declaringClass, String name, Class<?> type, boolean isField,
+                          @Nullable Value value, @Nullable Autowired autowired, @Nullable Class<?> providedType, MethodHandle setter) {
+        /**
+         * 将值注入到Bean实例中
+         *
+         * @param bean     Bean实例
+         * @param injected 要注入的值
+         */
+        void inject(Object bean, @Nullable Object injected) {
+            try {
+                this.setter.invokeExact(bean, injected);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new BeanCreationException(String.format("Exception when inject %s.%s", this.declaringClass.getSimpleName(), this.name), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.chestnut.spring.context;
+
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * 延迟获取Bean的句柄
+ * <p>
+ * 可以作为@Autowired字段、set方法或构造方法参数的类型注入，注入时不会查找或创建目标Bean，
+ * 每次调用时才从容器中获取，因此目标Bean为@Lazy时会在首次调用时创建，也可用于打破构造方法之间的循环依赖。
+ * 目标Bean为原型时每次调用都返回新的实例，或从对象池中取出的实例，使用完毕后可通过release()归还。
+ *
+ * @param <T> 目标Bean的类型
+ * @author: Chestnut
+ * @since: 2023-08-08
+ **/
+public interface ObjectProvider<T> {
+    /**
+     * 获取目标Bean，如果未找到，则抛出异常
+     *
+     * @return 目标Bean实例
+     */
+    T getObject();
+
+    /**
+     * 获取目标Bean，如果未找到，则返回null
+     *
+     * @return 目标Bean实例
+     */
+    @Nullable
+    T getIfAvailable();
+
+    /**
+     * 获取所有目标类型的Bean，按名称注入时只包含该名称的Bean
+     *
+     * @return 目标Bean实例列表
+     */
+    List<T> getObjects();
+
+    /**
+     * 归还通过该句柄获取的原型Bean实例：@Pooled原型Bean放回对象池，池已满或未使用对象池时调用其销毁方法，单例Bean忽略归还
+     * 每个实例最多归还一次，归还后不应再使用
+     *
+     * @param bean 要归还的实例
+     */
+    void release(T bean);
+}
@@ -0,0 +1,78 @@
+package com.chestnut.spring.context;
+
+import jakarta.annotation.Nullable;
+
+import java.util.function.Consumer;
+
+/**
+ * 一个请求或线程中request或thread作用域Bean的实例
+ * <p>
+ * 实例保存在按Bean定义中刷新时分配的下标索引的数组中，获取实例只需一次数组访问，无需按名称查找。
+ * 只能由绑定它的线程访问，关闭时销毁已创建的实例并解除绑定。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-11
+ **/
+public final class ScopedInstances implements AutoCloseable {
+    /**
+     * 不包含任何实例的空作用域，关闭时不做任何处理
+     */
+    static final ScopedInstances EMPTY = new ScopedInstances(0, instances -> {
+    });
+
+    /**
+     * 按下标保存的实例，尚未创建时为null
+     */
+    private final Object[] instances;
+    /**
+     * 关闭时调用，用于销毁实例并解除绑定
+     */
+    private final Consumer<Object[]> closer;
+    /**
+     * 是否已关闭
+     */
+    private boolean closed;
+
+    /**
+     * 创建一个ScopedInstances实例
+     *
+     * @param size   作用域中的Bean数量
+     * @param closer 关闭时调用，用于销毁实例并解除绑定
+     */
+    ScopedInstances(int size, Consumer<Object[]> closer) {
+        this.instances = new Object[size];
+        this.closer = closer;
+    }
+
+    /**
+     * 获取指定下标的实例
+     *
+     * @param slot 下标
+     * @return 实例，如果尚未创建，则返回null
+     */
+    @Nullable
+    Object get(int slot) {
+        return this.instances[slot];
+    }
+
+    /**
+     * 设置指定下标的实例
+     *
+     * @param slot     下标
+     * @param instance 实例
+     */
+    void set(int slot, Object instance) {
+        this.instances[slot] = instance;
+    }
+
+    /**
+     * 关闭作用域：销毁已创建的实例并解除与当前线程的绑定，重复关闭时不做任何处理
+     */
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.closer.accept(this.instances);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.chestnut.spring.context;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * 作用域代理工厂，为声明类型为类的request或thread作用域Bean创建代理
+ * <p>
+ * 单例Bean注入request或thread作用域的Bean时注入的是代理，每次调用时由代理转发到当前请求或线程中的实例。
+ * 声明类型为接口时容器直接使用JDK动态代理；为类时通过ServiceLoader加载该接口的实现创建子类代理，spring-aop模块提供了基于ByteBuddy的实现。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-11
+ **/
+public interface ScopedProxyFactory {
+    /**
+     * 创建代理对象，代理类需要调用目标类的无参构造方法
+     *
+     * @param targetClass 目标类
+     * @param handler     调用处理器，每次调用代理的public方法时调用，参数依次为代理对象、方法和参数
+     * @param <T>         目标类型
+     * @return 代理对象
+     */
+    <T> T createProxy(Class<T> targetClass, InvocationHandler handler);
+}
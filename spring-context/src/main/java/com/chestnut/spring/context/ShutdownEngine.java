@@ -0,0 +1,322 @@
+package com.chestnut.spring.context;
+
+import com.chestnut.spring.utils.ClassPathUtils;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 关闭引擎，按依赖关系的逆序销毁Bean
+ * <p>
+ * 各层按BeanDependencyGraph分层的逆序处理，即依赖方先于被依赖方销毁；同一层中的各组并行销毁，组内（相互依赖的Bean）按顺序销毁。
+ * 每个Bean的销毁方法有单独的超时时间，超时的Bean被放弃（中断执行线程），同组中剩余的Bean不再销毁，其他Bean继续销毁；
+ * 整个关闭过程另有总超时时间，超时后放弃所有尚未完成的Bean。销毁方法抛出的异常只记录日志，不影响其他Bean的销毁。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-15
+ **/
+final class ShutdownEngine {
+    /**
+     * 等待尚未开始执行的组时的轮询间隔
+     */
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * 日志记录器
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    /**
+     * 并行销毁的线程数
+     */
+    private final int parallelism;
+    /**
+     * 每个Bean销毁方法的超时时间
+     */
+    private final long beanTimeoutNanos;
+    /**
+     * 整个关闭过程的超时时间
+     */
+    private final long timeoutNanos;
+
+    /**
+     * 创建一个ShutdownEngine实例
+     *
+     * @param parallelism 并行销毁的线程数
+     * @param beanTimeout 每个Bean销毁方法的超时时间
+     * @param timeout     整个关闭过程的超时时间
+     * @param unit        时间单位
+     */
+    ShutdownEngine(int parallelism, long beanTimeout, long timeout, TimeUnit unit) {
+        this.parallelism = Math.max(1, parallelism);
+        this.beanTimeoutNanos = unit.toNanos(beanTimeout);
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * 按层的逆序销毁Bean
+     *
+     * @param levels    按拓扑顺序排列的层，即BeanDependencyGraph.getLevels()的结果
+     * @param destroyer 销毁一个Bean的操作
+     * @return 关闭报告
+     */
+    Report shutdown(List<List<List<BeanDefinition>>> levels, Consumer<BeanDefinition> destroyer) {
+        final Report report = new Report();
+        final long deadline = System.nanoTime() + this.timeoutNanos;
+        // 工作线程使用与当前线程相同的上下文类加载器，并设置为守护线程，避免卡住的销毁方法阻止JVM退出
+        final ClassLoader classLoader = ClassPathUtils.getContextClassLoader();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread thread = new Thread(r, "bean-shutdown-" + threadNumber.incrementAndGet());
+            thread.setContextClassLoader(classLoader);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                List<GroupTask> tasks = levels.get(i).stream().map(group -> new GroupTask(group, destroyer, report)).toList();
+                tasks.forEach(task -> task.future = executor.submit(task));
+                boolean expired = false;
+                for (GroupTask task : tasks) {
+                    if (expired || !await(task, deadline)) {
+                        expired = true;
+                        task.abandon(ShutdownStatus.TIMED_OUT);
+                    }
+                }
+                if (expired) {
+                    // 尚未处理的层全部放弃
+                    for (int j = i - 1; j >= 0; j--) {
+                        levels.get(j).forEach(group -> group.forEach(def -> report.record(def.getName(), ShutdownStatus.SKIPPED, 0)));
+                    }
+                    logger.warn("shutdown timed out after {} ms, beans not destroyed: {}", TimeUnit.NANOSECONDS.toMillis(this.timeoutNanos),
+                            report.getNames(ShutdownStatus.TIMED_OUT, ShutdownStatus.SKIPPED));
+                    break;
+                }
+            }
+        } finally {
+            // 不等待被放弃的销毁方法
+            executor.shutdownNow();
+        }
+        return report;
+    }
+
+    /**
+     * 等待一组Bean销毁完成，当前Bean超过单个Bean的超时时间时放弃该组
+     *
+     * @param task     组任务
+     * @param deadline 整个关闭过程的截止时间
+     * @return 如果该组已完成或因单个Bean超时被放弃，则返回true；如果整个关闭过程已超时或当前线程被中断，则返回false
+     */
+    private boolean await(GroupTask task, long deadline) {
+        while (true) {
+            long now = System.nanoTime();
+            // 先读取下标再读取开始时间，工作线程按相反的顺序写入，保证开始时间不早于下标对应的Bean
+            int index = task.current;
+            long beanDeadline = index < 0 ? now + POLL_NANOS : task.startNanos + this.beanTimeoutNanos;
+            long waitUntil = beanDeadline - deadline < 0 ? beanDeadline : deadline;
+            try {
+                task.future.get(Math.max(0, waitUntil - now), TimeUnit.NANOSECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                now = System.nanoTime();
+                if (now - deadline >= 0) {
+                    return false;
+                }
+                if (index >= 0 && index == task.current && now - beanDeadline >= 0) {
+                    BeanDefinition def = task.group.get(index);
+                    logger.warn("destroy bean '{}' timed out after {} ms, abandoned.", def.getName(), TimeUnit.NANOSECONDS.toMillis(this.beanTimeoutNanos));
+                    task.abandon(ShutdownStatus.TIMED_OUT);
+                    return true;
+                }
+            } catch (ExecutionException e) {
+                // 组任务自行处理销毁方法的异常，不会执行到这里
+                logger.warn("destroy beans failed: " + task.group.stream().map(BeanDefinition::getName).toList(), e.getCause());
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 一组Bean的销毁任务，组内按顺序销毁
+     */
+    private final class GroupTask implements Runnable {
+        /**
+         * 组内的Bean定义
+         */
+        private final List<BeanDefinition> group;
+        /**
+         * 销毁一个Bean的操作
+         */
+        private final Consumer<BeanDefinition> destroyer;
+        /**
+         * 关闭报告
+         */
+        private final Report report;
+        /**
+         * 正在销毁的Bean在组内的下标，尚未开始时为-1，全部完成后为组的大小
+         */
+        private volatile int current = -1;
+        /**
+         * 正在销毁的Bean的开始时间
+         */
+        private volatile long startNanos;
+        /**
+         * 是否已被放弃
+         */
+        private volatile boolean abandoned;
+        /**
+         * 提交到线程池后得到的Future
+         */
+        private Future<?> future;
+
+        /**
+         * 创建一个GroupTask实例
+         *
+         * @param group     组内的Bean定义
+         * @param destroyer 销毁一个Bean的操作
+         * @param report    关闭报告
+         */
+        GroupTask(List<BeanDefinition> group, Consumer<BeanDefinition> destroyer, Report report) {
+            this.group = group;
+            this.destroyer = destroyer;
+            this.report = report;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < this.group.size() && !this.abandoned; i++) {
+                BeanDefinition def = this.group.get(i);
+                long start = System.nanoTime();
+                this.startNanos = start;
+                this.current = i;
+                try {
+                    this.destroyer.accept(def);
+                    this.report.record(def.getName(), ShutdownStatus.DESTROYED, System.nanoTime() - start);
+                } catch (RuntimeException | Error e) {
+                    logger.warn("destroy bean '" + def.getName() + "' failed.", e);
+                    this.report.record(def.getName(), ShutdownStatus.FAILED, System.nanoTime() - start);
+                }
+            }
+            this.current = this.group.size();
+        }
+
+        /**
+         * 放弃该组：正在销毁的Bean记为指定状态并中断执行线程，尚未开始的Bean记为跳过
+         *
+         * @param status 正在销毁的Bean的状态
+         */
+        void abandon(ShutdownStatus status) {
+            this.abandoned = true;
+            int index = this.current;
+            if (index >= this.group.size()) {
+                return;
+            }
+            // 先记录结果再中断执行线程，被中断后返回的销毁方法不会覆盖该结果
+            for (int i = Math.max(index, 0); i < this.group.size(); i++) {
+                String name = this.group.get(i).getName();
+                if (i == index) {
+                    this.report.record(name, status, System.nanoTime() - this.startNanos);
+                } else {
+                    this.report.record(name, ShutdownStatus.SKIPPED, 0);
+                }
+            }
+            this.future.cancel(true);
+        }
+    }
+
+    /**
+     * Bean的销毁结果
+     */
+    enum ShutdownStatus {
+        /**
+         * 已销毁
+         */
+        DESTROYED,
+        /**
+         * 销毁方法抛出异常
+         */
+        FAILED,
+        /**
+         * 销毁方法超时，已放弃
+         */
+        TIMED_OUT,
+        /**
+         * 因超时未执行销毁方法
+         */
+        SKIPPED
+    }
+
+    /**
+     * 一个Bean的销毁记录
+     *
+     * @param name   Bean名称
+     * @param status 销毁结果
+     * @param nanos  销毁耗时
+     */
+    record BeanShutdown(String name, ShutdownStatus status, long nanos) {
+    }
+
+    /**
+     * 关闭报告，记录每个Bean的销毁结果和耗时
+     */
+    static final class Report {
+        /**
+         * Bean名称到销毁记录的映射，每个Bean只记录第一次的结果，被放弃的Bean之后完成时不覆盖
+         */
+        private final Map<String, BeanShutdown> beans = new ConcurrentHashMap<>();
+
+        /**
+         * 记录一个Bean的销毁结果，已有记录时忽略
+         *
+         * @param name   Bean名称
+         * @param status 销毁结果
+         * @param nanos  销毁耗时
+         */
+        void record(String name, ShutdownStatus status, long nanos) {
+            this.beans.putIfAbsent(name, new BeanShutdown(name, status, nanos));
+        }
+
+        /**
+         * 获取指定Bean的销毁记录
+         *
+         * @param name Bean名称
+         * @return 销毁记录，如果不存在，则返回null
+         */
+        @Nullable
+        BeanShutdown get(String name) {
+            return this.beans.get(name);
+        }
+
+        /**
+         * 获取指定结果的Bean名称
+         *
+         * @param statuses 销毁结果
+         * @return 按名称排序的Bean名称
+         */
+        List<String> getNames(ShutdownStatus... statuses) {
+            Set<ShutdownStatus> set = EnumSet.copyOf(Arrays.asList(statuses));
+            return this.beans.values().stream().filter(bean -> set.contains(bean.status())).map(BeanShutdown::name).sorted().toList();
+        }
+
+        /**
+         * 获取耗时最长的销毁记录，不包括跳过的Bean
+         *
+         * @param limit 最多返回的记录数
+         * @return 按耗时从长到短排列的销毁记录
+         */
+        List<BeanShutdown> getSlowest(int limit) {
+            return this.beans.values().stream()
+                    .filter(bean -> bean.status() != ShutdownStatus.SKIPPED)
+                    .sorted(Comparator.comparingLong(BeanShutdown::nanos).reversed().thenComparing(BeanShutdown::name))
+                    .limit(limit)
+                    .toList();
+        }
+    }
+}
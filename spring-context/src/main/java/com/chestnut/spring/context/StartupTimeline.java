@@ -0,0 +1,585 @@
+package com.chestnut.spring.context;
+
+import jakarta.annotation.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 启动时间线，记录容器刷新各阶段的耗时以及每个Bean的构造、注入、初始化和各BeanPostProcessor的耗时
+ * 同时记录导致每个Bean被创建的依赖链，并根据Bean之间的依赖关系计算关键路径，即决定启动耗时下限的串行依赖链
+ * <p>
+ * 所有时间均以纳秒为单位，开始时间相对于时间线的创建时间
+ *
+ * @author: Chestnut
+ * @since: 2023-08-06
+ **/
+public class StartupTimeline {
+    /**
+     * 时间线的创建时间
+     */
+    private final long originNanos = System.nanoTime();
+    /**
+     * 按开始顺序排列的阶段
+     */
+    private final List<Phase> phases = new ArrayList<>();
+    /**
+     * Bean名称到Bean启动记录的映射，并行刷新时会被多个线程同时修改
+     */
+    private final Map<String, BeanStartup> beans = new ConcurrentHashMap<>();
+    /**
+     * 当前线程中正在创建的Bean，栈顶为最内层，用于记录依赖链并扣除嵌套创建的耗时
+     */
+    private final ThreadLocal<Deque<CreationFrame>> creationStack = ThreadLocal.withInitial(ArrayDeque::new);
+    /**
+     * 时间线完成时间，完成前为-1
+     */
+    private volatile long finishedNanos = -1;
+
+    /**
+     * 获取所有阶段
+     *
+     * @return 按开始顺序排列的阶段
+     */
+    public synchronized List<Phase> getPhases() {
+        return List.copyOf(this.phases);
+    }
+
+    /**
+     * 获取所有Bean的启动记录
+     *
+     * @return 按开始创建的时间排列的Bean启动记录
+     */
+    public List<BeanStartup> getBeans() {
+        List<BeanStartup> list = new ArrayList<>(this.beans.values());
+        list.sort(Comparator.comparingLong(BeanStartup::getStartNanos).thenComparing(BeanStartup::getName));
+        return list;
+    }
+
+    /**
+     * 获取指定Bean的启动记录
+     *
+     * @param name Bean名称
+     * @return Bean启动记录，如果不存在，则返回null
+     */
+    @Nullable
+    public BeanStartup getBean(String name) {
+        return this.beans.get(name);
+    }
+
+    /**
+     * 获取启动总耗时，尚未完成时返回截至当前的耗时
+     *
+     * @return 总耗时
+     */
+    public long getTotalNanos() {
+        long finished = this.finishedNanos;
+        return (finished < 0 ? System.nanoTime() : finished) - this.originNanos;
+    }
+
+    /**
+     * 计算关键路径：沿依赖关系（依赖方指向被依赖方）累加Bean自身耗时最长的一条链
+     * 即使并行刷新，这条链上的Bean也只能依次处理，因此它决定了Bean处理阶段耗时的下限。
+     * 依赖关系存在循环时，忽略导致循环的边。
+     *
+     * @return 关键路径上的Bean启动记录，从最先被依赖的Bean开始排列
+     */
+    public List<BeanStartup> getCriticalPath() {
+        Map<String, Long> best = new HashMap<>();
+        Map<String, String> next = new HashMap<>();
+        Set<String> visiting = new HashSet<>();
+        String head = null;
+        long headCost = -1;
+        // 按名称遍历，保证耗时相同时结果稳定
+        for (String name : new TreeSet<>(this.beans.keySet())) {
+            long cost = computeLongestPath(name, best, next, visiting);
+            if (cost > headCost) {
+                headCost = cost;
+                head = name;
+            }
+        }
+        List<BeanStartup> path = new ArrayList<>();
+        for (String name = head; name != null; name = next.get(name)) {
+            path.add(this.beans.get(name));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * 获取关键路径的总耗时
+     *
+     * @return 关键路径上所有Bean自身耗时之和
+     */
+    public long getCriticalPathNanos() {
+        return getCriticalPath().stream().mapToLong(BeanStartup::getSelfNanos).sum();
+    }
+
+    /**
+     * 计算从指定Bean出发的最长路径
+     *
+     * @param name     Bean名称
+     * @param best     Bean名称到最长路径耗时的缓存
+     * @param next     Bean名称到最长路径中下一个Bean名称的映射
+     * @param visiting 当前路径上的Bean名称，用于忽略循环
+     * @return 最长路径耗时
+     */
+    private long computeLongestPath(String name, Map<String, Long> best, Map<String, String> next, Set<String> visiting) {
+        Long cached = best.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        BeanStartup bean = this.beans.get(name);
+        visiting.add(name);
+        long longest = 0;
+        for (String dep : new TreeSet<>(bean.getDependencies())) {
+            if (visiting.contains(dep) || !this.beans.containsKey(dep)) {
+                continue;
+            }
+            long cost = computeLongestPath(dep, best, next, visiting);
+            if (cost > longest) {
+                longest = cost;
+                next.put(name, dep);
+            }
+        }
+        visiting.remove(name);
+        long total = bean.getSelfNanos() + longest;
+        best.put(name, total);
+        return total;
+    }
+
+    /**
+     * 将时间线输出为JSON，时间以毫秒为单位
+     *
+     * @return JSON字符串
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"totalMs\": ").append(toMillis(getTotalNanos())).append(",\n");
+        sb.append("  \"phases\": [");
+        List<Phase> phaseList = getPhases();
+        for (int i = 0; i < phaseList.size(); i++) {
+            Phase phase = phaseList.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"name\": ").append(quote(phase.name()))
+                    .append(", \"startMs\": ").append(toMillis(phase.startNanos()))
+                    .append(", \"durationMs\": ").append(toMillis(phase.durationNanos())).append("}");
+        }
+        sb.append(phaseList.isEmpty() ? "],\n" : "\n  ],\n");
+        sb.append("  \"beans\": [");
+        List<BeanStartup> beanList = getBeans();
+        for (int i = 0; i < beanList.size(); i++) {
+            BeanStartup bean = beanList.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"name\": ").append(quote(bean.getName()))
+                    .append(", \"class\": ").append(quote(bean.getBeanClassName()))
+                    .append(", \"thread\": ").append(quote(bean.getThreadName()))
+                    .append(", \"startMs\": ").append(toMillis(bean.getStartNanos()))
+                    .append(", \"constructMs\": ").append(toMillis(bean.getConstructNanos()))
+                    .append(", \"injectMs\": ").append(toMillis(bean.getInjectNanos()))
+                    .append(", \"initMs\": ").append(toMillis(bean.getInitNanos()))
+                    .append(", \"postProcessorsMs\": {");
+            Map<String, Long> processors = bean.getPostProcessorNanos();
+            int j = 0;
+            for (Map.Entry<String, Long> entry : processors.entrySet()) {
+                sb.append(j++ == 0 ? "" : ", ").append(quote(entry.getKey())).append(": ").append(toMillis(entry.getValue()));
+            }
+            sb.append("}, \"requiredBy\": ").append(quote(bean.getDependencyChain()))
+                    .append(", \"dependencies\": ").append(quote(bean.getDependencies())).append("}");
+        }
+        sb.append(beanList.isEmpty() ? "],\n" : "\n  ],\n");
+        List<BeanStartup> criticalPath = getCriticalPath();
+        sb.append("  \"criticalPath\": {\"durationMs\": ")
+                .append(toMillis(criticalPath.stream().mapToLong(BeanStartup::getSelfNanos).sum()))
+                .append(", \"beans\": ").append(quote(criticalPath.stream().map(BeanStartup::getName).toList())).append("}\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 记录一个阶段
+     *
+     * @param name       阶段名称
+     * @param startNanos 阶段开始时的System.nanoTime()
+     */
+    synchronized void recordPhase(String name, long startNanos) {
+        this.phases.add(new Phase(name, startNanos - this.originNanos, System.nanoTime() - startNanos));
+    }
+
+    /**
+     * 标记时间线完成
+     */
+    void finish() {
+        this.finishedNanos = System.nanoTime();
+    }
+
+    /**
+     * 开始创建Bean，当前线程中正在创建的Bean即为导致其创建的依赖链
+     *
+     * @param name      Bean名称
+     * @param className Bean的声明类型
+     */
+    void beanCreationStarted(String name, String className) {
+        Deque<CreationFrame> stack = this.creationStack.get();
+        List<String> chain = new ArrayList<>(stack.size());
+        // 栈顶为最内层，依赖链从最外层开始排列
+        stack.descendingIterator().forEachRemaining(frame -> chain.add(frame.bean.name));
+        long now = System.nanoTime();
+        BeanStartup bean = new BeanStartup(name, className, Thread.currentThread().getName(), now - this.originNanos, List.copyOf(chain));
+        this.beans.put(name, bean);
+        stack.push(new CreationFrame(bean, now));
+    }
+
+    /**
+     * Bean的构造方法或工厂方法调用完成，记录扣除嵌套创建后的构造耗时
+     *
+     * @param name Bean名称
+     */
+    void beanConstructed(String name) {
+        CreationFrame frame = this.creationStack.get().peek();
+        if (frame != null && frame.bean.name.equals(name)) {
+            frame.bean.constructNanos = System.nanoTime() - frame.startNanos - frame.nestedNanos;
+        }
+    }
+
+    /**
+     * Bean创建完成（包括失败），将其总耗时计入外层Bean的嵌套创建耗时
+     *
+     * @param name Bean名称
+     */
+    void beanCreationFinished(String name) {
+        Deque<CreationFrame> stack = this.creationStack.get();
+        CreationFrame frame = stack.peek();
+        if (frame == null || !frame.bean.name.equals(name)) {
+            return;
+        }
+        stack.pop();
+        long elapsed = System.nanoTime() - frame.startNanos;
+        CreationFrame outer = stack.peek();
+        if (outer != null) {
+            outer.nestedNanos += elapsed;
+        } else {
+            this.creationStack.remove();
+        }
+    }
+
+    /**
+     * 记录BeanPostProcessor处理Bean的耗时，同一个BeanPostProcessor在初始化前后的耗时会累加
+     *
+     * @param name      Bean名称
+     * @param processor BeanPostProcessor的类名
+     * @param nanos     耗时
+     */
+    void recordPostProcessor(String name, String processor, long nanos) {
+        BeanStartup bean = this.beans.get(name);
+        if (bean != null) {
+            synchronized (bean) {
+                bean.postProcessorNanos.merge(processor, nanos, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * 记录Bean注入的耗时
+     *
+     * @param name  Bean名称
+     * @param nanos 耗时
+     */
+    void recordInjection(String name, long nanos) {
+        BeanStartup bean = this.beans.get(name);
+        if (bean != null) {
+            bean.injectNanos = nanos;
+        }
+    }
+
+    /**
+     * 记录Bean初始化方法的耗时
+     *
+     * @param name  Bean名称
+     * @param nanos 耗时
+     */
+    void recordInit(String name, long nanos) {
+        BeanStartup bean = this.beans.get(name);
+        if (bean != null) {
+            bean.initNanos = nanos;
+        }
+    }
+
+    /**
+     * 记录Bean依赖的Bean名称，用于计算关键路径
+     *
+     * @param name         Bean名称
+     * @param dependencies 依赖的Bean名称
+     */
+    void recordDependencies(String name, List<String> dependencies) {
+        BeanStartup bean = this.beans.get(name);
+        if (bean != null) {
+            bean.dependencies = List.copyOf(dependencies);
+        }
+    }
+
+    /**
+     * 将纳秒转换为保留三位小数的毫秒
+     *
+     * @param nanos 纳秒
+     * @return 毫秒字符串
+     */
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 将字符串列表转换为JSON数组
+     *
+     * @param values 字符串列表
+     * @return JSON数组
+     */
+    private static String quote(List<String> values) {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        values.forEach(value -> joiner.add(quote(value)));
+        return joiner.toString();
+    }
+
+    /**
+     * 将字符串转换为JSON字符串
+     *
+     * @param value 字符串
+     * @return JSON字符串
+     */
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * 阶段
+     *
+     * @param name          阶段名称
+     * @param startNanos    开始时间
+     * @param durationNanos 耗时
+     */
+    public record Phase(String name, long startNanos, long durationNanos) {
+    }
+
+    /**
+     * 单个Bean的启动记录
+     * 构造耗时不包括构造过程中嵌套创建其他Bean的耗时，也不包括BeanPostProcessor的耗时
+     */
+    public static class BeanStartup {
+        /**
+         * Bean名称
+         */
+        private final String name;
+        /**
+         * Bean的声明类型
+         */
+        private final String beanClassName;
+        /**
+         * 创建Bean的线程名称
+         */
+        private final String threadName;
+        /**
+         * 开始创建的时间
+         */
+        private final long startNanos;
+        /**
+         * 导致该Bean被创建的依赖链，从最外层开始排列，为空表示由容器直接创建
+         */
+        private final List<String> dependencyChain;
+        /**
+         * BeanPostProcessor类名到耗时的映射
+         */
+        private final Map<String, Long> postProcessorNanos = new LinkedHashMap<>();
+        /**
+         * 构造耗时
+         */
+        private volatile long constructNanos;
+        /**
+         * 注入耗时
+         */
+        private volatile long injectNanos;
+        /**
+         * 初始化方法耗时
+         */
+        private volatile long initNanos;
+        /**
+         * 依赖的Bean名称
+         */
+        private volatile List<String> dependencies = List.of();
+
+        /**
+         * 创建一个BeanStartup实例
+         *
+         * @param name            Bean名称
+         * @param beanClassName   Bean的声明类型
+         * @param threadName      创建Bean的线程名称
+         * @param startNanos      开始创建的时间
+         * @param dependencyChain 导致该Bean被创建的依赖链
+         */
+        BeanStartup(String name, String beanClassName, String threadName, long startNanos, List<String> dependencyChain) {
+            this.name = name;
+            this.beanClassName = beanClassName;
+            this.threadName = threadName;
+            this.startNanos = startNanos;
+            this.dependencyChain = dependencyChain;
+        }
+
+        /**
+         * 获取Bean名称
+         *
+         * @return Bean名称
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 获取Bean的声明类型
+         *
+         * @return Bean的声明类型的类名
+         */
+        public String getBeanClassName() {
+            return beanClassName;
+        }
+
+        /**
+         * 获取创建Bean的线程名称
+         *
+         * @return 线程名称
+         */
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * 获取开始创建的时间
+         *
+         * @return 相对于时间线创建时间的纳秒数
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * 获取导致该Bean被创建的依赖链
+         *
+         * @return 依赖链，从最外层开始排列，为空表示由容器直接创建
+         */
+        public List<String> getDependencyChain() {
+            return dependencyChain;
+        }
+
+        /**
+         * 获取构造耗时，不包括嵌套创建其他Bean以及BeanPostProcessor的耗时
+         *
+         * @return 构造耗时
+         */
+        public long getConstructNanos() {
+            return constructNanos;
+        }
+
+        /**
+         * 获取字段和set方法注入的耗时
+         *
+         * @return 注入耗时
+         */
+        public long getInjectNanos() {
+            return injectNanos;
+        }
+
+        /**
+         * 获取初始化方法的耗时
+         *
+         * @return 初始化方法耗时
+         */
+        public long getInitNanos() {
+            return initNanos;
+        }
+
+        /**
+         * 获取依赖的Bean名称，包括构造依赖和注入依赖
+         *
+         * @return 依赖的Bean名称
+         */
+        public List<String> getDependencies() {
+            return dependencies;
+        }
+
+        /**
+         * 获取各BeanPostProcessor处理该Bean的耗时
+         *
+         * @return BeanPostProcessor类名到耗时的映射，按首次处理的顺序排列
+         */
+        public synchronized Map<String, Long> getPostProcessorNanos() {
+            return new LinkedHashMap<>(postProcessorNanos);
+        }
+
+        /**
+         * 获取Bean自身的耗时，即构造、注入、初始化以及BeanPostProcessor耗时之和
+         *
+         * @return 自身耗时
+         */
+        public long getSelfNanos() {
+            return constructNanos + injectNanos + initNanos + getPostProcessorNanos().values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        @Override
+        public String toString() {
+            return "BeanStartup{" +
+                    "name='" + name + '\'' +
+                    ", beanClassName='" + beanClassName + '\'' +
+                    ", constructNanos=" + constructNanos +
+                    ", injectNanos=" + injectNanos +
+                    ", initNanos=" + initNanos +
+                    ", postProcessorNanos=" + getPostProcessorNanos() +
+                    ", dependencyChain=" + dependencyChain +
+                    '}';
+        }
+    }
+
+    /**
+     * 当前线程中正在创建的Bean
+     */
+    private static class CreationFrame {
+        /**
+         * Bean启动记录
+         */
+        final BeanStartup bean;
+        /**
+         * 开始创建的System.nanoTime()
+         */
+        final long startNanos;
+        /**
+         * 嵌套创建其他Bean的耗时
+         */
+        long nestedNanos;
+
+        /**
+         * 创建一个CreationFrame实例
+         *
+         * @param bean       Bean启动记录
+         * @param startNanos 开始创建的System.nanoTime()
+         */
+        CreationFrame(BeanStartup bean, long startNanos) {
+            this.bean = bean;
+            this.startNanos = startNanos;
+        }
+    }
+}
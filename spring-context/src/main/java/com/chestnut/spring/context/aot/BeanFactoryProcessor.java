@@ -0,0 +1,1094 @@
+package com.chestnut.spring.context.aot;
+
+import com.chestnut.spring.annotation.FilterType;
+import com.chestnut.spring.context.ComponentScanFilters;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Bean工厂注解处理器，在编译期为每个标注了@ComponentScan的配置类生成GeneratedBeanFactory的实现
+ * 生成的代码直接调用构造方法和@Bean工厂方法、写入@Autowired/@Value字段、调用set方法以及初始化和销毁方法，
+ * 运行时无需扫描类路径，也无需通过反射解析和访问组件类。
+ * <p>
+ * 需要通过编译参数 -Achestnut.aot=true 启用。处理输出目录中的组件以及@Import导入的类：增量编译时，
+ * 未参与本次编译的组件按之前记录的组件列表合并，之前生成过Bean工厂的配置类即使未参与本次编译也会重新生成；
+ * 其他类路径根目录（例如其他JAR）中的组件由上下文在运行时扫描。
+ * 生成的代码无法直接访问（例如私有成员、其他包中的非公共成员）或存在定义错误的组件类，
+ * 会记录在反射类名列表中，由上下文在运行时按原方式处理并报告错误。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-07
+ **/
+@SupportedAnnotationTypes("*")
+@SupportedOptions(BeanFactoryProcessor.AOT_OPTION)
+public class BeanFactoryProcessor extends AbstractProcessor {
+    /**
+     * 启用处理器的编译参数
+     */
+    static final String AOT_OPTION = "chestnut.aot";
+    /**
+     * @Component注解的全限定名
+     */
+    private static final String COMPONENT = "com.chestnut.spring.annotation.Component";
+    /**
+     * @ComponentScan注解的全限定名
+     */
+    private static final String COMPONENT_SCAN = "com.chestnut.spring.annotation.ComponentScan";
+    /**
+     * @Configuration注解的全限定名
+     */
+    private static final String CONFIGURATION = "com.chestnut.spring.annotation.Configuration";
+    /**
+     * @Import注解的全限定名
+     */
+    private static final String IMPORT = "com.chestnut.spring.annotation.Import";
+    /**
+     * @Order注解的全限定名
+     */
+    private static final String ORDER = "com.chestnut.spring.annotation.Order";
+    /**
+     * @Primary注解的全限定名
+     */
+    private static final String PRIMARY = "com.chestnut.spring.annotation.Primary";
+    /**
+     * @Lazy注解的全限定名
+     */
+    private static final String LAZY = "com.chestnut.spring.annotation.Lazy";
+    /**
+     * @AsyncInit注解的全限定名
+     */
+    private static final String ASYNC_INIT = "com.chestnut.spring.annotation.AsyncInit";
+    /**
+     * @ConfigurationProperties注解的全限定名
+     */
+    private static final String CONFIGURATION_PROPERTIES = "com.chestnut.spring.annotation.ConfigurationProperties";
+    /**
+     * @Scope注解的全限定名
+     */
+    private static final String SCOPE = "com.chestnut.spring.annotation.Scope";
+    /**
+     * @Pooled注解的全限定名
+     */
+    private static final String POOLED = "com.chestnut.spring.annotation.Pooled";
+    /**
+     * 条件注解的全限定名，标注了条件注解的组件类在运行时求值，不生成代码
+     */
+    private static final List<String> CONDITIONALS = List.of(
+            "com.chestnut.spring.annotation.ConditionalOnProperty",
+            "com.chestnut.spring.annotation.ConditionalOnClass",
+            "com.chestnut.spring.annotation.ConditionalOnMissingBean");
+    /**
+     * @Bean注解的全限定名
+     */
+    private static final String BEAN = "com.chestnut.spring.annotation.Bean";
+    /**
+     * @Autowired注解的全限定名
+     */
+    private static final String AUTOWIRED = "com.chestnut.spring.annotation.Autowired";
+    /**
+     * @Value注解的全限定名
+     */
+    private static final String VALUE = "com.chestnut.spring.annotation.Value";
+    /**
+     * @PostConstruct注解的全限定名
+     */
+    private static final String POST_CONSTRUCT = "jakarta.annotation.PostConstruct";
+    /**
+     * @PreDestroy注解的全限定名
+     */
+    private static final String PRE_DESTROY = "jakarta.annotation.PreDestroy";
+    /**
+     * ObjectProvider的全限定名
+     */
+    private static final String OBJECT_PROVIDER = "com.chestnut.spring.context.ObjectProvider";
+    /**
+     * 输出目录中记录已生成Bean工厂的配置类的文件，增量编译时重新生成这些配置类的Bean工厂
+     */
+    private static final String FACTORIES_LOCATION = "META-INF/chestnut.bean-factories";
+    /**
+     * 输出目录中记录每个Bean工厂所包含的类的目录，文件名为配置类的二进制名称
+     */
+    private static final String COMPONENTS_LOCATION = "META-INF/chestnut/aot/";
+
+    /**
+     * 已处理过的所有类型，包括嵌套类
+     */
+    private final List<TypeElement> types = new ArrayList<>();
+    /**
+     * 已生成Bean工厂的配置类
+     */
+    private final Set<String> generated = new TreeSet<>();
+    /**
+     * 参与本次编译的所有类名（二进制名称），这些类是否为组件以本次编译的结果为准
+     */
+    private final Set<String> compiled = new HashSet<>();
+    /**
+     * 之前编译时已生成Bean工厂的配置类，首轮处理时读取
+     */
+    private Set<String> previousFactories;
+
+    /**
+     * 获取支持的源码版本
+     *
+     * @return 最新支持的源码版本
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * 处理每一轮的根元素，为新出现的@ComponentScan配置类生成Bean工厂
+     *
+     * @param annotations 本轮请求处理的注解类型
+     * @param roundEnv    本轮的环境信息
+     * @return 始终返回false，不声明独占任何注解
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!"true".equals(processingEnv.getOptions().get(AOT_OPTION))) {
+            return false;
+        }
+        if (this.previousFactories == null) {
+            this.previousFactories = readLines(FACTORIES_LOCATION);
+        }
+        if (roundEnv.processingOver()) {
+            writeFactories();
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element);
+        }
+        for (TypeElement type : List.copyOf(this.types)) {
+            if (getAnnotation(type, COMPONENT_SCAN) != null && this.generated.add(type.getQualifiedName().toString())) {
+                generate(type);
+            }
+        }
+        // 未参与本次编译的配置类也重新生成Bean工厂，使其包含本次编译新增的组件并移除已删除的组件
+        for (String name : this.previousFactories) {
+            TypeElement config = processingEnv.getElementUtils().getTypeElement(name);
+            if (config != null && getAnnotation(config, COMPONENT_SCAN) != null && this.generated.add(name)) {
+                generate(config);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 写入已生成Bean工厂的配置类，没有生成任何Bean工厂且之前也没有时不写入
+     */
+    private void writeFactories() {
+        if (this.generated.isEmpty() && this.previousFactories.isEmpty()) {
+            return;
+        }
+        writeLines(FACTORIES_LOCATION, this.generated);
+    }
+
+    /**
+     * 收集类型，包括嵌套类
+     *
+     * @param element 要收集的元素
+     */
+    private void collect(Element element) {
+        if (element.getKind().isClass() || element.getKind().isInterface()) {
+            this.types.add((TypeElement) element);
+            this.compiled.add(binaryName((TypeElement) element));
+            for (Element enclosed : element.getEnclosedElements()) {
+                collect(enclosed);
+            }
+        }
+    }
+
+    /**
+     * 为配置类生成Bean工厂
+     *
+     * @param config 标注了@ComponentScan的配置类
+     */
+    private void generate(TypeElement config) {
+        String pkg = packageOf(config);
+        // 要扫描的包，默认为配置类所在的包
+        List<String> scanPackages = new ArrayList<>();
+        AnnotationMirror scan = getAnnotation(config, COMPONENT_SCAN);
+        for (AnnotationValue value : listValue(scan, "value")) {
+            scanPackages.add((String) value.getValue());
+        }
+        if (scanPackages.isEmpty()) {
+            scanPackages.add(pkg);
+        }
+        // 与运行时一致，按二进制类名排序，并应用包含和排除过滤器
+        ComponentScanFilters filters = new ComponentScanFilters(getFilterRules(scan, "includeFilters"), getFilterRules(scan, "excludeFilters"));
+        Map<String, TypeElement> classes = new TreeMap<>();
+        for (TypeElement type : this.types) {
+            if (isScanned(type, scanPackages, filters)) {
+                classes.put(binaryName(type), type);
+            }
+        }
+        // 合并之前编译时的组件：未参与本次编译的类仍然存在且仍在扫描范围内时才保留，已删除的类被移除
+        String componentsLocation = COMPONENTS_LOCATION + binaryName(config);
+        for (String name : readLines(componentsLocation)) {
+            if (!this.compiled.contains(name) && !classes.containsKey(name)) {
+                TypeElement type = processingEnv.getElementUtils().getTypeElement(name.replace('$', '.'));
+                if (type != null && isScanned(type, scanPackages, filters)) {
+                    classes.put(name, type);
+                }
+            }
+        }
+        writeLines(componentsLocation, classes.keySet());
+        AnnotationMirror imports = getAnnotation(config, IMPORT);
+        if (imports != null) {
+            for (AnnotationValue value : listValue(imports, "value")) {
+                TypeElement imported = (TypeElement) ((DeclaredType) value.getValue()).asElement();
+                classes.putIfAbsent(binaryName(imported), imported);
+            }
+        }
+
+        List<String> methods = new ArrayList<>();
+        List<String> reflective = new ArrayList<>();
+        for (Map.Entry<String, TypeElement> entry : classes.entrySet()) {
+            TypeElement type = entry.getValue();
+            boolean bound = type.getKind() == ElementKind.RECORD && getAnnotation(type, CONFIGURATION_PROPERTIES) != null;
+            if ((type.getKind() != ElementKind.CLASS && !bound) || !isAnnotated(type, COMPONENT, new HashSet<>())) {
+                continue;
+            }
+            String code = generateBeans(type, pkg);
+            if (code == null) {
+                reflective.add(entry.getKey());
+            } else {
+                methods.add(code);
+            }
+        }
+        writeFactory(config, pkg, methods, reflective);
+    }
+
+    /**
+     * 检查类是否在配置类的扫描范围内
+     *
+     * @param type         类
+     * @param scanPackages 要扫描的包
+     * @param filters      扫描过滤器
+     * @return 如果在扫描范围内，则返回true；否则返回false
+     */
+    private boolean isScanned(TypeElement type, List<String> scanPackages, ComponentScanFilters filters) {
+        String typePkg = packageOf(type);
+        return scanPackages.stream().anyMatch(p -> typePkg.equals(p) || typePkg.startsWith(p + ".")) && isIncluded(type, filters);
+    }
+
+    /**
+     * 读取输出目录中之前编译生成的文件，每行一个类名
+     *
+     * @param location 文件在输出目录中的位置
+     * @return 类名集合，如果文件不存在，则返回空集合
+     */
+    private Set<String> readLines(String location) {
+        Set<String> lines = new TreeSet<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", location);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        lines.add(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 首次编译或已清理输出目录，没有之前生成的文件
+        }
+        return lines;
+    }
+
+    /**
+     * 在输出目录中写入文件，每行一个类名
+     *
+     * @param location 文件在输出目录中的位置
+     * @param lines    类名集合
+     */
+    private void writeLines(String location, Collection<String> lines) {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", location);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + location + ": " + e);
+        }
+    }
+
+    /**
+     * 读取@ComponentScan中的过滤器
+     *
+     * @param scan @ComponentScan注解
+     * @param name 属性名称，includeFilters或excludeFilters
+     * @return 过滤规则列表
+     */
+    private List<ComponentScanFilters.Rule> getFilterRules(AnnotationMirror scan, String name) {
+        List<ComponentScanFilters.Rule> rules = new ArrayList<>();
+        for (AnnotationValue value : listValue(scan, name)) {
+            AnnotationMirror filter = (AnnotationMirror) value.getValue();
+            FilterType type = FilterType.valueOf(((VariableElement) value(filter, "type")).getSimpleName().toString());
+            List<String> values = new ArrayList<>();
+            if (type == FilterType.ANNOTATION || type == FilterType.ASSIGNABLE_TYPE) {
+                for (AnnotationValue clazz : listValue(filter, "classes")) {
+                    values.add(binaryName((TypeElement) ((DeclaredType) clazz.getValue()).asElement()));
+                }
+            } else {
+                for (AnnotationValue pattern : listValue(filter, "pattern")) {
+                    values.add((String) pattern.getValue());
+                }
+            }
+            rules.add(new ComponentScanFilters.Rule(type, values));
+        }
+        return rules;
+    }
+
+    /**
+     * 检查类是否满足扫描过滤器，与运行时扫描的判断一致
+     *
+     * @param type    类
+     * @param filters 扫描过滤器
+     * @return 如果满足，则返回true；否则返回false
+     */
+    private boolean isIncluded(TypeElement type, ComponentScanFilters filters) {
+        if (filters.isEmpty()) {
+            return true;
+        }
+        String className = binaryName(type);
+        if (filters.isExcludedPackage(packageOf(type)) || !filters.acceptName(className)) {
+            return false;
+        }
+        Types types = processingEnv.getTypeUtils();
+        return filters.accept(className,
+                annotationName -> isAnnotated(type, annotationName.replace('$', '.'), new HashSet<>()),
+                typeName -> {
+                    TypeElement target = processingEnv.getElementUtils().getTypeElement(typeName.replace('$', '.'));
+                    return target != null && types.isAssignable(types.erasure(type.asType()), types.erasure(target.asType()));
+                });
+    }
+
+    /**
+     * 生成一个组件类（及其@Bean方法）的Bean
+     *
+     * @param type 组件类
+     * @param pkg  生成的Bean工厂所在的包
+     * @return 添加Bean的语句，如果无法直接生成，则返回null
+     */
+    private String generateBeans(TypeElement type, String pkg) {
+        Set<Modifier> mods = type.getModifiers();
+        // 抽象类、私有类以及无法访问的类由运行时报告错误或通过反射处理
+        if (mods.contains(Modifier.ABSTRACT) || !isAccessible(type, pkg)) {
+            return null;
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !mods.contains(Modifier.STATIC)) {
+            return null;
+        }
+        // 重复的@Component或@Configuration在运行时报告错误
+        if (isDuplicated(type, COMPONENT) || isDuplicated(type, CONFIGURATION)) {
+            return null;
+        }
+        // 条件依赖运行时的属性和类路径，组件类或其@Bean方法标注了条件注解时通过反射处理
+        if (isConditional(type)) {
+            return null;
+        }
+        // @ConfigurationProperties组件类由运行时的属性绑定器创建
+        if (getAnnotation(type, CONFIGURATION_PROPERTIES) != null) {
+            return null;
+        }
+        String beanName = getBeanName(type);
+        if (beanName == null) {
+            return null;
+        }
+        boolean configuration = isAnnotated(type, CONFIGURATION, new HashSet<>());
+        ExecutableElement constructor = getSuitableConstructor(type);
+        if (constructor == null || !isAccessible(constructor, pkg)) {
+            return null;
+        }
+        List<String> constructionDeps = new ArrayList<>();
+        String args = generateArguments(constructor, pkg, configuration, constructionDeps);
+        if (args == null) {
+            return null;
+        }
+        List<ExecutableElement> initMethods = findAnnotationMethods(type, POST_CONSTRUCT);
+        List<ExecutableElement> destroyMethods = findAnnotationMethods(type, PRE_DESTROY);
+        if (!isCallable(initMethods, pkg) || !isCallable(destroyMethods, pkg)) {
+            return null;
+        }
+        ExecutableElement initMethod = initMethods.isEmpty() ? null : initMethods.get(0);
+        ExecutableElement destroyMethod = destroyMethods.isEmpty() ? null : destroyMethods.get(0);
+        List<String> injectionDeps = new ArrayList<>();
+        String injector = generateInjector(type.asType(), pkg, injectionDeps);
+        if (injector == null) {
+            return null;
+        }
+        String typeName = type.getQualifiedName().toString();
+        StringBuilder sb = new StringBuilder();
+        sb.append("        beans.add(new GeneratedBean(").append(literal(beanName)).append(", ").append(typeName).append(".class, null, ")
+                .append(getOrder(type)).append(", ").append(getAnnotation(type, PRIMARY) != null).append(", ").append(configuration)
+                .append(", ").append(getAnnotation(type, LAZY) != null).append(", ").append(getAnnotation(type, ASYNC_INIT) != null)
+                .append(", ").append(getScope(type)).append(",\n")
+                .append("                r -> new ").append(typeName).append("(").append(args).append("),\n")
+                .append("                ").append(dependencies(constructionDeps)).append(",\n")
+                .append("                ").append(injector).append(",\n")
+                .append("                ").append(dependencies(injectionDeps)).append(",\n")
+                .append("                ").append(callback(typeName, initMethod)).append(", ").append(callback(typeName, destroyMethod)).append(",\n")
+                .append("                null, null));\n");
+
+        if (configuration) {
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                AnnotationMirror bean = getAnnotation(method, BEAN);
+                if (bean == null) {
+                    continue;
+                }
+                String code = generateFactoryBean(beanName, typeName, method, bean, pkg);
+                if (code == null) {
+                    return null;
+                }
+                sb.append(code);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 生成@Bean方法定义的Bean
+     *
+     * @param factoryName     工厂Bean名称
+     * @param factoryTypeName 工厂Bean类型
+     * @param method          @Bean方法
+     * @param bean            @Bean注解
+     * @param pkg             生成的Bean工厂所在的包
+     * @return 添加Bean的语句，如果无法直接生成，则返回null
+     */
+    private String generateFactoryBean(String factoryName, String factoryTypeName, ExecutableElement method, AnnotationMirror bean, String pkg) {
+        Set<Modifier> mods = method.getModifiers();
+        if (mods.contains(Modifier.ABSTRACT) || mods.contains(Modifier.FINAL) || mods.contains(Modifier.PRIVATE) || mods.contains(Modifier.STATIC)) {
+            return null;
+        }
+        // 返回的实例需要在运行时绑定属性
+        if (getAnnotation(method, CONFIGURATION_PROPERTIES) != null) {
+            return null;
+        }
+        TypeMirror returnType = method.getReturnType();
+        if (returnType.getKind().isPrimitive() || returnType.getKind() == TypeKind.VOID || !isAccessible(method, pkg) || !isAccessible(returnType, pkg)) {
+            return null;
+        }
+        List<String> constructionDeps = new ArrayList<>();
+        String args = generateArguments(method, pkg, false, constructionDeps);
+        if (args == null) {
+            return null;
+        }
+        List<String> injectionDeps = new ArrayList<>();
+        String injector = generateInjector(returnType, pkg, injectionDeps);
+        if (injector == null) {
+            return null;
+        }
+        String name = (String) value(bean, "value");
+        if (name.isEmpty()) {
+            name = method.getSimpleName().toString();
+        }
+        String initMethodName = (String) value(bean, "initMethod");
+        String destroyMethodName = (String) value(bean, "destroyMethod");
+        AnnotationMirror order = getAnnotation(method, ORDER);
+        return "        beans.add(new GeneratedBean(" + literal(name) + ", " + typeName(returnType) + ".class, " + literal(factoryName) + ", "
+                + (order == null ? "Integer.MAX_VALUE" : value(order, "value")) + ", " + (getAnnotation(method, PRIMARY) != null) + ", false, " + (getAnnotation(method, LAZY) != null) + ", "
+                + (getAnnotation(method, ASYNC_INIT) != null) + ", " + getScope(method) + ",\n"
+                + "                r -> ((" + factoryTypeName + ") r.getFactoryBean())." + method.getSimpleName() + "(" + args + "),\n"
+                + "                " + dependencies(constructionDeps) + ",\n"
+                + "                " + injector + ",\n"
+                + "                " + dependencies(injectionDeps) + ",\n"
+                // @Bean指定的初始化和销毁方法在运行时的实际类型中查找，保持原有的按名称调用
+                + "                null, null,\n"
+                + "                " + (initMethodName.isEmpty() ? "null" : literal(initMethodName)) + ", "
+                + (destroyMethodName.isEmpty() ? "null" : literal(destroyMethodName)) + "));\n";
+    }
+
+    /**
+     * 生成构造方法或工厂方法的参数
+     *
+     * @param executable    构造方法或工厂方法
+     * @param pkg           生成的Bean工厂所在的包
+     * @param configuration 是否为@Configuration配置类的构造方法
+     * @param deps          收集@Autowired参数的依赖
+     * @return 参数列表代码，如果无法直接生成，则返回null
+     */
+    private String generateArguments(ExecutableElement executable, String pkg, boolean configuration, List<String> deps) {
+        StringJoiner args = new StringJoiner(", ");
+        for (VariableElement param : executable.getParameters()) {
+            AnnotationMirror value = getAnnotation(param, VALUE);
+            AnnotationMirror autowired = getAnnotation(param, AUTOWIRED);
+            TypeMirror type = param.asType();
+            // 参数需要 @Value 或 @Autowired 两者之一，@Configuration类型的Bean不允许使用@Autowired
+            if ((value == null) == (autowired == null) || (configuration && autowired != null) || !isAccessible(type, pkg)) {
+                return null;
+            }
+            if (value != null) {
+                args.add(property(type, (String) value(value, "value")));
+            } else {
+                if (type.getKind().isPrimitive()) {
+                    return null;
+                }
+                String name = (String) value(autowired, "name");
+                if (isProvider(type)) {
+                    String provider = provider(type, name, pkg);
+                    if (provider == null) {
+                        return null;
+                    }
+                    args.add(provider);
+                    continue;
+                }
+                deps.add(dependency(type, name));
+                args.add("(" + typeName(type) + ") r.getBean(" + typeName(type) + ".class, " + literal(name) + ", " + value(autowired, "value") + ")");
+            }
+        }
+        return args.toString();
+    }
+
+    /**
+     * 生成注入代码，与运行时的注入计划一致：先当前类后父类，每个类中先字段后方法
+     *
+     * @param beanType Bean的声明类型
+     * @param pkg      生成的Bean工厂所在的包
+     * @param deps     收集@Autowired字段和方法的依赖
+     * @return 注入的Lambda表达式代码，如果无法直接生成，则返回null
+     */
+    private String generateInjector(TypeMirror beanType, String pkg, List<String> deps) {
+        StringBuilder sb = new StringBuilder();
+        if (beanType.getKind() == TypeKind.DECLARED) {
+            TypeElement type = (TypeElement) ((DeclaredType) beanType).asElement();
+            for (TypeElement c = type; c != null; c = superclassOf(c)) {
+                List<Element> members = new ArrayList<>(ElementFilter.fieldsIn(c.getEnclosedElements()));
+                members.addAll(ElementFilter.methodsIn(c.getEnclosedElements()));
+                for (Element member : members) {
+                    AnnotationMirror value = getAnnotation(member, VALUE);
+                    AnnotationMirror autowired = getAnnotation(member, AUTOWIRED);
+                    if (value == null && autowired == null) {
+                        continue;
+                    }
+                    String code = generateInjection(c, member, value, autowired, pkg, deps);
+                    if (code == null) {
+                        return null;
+                    }
+                    sb.append("                    ").append(code).append("\n");
+                }
+            }
+        }
+        return sb.length() == 0 ? "(bean, r) -> {\n                }" : "(bean, r) -> {\n" + sb + "                }";
+    }
+
+    /**
+     * 生成一个字段或set方法的注入代码
+     *
+     * @param declaring 声明字段或方法的类
+     * @param member    字段或方法
+     * @param value     @Value注解
+     * @param autowired @Autowired注解
+     * @param pkg       生成的Bean工厂所在的包
+     * @param deps      收集@Autowired字段和方法的依赖
+     * @return 注入代码，如果无法直接生成，则返回null
+     */
+    private String generateInjection(TypeElement declaring, Element member, AnnotationMirror value, AnnotationMirror autowired, String pkg, List<String> deps) {
+        Set<Modifier> mods = member.getModifiers();
+        if ((value != null && autowired != null) || mods.contains(Modifier.STATIC) || !isAccessible(member, pkg)) {
+            return null;
+        }
+        TypeMirror type;
+        String target = "((" + declaring.getQualifiedName() + ") bean)." + member.getSimpleName();
+        if (member.getKind() == ElementKind.FIELD) {
+            if (mods.contains(Modifier.FINAL)) {
+                return null;
+            }
+            type = member.asType();
+        } else {
+            List<? extends VariableElement> params = ((ExecutableElement) member).getParameters();
+            if (params.size() != 1) {
+                return null;
+            }
+            type = params.get(0).asType();
+        }
+        if (!isAccessible(type, pkg)) {
+            return null;
+        }
+        boolean field = member.getKind() == ElementKind.FIELD;
+        if (value != null) {
+            String property = property(type, (String) value(value, "value"));
+            return field ? target + " = " + property + ";" : target + "(" + property + ");";
+        }
+        if (type.getKind().isPrimitive()) {
+            return null;
+        }
+        String name = (String) value(autowired, "name");
+        if (isProvider(type)) {
+            // ObjectProvider总是注入，注入时不查找目标Bean，也不记录依赖
+            String provider = provider(type, name, pkg);
+            if (provider == null) {
+                return null;
+            }
+            return field ? target + " = " + provider + ";" : target + "(" + provider + ");";
+        }
+        deps.add(dependency(type, name));
+        String resolved = "r.getInjectedBean(" + literal(member.getSimpleName().toString()) + ", " + typeName(type) + ".class, " + literal(name) + ", " + value(autowired, "value") + ")";
+        String assigned = "(" + typeName(type) + ") v";
+        // 依赖不存在且不是必须时不进行注入
+        return "{ Object v = " + resolved + "; if (v != null) " + (field ? target + " = " + assigned + ";" : target + "(" + assigned + ");") + " }";
+    }
+
+    /**
+     * 写入Bean工厂源文件
+     *
+     * @param config     配置类
+     * @param pkg        包名
+     * @param methods    每个组件类添加Bean的语句
+     * @param reflective 需要通过反射处理的组件类名
+     */
+    private void writeFactory(TypeElement config, String pkg, List<String> methods, List<String> reflective) {
+        String binaryName = binaryName(config);
+        String simpleName = (pkg.isEmpty() ? binaryName : binaryName.substring(pkg.length() + 1)) + GeneratedBeanFactory.CLASS_NAME_SUFFIX;
+        StringBuilder sb = new StringBuilder();
+        if (!pkg.isEmpty()) {
+            sb.append("package ").append(pkg).append(";\n\n");
+        }
+        sb.append("import com.chestnut.spring.context.aot.GeneratedBean;\n");
+        sb.append("import com.chestnut.spring.context.aot.GeneratedBeanFactory;\n\n");
+        sb.append("import java.util.ArrayList;\n");
+        sb.append("import java.util.List;\n\n");
+        sb.append("/**\n * ").append(config.getQualifiedName()).append("的Bean工厂，由").append(getClass().getSimpleName()).append("生成，请勿修改\n */\n");
+        sb.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(simpleName).append(" implements GeneratedBeanFactory {\n");
+        sb.append("    @Override\n");
+        sb.append("    public List<GeneratedBean> getBeans() {\n");
+        sb.append("        List<GeneratedBean> beans = new ArrayList<>();\n");
+        for (int i = 0; i < methods.size(); i++) {
+            sb.append("        addBeans").append(i).append("(beans);\n");
+        }
+        sb.append("        return beans;\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public List<String> getReflectiveClassNames() {\n");
+        StringJoiner names = new StringJoiner(", ");
+        reflective.forEach(name -> names.add(literal(name)));
+        sb.append("        return List.of(").append(names).append(");\n");
+        sb.append("    }\n");
+        // 每个组件类单独一个方法，避免单个方法过大
+        for (int i = 0; i < methods.size(); i++) {
+            sb.append("\n    private static void addBeans").append(i).append("(List<GeneratedBean> beans) {\n");
+            sb.append(methods.get(i));
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        String qualifiedName = pkg.isEmpty() ? simpleName : pkg + "." + simpleName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, config);
+            try (Writer writer = file.openWriter()) {
+                writer.write(sb.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write bean factory " + qualifiedName + ": " + e, config);
+        }
+    }
+
+    /**
+     * 选择构造方法，与运行时一致：唯一的公共构造方法，或没有公共构造方法时唯一的构造方法
+     *
+     * @param type 组件类
+     * @return 构造方法，如果无法确定，则返回null
+     */
+    private ExecutableElement getSuitableConstructor(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        List<ExecutableElement> publics = constructors.stream().filter(c -> c.getModifiers().contains(Modifier.PUBLIC)).toList();
+        List<ExecutableElement> candidates = publics.isEmpty() ? constructors : publics;
+        if (candidates.size() != 1 || candidates.get(0).getModifiers().contains(Modifier.PRIVATE)) {
+            return null;
+        }
+        return candidates.get(0);
+    }
+
+    /**
+     * 生成调用初始化或销毁方法的代码
+     *
+     * @param typeName 组件类名
+     * @param method   初始化或销毁方法，可以为null
+     * @return Lambda表达式代码或null
+     */
+    private String callback(String typeName, ExecutableElement method) {
+        return method == null ? "null" : "bean -> ((" + typeName + ") bean)." + method.getSimpleName() + "()";
+    }
+
+    /**
+     * 检查初始化或销毁方法能否直接调用，与运行时一致：最多一个，且没有参数
+     *
+     * @param methods 标注了@PostConstruct或@PreDestroy的方法
+     * @param pkg     生成的Bean工厂所在的包
+     * @return 如果可以直接调用，则返回true；否则返回false
+     */
+    private boolean isCallable(List<ExecutableElement> methods, String pkg) {
+        if (methods.size() > 1) {
+            return false;
+        }
+        return methods.stream().allMatch(m -> m.getParameters().isEmpty() && isAccessible(m, pkg));
+    }
+
+    /**
+     * 查找类中声明的标注了指定注解的方法，不在父类中查找
+     *
+     * @param type     类
+     * @param annoName 注解类名
+     * @return 标注了指定注解的方法
+     */
+    private List<ExecutableElement> findAnnotationMethods(TypeElement type, String annoName) {
+        return ElementFilter.methodsIn(type.getEnclosedElements()).stream().filter(m -> getAnnotation(m, annoName) != null).toList();
+    }
+
+    /**
+     * 获取Bean名称，与运行时的ClassUtils.getBeanName()一致
+     *
+     * @param type 组件类
+     * @return Bean名称，如果无法在编译期确定，则返回null
+     */
+    private String getBeanName(TypeElement type) {
+        String name = "";
+        AnnotationMirror component = getAnnotation(type, COMPONENT);
+        if (component != null) {
+            name = (String) value(component, "value");
+        } else {
+            for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(type)) {
+                TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+                if (!isAnnotated(annoType, COMPONENT, new HashSet<>())) {
+                    continue;
+                }
+                // 标注了@Component的自定义注解需要有String类型的value()
+                Object value = value(mirror, "value");
+                if (!(value instanceof String str)) {
+                    return null;
+                }
+                name = str;
+            }
+        }
+        if (name.isEmpty()) {
+            name = type.getSimpleName().toString();
+            name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+        return name;
+    }
+
+    /**
+     * 获取@Order指定的顺序
+     *
+     * @param type 组件类
+     * @return 顺序代码
+     */
+    private String getOrder(TypeElement type) {
+        AnnotationMirror order = getAnnotation(type, ORDER);
+        return order == null ? "Integer.MAX_VALUE" : String.valueOf(value(order, "value"));
+    }
+
+    /**
+     * 获取@Scope和@Pooled指定的作用域和对象池大小，只标注@Pooled时为原型
+     *
+     * @param element 组件类或@Bean方法
+     * @return 作用域和对象池大小代码
+     */
+    private String getScope(Element element) {
+        AnnotationMirror scope = getAnnotation(element, SCOPE);
+        AnnotationMirror pooled = getAnnotation(element, POOLED);
+        String name = scope != null ? (String) value(scope, "value") : pooled != null ? "prototype" : "singleton";
+        return literal(name) + ", " + (pooled == null ? 0 : value(pooled, "max"));
+    }
+
+    /**
+     * 检查注解是否在类上重复出现，即直接标注且通过元注解标注，或通过多个注解的元注解标注
+     *
+     * @param type     类
+     * @param annoName 注解类名
+     * @return 如果重复出现，则返回true；否则返回false
+     */
+    private boolean isDuplicated(TypeElement type, String annoName) {
+        int count = 0;
+        for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(type)) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            String name = annoType.getQualifiedName().toString();
+            if (name.equals(annoName)) {
+                count++;
+            } else if (!name.startsWith("java.lang.annotation.") && isAnnotated(annoType, annoName, new HashSet<>())) {
+                count++;
+            }
+        }
+        return count > 1;
+    }
+
+    /**
+     * 检查组件类或其@Bean方法是否标注了条件注解
+     *
+     * @param type 组件类
+     * @return 如果标注了条件注解，则返回true；否则返回false
+     */
+    private boolean isConditional(TypeElement type) {
+        List<Element> elements = new ArrayList<>();
+        elements.add(type);
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (getAnnotation(method, BEAN) != null) {
+                elements.add(method);
+            }
+        }
+        for (Element element : elements) {
+            for (String conditional : CONDITIONALS) {
+                if (getAnnotation(element, conditional) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 递归检查元素是否直接或通过元注解标注了指定注解，包括从父类继承（@Inherited）的注解
+     *
+     * @param element  要检查的元素
+     * @param annoName 注解类名
+     * @param visited  已访问过的注解类型，防止注解间相互引用导致的无限递归
+     * @return 如果标注了指定注解，则返回true；否则返回false
+     */
+    private boolean isAnnotated(Element element, String annoName, Set<String> visited) {
+        for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(element)) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            String name = annoType.getQualifiedName().toString();
+            if (annoName.equals(name)) {
+                return true;
+            }
+            if (!name.startsWith("java.lang.annotation.") && visited.add(name) && isAnnotated(annoType, annoName, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取元素上直接标注（类包括从父类继承）的注解
+     *
+     * @param element  元素
+     * @param annoName 注解类名
+     * @return 注解，如果不存在，则返回null
+     */
+    private AnnotationMirror getAnnotation(Element element, String annoName) {
+        for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(element)) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annoName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取注解属性值，包括默认值
+     *
+     * @param mirror 注解
+     * @param name   属性名称
+     * @return 属性值，如果属性不存在，则返回null
+     */
+    private Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取数组类型的注解属性值
+     *
+     * @param mirror 注解，可以为null
+     * @param name   属性名称
+     * @return 属性值列表
+     */
+    @SuppressWarnings("unchecked")
+    private List<? extends AnnotationValue> listValue(AnnotationMirror mirror, String name) {
+        if (mirror == null) {
+            return List.of();
+        }
+        Object value = value(mirror, name);
+        return value instanceof List<?> list ? (List<? extends AnnotationValue>) list : List.of();
+    }
+
+    /**
+     * 获取父类，到java.lang.Object为止
+     *
+     * @param type 类
+     * @return 父类，如果不存在，则返回null
+     */
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    /**
+     * 检查元素在生成的Bean工厂中能否直接访问：元素及其所有外部类均不是私有的，且为公共的或位于同一个包中
+     *
+     * @param element 类、字段或方法
+     * @param pkg     生成的Bean工厂所在的包
+     * @return 如果可以直接访问，则返回true；否则返回false
+     */
+    private boolean isAccessible(Element element, String pkg) {
+        for (Element e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            Set<Modifier> mods = e.getModifiers();
+            if (mods.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!mods.contains(Modifier.PUBLIC) && !packageOf(e).equals(pkg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 检查类型在生成的Bean工厂中能否直接访问
+     *
+     * @param type 类型
+     * @param pkg  生成的Bean工厂所在的包
+     * @return 如果可以直接访问，则返回true；否则返回false
+     */
+    private boolean isAccessible(TypeMirror type, String pkg) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        return switch (erasure.getKind()) {
+            case ARRAY -> isAccessible(((ArrayType) erasure).getComponentType(), pkg);
+            case DECLARED -> isAccessible(((DeclaredType) erasure).asElement(), pkg);
+            default -> erasure.getKind().isPrimitive();
+        };
+    }
+
+    /**
+     * 获取类型擦除后在源码中的名称
+     *
+     * @param type 类型
+     * @return 类型名称
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        return switch (erasure.getKind()) {
+            case ARRAY -> typeName(((ArrayType) erasure).getComponentType()) + "[]";
+            case DECLARED -> ((TypeElement) ((DeclaredType) erasure).asElement()).getQualifiedName().toString();
+            default -> erasure.toString();
+        };
+    }
+
+    /**
+     * 生成获取@Value属性值的代码，基本类型转换为包装类型后自动拆箱
+     *
+     * @param type       属性值的类型
+     * @param expression 属性表达式
+     * @return 代码
+     */
+    private String property(TypeMirror type, String expression) {
+        String castType = type.getKind().isPrimitive()
+                ? processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString()
+                : typeName(type);
+        return "(" + castType + ") r.getProperty(" + literal(expression) + ", " + typeName(type) + ".class)";
+    }
+
+    /**
+     * 检查注入类型是否为ObjectProvider
+     *
+     * @param type 注入类型
+     * @return 如果是ObjectProvider，则返回true；否则返回false
+     */
+    private boolean isProvider(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && typeName(type).equals(OBJECT_PROVIDER);
+    }
+
+    /**
+     * 生成获取ObjectProvider的代码，目标类型为ObjectProvider的类型参数
+     *
+     * @param type ObjectProvider类型
+     * @param name 目标Bean名称
+     * @param pkg  生成的Bean工厂所在的包
+     * @return 代码，如果无法确定或访问目标类型，则返回null
+     */
+    private String provider(TypeMirror type, String name, String pkg) {
+        List<? extends TypeMirror> args = ((DeclaredType) type).getTypeArguments();
+        if (args.size() != 1 || args.get(0).getKind() != TypeKind.DECLARED || !isAccessible(args.get(0), pkg)) {
+            return null;
+        }
+        return "(" + OBJECT_PROVIDER + ") r.getProvider(" + typeName(args.get(0)) + ".class, " + literal(name) + ")";
+    }
+
+    /**
+     * 生成依赖的代码
+     *
+     * @param type 依赖的类型
+     * @param name 依赖的Bean名称
+     * @return 代码
+     */
+    private String dependency(TypeMirror type, String name) {
+        return "new GeneratedBean.Dependency(" + typeName(type) + ".class, " + literal(name) + ")";
+    }
+
+    /**
+     * 生成依赖列表的代码
+     *
+     * @param deps 依赖的代码
+     * @return 代码
+     */
+    private String dependencies(List<String> deps) {
+        return "List.of(" + String.join(", ", deps) + ")";
+    }
+
+    /**
+     * 生成字符串字面量
+     *
+     * @param value 字符串
+     * @return 字符串字面量
+     */
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    /**
+     * 获取元素所在的包名
+     *
+     * @param element 元素
+     * @return 包名
+     */
+    private String packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+    }
+
+    /**
+     * 获取类的二进制名称
+     *
+     * @param type 类
+     * @return 二进制名称，嵌套类使用$分隔
+     */
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+}
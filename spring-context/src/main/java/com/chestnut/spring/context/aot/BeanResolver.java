@@ -0,0 +1,60 @@
+package com.chestnut.spring.context.aot;
+
+import com.chestnut.spring.context.ObjectProvider;
+import jakarta.annotation.Nullable;
+
+/**
+ * 生成的代码解析属性和依赖Bean时使用的接口，由上下文为每个Bean定义提供实现
+ *
+ * @author: Chestnut
+ * @since: 2023-08-07
+ **/
+public interface BeanResolver {
+    /**
+     * 获取@Value指定的属性值
+     *
+     * @param expression 属性表达式，例如 "${app.title}"
+     * @param type       属性值的类型
+     * @return 属性值
+     */
+    Object getProperty(String expression, Class<?> type);
+
+    /**
+     * 获取构造方法或工厂方法中@Autowired参数对应的Bean，依赖的Bean尚未创建时会先创建
+     *
+     * @param type     依赖的类型
+     * @param name     依赖的Bean名称，为空字符串时按类型查找
+     * @param required 依赖是否必须存在
+     * @return 依赖的Bean，如果不存在且不是必须的，则返回null
+     */
+    @Nullable
+    Object getBean(Class<?> type, String name, boolean required);
+
+    /**
+     * 获取@Autowired字段或set方法对应的Bean
+     *
+     * @param member   字段或方法名称，用于错误信息
+     * @param type     依赖的类型
+     * @param name     依赖的Bean名称，为空字符串时按类型查找
+     * @param required 依赖是否必须存在
+     * @return 依赖的Bean，如果不存在且不是必须的，则返回null
+     */
+    @Nullable
+    Object getInjectedBean(String member, Class<?> type, String name, boolean required);
+
+    /**
+     * 获取@Autowired字段、set方法或参数对应的ObjectProvider，此时不查找也不创建目标Bean
+     *
+     * @param type 目标Bean的类型
+     * @param name 目标Bean名称，为空字符串时按类型查找
+     * @return ObjectProvider
+     */
+    ObjectProvider<?> getProvider(Class<?> type, String name);
+
+    /**
+     * 获取@Bean方法所在的配置类实例
+     *
+     * @return 配置类实例
+     */
+    Object getFactoryBean();
+}
@@ -0,0 +1,88 @@
+package com.chestnut.spring.context.aot;
+
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * 编译期生成的Bean，构造方法或工厂方法的调用、字段和set方法的注入以及初始化和销毁方法的调用均由生成的代码直接完成
+ *
+ * @param name                     全局唯一的Bean名称
+ * @param beanClass                Bean的声明类型
+ * @param factoryName              工厂Bean名称，构造方法创建时为null
+ * @param order                    Bean的顺序
+ * @param primary                  是否标识@Primary
+ * @param configuration            是否为@Configuration配置类
+ * @param lazy                     是否标识@Lazy
+ * @param asyncInit                是否标识@AsyncInit
+ * @param scope                    作用域
+ * @param poolSize                 对象池中最多保留的空闲实例数，为0时不使用对象池
+ * @param instantiator             创建Bean实例
+ * @param constructionDependencies 构造方法或工厂方法中@Autowired参数的依赖
+ * @param injector                 注入字段和set方法
+ * @param injectionDependencies    @Autowired字段和set方法的依赖
+ * @param initMethod               初始化方法，不存在时为null
+ * @param destroyMethod            销毁方法，不存在时为null
+ * @param initMethodName           @Bean指定的初始化方法名称，在运行时的实际类型中查找
+ * @param destroyMethodName        @Bean指定的销毁方法名称，在运行时的实际类型中查找
+ * @author: Chestnut
+ * @since: 2023-08-07
+ **/
+public record GeneratedBean(String name, Class<?> beanClass, @Nullable String factoryName, int order, boolean primary, boolean configuration, boolean lazy, boolean asyncInit, String scope, int poolSize,
+                            Instantiator instantiator, List<Dependency> constructionDependencies,
+                            Injector injector, List<Dependency> injectionDependencies,
+                            @Nullable Callback initMethod, @Nullable Callback destroyMethod,
+                            @Nullable String initMethodName, @Nullable String destroyMethodName) {
+    /**
+     * 创建Bean实例
+     */
+    @FunctionalInterface
+    public interface Instantiator {
+        /**
+         * 调用构造方法或工厂方法创建Bean实例
+         *
+         * @param resolver 属性和依赖的解析器
+         * @return Bean实例
+         * @throws Throwable 构造方法或工厂方法抛出的异常
+         */
+        Object instantiate(BeanResolver resolver) throws Throwable;
+    }
+
+    /**
+     * 注入字段和set方法
+     */
+    @FunctionalInterface
+    public interface Injector {
+        /**
+         * 将属性值和依赖Bean注入到Bean实例中
+         *
+         * @param bean     Bean实例，可能为原始未经代理的Bean实例
+         * @param resolver 属性和依赖的解析器
+         * @throws Throwable set方法抛出的异常
+         */
+        void inject(Object bean, BeanResolver resolver) throws Throwable;
+    }
+
+    /**
+     * 初始化或销毁方法
+     */
+    @FunctionalInterface
+    public interface Callback {
+        /**
+         * 调用初始化或销毁方法
+         *
+         * @param bean Bean实例，可能为原始未经代理的Bean实例
+         * @throws Throwable 初始化或销毁方法抛出的异常
+         */
+        void invoke(Object bean) throws Throwable;
+    }
+
+    /**
+     * @Autowired依赖
+     *
+     * @param type 依赖的类型
+     * @param name 依赖的Bean名称，为空字符串时按类型查找
+     */
+    public record Dependency(Class<?> type, String name) {
+    }
+}
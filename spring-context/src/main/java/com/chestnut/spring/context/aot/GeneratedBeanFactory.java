@@ -0,0 +1,34 @@
+package com.chestnut.spring.context.aot;
+
+import java.util.List;
+
+/**
+ * 编译期生成的Bean工厂，由BeanFactoryProcessor为每个标注了@ComponentScan的配置类生成，
+ * 类名为配置类的二进制名称加上后缀 {@link #CLASS_NAME_SUFFIX}
+ * <p>
+ * 上下文发现配置类对应的Bean工厂后，不再扫描类路径，直接使用生成的代码定义、创建、注入和初始化Bean。
+ * 无法在生成的代码中直接访问的类（例如含有私有的注入字段）仍由上下文通过反射处理。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-07
+ **/
+public interface GeneratedBeanFactory {
+    /**
+     * 生成的Bean工厂类名的后缀
+     */
+    String CLASS_NAME_SUFFIX = "__BeanFactory";
+
+    /**
+     * 获取生成的Bean
+     *
+     * @return 生成的Bean列表
+     */
+    List<GeneratedBean> getBeans();
+
+    /**
+     * 获取需要通过反射创建Bean定义的组件类名
+     *
+     * @return 组件类名列表
+     */
+    List<String> getReflectiveClassNames();
+}
@@ -0,0 +1,53 @@
+package com.chestnut.spring.context.event;
+
+import java.util.Objects;
+
+/**
+ * 应用程序事件的基类，事件也可以是任意对象，继承该类可以记录事件源和发生时间
+ *
+ * @author: Chestnut
+ * @since: 2023-08-12
+ **/
+public abstract class ApplicationEvent {
+    /**
+     * 事件源
+     */
+    private final Object source;
+    /**
+     * 事件发生的时间戳，单位为毫秒
+     */
+    private final long timestamp;
+
+    /**
+     * 创建一个ApplicationEvent实例
+     *
+     * @param source 事件源
+     */
+    protected ApplicationEvent(Object source) {
+        this.source = Objects.requireNonNull(source, "source");
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * 获取事件源
+     *
+     * @return 事件源
+     */
+    public Object getSource() {
+        return source;
+    }
+
+    /**
+     * 获取事件发生的时间戳
+     *
+     * @return 时间戳，单位为毫秒
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[source=" + source + "]";
+    }
+}
@@ -0,0 +1,178 @@
+package com.chestnut.spring.context.event;
+
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 事件分发器，将事件分发给监听该事件类型的@EventListener方法
+ * <p>
+ * 监听方法在刷新时一次性确定，按事件的实际类型预先计算监听表，表中的同步和异步监听方法均已排序，
+ * 之后分发事件只需一次哈希查找；未出现过的事件类型在首次发布时计算并缓存。
+ * 延迟Bean创建后可能追加监听方法，此时替换所有监听方法和监听表，已在分发中的事件仍使用原来的监听表。
+ * 同步监听方法在发布线程中依次调用，异常直接抛给发布方；异步监听方法打包为一个任务提交到RingBufferExecutor，异常只记录日志。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-12
+ **/
+public final class ApplicationEventMulticaster {
+    /**
+     * 日志记录器
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    /**
+     * 所有监听方法，已排序
+     */
+    private volatile List<ApplicationListenerMethod> listeners;
+    /**
+     * 事件实际类型到监听表的映射，追加监听方法时整体替换
+     */
+    private volatile Map<Class<?>, ListenerTable> tables = new ConcurrentHashMap<>();
+    /**
+     * 执行异步监听方法的执行器，没有异步监听方法时为null
+     */
+    @Nullable
+    private volatile RingBufferExecutor executor;
+    /**
+     * 是否已关闭，关闭后发布的事件被忽略
+     */
+    private volatile boolean closed;
+
+    /**
+     * 创建一个ApplicationEventMulticaster实例，并为所有监听方法声明的事件类型预先计算监听表
+     *
+     * @param listeners 所有监听方法
+     * @param executor  执行异步监听方法的执行器，没有异步监听方法时可以为null
+     */
+    public ApplicationEventMulticaster(List<ApplicationListenerMethod> listeners, @Nullable RingBufferExecutor executor) {
+        if (executor == null && listeners.stream().anyMatch(ApplicationListenerMethod::isAsync)) {
+            throw new IllegalArgumentException("Executor is required for async listeners.");
+        }
+        this.listeners = listeners.stream().sorted().toList();
+        this.executor = executor;
+        for (ApplicationListenerMethod listener : this.listeners) {
+            this.tables.computeIfAbsent(listener.getEventType(), this::createListenerTable);
+        }
+    }
+
+    /**
+     * 追加监听方法，用于在延迟Bean创建后注册其实际类型中的监听方法
+     * 先替换监听方法再替换监听表，因此新的监听表总是由新的监听方法计算得到
+     *
+     * @param added           要追加的监听方法
+     * @param executorFactory 尚无执行器且追加了异步监听方法时，用于创建执行器
+     */
+    public synchronized void addListeners(List<ApplicationListenerMethod> added, Supplier<RingBufferExecutor> executorFactory) {
+        if (added.isEmpty()) {
+            return;
+        }
+        if (this.executor == null && added.stream().anyMatch(ApplicationListenerMethod::isAsync)) {
+            this.executor = executorFactory.get();
+        }
+        List<ApplicationListenerMethod> listeners = new ArrayList<>(this.listeners);
+        listeners.addAll(added);
+        this.listeners = listeners.stream().sorted().toList();
+        Map<Class<?>, ListenerTable> tables = new ConcurrentHashMap<>();
+        for (ApplicationListenerMethod listener : this.listeners) {
+            tables.computeIfAbsent(listener.getEventType(), this::createListenerTable);
+        }
+        this.tables = tables;
+    }
+
+    /**
+     * 分发事件
+     *
+     * @param event 事件
+     */
+    public void multicastEvent(Object event) {
+        if (this.closed) {
+            logger.atDebug().log("ignore event published after close: {}", event);
+            return;
+        }
+        Map<Class<?>, ListenerTable> tables = this.tables;
+        ListenerTable table = tables.get(event.getClass());
+        if (table == null) {
+            table = tables.computeIfAbsent(event.getClass(), this::createListenerTable);
+        }
+        for (ApplicationListenerMethod listener : table.sync()) {
+            listener.invoke(event);
+        }
+        if (table.async().length > 0) {
+            final ApplicationListenerMethod[] async = table.async();
+            this.executor.execute(() -> {
+                for (ApplicationListenerMethod listener : async) {
+                    try {
+                        listener.invoke(event);
+                    } catch (RuntimeException e) {
+                        logger.warn("async event listener failed: " + listener, e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 获取所有监听方法
+     *
+     * @return 监听方法列表，已排序且不可修改，追加监听方法后需要重新获取
+     */
+    public List<ApplicationListenerMethod> getListeners() {
+        return this.listeners;
+    }
+
+    /**
+     * 获取执行异步监听方法的执行器
+     *
+     * @return 执行器，没有异步监听方法时为null
+     */
+    @Nullable
+    public RingBufferExecutor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * 关闭分发器，之后发布的事件被忽略，并等待已提交的异步事件分发完成
+     *
+     * @param timeout 等待时间
+     * @param unit    时间单位
+     * @return 如果异步事件都已分发完成，则返回true；否则返回false
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        this.closed = true;
+        RingBufferExecutor executor = this.executor;
+        return executor == null || executor.close(timeout, unit);
+    }
+
+    /**
+     * 为事件的实际类型计算监听表
+     *
+     * @param eventClass 事件的实际类型
+     * @return 监听表
+     */
+    private ListenerTable createListenerTable(Class<?> eventClass) {
+        List<ApplicationListenerMethod> sync = new ArrayList<>();
+        List<ApplicationListenerMethod> async = new ArrayList<>();
+        for (ApplicationListenerMethod listener : this.listeners) {
+            if (listener.supports(eventClass)) {
+                (listener.isAsync() ? async : sync).add(listener);
+            }
+        }
+        return new ListenerTable(sync.toArray(ApplicationListenerMethod[]::new), async.toArray(ApplicationListenerMethod[]::new));
+    }
+
+    /**
+     * 一个事件类型的监听表
+     *
+     * @param sync  同步监听方法，已排序
+     * @param async 异步监听方法，已排序
+     */
+    private record ListenerTable(ApplicationListenerMethod[] sync, ApplicationListenerMethod[] async) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.chestnut.spring.context.event;
+
+import com.chestnut.spring.annotation.EventListener;
+import com.chestnut.spring.exception.BeanDefinitionException;
+import com.chestnut.spring.exception.NestedRuntimeException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * 一个@EventListener方法，在刷新时创建，方法转换为MethodHandle后每次分发事件都直接调用
+ *
+ * @author: Chestnut
+ * @since: 2023-08-12
+ **/
+public final class ApplicationListenerMethod implements Comparable<ApplicationListenerMethod> {
+    /**
+     * 统一适配后的MethodHandle类型：(Object target, Object event)void
+     */
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 监听方法所在Bean的名称
+     */
+    private final String beanName;
+    /**
+     * 监听方法的名称，用于日志
+     */
+    private final String methodName;
+    /**
+     * 监听的事件类型，为方法参数类型
+     */
+    private final Class<?> eventType;
+    /**
+     * 排序值
+     */
+    private final int order;
+    /**
+     * 是否异步调用
+     */
+    private final boolean async;
+    /**
+     * 适配后的MethodHandle
+     */
+    private final MethodHandle handle;
+    /**
+     * 获取监听方法所在的Bean实例
+     */
+    private final Supplier<Object> target;
+
+    /**
+     * 创建一个ApplicationListenerMethod实例
+     *
+     * @param beanName 监听方法所在Bean的名称
+     * @param method   标注了@EventListener的方法，只能有一个参数
+     * @param order    排序值
+     * @param target   获取监听方法所在的Bean实例
+     */
+    public ApplicationListenerMethod(String beanName, Method method, int order, Supplier<Object> target) {
+        if (method.getParameterCount() != 1) {
+            throw new BeanDefinitionException(String.format("@EventListener method must have exactly one parameter: %s.%s", method.getDeclaringClass().getName(), method.getName()));
+        }
+        this.beanName = beanName;
+        this.methodName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        this.eventType = method.getParameterTypes()[0].isPrimitive() ? Object.class : method.getParameterTypes()[0];
+        this.order = order;
+        this.async = method.getAnnotation(EventListener.class).async();
+        this.target = target;
+        try {
+            method.setAccessible(true);
+            this.handle = MethodHandles.lookup().unreflect(method).asType(INVOKER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new BeanDefinitionException(String.format("Cannot access @EventListener method %s.", this.methodName), e);
+        }
+    }
+
+    /**
+     * 调用监听方法
+     *
+     * @param event 事件
+     */
+    void invoke(Object event) {
+        try {
+            this.handle.invokeExact(this.target.get(), event);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new NestedRuntimeException(String.format("Exception when call @EventListener method %s of bean '%s'.", this.methodName, this.beanName), e);
+        }
+    }
+
+    /**
+     * 判断是否监听指定类型的事件
+     *
+     * @param type 事件的实际类型
+     * @return 如果监听，则返回true；否则返回false
+     */
+    boolean supports(Class<?> type) {
+        return this.eventType.isAssignableFrom(type);
+    }
+
+    /**
+     * 获取监听方法所在Bean的名称
+     *
+     * @return Bean名称
+     */
+    public String getBeanName() {
+        return beanName;
+    }
+
+    /**
+     * 获取监听的事件类型
+     *
+     * @return 事件类型
+     */
+    public Class<?> getEventType() {
+        return eventType;
+    }
+
+    /**
+     * 是否异步调用
+     *
+     * @return 如果异步调用，则返回true；否则返回false
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * 按排序值排序，排序值相同时按Bean名称排序，保证分发顺序稳定
+     *
+     * @param other 另一个监听方法
+     * @return 比较结果
+     */
+    @Override
+    public int compareTo(ApplicationListenerMethod other) {
+        int cmp = Integer.compare(this.order, other.order);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = this.beanName.compareTo(other.beanName);
+        return cmp != 0 ? cmp : this.methodName.compareTo(other.methodName);
+    }
+
+    @Override
+    public String toString() {
+        return "ApplicationListenerMethod[bean=" + beanName + ", method=" + methodName + ", event=" + eventType.getName() + (async ? ", async" : "") + "]";
+    }
+}
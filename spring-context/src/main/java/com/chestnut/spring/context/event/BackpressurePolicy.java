@@ -0,0 +1,22 @@
+package com.chestnut.spring.context.event;
+
+/**
+ * 异步事件队列已满时的处理策略
+ *
+ * @author: Chestnut
+ * @since: 2023-08-12
+ **/
+public enum BackpressurePolicy {
+    /**
+     * 阻塞发布事件的线程，直到队列中有空位
+     */
+    BLOCK,
+    /**
+     * 丢弃该事件并计数
+     */
+    DROP,
+    /**
+     * 在发布事件的线程中直接调用监听方法
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,29 @@
+package com.chestnut.spring.context.event;
+
+import com.chestnut.spring.context.ApplicationContext;
+
+/**
+ * 容器关闭事件，在关闭容器时、销毁Bean之前发布
+ *
+ * @author: Chestnut
+ * @since: 2023-08-12
+ **/
+public class ContextClosedEvent extends ApplicationEvent {
+    /**
+     * 创建一个ContextClosedEvent实例
+     *
+     * @param applicationContext 正在关闭的容器
+     */
+    public ContextClosedEvent(ApplicationContext applicationContext) {
+        super(applicationContext);
+    }
+
+    /**
+     * 获取正在关闭的容器
+     *
+     * @return 容器
+     */
+    public ApplicationContext getApplicationContext() {
+        return (ApplicationContext) getSource();
+    }
+}
@@ -0,0 +1,29 @@
+package com.chestnut.spring.context.event;
+
+import com.chestnut.spring.context.ApplicationContext;
+
+/**
+ * 容器刷新完成事件，在所有非延迟Bean创建、注入和初始化完成后发布
+ *
+ * @author: Chestnut
+ * @since: 2023-08-12
+ **/
+public class ContextRefreshedEvent extends ApplicationEvent {
+    /**
+     * 创建一个ContextRefreshedEvent实例
+     *
+     * @param applicationContext 刷新完成的容器
+     */
+    public ContextRefreshedEvent(ApplicationContext applicationContext) {
+        super(applicationContext);
+    }
+
+    /**
+     * 获取刷新完成的容器
+     *
+     * @return 容器
+     */
+    public ApplicationContext getApplicationContext() {
+        return (ApplicationContext) getSource();
+    }
+}
@@ -0,0 +1,231 @@
+package com.chestnut.spring.context.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于有界环形缓冲区的单线程执行器，用于异步分发事件
+ * <p>
+ * 任务按提交顺序保存在长度为2的幂的数组中，由一个后台线程按批取出执行：每次加锁最多取出batchSize个任务，
+ * 释放锁后再依次执行，使发布线程和执行线程在高吞吐时只需很少的锁竞争。
+ * 缓冲区已满时按BackpressurePolicy阻塞、丢弃或在提交线程中直接执行；后台线程自身提交时不会阻塞，而是直接执行，
+ * 避免等待只有它自己才能腾出的空间；关闭后提交的任务在提交线程中直接执行。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-12
+ **/
+public final class RingBufferExecutor implements Executor {
+    /**
+     * 日志记录器
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    /**
+     * 环形缓冲区
+     */
+    private final Runnable[] buffer;
+    /**
+     * 下标掩码，为缓冲区长度减一
+     */
+    private final int mask;
+    /**
+     * 每批最多取出的任务数
+     */
+    private final int batchSize;
+    /**
+     * 缓冲区已满时的处理策略
+     */
+    private final BackpressurePolicy policy;
+    /**
+     * 保护缓冲区读写位置的锁
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * 缓冲区非空条件
+     */
+    private final Condition notEmpty = this.lock.newCondition();
+    /**
+     * 缓冲区未满条件
+     */
+    private final Condition notFull = this.lock.newCondition();
+    /**
+     * 被丢弃的任务数
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+    /**
+     * 执行任务的后台线程
+     */
+    private final Thread worker;
+    /**
+     * 下一个取出的位置，由lock保护
+     */
+    private long head;
+    /**
+     * 下一个放入的位置，由lock保护
+     */
+    private long tail;
+    /**
+     * 是否已关闭，由lock保护
+     */
+    private boolean closed;
+
+    /**
+     * 创建一个RingBufferExecutor实例并启动后台线程
+     *
+     * @param name      后台线程名称
+     * @param capacity  缓冲区容量，向上取整为2的幂
+     * @param batchSize 每批最多取出的任务数
+     * @param policy    缓冲区已满时的处理策略
+     */
+    public RingBufferExecutor(String name, int capacity, int batchSize, BackpressurePolicy policy) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive: " + capacity + ", " + batchSize);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Runnable[size];
+        this.mask = size - 1;
+        this.batchSize = Math.min(batchSize, size);
+        this.policy = policy;
+        this.worker = new Thread(this::runWorker, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 提交任务，缓冲区已满时按处理策略处理
+     *
+     * @param task 任务
+     */
+    @Override
+    public void execute(Runnable task) {
+        this.lock.lock();
+        try {
+            while (!this.closed && this.tail - this.head == this.buffer.length) {
+                if (this.policy == BackpressurePolicy.DROP) {
+                    long dropped = this.droppedCount.incrementAndGet();
+                    logger.atDebug().log("ring buffer {} is full, task dropped ({} in total).", this.worker.getName(), dropped);
+                    return;
+                }
+                // 后台线程在执行任务时再次提交，阻塞将永远等不到空间，按CALLER_RUNS处理
+                if (this.policy == BackpressurePolicy.CALLER_RUNS || Thread.currentThread() == this.worker) {
+                    break;
+                }
+                this.notFull.awaitUninterruptibly();
+            }
+            if (!this.closed && this.tail - this.head < this.buffer.length) {
+                this.buffer[(int) (this.tail++ & this.mask)] = task;
+                this.notEmpty.signal();
+                return;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        // 已关闭、CALLER_RUNS策略下或后台线程提交时缓冲区已满，在提交线程中执行
+        runTask(task);
+    }
+
+    /**
+     * 获取被丢弃的任务数
+     *
+     * @return 被丢弃的任务数
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+
+    /**
+     * 获取缓冲区中等待执行的任务数
+     *
+     * @return 等待执行的任务数
+     */
+    public int getPendingCount() {
+        this.lock.lock();
+        try {
+            return (int) (this.tail - this.head);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭执行器，等待已提交的任务执行完成，超时后中断后台线程
+     *
+     * @param timeout 等待时间
+     * @param unit    时间单位
+     * @return 如果所有任务都已执行完成，则返回true；否则返回false
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.notEmpty.signalAll();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        try {
+            this.worker.join(Math.max(1, unit.toMillis(timeout)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.worker.isAlive()) {
+            logger.warn("ring buffer {} not drained in {} ms, {} tasks abandoned.", this.worker.getName(), unit.toMillis(timeout), getPendingCount());
+            this.worker.interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 后台线程循环：按批取出任务并执行，关闭后执行完剩余任务即退出
+     */
+    private void runWorker() {
+        final Runnable[] batch = new Runnable[this.batchSize];
+        while (true) {
+            int count;
+            this.lock.lock();
+            try {
+                while (this.head == this.tail && !this.closed) {
+                    this.notEmpty.awaitUninterruptibly();
+                }
+                if (this.head == this.tail) {
+                    return;
+                }
+                count = (int) Math.min(this.batchSize, this.tail - this.head);
+                for (int i = 0; i < count; i++) {
+                    int index = (int) (this.head++ & this.mask);
+                    batch[i] = this.buffer[index];
+                    this.buffer[index] = null;
+                }
+                this.notFull.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+            for (int i = 0; i < count; i++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                runTask(batch[i]);
+                batch[i] = null;
+            }
+        }
+    }
+
+    /**
+     * 执行任务，任务抛出的异常只记录日志
+     *
+     * @param task 任务
+     */
+    private void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException | Error e) {
+            logger.warn("async task failed in " + this.worker.getName(), e);
+        }
+    }
+}
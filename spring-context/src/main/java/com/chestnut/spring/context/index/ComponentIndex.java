@@ -0,0 +1,141 @@
+package com.chestnut.spring.context.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 组件索引，由ComponentIndexProcessor在编译期生成，按类路径根目录（目录或JAR）分组保存组件类名
+ * 只有生成了索引的根目录才能跳过扫描，未生成索引的根目录仍需遍历
+ *
+ * @author: Chestnut
+ * @since: 2023-08-01
+ **/
+public class ComponentIndex {
+    /**
+     * 索引文件在类路径中的位置
+     */
+    public static final String INDEX_LOCATION = "META-INF/chestnut.components";
+
+    /**
+     * 日志记录器
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ComponentIndex.class);
+    /**
+     * 类路径根目录到组件类名集合的映射，根目录形如 "file:/path/to/classes" 或 "jar:file:/path/to/x.jar!"
+     */
+    private final Map<String, Set<String>> components;
+
+    /**
+     * 创建一个ComponentIndex实例
+     *
+     * @param components 类路径根目录到组件类名集合的映射
+     */
+    private ComponentIndex(Map<String, Set<String>> components) {
+        this.components = components;
+    }
+
+    /**
+     * 创建一个空的组件索引，所有根目录均需遍历
+     *
+     * @return 空的组件索引
+     */
+    public static ComponentIndex empty() {
+        return new ComponentIndex(Map.of());
+    }
+
+    /**
+     * 从类加载器中加载所有索引文件
+     *
+     * @param classLoader 类加载器
+     * @return 组件索引，如果没有任何索引文件，则返回的索引为空
+     */
+    public static ComponentIndex load(ClassLoader classLoader) {
+        Map<String, Set<String>> components = new HashMap<>();
+        try {
+            Enumeration<URL> en = classLoader.getResources(INDEX_LOCATION);
+            while (en.hasMoreElements()) {
+                URL url = en.nextElement();
+                String urlStr = URLDecoder.decode(url.toString(), StandardCharsets.UTF_8);
+                // 去掉 "/META-INF/chestnut.components" 得到根目录
+                String root = urlStr.substring(0, urlStr.length() - INDEX_LOCATION.length() - 1);
+                Set<String> classNames = components.computeIfAbsent(root, k -> new HashSet<>());
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            classNames.add(line);
+                        }
+                    }
+                }
+                logger.atDebug().log("load component index: {} ({} components)", root, classNames.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ComponentIndex(components);
+    }
+
+    /**
+     * 判断是否存在任何索引
+     *
+     * @return 如果不存在任何索引，则返回true；否则返回false
+     */
+    public boolean isEmpty() {
+        return this.components.isEmpty();
+    }
+
+    /**
+     * 判断指定的类路径根目录是否已被索引
+     *
+     * @param root 类路径根目录
+     * @return 如果该根目录已被索引，则返回true；否则返回false
+     */
+    public boolean isIndexed(String root) {
+        return this.components.containsKey(root);
+    }
+
+    /**
+     * 获取所有已索引根目录中位于指定包（包括子包）下的组件类名
+     *
+     * @param basePackage 基础包名
+     * @return 组件类名列表
+     */
+    public List<String> getCandidates(String basePackage) {
+        return getCandidates(basePackage, root -> true);
+    }
+
+    /**
+     * 获取指定的已索引根目录中位于指定包（包括子包）下的组件类名
+     *
+     * @param basePackage 基础包名
+     * @param rootFilter  类路径根目录过滤器，返回false的根目录中的组件被忽略
+     * @return 组件类名列表
+     */
+    public List<String> getCandidates(String basePackage, Predicate<String> rootFilter) {
+        // 默认包下的类名没有前缀
+        String prefix = basePackage.isEmpty() ? "" : basePackage + ".";
+        List<String> candidates = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : this.components.entrySet()) {
+            if (!rootFilter.test(entry.getKey())) {
+                continue;
+            }
+            for (String className : entry.getValue()) {
+                if (className.startsWith(prefix)) {
+                    candidates.add(className);
+                }
+            }
+        }
+        return candidates;
+    }
+}
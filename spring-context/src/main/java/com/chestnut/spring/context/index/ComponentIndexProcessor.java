@@ -0,0 +1,201 @@
+package com.chestnut.spring.context.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 组件索引注解处理器
+ * 在编译期收集所有直接或间接（元注解）标注了@Component的类，并写入META-INF/chestnut.components索引文件，
+ * 运行时上下文读取该索引即可跳过对类路径的遍历与逐个类加载。
+ * 增量编译时只有部分类参与编译，因此写入索引前会合并输出目录中已有的索引，保留未参与本次编译且仍然存在的组件类。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-01
+ **/
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+    /**
+     * @Component注解的全限定名，注解处理阶段不依赖运行时Class对象
+     */
+    private static final String COMPONENT_ANNOTATION = "com.chestnut.spring.annotation.Component";
+    /**
+     * @ConfigurationProperties注解的全限定名
+     */
+    private static final String CONFIGURATION_PROPERTIES_ANNOTATION = "com.chestnut.spring.annotation.ConfigurationProperties";
+    /**
+     * 已收集的组件类名（二进制名称，嵌套类使用$分隔），排序以保证索引文件内容稳定
+     */
+    private final Set<String> components = new TreeSet<>();
+    /**
+     * 参与本次编译的所有类名（二进制名称），这些类是否为组件以本次编译的结果为准
+     */
+    private final Set<String> compiled = new HashSet<>();
+
+    /**
+     * 获取支持的源码版本
+     *
+     * @return 最新支持的源码版本
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * 处理每一轮的根元素，收集组件类，并在最后一轮写入索引文件
+     *
+     * @param annotations 本轮请求处理的注解类型
+     * @param roundEnv    本轮的环境信息
+     * @return 始终返回false，不声明独占任何注解
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element);
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    /**
+     * 收集组件类，包括嵌套类
+     *
+     * @param element 要检查的元素
+     */
+    private void collect(Element element) {
+        // 根元素也可能是包（package-info）或模块
+        if (element.getKind().isClass() || element.getKind().isInterface()) {
+            String binaryName = processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString();
+            this.compiled.add(binaryName);
+            if (isCandidate(element)) {
+                this.components.add(binaryName);
+            }
+        }
+        // 递归处理嵌套类
+        for (Element enclosed : element.getEnclosedElements()) {
+            if (enclosed.getKind().isClass() || enclosed.getKind().isInterface()) {
+                collect(enclosed);
+            }
+        }
+    }
+
+    /**
+     * 检查类型是否为组件类
+     * 注解、枚举、接口与记录在运行时也会被跳过，因此只收集普通类和标注了@ConfigurationProperties的记录
+     *
+     * @param element 要检查的类型
+     * @return 如果是组件类，则返回true；否则返回false
+     */
+    private boolean isCandidate(Element element) {
+        return (element.getKind() == ElementKind.CLASS || isConfigurationProperties(element)) && isComponent(element, new HashSet<>());
+    }
+
+    /**
+     * 检查元素是否为标注了@ConfigurationProperties的记录
+     *
+     * @param element 要检查的元素
+     * @return 如果是，则返回true；否则返回false
+     */
+    private boolean isConfigurationProperties(Element element) {
+        return element.getKind() == ElementKind.RECORD && element.getAnnotationMirrors().stream()
+                .anyMatch(mirror -> CONFIGURATION_PROPERTIES_ANNOTATION.equals(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString()));
+    }
+
+    /**
+     * 递归检查元素是否直接或通过元注解标注了@Component
+     * 与运行时的ClassUtils.findAnnotation()保持一致，包含从父类继承（@Inherited）的注解
+     *
+     * @param element 要检查的元素
+     * @param visited 已访问过的注解类型，防止注解间相互引用导致的无限递归
+     * @return 如果标注了@Component，则返回true；否则返回false
+     */
+    private boolean isComponent(Element element, Set<String> visited) {
+        for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(element)) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            String annoName = annoType.getQualifiedName().toString();
+            if (COMPONENT_ANNOTATION.equals(annoName)) {
+                return true;
+            }
+            // Java内置注解直接跳过
+            if (annoName.startsWith("java.lang.annotation.")) {
+                continue;
+            }
+            if (visited.add(annoName) && isComponent(annoType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 将收集到的组件类名与已有索引合并后写入索引文件，每行一个类名
+     * 没有组件且没有已有索引时不生成索引，避免空索引使运行时误以为该类路径根目录已被完整索引
+     */
+    private void writeIndex() {
+        Set<String> previous = readPreviousIndex();
+        for (String component : previous) {
+            // 未参与本次编译的组件类仍然存在且仍是组件时才保留，已删除或不再是组件的类被移除
+            if (!this.compiled.contains(component)) {
+                TypeElement type = processingEnv.getElementUtils().getTypeElement(component.replace('$', '.'));
+                if (type != null && isCandidate(type)) {
+                    this.components.add(component);
+                }
+            }
+        }
+        if (this.components.isEmpty() && previous.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String component : this.components) {
+                    writer.write(component);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write component index " + ComponentIndex.INDEX_LOCATION + ": " + e);
+        }
+    }
+
+    /**
+     * 读取输出目录中之前编译生成的索引
+     *
+     * @return 已有索引中的组件类名，如果不存在索引，则返回空集合
+     */
+    private Set<String> readPreviousIndex() {
+        Set<String> previous = new TreeSet<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        previous.add(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 首次编译或已清理输出目录，没有已有索引
+        }
+        return previous;
+    }
+}
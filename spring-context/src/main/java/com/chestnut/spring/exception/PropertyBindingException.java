@@ -0,0 +1,37 @@
+package com.chestnut.spring.exception;
+
+import java.util.List;
+
+/**
+ * 属性绑定异常，包含绑定一个对象时发现的所有错误
+ *
+ * @author: Chestnut
+ * @since: 2023-08-16
+ **/
+public class PropertyBindingException extends NestedRuntimeException {
+    /**
+     * 所有绑定错误，每条错误以属性键开头
+     */
+    private final List<String> errors;
+
+    /**
+     * 使用绑定的前缀、目标类型和所有绑定错误创建一个PropertyBindingException实例
+     *
+     * @param prefix 属性前缀
+     * @param type   目标类型
+     * @param errors 所有绑定错误
+     */
+    public PropertyBindingException(String prefix, Class<?> type, List<String> errors) {
+        super(String.format("Failed to bind properties under '%s' to %s:\n    %s", prefix, type.getName(), String.join("\n    ", errors)));
+        this.errors = List.copyOf(errors);
+    }
+
+    /**
+     * 获取所有绑定错误
+     *
+     * @return 绑定错误列表，不可修改
+     */
+    public List<String> getErrors() {
+        return this.errors;
+    }
+}
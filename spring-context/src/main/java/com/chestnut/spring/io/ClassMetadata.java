@@ -0,0 +1,80 @@
+package com.chestnut.spring.io;
+
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * 类元数据，直接从class文件字节中解析得到，不会触发类加载
+ *
+ * @param className       类名（二进制名称，嵌套类使用$分隔）
+ * @param access          访问标志
+ * @param superClassName  父类名，java.lang.Object或模块描述时为null
+ * @param interfaceNames  直接实现的接口类名
+ * @param annotationTypes 类上直接标注的运行时可见注解的类名
+ * @author: Chestnut
+ * @since: 2023-08-02
+ **/
+public record ClassMetadata(String className, int access, @Nullable String superClassName, List<String> interfaceNames, List<String> annotationTypes) {
+    /**
+     * 接口标志
+     */
+    private static final int ACC_INTERFACE = 0x0200;
+    /**
+     * 抽象标志
+     */
+    private static final int ACC_ABSTRACT = 0x0400;
+    /**
+     * 注解标志
+     */
+    private static final int ACC_ANNOTATION = 0x2000;
+    /**
+     * 枚举标志
+     */
+    private static final int ACC_ENUM = 0x4000;
+
+    /**
+     * 检查是否为接口（包括注解）
+     *
+     * @return 如果是接口，则返回true；否则返回false
+     */
+    public boolean isInterface() {
+        return (this.access & ACC_INTERFACE) != 0;
+    }
+
+    /**
+     * 检查是否为注解
+     *
+     * @return 如果是注解，则返回true；否则返回false
+     */
+    public boolean isAnnotation() {
+        return (this.access & ACC_ANNOTATION) != 0;
+    }
+
+    /**
+     * 检查是否为枚举
+     *
+     * @return 如果是枚举，则返回true；否则返回false
+     */
+    public boolean isEnum() {
+        return (this.access & ACC_ENUM) != 0;
+    }
+
+    /**
+     * 检查是否为记录
+     *
+     * @return 如果是记录，则返回true；否则返回false
+     */
+    public boolean isRecord() {
+        return "java.lang.Record".equals(this.superClassName);
+    }
+
+    /**
+     * 检查是否为抽象类
+     *
+     * @return 如果是抽象类，则返回true；否则返回false
+     */
+    public boolean isAbstract() {
+        return (this.access & ACC_ABSTRACT) != 0;
+    }
+}
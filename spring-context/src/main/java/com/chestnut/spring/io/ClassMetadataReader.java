@@ -0,0 +1,312 @@
+package com.chestnut.spring.io;
+
+import jakarta.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类元数据读取器，直接解析class文件的常量池、访问标志、父类、接口与RuntimeVisibleAnnotations属性，
+ * 在不加载（更不初始化）类的前提下判断类是否直接或通过元注解标注了某个注解
+ *
+ * @author: Chestnut
+ * @since: 2023-08-02
+ **/
+public class ClassMetadataReader {
+    /**
+     * class文件魔数
+     */
+    private static final int MAGIC = 0xCAFEBABE;
+    /**
+     * @Inherited注解的类名
+     */
+    private static final String INHERITED_ANNOTATION = "java.lang.annotation.Inherited";
+
+    /**
+     * 用于读取class文件的类加载器
+     */
+    private final ClassLoader classLoader;
+    /**
+     * 注解类名到其自身及所有元注解类名集合的缓存，注解类型数量有限且被大量类重复引用
+     */
+    private final Map<String, Set<String>> metaAnnotationCache = new ConcurrentHashMap<>();
+
+    /**
+     * 创建一个ClassMetadataReader实例
+     *
+     * @param classLoader 用于读取class文件的类加载器
+     */
+    public ClassMetadataReader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 读取类元数据
+     *
+     * @param className 类名（二进制名称，嵌套类使用$分隔）
+     * @return 类元数据，如果class文件不存在，则返回null
+     */
+    @Nullable
+    public ClassMetadata getMetadata(String className) {
+        String path = className.replace('.', '/') + ".class";
+        try (InputStream input = this.classLoader.getResourceAsStream(path)) {
+            if (input == null) {
+                return null;
+            }
+            return parse(input.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 检查类是否直接、通过元注解或通过父类上的@Inherited注解标注了指定注解
+     * 与运行时的ClassUtils.findAnnotation()语义一致
+     *
+     * @param metadata       类元数据
+     * @param annotationName 注解类名
+     * @return 如果标注了指定注解，则返回true；否则返回false
+     */
+    public boolean hasAnnotation(ClassMetadata metadata, String annotationName) {
+        boolean inheritedOnly = false;
+        ClassMetadata current = metadata;
+        while (current != null) {
+            for (String annoType : current.annotationTypes()) {
+                Set<String> metaAnnotations = getMetaAnnotations(annoType);
+                // 父类上的注解只有标注了@Inherited才会被子类继承
+                if (inheritedOnly && !metaAnnotations.contains(INHERITED_ANNOTATION)) {
+                    continue;
+                }
+                if (metaAnnotations.contains(annotationName)) {
+                    return true;
+                }
+            }
+            if (current.superClassName() == null || "java.lang.Object".equals(current.superClassName())) {
+                break;
+            }
+            current = getMetadata(current.superClassName());
+            inheritedOnly = true;
+        }
+        return false;
+    }
+
+    /**
+     * 检查类是否可以赋值给指定类型，即为该类型本身、其子类或实现类，沿父类和接口逐级读取class文件判断
+     * 找不到class文件的父类或接口视为不匹配
+     *
+     * @param metadata 类元数据
+     * @param typeName 类型的类名
+     * @return 如果可以赋值，则返回true；否则返回false
+     */
+    public boolean isAssignable(ClassMetadata metadata, String typeName) {
+        if ("java.lang.Object".equals(typeName)) {
+            return true;
+        }
+        Deque<ClassMetadata> pending = new ArrayDeque<>();
+        Set<String> visited = new HashSet<>();
+        pending.add(metadata);
+        while (!pending.isEmpty()) {
+            ClassMetadata current = pending.poll();
+            if (current.className().equals(typeName)) {
+                return true;
+            }
+            List<String> supers = new ArrayList<>(current.interfaceNames());
+            if (current.superClassName() != null && !"java.lang.Object".equals(current.superClassName())) {
+                supers.add(current.superClassName());
+            }
+            for (String name : supers) {
+                if (name.equals(typeName)) {
+                    return true;
+                }
+                if (visited.add(name)) {
+                    ClassMetadata superMetadata = getMetadata(name);
+                    if (superMetadata != null) {
+                        pending.add(superMetadata);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取注解自身及其所有（递归的）元注解类名
+     *
+     * @param annotationName 注解类名
+     * @return 注解自身及其所有元注解类名
+     */
+    private Set<String> getMetaAnnotations(String annotationName) {
+        Set<String> cached = this.metaAnnotationCache.get(annotationName);
+        if (cached != null) {
+            return cached;
+        }
+        Set<String> result = new HashSet<>();
+        collectMetaAnnotations(annotationName, result);
+        Set<String> metaAnnotations = Collections.unmodifiableSet(result);
+        Set<String> previous = this.metaAnnotationCache.putIfAbsent(annotationName, metaAnnotations);
+        return previous != null ? previous : metaAnnotations;
+    }
+
+    /**
+     * 递归收集元注解类名
+     *
+     * @param annotationName 注解类名
+     * @param result         收集结果，同时用于防止注解间相互引用导致的无限递归
+     */
+    private void collectMetaAnnotations(String annotationName, Set<String> result) {
+        if (!result.add(annotationName)) {
+            return;
+        }
+        // Java内置元注解（@Target、@Retention、@Inherited等）不再向下展开
+        if (annotationName.startsWith("java.lang.annotation.")) {
+            return;
+        }
+        Set<String> cached = this.metaAnnotationCache.get(annotationName);
+        if (cached != null) {
+            result.addAll(cached);
+            return;
+        }
+        // 找不到class文件的注解（例如可选依赖）视为没有元注解
+        ClassMetadata metadata = getMetadata(annotationName);
+        if (metadata != null) {
+            for (String metaAnnotation : metadata.annotationTypes()) {
+                collectMetaAnnotations(metaAnnotation, result);
+            }
+        }
+    }
+
+    /**
+     * 解析class文件字节
+     *
+     * @param bytes class文件字节
+     * @return 类元数据
+     * @throws IOException 如果class文件格式不正确
+     */
+    static ClassMetadata parse(byte[] bytes) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Invalid class file: bad magic number.");
+        }
+        input.skipBytes(4); // minor_version, major_version
+        // 常量池，只保留UTF8字符串与类引用
+        int constantPoolCount = input.readUnsignedShort();
+        String[] utf8s = new String[constantPoolCount];
+        int[] classNameIndexes = new int[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = input.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8s[i] = input.readUTF(); // Utf8
+                case 7 -> classNameIndexes[i] = input.readUnsignedShort(); // Class
+                case 8, 16, 19, 20 -> input.skipBytes(2); // String, MethodType, Module, Package
+                case 15 -> input.skipBytes(3); // MethodHandle
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> input.skipBytes(4); // Integer, Float, *ref, NameAndType, Dynamic, InvokeDynamic
+                case 5, 6 -> { // Long, Double占用两个常量池项
+                    input.skipBytes(8);
+                    i++;
+                }
+                default -> throw new IOException("Invalid class file: unknown constant pool tag " + tag + ".");
+            }
+        }
+        int access = input.readUnsignedShort();
+        String className = toClassName(utf8s[classNameIndexes[input.readUnsignedShort()]]);
+        int superIndex = input.readUnsignedShort();
+        String superClassName = superIndex == 0 ? null : toClassName(utf8s[classNameIndexes[superIndex]]);
+        int interfacesCount = input.readUnsignedShort();
+        List<String> interfaceNames = new ArrayList<>(interfacesCount);
+        for (int i = 0; i < interfacesCount; i++) {
+            interfaceNames.add(toClassName(utf8s[classNameIndexes[input.readUnsignedShort()]]));
+        }
+        skipMembers(input); // fields
+        skipMembers(input); // methods
+        List<String> annotationTypes = new ArrayList<>();
+        int attributesCount = input.readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            String attributeName = utf8s[input.readUnsignedShort()];
+            int length = input.readInt();
+            if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+                int annotationsCount = input.readUnsignedShort();
+                for (int j = 0; j < annotationsCount; j++) {
+                    annotationTypes.add(readAnnotation(input, utf8s));
+                }
+            } else {
+                input.skipBytes(length);
+            }
+        }
+        return new ClassMetadata(className, access, superClassName, List.copyOf(interfaceNames), List.copyOf(annotationTypes));
+    }
+
+    /**
+     * 跳过字段或方法表
+     *
+     * @param input 输入流
+     * @throws IOException 如果读取失败
+     */
+    private static void skipMembers(DataInputStream input) throws IOException {
+        int count = input.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            input.skipBytes(6); // access_flags, name_index, descriptor_index
+            int attributesCount = input.readUnsignedShort();
+            for (int j = 0; j < attributesCount; j++) {
+                input.skipBytes(2); // attribute_name_index
+                input.skipBytes(input.readInt());
+            }
+        }
+    }
+
+    /**
+     * 读取一个注解，返回注解类名并跳过其元素值
+     *
+     * @param input 输入流
+     * @param utf8s 常量池中的UTF8字符串
+     * @return 注解类名
+     * @throws IOException 如果读取失败
+     */
+    private static String readAnnotation(DataInputStream input, String[] utf8s) throws IOException {
+        String descriptor = utf8s[input.readUnsignedShort()];
+        int pairsCount = input.readUnsignedShort();
+        for (int i = 0; i < pairsCount; i++) {
+            input.skipBytes(2); // element_name_index
+            skipElementValue(input, utf8s);
+        }
+        // 描述符形如 "Lcom/example/Anno;"
+        return toClassName(descriptor.substring(1, descriptor.length() - 1));
+    }
+
+    /**
+     * 跳过注解元素值
+     *
+     * @param input 输入流
+     * @param utf8s 常量池中的UTF8字符串
+     * @throws IOException 如果读取失败
+     */
+    private static void skipElementValue(DataInputStream input, String[] utf8s) throws IOException {
+        int tag = input.readUnsignedByte();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> input.skipBytes(2);
+            case 'e' -> input.skipBytes(4);
+            case '@' -> readAnnotation(input, utf8s);
+            case '[' -> {
+                int count = input.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(input, utf8s);
+                }
+            }
+            default -> throw new IOException("Invalid class file: unknown element value tag " + (char) tag + ".");
+        }
+    }
+
+    /**
+     * 将内部名称转换为类名
+     *
+     * @param internalName 内部名称，形如 "com/example/Outer$Inner"
+     * @return 类名，形如 "com.example.Outer$Inner"
+     */
+    private static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+}
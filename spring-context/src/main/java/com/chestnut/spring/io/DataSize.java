@@ -0,0 +1,88 @@
+package com.chestnut.spring.io;
+
+import java.util.Locale;
+
+/**
+ * 数据大小，例如缓冲区或上传文件的大小限制，可以从"512"、"64KB"、"10MB"等字符串解析，单位按1024进制换算
+ *
+ * @param bytes 字节数
+ * @author: Chestnut
+ * @since: 2023-08-16
+ **/
+public record DataSize(long bytes) {
+    /**
+     * 创建指定字节数的DataSize
+     *
+     * @param bytes 字节数
+     * @return DataSize
+     */
+    public static DataSize ofBytes(long bytes) {
+        return new DataSize(bytes);
+    }
+
+    /**
+     * 创建指定KB数的DataSize
+     *
+     * @param kilobytes KB数
+     * @return DataSize
+     */
+    public static DataSize ofKilobytes(long kilobytes) {
+        return new DataSize(Math.multiplyExact(kilobytes, 1024L));
+    }
+
+    /**
+     * 创建指定MB数的DataSize
+     *
+     * @param megabytes MB数
+     * @return DataSize
+     */
+    public static DataSize ofMegabytes(long megabytes) {
+        return new DataSize(Math.multiplyExact(megabytes, 1024L * 1024));
+    }
+
+    /**
+     * 解析数据大小，支持的单位为B、KB、MB、GB和TB（不区分大小写），没有单位时为字节数
+     *
+     * @param text 数据大小字符串，例如"10MB"
+     * @return DataSize
+     * @throws IllegalArgumentException 如果格式不正确
+     */
+    public static DataSize parse(String text) {
+        String s = text.trim().toUpperCase(Locale.ROOT);
+        int i = 0;
+        while (i < s.length() && (Character.isDigit(s.charAt(i)) || (i == 0 && s.charAt(i) == '-'))) {
+            i++;
+        }
+        if (i == 0 || (i == 1 && s.charAt(0) == '-')) {
+            throw new IllegalArgumentException("Invalid data size: " + text);
+        }
+        long amount = Long.parseLong(s.substring(0, i));
+        long multiplier = switch (s.substring(i).trim()) {
+            case "", "B" -> 1L;
+            case "KB" -> 1L << 10;
+            case "MB" -> 1L << 20;
+            case "GB" -> 1L << 30;
+            case "TB" -> 1L << 40;
+            default -> throw new IllegalArgumentException("Invalid data size unit: " + text);
+        };
+        return new DataSize(Math.multiplyExact(amount, multiplier));
+    }
+
+    /**
+     * 获取KB数，不足1KB的部分舍去
+     *
+     * @return KB数
+     */
+    public long toKilobytes() {
+        return this.bytes / 1024;
+    }
+
+    /**
+     * 获取MB数，不足1MB的部分舍去
+     *
+     * @return MB数
+     */
+    public long toMegabytes() {
+        return this.bytes / (1024 * 1024);
+    }
+}
@@ -0,0 +1,563 @@
+package com.chestnut.spring.io;
+
+import com.chestnut.spring.exception.PropertyBindingException;
+import jakarta.annotation.Nullable;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * 属性绑定器，将指定前缀下的属性绑定到记录类或普通Java对象，支持嵌套对象、列表、集合、数组和映射
+ * <p>
+ * 属性名按短横线形式查找（例如maxPoolSize对应max-pool-size），找不到时再按原名查找；列表按"key[0]"、"key[1]"的形式查找，
+ * 元素为简单类型时也可以写成逗号分隔的字符串；映射的键为前缀下的下一级属性名。
+ * 记录类通过规范构造方法创建，普通Java对象通过无参构造方法创建后调用set方法或写入字段，缺失的属性保留字段的初始值。
+ * <p>
+ * 每个目标类型的构造方法和可写属性只解析一次，缓存在ClassValue中，多个上下文共享；
+ * 绑定一个对象时收集所有转换失败的属性，最后一并通过PropertyBindingException报告。
+ *
+ * @author: Chestnut
+ * @since: 2023-08-16
+ **/
+public final class PropertyBinder {
+    /**
+     * 目标类型到其绑定元数据的缓存
+     */
+    private static final ClassValue<TypeBinder> TYPE_BINDERS = new ClassValue<>() {
+        @Override
+        protected TypeBinder computeValue(Class<?> type) {
+            return TypeBinder.of(type);
+        }
+    };
+
+    /**
+     * 属性解析器
+     */
+    private final PropertyResolver propertyResolver;
+
+    /**
+     * 创建一个PropertyBinder实例
+     *
+     * @param propertyResolver 属性解析器
+     */
+    public PropertyBinder(PropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+    }
+
+    /**
+     * 创建目标类型的实例并绑定指定前缀下的属性
+     *
+     * @param prefix 属性前缀，例如"app.datasource"
+     * @param type   目标类型，记录类或具有无参构造方法的类
+     * @param <T>    目标类型
+     * @return 绑定后的实例
+     * @throws PropertyBindingException 如果存在绑定错误，包含所有错误
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T bind(String prefix, Class<T> type) {
+        List<String> errors = new ArrayList<>();
+        Object instance = bindObject(prefix, type, errors);
+        if (!errors.isEmpty()) {
+            throw new PropertyBindingException(prefix, type, errors);
+        }
+        return (T) instance;
+    }
+
+    /**
+     * 将指定前缀下的属性绑定到已有的实例，例如@Bean方法返回的对象
+     *
+     * @param prefix 属性前缀
+     * @param target 目标实例，不能是记录类
+     * @param <T>    目标类型
+     * @return 目标实例
+     * @throws PropertyBindingException 如果存在绑定错误，包含所有错误
+     */
+    public <T> T bindTo(String prefix, T target) {
+        TypeBinder binder = TYPE_BINDERS.get(target.getClass());
+        List<String> errors = new ArrayList<>();
+        if (binder.record) {
+            errors.add(prefix + ": cannot bind to existing instance of record " + target.getClass().getName());
+        } else {
+            bindProperties(prefix, target, binder, errors);
+        }
+        if (!errors.isEmpty()) {
+            throw new PropertyBindingException(prefix, target.getClass(), errors);
+        }
+        return target;
+    }
+
+    /**
+     * 创建对象并绑定属性
+     *
+     * @param prefix 属性前缀
+     * @param type   对象类型
+     * @param errors 绑定错误列表
+     * @return 对象，如果无法创建，则返回null并记录错误
+     */
+    @Nullable
+    private Object bindObject(String prefix, Class<?> type, List<String> errors) {
+        TypeBinder binder = TYPE_BINDERS.get(type);
+        if (binder.constructor == null) {
+            errors.add(prefix + ": " + type.getName() + " must be a record or have a no-arg constructor");
+            return null;
+        }
+        int errorCount = errors.size();
+        if (binder.record) {
+            Object[] args = new Object[binder.properties.size()];
+            for (int i = 0; i < args.length; i++) {
+                Property property = binder.properties.get(i);
+                Object value = bindValue(resolveKey(prefix, property), property.type(), errors);
+                args[i] = value != null ? value : defaultValue(property.type());
+            }
+            // 组件存在错误时不再创建记录
+            return errors.size() == errorCount ? newInstance(prefix, binder, args, errors) : null;
+        }
+        Object instance = newInstance(prefix, binder, new Object[0], errors);
+        if (instance != null) {
+            bindProperties(prefix, instance, binder, errors);
+        }
+        return instance;
+    }
+
+    /**
+     * 将属性绑定到普通Java对象的可写属性，缺失的属性不修改
+     *
+     * @param prefix   属性前缀
+     * @param instance 对象
+     * @param binder   对象类型的绑定元数据
+     * @param errors   绑定错误列表
+     */
+    private void bindProperties(String prefix, Object instance, TypeBinder binder, List<String> errors) {
+        for (Property property : binder.properties) {
+            String key = resolveKey(prefix, property);
+            Object value = bindValue(key, property.type(), errors);
+            if (value == null) {
+                continue;
+            }
+            try {
+                if (property.setter() != null) {
+                    property.setter().invoke(instance, value);
+                } else {
+                    property.field().set(instance, value);
+                }
+            } catch (InvocationTargetException e) {
+                errors.add(key + ": " + e.getCause());
+            } catch (ReflectiveOperationException e) {
+                errors.add(key + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * 绑定一个值
+     *
+     * @param key    属性键
+     * @param type   值的类型，可以是参数化类型
+     * @param errors 绑定错误列表
+     * @return 值，如果属性不存在或转换失败，则返回null
+     */
+    @Nullable
+    private Object bindValue(String key, Type type, List<String> errors) {
+        Class<?> raw = rawClass(type);
+        if (raw == null) {
+            errors.add(key + ": unsupported type " + type.getTypeName());
+            return null;
+        }
+        // 未指定类型参数的列表或映射，其元素按字符串绑定
+        if (raw == Object.class) {
+            raw = String.class;
+        }
+        if (isScalar(raw)) {
+            String value;
+            try {
+                value = this.propertyResolver.getProperty(key);
+            } catch (RuntimeException e) {
+                // 属性值中引用的其他属性不存在
+                errors.add(key + ": " + e.getMessage());
+                return null;
+            }
+            return value == null ? null : convert(key, raw, value, errors);
+        }
+        if (raw.isArray()) {
+            List<Object> elements = bindElements(key, raw.getComponentType(), errors);
+            if (elements == null) {
+                return null;
+            }
+            Object array = Array.newInstance(raw.getComponentType(), elements.size());
+            for (int i = 0; i < elements.size(); i++) {
+                Array.set(array, i, elements.get(i));
+            }
+            return array;
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            List<Object> elements = bindElements(key, typeArgument(type, 0), errors);
+            if (elements == null) {
+                return null;
+            }
+            return Set.class.isAssignableFrom(raw) ? Collections.unmodifiableSet(new LinkedHashSet<>(elements)) : Collections.unmodifiableList(elements);
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            return bindMap(key, type, errors);
+        }
+        // 嵌套对象，前缀下没有任何属性时不创建
+        if (!hasNestedProperties(key)) {
+            return null;
+        }
+        return bindObject(key, raw, errors);
+    }
+
+    /**
+     * 绑定列表元素，优先按"key[i]"查找，元素为简单类型时也可以是逗号分隔的字符串
+     *
+     * @param key         属性键
+     * @param elementType 元素类型
+     * @param errors      绑定错误列表
+     * @return 元素列表，跳过转换失败的元素；如果属性不存在，则返回null
+     */
+    @Nullable
+    private List<Object> bindElements(String key, Type elementType, List<String> errors) {
+        List<Object> elements = new ArrayList<>();
+        for (int i = 0; ; i++) {
+            String elementKey = key + "[" + i + "]";
+            if (!this.propertyResolver.containsProperty(elementKey) && !hasNestedProperties(elementKey)) {
+                break;
+            }
+            Object element = bindValue(elementKey, elementType, errors);
+            if (element != null) {
+                elements.add(element);
+            }
+        }
+        if (!elements.isEmpty()) {
+            return elements;
+        }
+        Class<?> raw = rawClass(elementType);
+        if (raw == Object.class) {
+            raw = String.class;
+        }
+        if (raw == null || !isScalar(raw) || !this.propertyResolver.containsProperty(key)) {
+            return null;
+        }
+        String value = this.propertyResolver.getProperty(key);
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                Object element = convert(key, raw, item.trim(), errors);
+                if (element != null) {
+                    elements.add(element);
+                }
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * 绑定映射，键为前缀下的下一级属性名
+     *
+     * @param key    属性键
+     * @param type   映射类型
+     * @param errors 绑定错误列表
+     * @return 映射，按键的字典序排列；如果前缀下没有任何属性，则返回null
+     */
+    @Nullable
+    private Map<Object, Object> bindMap(String key, Type type, List<String> errors) {
+        Class<?> keyType = rawClass(typeArgument(type, 0));
+        Type valueType = typeArgument(type, 1);
+        if (keyType == null || !isScalar(keyType)) {
+            errors.add(key + ": unsupported map key type " + typeArgument(type, 0).getTypeName());
+            return null;
+        }
+        String prefix = key + ".";
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : this.propertyResolver.getPropertyNames(prefix)) {
+            String rest = name.substring(prefix.length());
+            int end = rest.length();
+            for (int i = 0; i < rest.length(); i++) {
+                if (rest.charAt(i) == '.' || rest.charAt(i) == '[') {
+                    end = i;
+                    break;
+                }
+            }
+            if (end > 0) {
+                names.add(rest.substring(0, end));
+            }
+        }
+        if (names.isEmpty()) {
+            return null;
+        }
+        Map<Object, Object> map = new LinkedHashMap<>();
+        for (String name : names) {
+            Object value = bindValue(prefix + name, valueType, errors);
+            Object mapKey = convert(prefix + name, keyType, name, errors);
+            if (value != null && mapKey != null) {
+                map.put(mapKey, value);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * 将字符串转换为简单类型，转换失败时记录错误
+     *
+     * @param key    属性键
+     * @param type   简单类型
+     * @param value  字符串
+     * @param errors 绑定错误列表
+     * @return 转换后的值，如果转换失败，则返回null
+     */
+    @Nullable
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object convert(String key, Class<?> type, String value, List<String> errors) {
+        try {
+            if (type.isEnum()) {
+                // 枚举值不区分大小写，短横线对应下划线
+                return Enum.valueOf((Class<? extends Enum>) type, value.trim().toUpperCase().replace('-', '_'));
+            }
+            return this.propertyResolver.convertValue(type, value);
+        } catch (RuntimeException e) {
+            errors.add(String.format("%s: cannot convert '%s' to %s (%s)", key, value, type.getSimpleName(), e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * 确定属性的键：优先使用短横线形式，前缀下只存在原名时使用原名
+     *
+     * @param prefix   属性前缀
+     * @param property 属性
+     * @return 属性键
+     */
+    private String resolveKey(String prefix, Property property) {
+        String key = prefix + "." + property.key();
+        if (property.key().equals(property.name()) || exists(key)) {
+            return key;
+        }
+        String original = prefix + "." + property.name();
+        return exists(original) ? original : key;
+    }
+
+    /**
+     * 检查属性或以其为前缀的属性是否存在
+     *
+     * @param key 属性键
+     * @return 如果存在，则返回true；否则返回false
+     */
+    private boolean exists(String key) {
+        return this.propertyResolver.containsProperty(key) || hasNestedProperties(key) || !this.propertyResolver.getPropertyNames(key + "[").isEmpty();
+    }
+
+    /**
+     * 检查是否存在以"key."开头的属性
+     *
+     * @param key 属性键
+     * @return 如果存在，则返回true；否则返回false
+     */
+    private boolean hasNestedProperties(String key) {
+        return !this.propertyResolver.getPropertyNames(key + ".").isEmpty();
+    }
+
+    /**
+     * 检查是否为可以从一个字符串转换的简单类型
+     *
+     * @param type 类型
+     * @return 如果是简单类型，则返回true；否则返回false
+     */
+    private boolean isScalar(Class<?> type) {
+        return type.isEnum() || this.propertyResolver.isConvertible(type);
+    }
+
+    /**
+     * 调用构造方法创建实例，失败时记录错误
+     *
+     * @param prefix 属性前缀
+     * @param binder 绑定元数据
+     * @param args   构造方法参数
+     * @param errors 绑定错误列表
+     * @return 实例，如果创建失败，则返回null
+     */
+    @Nullable
+    private static Object newInstance(String prefix, TypeBinder binder, Object[] args, List<String> errors) {
+        try {
+            return binder.constructor.newInstance(args);
+        } catch (InvocationTargetException e) {
+            errors.add(prefix + ": " + e.getCause());
+        } catch (ReflectiveOperationException e) {
+            errors.add(prefix + ": " + e);
+        }
+        return null;
+    }
+
+    /**
+     * 获取类型的原始类
+     *
+     * @param type 类型
+     * @return 原始类，如果是类型变量或通配符，则返回null
+     */
+    @Nullable
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            return (Class<?>) parameterized.getRawType();
+        }
+        if (type instanceof GenericArrayType array) {
+            Class<?> component = rawClass(array.getGenericComponentType());
+            return component == null ? null : component.arrayType();
+        }
+        return null;
+    }
+
+    /**
+     * 获取参数化类型的类型参数，未指定类型参数时为Object
+     *
+     * @param type  类型
+     * @param index 类型参数的下标
+     * @return 类型参数
+     */
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getActualTypeArguments().length > index) {
+            return parameterized.getActualTypeArguments()[index];
+        }
+        return Object.class;
+    }
+
+    /**
+     * 获取缺失属性的默认值，基本类型为0或false，其他类型为null
+     *
+     * @param type 类型
+     * @return 默认值
+     */
+    @Nullable
+    private static Object defaultValue(Type type) {
+        return type instanceof Class<?> clazz && clazz.isPrimitive() ? Array.get(Array.newInstance(clazz, 1), 0) : null;
+    }
+
+    /**
+     * 短横线形式的属性名，例如maxPoolSize对应max-pool-size
+     *
+     * @param name 属性名
+     * @return 短横线形式的属性名
+     */
+    private static String toKebabCase(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    sb.append('-');
+                }
+                sb.append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 一个可绑定的属性：记录类的组件，或普通Java对象的set方法或字段
+     *
+     * @param name   属性名
+     * @param key    短横线形式的属性名
+     * @param type   属性类型，可以是参数化类型
+     * @param setter set方法，为null时写入字段或作为记录类的组件
+     * @param field  字段，为null时调用set方法或作为记录类的组件
+     */
+    private record Property(String name, String key, Type type, @Nullable Method setter, @Nullable Field field) {
+    }
+
+    /**
+     * 一个目标类型的绑定元数据，只在首次绑定该类型时解析
+     */
+    private static final class TypeBinder {
+        /**
+         * 是否为记录类
+         */
+        private final boolean record;
+        /**
+         * 记录类的规范构造方法或普通类的无参构造方法，不存在时为null
+         */
+        @Nullable
+        private final Constructor<?> constructor;
+        /**
+         * 可绑定的属性，记录类按组件顺序排列
+         */
+        private final List<Property> properties;
+
+        /**
+         * 创建一个TypeBinder实例
+         *
+         * @param record      是否为记录类
+         * @param constructor 构造方法
+         * @param properties  可绑定的属性
+         */
+        private TypeBinder(boolean record, @Nullable Constructor<?> constructor, List<Property> properties) {
+            this.record = record;
+            this.constructor = constructor;
+            this.properties = properties;
+        }
+
+        /**
+         * 解析目标类型的构造方法和可绑定的属性
+         *
+         * @param type 目标类型
+         * @return 绑定元数据
+         */
+        static TypeBinder of(Class<?> type) {
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                List<Property> properties = new ArrayList<>(components.length);
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    properties.add(new Property(components[i].getName(), toKebabCase(components[i].getName()), components[i].getGenericType(), null, null));
+                    parameterTypes[i] = components[i].getType();
+                }
+                return new TypeBinder(true, accessibleConstructor(type, parameterTypes), List.copyOf(properties));
+            }
+            // 先收集set方法，没有set方法的非静态非final字段直接写入
+            Map<String, Property> properties = new LinkedHashMap<>();
+            for (Method method : type.getMethods()) {
+                String name = method.getName();
+                if (name.length() > 3 && name.startsWith("set") && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                    String property = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+                    properties.putIfAbsent(property, new Property(property, toKebabCase(property), method.getGenericParameterTypes()[0], method, null));
+                }
+            }
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int mod = field.getModifiers();
+                    if (Modifier.isStatic(mod) || Modifier.isFinal(mod) || field.isSynthetic() || properties.containsKey(field.getName())) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                    } catch (RuntimeException e) {
+                        continue;
+                    }
+                    properties.put(field.getName(), new Property(field.getName(), toKebabCase(field.getName()), field.getGenericType(), null, field));
+                }
+            }
+            return new TypeBinder(false, accessibleConstructor(type), List.copyOf(properties.values()));
+        }
+
+        /**
+         * 获取指定参数类型的构造方法并设置为可访问
+         *
+         * @param type           目标类型
+         * @param parameterTypes 参数类型
+         * @return 构造方法，如果不存在或无法访问，则返回null
+         */
+        @Nullable
+        private static Constructor<?> accessibleConstructor(Class<?> type, Class<?>... parameterTypes) {
+            if (Modifier.isAbstract(type.getModifiers()) || type.isInterface()) {
+                return null;
+            }
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+                constructor.setAccessible(true);
+                return constructor;
+            } catch (NoSuchMethodException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -27,6 +27,10 @@ public class PropertyResolver {
      * 类型解析器
      */
     private Map<Class<?>, Function<String, Object>> converters = new HashMap<>();
+    /**
+     * 排序的属性键，首次按前缀查找时创建，用于绑定列表、映射和嵌套对象
+     */
+    private volatile NavigableSet<String> sortedNames;
 
     /**
      * 创建一个PropertyResolver实例
@@ -76,7 +80,8 @@ public class PropertyResolver {
         converters.put(LocalTime.class, s -> LocalTime.parse(s));
         converters.put(LocalDateTime.class, s -> LocalDateTime.parse(s));
         converters.put(ZonedDateTime.class, s -> ZonedDateTime.parse(s));
-        converters.put(Duration.class, s -> Duration.parse(s));
+        converters.put(Duration.class, s -> parseDuration(s));
+        converters.put(DataSize.class, s -> DataSize.parse(s));
         converters.put(ZoneId.class, s -> ZoneId.of(s));
     }
 
@@ -90,6 +95,31 @@ public class PropertyResolver {
         return this.properties.containsKey(key);
     }
 
+    /**
+     * 获取以指定前缀开头的所有属性键
+     *
+     * @param prefix 前缀，例如"app.servers["
+     * @return 按字典序排列的属性键，不可修改
+     */
+    public SortedSet<String> getPropertyNames(String prefix) {
+        NavigableSet<String> names = this.sortedNames;
+        if (names == null) {
+            names = Collections.unmodifiableNavigableSet(new TreeSet<>(this.properties.keySet()));
+            this.sortedNames = names;
+        }
+        return names.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * 检查是否可以将属性值字符串转换为指定类型
+     *
+     * @param targetType 目标类型
+     * @return 如果存在该类型的转换器，则返回true；否则返回false
+     */
+    public boolean isConvertible(Class<?> targetType) {
+        return this.converters.containsKey(targetType);
+    }
+
     /**
      * 获取指定属性的值的字符串
      *
@@ -204,6 +234,46 @@ public class PropertyResolver {
         return (T) fn.apply(value);
     }
 
+    /**
+     * 将属性值转换为指定类型的对象，供同一包中的属性绑定器转换列表元素、映射值等不直接对应属性键的值
+     *
+     * @param type  目标类型，需要存在该类型的转换器
+     * @param value 属性值字符串
+     * @return 转换后的对象
+     */
+    Object convertValue(Class<?> type, String value) {
+        return convert(type, value);
+    }
+
+    /**
+     * 解析时间长度，支持带单位的简写形式（ns、us、ms、s、m、h、d），没有单位时为毫秒数，其他情况按ISO-8601格式解析
+     *
+     * @param value 时间长度字符串，例如"30s"、"500"或"PT30S"
+     * @return 时间长度
+     */
+    private static Duration parseDuration(String value) {
+        String s = value.trim();
+        int i = 0;
+        while (i < s.length() && (Character.isDigit(s.charAt(i)) || (i == 0 && s.charAt(i) == '-'))) {
+            i++;
+        }
+        // 不以数字开头的按ISO-8601格式解析，例如"PT30S"
+        if (i == 0 || (i == 1 && s.charAt(0) == '-')) {
+            return Duration.parse(s);
+        }
+        long amount = Long.parseLong(s.substring(0, i));
+        return switch (s.substring(i).trim().toLowerCase()) {
+            case "", "ms" -> Duration.ofMillis(amount);
+            case "ns" -> Duration.ofNanos(amount);
+            case "us" -> Duration.ofNanos(Math.multiplyExact(amount, 1000L));
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            case "h" -> Duration.ofHours(amount);
+            case "d" -> Duration.ofDays(amount);
+            default -> throw new IllegalArgumentException("Invalid duration: " + value);
+        };
+    }
+
     /**
      * 解析属性值
      *
@@ -1,5 +1,6 @@
 package com.chestnut.spring.io;
 
+import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,32 +11,48 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.List;
-import java.util.Map;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * 资源解析器，用于简单的类路径扫描工作，可以在目录和JAR文件中工作。
  * 只负责扫描并列出所有文件，由客户端决定是找出.class文件，还是找出.properties文件
+ * <p>
+ * 同一个解析器可以扫描多个包，JAR文件系统在各个包之间共享，并在close()时关闭。
+ * 指定ForkJoinPool时，各个根目录及其子目录会被并行遍历，此时映射函数必须是线程安全的，且结果顺序不确定。
  *
  * @author: Chestnut
  * @since: 2023-07-11
  **/
-public class ResourceResolver {
+public class ResourceResolver implements AutoCloseable {
     /**
      * 日志记录器
      */
     private final Logger logger = LoggerFactory.getLogger(getClass());
     /**
-     * 基础包路径
+     * 基础包路径列表
      */
-    private String basePackage;
+    private final List<String> basePackages;
+    /**
+     * 用于并行遍历的线程池，为null时顺序遍历
+     */
+    @Nullable
+    private final ForkJoinPool pool;
+    /**
+     * JAR文件URI到已打开的JAR文件系统的映射，同一个JAR只打开一次
+     */
+    private final Map<URI, FileSystem> jarFileSystems = new ConcurrentHashMap<>();
+    /**
+     * 由本解析器打开、需要在close()时关闭的JAR文件系统
+     */
+    private final Set<FileSystem> ownedFileSystems = ConcurrentHashMap.newKeySet();
 
     /**
      * 创建一个ResourceResolver实例
@@ -43,7 +60,18 @@ public class ResourceResolver {
      * @param basePackage 基础包路径
      */
     public ResourceResolver(String basePackage) {
-        this.basePackage = basePackage;
+        this(null, basePackage);
+    }
+
+    /**
+     * 创建一个扫描多个包的ResourceResolver实例
+     *
+     * @param pool         用于并行遍历的线程池，为null时顺序遍历
+     * @param basePackages 基础包路径
+     */
+    public ResourceResolver(@Nullable ForkJoinPool pool, String... basePackages) {
+        this.pool = pool;
+        this.basePackages = List.of(basePackages);
     }
 
     /**
@@ -54,12 +82,57 @@ public class ResourceResolver {
      * @return 结果对象列表
      */
     public <R> List<R> scan(Function<Resource, R> mapper) {
-        String basePackagePath = this.basePackage.replace(".", "/");
-        String path = basePackagePath;
+        return scan(root -> true, mapper);
+    }
+
+    /**
+     * 扫描指定包路径下的资源，跳过不满足条件的类路径根目录，并将其映射为指定类型的对象列表
+     *
+     * @param rootFilter 类路径根目录过滤器，根目录形如 "file:/path/to/classes" 或 "jar:file:/path/to/x.jar!"，返回false的根目录不会被遍历
+     * @param mapper     资源对象映射函数
+     * @param <R>        结果对象的类型
+     * @return 结果对象列表
+     */
+    public <R> List<R> scan(Predicate<String> rootFilter, Function<Resource, R> mapper) {
+        return scan(rootFilter, name -> true, mapper);
+    }
+
+    /**
+     * 扫描指定包路径下的资源，跳过不满足条件的类路径根目录、目录和文件，并将其映射为指定类型的对象列表
+     * 路径过滤器在创建资源对象之前调用，被跳过的目录不会被遍历
+     *
+     * @param rootFilter 类路径根目录过滤器，根目录形如 "file:/path/to/classes" 或 "jar:file:/path/to/x.jar!"，返回false的根目录不会被遍历
+     * @param pathFilter 路径过滤器，参数为相对于类路径根目录、以"/"分隔的路径，目录以"/"结尾，形如 "com/example/dto/" 或 "com/example/Foo.class"
+     * @param mapper     资源对象映射函数
+     * @param <R>        结果对象的类型
+     * @return 结果对象列表
+     */
+    public <R> List<R> scan(Predicate<String> rootFilter, Predicate<String> pathFilter, Function<Resource, R> mapper) {
         try {
-            List<R> collector = new ArrayList<>();
-            scan0(basePackagePath, path, collector, mapper);
-            return collector;
+            // 先收集所有包的所有根目录，再统一遍历
+            List<ScanRoot> roots = new ArrayList<>();
+            for (String basePackage : this.basePackages) {
+                String basePackagePath = basePackage.replace(".", "/");
+                findRoots(basePackagePath, basePackagePath, rootFilter, roots);
+            }
+            if (this.pool == null) {
+                List<R> collector = new ArrayList<>();
+                for (ScanRoot root : roots) {
+                    scanFile(root.isJar(), root.base(), root.path(), collector, pathFilter, mapper);
+                }
+                return collector;
+            }
+            Queue<R> collector = new ConcurrentLinkedQueue<>();
+            List<ScanDirectoryTask<R>> tasks = roots.stream()
+                    .map(root -> new ScanDirectoryTask<>(root.isJar(), removeTrailingSlash(root.base()), root.path(), collector, pathFilter, mapper))
+                    .toList();
+            this.pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+            return new ArrayList<>(collector);
         } catch (URISyntaxException e) {
             throw new RuntimeException(e);
         } catch (IOException e) {
@@ -68,17 +141,32 @@ public class ResourceResolver {
     }
 
     /**
-     * 实际执行扫描的内部方法，扫描指定路径下的资源文件，并将其收集到列表中
+     * 关闭本解析器打开的所有JAR文件系统
+     */
+    @Override
+    public void close() {
+        for (FileSystem fs : this.ownedFileSystems) {
+            try {
+                fs.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close file system: " + fs, e);
+            }
+        }
+        this.ownedFileSystems.clear();
+        this.jarFileSystems.clear();
+    }
+
+    /**
+     * 查找指定路径对应的所有类路径根目录
      *
      * @param basePackagePath 基础包路径
      * @param path            目标路径
-     * @param collector       结果对象收集器
-     * @param mapper          资源对象映射函数
-     * @param <R>             结果对象的类型
+     * @param rootFilter      类路径根目录过滤器
+     * @param roots           根目录收集器
      * @throws URISyntaxException 如果在URI的语法错误
      * @throws IOException        如果在处理发生I/O异常
      */
-    private <R> void scan0(String basePackagePath, String path, List<R> collector, Function<Resource, R> mapper) throws URISyntaxException, IOException {
+    private void findRoots(String basePackagePath, String path, Predicate<String> rootFilter, List<ScanRoot> roots) throws URISyntaxException, IOException {
         logger.atDebug().log("scan path: {}", path);
         // 获取当前线程的上下文类加载器，并获取指定路径下的所有资源URL
         Enumeration<URL> en = getContextClassLoader().getResources(path);
@@ -87,15 +175,20 @@ public class ResourceResolver {
             URI uri = url.toURI();
             String uriStr = removeTrailingSlash(uriToString(uri));
             String uriBaseStr = uriStr.substring(0, uriStr.length() - basePackagePath.length());
+            // 跳过不需要遍历的根目录（例如已被组件索引覆盖的根目录）
+            if (!rootFilter.test(removeTrailingSlash(uriBaseStr))) {
+                logger.atDebug().log("skip scan root: {}", uriBaseStr);
+                continue;
+            }
             if (uriBaseStr.startsWith("file:")) {
                 uriBaseStr = uriBaseStr.substring(5);
             }
             if (uriStr.startsWith("jar:")) {
                 // 如果资源在JAR文件中，则进行JAR文件扫描
-                scanFile(true, uriBaseStr, jarUriToPath(basePackagePath, uri), collector, mapper);
+                roots.add(new ScanRoot(true, uriBaseStr, jarUriToPath(basePackagePath, uri)));
             } else {
                 // 如果资源在文件系统中，则进行文件扫描
-                scanFile(false, uriBaseStr, Paths.get(uri), collector, mapper);
+                roots.add(new ScanRoot(false, uriBaseStr, Paths.get(uri)));
             }
         }
     }
@@ -127,7 +220,33 @@ public class ResourceResolver {
      * @throws IOException 如果在处理发生I/O异常
      */
     private Path jarUriToPath(String basePackagePath, URI jarUri) throws IOException {
-        return FileSystems.newFileSystem(jarUri, Map.of()).getPath(basePackagePath);
+        // "jar:file:/path/to/x.jar!/com/example" 以 "jar:file:/path/to/x.jar" 作为文件系统的键
+        String uriStr = jarUri.toString();
+        int separator = uriStr.indexOf("!/");
+        URI fsUri = separator < 0 ? jarUri : URI.create(uriStr.substring(0, separator));
+        try {
+            return this.jarFileSystems.computeIfAbsent(fsUri, this::openJarFileSystem).getPath(basePackagePath);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 打开JAR文件系统，如果已被其他代码打开，则直接复用且不负责关闭
+     *
+     * @param fsUri JAR文件系统的URI
+     * @return JAR文件系统
+     */
+    private FileSystem openJarFileSystem(URI fsUri) {
+        try {
+            FileSystem fs = FileSystems.newFileSystem(fsUri, Map.of());
+            this.ownedFileSystems.add(fs);
+            return fs;
+        } catch (FileSystemAlreadyExistsException e) {
+            return FileSystems.getFileSystem(fsUri);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -146,34 +265,82 @@ public class ResourceResolver {
      * @param isJar     是否在JAR文件中，用于判断资源的位置信息
      * @param base      根路径
      * @param root      根路径的Path对象
-     * @param collector 收集器，用于存储处理结果
-     * @param mapper    映射函数，用于将资源对象映射为需要的结果对象
-     * @param <R>       收集的类型
+     * @param collector  收集器，用于存储处理结果
+     * @param pathFilter 路径过滤器
+     * @param mapper     映射函数，用于将资源对象映射为需要的结果对象
+     * @param <R>        收集的类型
      * @throws IOException 如果在处理发生I/O异常
      */
-    private <R> void scanFile(boolean isJar, String base, Path root, List<R> collector, Function<Resource, R> mapper) throws IOException {
+    private <R> void scanFile(boolean isJar, String base, Path root, List<R> collector, Predicate<String> pathFilter, Function<Resource, R> mapper) throws IOException {
         String baseDir = removeTrailingSlash(base);
-        // 遍历指定根路径下的所有文件并进行处理
-        Files.walk(root).filter(Files::isRegularFile).forEach(file -> {
-            Resource res = null;
-            if (isJar) {
-                // 如果在JAR文件中，则使用文件相对路径创建资源对象
-                res = new Resource(baseDir, removeLeadingSlash(file.toString()));
-            } else {
-                // 如果在文件系统中，则使用文件绝对路径和相对路径创建资源对象
-                String path = file.toString();
-                String name = removeLeadingSlash(path.substring(baseDir.length()));
-                res = new Resource("file:" + path, name);
+        // 遍历指定根路径下的所有文件并进行处理，跳过被过滤的目录
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && !pathFilter.test(relativePath(isJar, baseDir, dir) + "/")) {
+                    logger.atDebug().log("skip directory: {}", dir);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
             }
-            logger.atDebug().log("found resource: {}", res);
-            // 将资源对象应用于映射函数，并将结果添加到收集器中
-            R r = mapper.apply(res);
-            if (r != null) {
-                collector.add(r);
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (Files.isRegularFile(file)) {
+                    handleFile(isJar, baseDir, file, collector, pathFilter, mapper);
+                }
+                return FileVisitResult.CONTINUE;
             }
         });
     }
 
+    /**
+     * 将文件转换为资源对象，然后将资源对象应用于映射函数，并将结果收集到集合中。
+     *
+     * @param isJar     是否在JAR文件中，用于判断资源的位置信息
+     * @param baseDir   去除末尾斜杠的根路径
+     * @param file      文件
+     * @param collector  收集器，用于存储处理结果
+     * @param pathFilter 路径过滤器
+     * @param mapper     映射函数，用于将资源对象映射为需要的结果对象
+     * @param <R>        收集的类型
+     */
+    private <R> void handleFile(boolean isJar, String baseDir, Path file, Collection<R> collector, Predicate<String> pathFilter, Function<Resource, R> mapper) {
+        // 被过滤的文件不创建资源对象
+        if (!pathFilter.test(relativePath(isJar, baseDir, file))) {
+            return;
+        }
+        Resource res = null;
+        if (isJar) {
+            // 如果在JAR文件中，则使用文件相对路径创建资源对象
+            res = new Resource(baseDir, removeLeadingSlash(file.toString()));
+        } else {
+            // 如果在文件系统中，则使用文件绝对路径和相对路径创建资源对象
+            String path = file.toString();
+            String name = removeLeadingSlash(path.substring(baseDir.length()));
+            res = new Resource("file:" + path, name);
+        }
+        logger.atDebug().log("found resource: {}", res);
+        // 将资源对象应用于映射函数，并将结果添加到收集器中
+        R r = mapper.apply(res);
+        if (r != null) {
+            collector.add(r);
+        }
+    }
+
+    /**
+     * 获取文件或目录相对于类路径根目录的路径，以"/"分隔
+     *
+     * @param isJar   是否在JAR文件中
+     * @param baseDir 去除末尾斜杠的根路径
+     * @param path    文件或目录
+     * @return 相对路径，形如 "com/example/Foo.class"
+     */
+    private String relativePath(boolean isJar, String baseDir, Path path) {
+        String name = isJar ? path.toString() : path.toString().substring(baseDir.length());
+        return removeLeadingSlash(name).replace('\\', '/');
+    }
+
     /**
      * 去除字符串开头的斜杠或反斜杠。
      *
@@ -199,4 +366,88 @@ public class ResourceResolver {
         }
         return s;
     }
+
+    /**
+     * 待遍历的类路径根目录
+     *
+     * @param isJar 是否在JAR文件中
+     * @param base  根路径
+     * @param path  基础包对应的Path对象
+     */
+    private record ScanRoot(boolean isJar, String base, Path path) {
+    }
+
+    /**
+     * 并行遍历目录的任务，当前目录下的文件直接处理，子目录拆分为子任务
+     *
+     * @param <R> 收集的类型
+     */
+    private class ScanDirectoryTask<R> extends RecursiveAction {
+        /**
+         * 是否在JAR文件中
+         */
+        private final boolean isJar;
+        /**
+         * 去除末尾斜杠的根路径
+         */
+        private final String baseDir;
+        /**
+         * 要遍历的目录
+         */
+        private final Path dir;
+        /**
+         * 线程安全的收集器
+         */
+        private final Queue<R> collector;
+        /**
+         * 路径过滤器
+         */
+        private final Predicate<String> pathFilter;
+        /**
+         * 映射函数
+         */
+        private final Function<Resource, R> mapper;
+
+        /**
+         * 创建一个ScanDirectoryTask实例
+         *
+         * @param isJar     是否在JAR文件中
+         * @param baseDir   去除末尾斜杠的根路径
+         * @param dir       要遍历的目录
+         * @param collector  线程安全的收集器
+         * @param pathFilter 路径过滤器
+         * @param mapper     映射函数
+         */
+        ScanDirectoryTask(boolean isJar, String baseDir, Path dir, Queue<R> collector, Predicate<String> pathFilter, Function<Resource, R> mapper) {
+            this.isJar = isJar;
+            this.baseDir = baseDir;
+            this.dir = dir;
+            this.collector = collector;
+            this.pathFilter = pathFilter;
+            this.mapper = mapper;
+        }
+
+        /**
+         * 遍历当前目录
+         */
+        @Override
+        protected void compute() {
+            List<ScanDirectoryTask<R>> subTasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.dir)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry)) {
+                        // 被过滤的目录不再遍历
+                        if (this.pathFilter.test(relativePath(this.isJar, this.baseDir, entry) + "/")) {
+                            subTasks.add(new ScanDirectoryTask<>(this.isJar, this.baseDir, entry, this.collector, this.pathFilter, this.mapper));
+                        }
+                    } else if (Files.isRegularFile(entry)) {
+                        handleFile(this.isJar, this.baseDir, entry, this.collector, this.pathFilter, this.mapper);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            invokeAll(subTasks);
+        }
+    }
 }
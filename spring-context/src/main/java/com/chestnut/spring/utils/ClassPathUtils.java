@@ -59,7 +59,7 @@ public class ClassPathUtils {
      *
      * @return 当前线程的上下文类加载器
      */
-    private static ClassLoader getContextClassLoader() {
+    public static ClassLoader getContextClassLoader() {
         ClassLoader cl = null;
         // 获取当前线程的上下文类加载器
         cl = Thread.currentThread().getContextClassLoader();
@@ -7,8 +7,7 @@ import jakarta.annotation.Nullable;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -19,7 +18,22 @@ import java.util.stream.Collectors;
  **/
 public class ClassUtils {
     /**
-     * 递归查找指定类型的注解
+     * 类到注解元数据的缓存，每个类的注解（包括元注解）只解析一次
+     * 使用ClassValue而非以Class为键的Map，避免缓存阻止类加载器被回收
+     */
+    private static final ClassValue<AnnotationMetadata> ANNOTATION_METADATA = new ClassValue<>() {
+        @Override
+        protected AnnotationMetadata computeValue(Class<?> type) {
+            return new AnnotationMetadata(type);
+        }
+    };
+    /**
+     * 当前线程正在解析的类，用于在注解相互引用时终止递归
+     */
+    private static final ThreadLocal<Set<Class<?>>> RESOLVING = ThreadLocal.withInitial(HashSet::new);
+
+    /**
+     * 递归查找指定类型的注解，包括元注解，结果被缓存
      *
      * @param target    要查找注解的类
      * @param annoClass 注解的类型
@@ -27,28 +41,20 @@ public class ClassUtils {
      * @return 找到的注解实例，如果找不到则返回null
      */
     public static <A extends Annotation> A findAnnotation(Class<?> target, Class<A> annoClass) {
-        // 获取指定类型的注解实例
-        A a = target.getAnnotation(annoClass);
-        // 遍历 target 类上的所有注解
-        for (Annotation anno : target.getAnnotations()) {
-            // 获取当前注解 anno 的注解类型
-            Class<? extends Annotation> annoType = anno.annotationType();
-            // Java内置注解直接跳过
-            if ("java.lang.annotation".equals(annoType.getPackageName())) {
-                continue;
-            }
-            // 递归调用 findAnnotation 方法，查找当前注解的注解类型 annoType 上是否存在指定类型的注解 annoClass
-            A found = findAnnotation(annoType, annoClass);
-            if (found != null) {
-                // 如果之前已经找到了一个注解实例 a，即出现重复的注解
-                if (a != null) {
-                    throw new BeanDefinitionException("Duplicate @" + annoClass.getSimpleName() + " found on class " + target.getSimpleName());
-                }
-                // 将找到的注解实例 found 赋值给 a
-                a = found;
-            }
-        }
-        return a;
+        return ANNOTATION_METADATA.get(target).findMerged(annoClass);
+    }
+
+    /**
+     * 获取类上直接标注（包括从父类继承）的指定类型的注解，不查找元注解，结果被缓存
+     *
+     * @param target    要查找注解的类
+     * @param annoClass 注解的类型
+     * @param <A>       注解类型
+     * @return 找到的注解实例，如果找不到则返回null
+     */
+    @Nullable
+    public static <A extends Annotation> A getAnnotation(Class<?> target, Class<A> annoClass) {
+        return annoClass.cast(ANNOTATION_METADATA.get(target).direct.get(annoClass));
     }
 
     /**
@@ -98,9 +104,19 @@ public class ClassUtils {
      * @return bean名称
      */
     public static String getBeanName(Class<?> clazz) {
+        return ANNOTATION_METADATA.get(clazz).getBeanName();
+    }
+
+    /**
+     * 解析具有@Component注解标注的类的bean名称
+     *
+     * @param clazz 带有@Component注解的类
+     * @return bean名称
+     */
+    private static String resolveBeanName(Class<?> clazz) {
         String name = "";
         // 使用 getAnnotation 方法从给定的类 clazz 中获取 @Component 注解的实例
-        Component component = clazz.getAnnotation(Component.class);
+        Component component = getAnnotation(clazz, Component.class);
         if (component != null) {
             // 如果 @Component 注解实例存在，则获取注解的值
             name = component.value();
@@ -180,4 +196,95 @@ public class ClassUtils {
             throw new BeanDefinitionException(String.format("Method '%s' not found in class: %s", methodName, clazz.getName()));
         }
     }
+
+    /**
+     * 类的注解元数据，在首次访问时一次性解析
+     */
+    private static class AnnotationMetadata {
+        /**
+         * 注解元数据所属的类
+         */
+        private final Class<?> target;
+        /**
+         * 类上直接标注（包括从父类继承）的注解
+         */
+        private final Map<Class<? extends Annotation>, Annotation> direct = new HashMap<>();
+        /**
+         * 合并后的注解，包括直接标注的注解与递归查找到的元注解
+         */
+        private final Map<Class<? extends Annotation>, Annotation> merged = new HashMap<>();
+        /**
+         * 重复出现的注解类型及其错误信息，查找时才抛出异常，与未缓存时的行为一致
+         */
+        private final Map<Class<? extends Annotation>, String> duplicates = new HashMap<>();
+        /**
+         * bean名称，首次获取时解析
+         */
+        private volatile String beanName;
+
+        /**
+         * 解析类的注解元数据
+         *
+         * @param target 要解析的类
+         */
+        AnnotationMetadata(Class<?> target) {
+            this.target = target;
+            Annotation[] annos = target.getAnnotations();
+            for (Annotation anno : annos) {
+                this.direct.put(anno.annotationType(), anno);
+            }
+            this.merged.putAll(this.direct);
+            Set<Class<?>> resolving = RESOLVING.get();
+            resolving.add(target);
+            try {
+                for (Annotation anno : annos) {
+                    // 获取当前注解 anno 的注解类型
+                    Class<? extends Annotation> annoType = anno.annotationType();
+                    // Java内置注解直接跳过，正在解析的注解（注解间相互引用）也跳过
+                    if ("java.lang.annotation".equals(annoType.getPackageName()) || resolving.contains(annoType)) {
+                        continue;
+                    }
+                    // 合并注解类型上的所有注解，同一类型的注解出现多次即为重复
+                    AnnotationMetadata meta = ANNOTATION_METADATA.get(annoType);
+                    meta.merged.forEach((type, found) -> {
+                        if (this.merged.putIfAbsent(type, found) != null) {
+                            this.duplicates.putIfAbsent(type, "Duplicate @" + type.getSimpleName() + " found on class " + target.getSimpleName());
+                        }
+                    });
+                    meta.duplicates.forEach(this.duplicates::putIfAbsent);
+                }
+            } finally {
+                resolving.remove(target);
+            }
+        }
+
+        /**
+         * 查找合并后的注解
+         *
+         * @param annoClass 注解的类型
+         * @param <A>       注解类型
+         * @return 找到的注解实例，如果找不到则返回null
+         */
+        <A extends Annotation> A findMerged(Class<A> annoClass) {
+            String duplicate = this.duplicates.get(annoClass);
+            if (duplicate != null) {
+                throw new BeanDefinitionException(duplicate);
+            }
+            return annoClass.cast(this.merged.get(annoClass));
+        }
+
+        /**
+         * 获取bean名称
+         *
+         * @return bean名称
+         */
+        String getBeanName() {
+            String name = this.beanName;
+            if (name == null) {
+                name = resolveBeanName(this.target);
+                this.beanName = name;
+            }
+            return name;
+        }
+    }
 }
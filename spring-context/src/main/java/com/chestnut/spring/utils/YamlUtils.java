@@ -50,6 +50,7 @@ public class YamlUtils {
 
     /**
      * 将源Map中的数据转换为扁平化的形式，存储到目标Map中
+     * 列表本身仍保存在原来的键下，其中的元素另按下标展开，例如"servers[0].host"，其他值均为字符串
      *
      * @param source    源Map
      * @param prefix    键的前缀
@@ -57,19 +58,31 @@ public class YamlUtils {
      */
     private static void convertTo(Map<String, Object> source, String prefix, Map<String, Object> plainData) {
         for (String key : source.keySet()) {
-            Object value = source.get(key);
-            if (value instanceof Map) {
-                // 递归调用convertTo方法处理嵌套的子Map
-                @SuppressWarnings("unckecked")
-                Map<String, Object> subMap = (Map<String, Object>) value;
-                convertTo(subMap, prefix + key + '.', plainData);
-            } else if (value instanceof List) {
-                // 对于List类型的值，直接存储到目标Map中
-                plainData.put(prefix + key, value);
-            } else {
-                // 将其他类型的值转换为字符串，并存储到目标Map中
-                plainData.put(prefix + key, value.toString());
+            convertValue(source.get(key), prefix + key, plainData);
+        }
+    }
+
+    /**
+     * 将一个值转换为扁平化的形式，存储到目标Map中
+     *
+     * @param value     值，可以是嵌套的Map或List
+     * @param key       完整的键
+     * @param plainData 目标Map，存储扁平化后的数据
+     */
+    @SuppressWarnings("unchecked")
+    private static void convertValue(Object value, String key, Map<String, Object> plainData) {
+        if (value instanceof Map) {
+            // 递归调用convertTo方法处理嵌套的子Map
+            convertTo((Map<String, Object>) value, key + '.', plainData);
+        } else if (value instanceof List<?> list) {
+            // 对于List类型的值，直接存储到目标Map中，并按下标展开每个元素
+            plainData.put(key, list);
+            for (int i = 0; i < list.size(); i++) {
+                convertValue(list.get(i), key + '[' + i + ']', plainData);
             }
+        } else {
+            // 将其他类型的值转换为字符串，并存储到目标Map中，空值存储为空字符串
+            plainData.put(key, value == null ? "" : value.toString());
         }
     }
 }
@@ -0,0 +1,20 @@
+package com.chestnut.asyncinit;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class CacheClient {
+
+    @Autowired
+    WarmCache cache;
+
+    public boolean cacheWarmedAtInit;
+
+    @PostConstruct
+    void init() {
+        this.cacheWarmedAtInit = this.cache.warmed;
+    }
+}
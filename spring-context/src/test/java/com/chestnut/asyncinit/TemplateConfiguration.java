@@ -0,0 +1,16 @@
+package com.chestnut.asyncinit;
+
+import com.chestnut.spring.annotation.AsyncInit;
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.Configuration;
+
+@Configuration
+public class TemplateConfiguration {
+
+    @AsyncInit
+    @Bean(initMethod = "compile")
+    TemplateRegistry templateRegistry(@Autowired WarmCache cache) {
+        return new TemplateRegistry(cache);
+    }
+}
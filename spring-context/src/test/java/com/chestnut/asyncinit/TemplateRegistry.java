@@ -0,0 +1,19 @@
+package com.chestnut.asyncinit;
+
+public class TemplateRegistry {
+
+    public final WarmCache cache;
+
+    public volatile boolean compiled;
+    public volatile boolean cacheWarmedAtCompile;
+
+    TemplateRegistry(WarmCache cache) {
+        this.cache = cache;
+    }
+
+    void compile() throws InterruptedException {
+        Thread.sleep(50);
+        this.cacheWarmedAtCompile = this.cache.warmed;
+        this.compiled = true;
+    }
+}
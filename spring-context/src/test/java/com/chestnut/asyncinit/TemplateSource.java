@@ -0,0 +1,17 @@
+package com.chestnut.asyncinit;
+
+import com.chestnut.spring.annotation.Component;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class TemplateSource {
+
+    public volatile boolean loaded;
+
+    @PostConstruct
+    void load() throws InterruptedException {
+        Thread.sleep(50);
+        this.loaded = true;
+    }
+}
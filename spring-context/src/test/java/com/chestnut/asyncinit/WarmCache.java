@@ -0,0 +1,27 @@
+package com.chestnut.asyncinit;
+
+import com.chestnut.spring.annotation.AsyncInit;
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+import jakarta.annotation.PostConstruct;
+
+@AsyncInit
+@Component
+public class WarmCache {
+
+    @Autowired
+    TemplateSource source;
+
+    public volatile boolean warmed;
+    public volatile boolean sourceLoadedAtWarm;
+    public volatile String initThread;
+
+    @PostConstruct
+    void warm() throws InterruptedException {
+        this.sourceLoadedAtWarm = this.source.loaded;
+        Thread.sleep(100);
+        this.initThread = Thread.currentThread().getName();
+        this.warmed = true;
+    }
+}
@@ -0,0 +1,18 @@
+package com.chestnut.filtered;
+
+import com.chestnut.spring.annotation.ComponentScan;
+import com.chestnut.spring.annotation.ComponentScan.Filter;
+import com.chestnut.spring.annotation.Configuration;
+import com.chestnut.spring.annotation.FilterType;
+
+@Configuration
+@ComponentScan(
+        includeFilters = {
+                @Filter(classes = Configuration.class),
+                @Filter(classes = Marker.class),
+                @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = FilteredService.class) },
+        excludeFilters = {
+                @Filter(type = FilterType.ANT, pattern = "com.chestnut.filtered.dto.**"),
+                @Filter(type = FilterType.REGEX, pattern = ".*\\.Legacy[A-Z]\\w*") })
+public class FilteredApplication {
+}
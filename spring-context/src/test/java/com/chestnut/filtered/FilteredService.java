@@ -0,0 +1,4 @@
+package com.chestnut.filtered;
+
+public interface FilteredService {
+}
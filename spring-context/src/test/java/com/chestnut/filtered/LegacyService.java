@@ -0,0 +1,14 @@
+package com.chestnut.filtered;
+
+import com.chestnut.spring.annotation.Component;
+
+@Component
+public class LegacyService implements FilteredService {
+
+    static {
+        // must never be loaded:
+        if (true) {
+            throw new IllegalStateException("LegacyService loaded");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.chestnut.filtered;
+
+import com.chestnut.spring.annotation.Component;
+
+@Marker
+@Component
+public class MarkedBean {
+}
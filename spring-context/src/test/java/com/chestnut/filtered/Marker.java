@@ -0,0 +1,8 @@
+package com.chestnut.filtered;
+
+import java.lang.annotation.*;
+
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Marker {
+}
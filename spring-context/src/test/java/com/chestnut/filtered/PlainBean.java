@@ -0,0 +1,7 @@
+package com.chestnut.filtered;
+
+import com.chestnut.spring.annotation.Component;
+
+@Component
+public class PlainBean {
+}
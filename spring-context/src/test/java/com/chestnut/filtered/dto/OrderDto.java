@@ -0,0 +1,17 @@
+package com.chestnut.filtered.dto;
+
+import com.chestnut.filtered.FilteredService;
+import com.chestnut.filtered.Marker;
+import com.chestnut.spring.annotation.Component;
+
+@Marker
+@Component
+public class OrderDto implements FilteredService {
+
+    static {
+        // must never be loaded:
+        if (true) {
+            throw new IllegalStateException("OrderDto loaded");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.chestnut.properties;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.ConfigurationProperties;
+
+@Component
+@ConfigurationProperties(prefix = "app")
+public record AppProperties(String name, Duration timeout, List<String> servers) {
+}
@@ -0,0 +1,24 @@
+package com.chestnut.properties;
+
+public class MailSettings {
+
+    private String host = "localhost";
+
+    private int port = 25;
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+}
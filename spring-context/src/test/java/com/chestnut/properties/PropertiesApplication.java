@@ -0,0 +1,17 @@
+package com.chestnut.properties;
+
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.ComponentScan;
+import com.chestnut.spring.annotation.ConfigurationProperties;
+import com.chestnut.spring.annotation.Configuration;
+
+@Configuration
+@ComponentScan
+public class PropertiesApplication {
+
+    @Bean
+    @ConfigurationProperties(prefix = "mail")
+    MailSettings mailSettings() {
+        return new MailSettings();
+    }
+}
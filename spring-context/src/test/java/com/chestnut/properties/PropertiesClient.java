@@ -0,0 +1,18 @@
+package com.chestnut.properties;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+@Component
+public class PropertiesClient {
+
+    final AppProperties properties;
+
+    public PropertiesClient(@Autowired AppProperties properties) {
+        this.properties = properties;
+    }
+
+    public AppProperties getProperties() {
+        return properties;
+    }
+}
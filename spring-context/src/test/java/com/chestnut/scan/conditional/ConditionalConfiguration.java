@@ -0,0 +1,37 @@
+package com.chestnut.scan.conditional;
+
+import java.time.Clock;
+
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.ConditionalOnClass;
+import com.chestnut.spring.annotation.ConditionalOnMissingBean;
+import com.chestnut.spring.annotation.ConditionalOnProperty;
+import com.chestnut.spring.annotation.Configuration;
+
+@Configuration
+public class ConditionalConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.feature", havingValue = "on")
+    FeatureService featureService() {
+        return new FeatureService();
+    }
+
+    @Bean
+    @ConditionalOnClass("com.example.MissingLibrary")
+    FeatureService missingLibraryService() {
+        return new FeatureService();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.greeter.custom", matchIfMissing = true)
+    Greeter customGreeter() {
+        return () -> "custom";
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    Clock fallbackClock() {
+        return Clock.systemUTC();
+    }
+}
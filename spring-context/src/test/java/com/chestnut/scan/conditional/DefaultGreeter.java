@@ -0,0 +1,14 @@
+package com.chestnut.scan.conditional;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.ConditionalOnMissingBean;
+
+@Component
+@ConditionalOnMissingBean(Greeter.class)
+public class DefaultGreeter implements Greeter {
+
+    @Override
+    public String greet() {
+        return "default";
+    }
+}
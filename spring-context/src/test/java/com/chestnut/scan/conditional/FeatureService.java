@@ -0,0 +1,4 @@
+package com.chestnut.scan.conditional;
+
+public class FeatureService {
+}
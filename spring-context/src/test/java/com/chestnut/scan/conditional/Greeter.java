@@ -0,0 +1,6 @@
+package com.chestnut.scan.conditional;
+
+public interface Greeter {
+
+    String greet();
+}
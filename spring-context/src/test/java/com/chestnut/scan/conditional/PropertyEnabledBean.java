@@ -0,0 +1,9 @@
+package com.chestnut.scan.conditional;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.ConditionalOnProperty;
+
+@Component
+@ConditionalOnProperty(name = "app.title")
+public class PropertyEnabledBean {
+}
@@ -0,0 +1,16 @@
+package com.chestnut.scan.conditional;
+
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.ConditionalOnClass;
+import com.chestnut.spring.annotation.Configuration;
+
+@Configuration
+@ConditionalOnClass("com.example.MissingLibrary")
+public class SkippedConfiguration {
+
+    // invalid @Bean method is never introspected:
+    @Bean
+    private FeatureService invalidService() {
+        return new FeatureService();
+    }
+}
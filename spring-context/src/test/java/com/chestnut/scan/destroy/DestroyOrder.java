@@ -0,0 +1,9 @@
+package com.chestnut.scan.destroy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class DestroyOrder {
+
+    public static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+}
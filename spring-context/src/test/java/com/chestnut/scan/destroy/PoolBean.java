@@ -0,0 +1,14 @@
+package com.chestnut.scan.destroy;
+
+import com.chestnut.spring.annotation.Component;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class PoolBean {
+
+    @PreDestroy
+    void destroy() {
+        DestroyOrder.DESTROYED.add("pool");
+    }
+}
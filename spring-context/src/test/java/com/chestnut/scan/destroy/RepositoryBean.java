@@ -0,0 +1,21 @@
+package com.chestnut.scan.destroy;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class RepositoryBean {
+
+    final PoolBean pool;
+
+    public RepositoryBean(@Autowired PoolBean pool) {
+        this.pool = pool;
+    }
+
+    @PreDestroy
+    void destroy() {
+        DestroyOrder.DESTROYED.add("repository");
+    }
+}
@@ -0,0 +1,21 @@
+package com.chestnut.scan.destroy;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class ServiceBean {
+
+    @Autowired
+    RepositoryBean repository;
+
+    @Autowired
+    PoolBean pool;
+
+    @PreDestroy
+    void destroy() {
+        DestroyOrder.DESTROYED.add("service");
+    }
+}
@@ -0,0 +1,13 @@
+package com.chestnut.scan.event;
+
+import com.chestnut.spring.context.event.ApplicationEvent;
+
+public class AuditEvent extends ApplicationEvent {
+
+    public final String action;
+
+    public AuditEvent(Object source, String action) {
+        super(source);
+        this.action = action;
+    }
+}
@@ -0,0 +1,59 @@
+package com.chestnut.scan.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.EventListener;
+import com.chestnut.spring.annotation.Order;
+import com.chestnut.spring.context.event.ApplicationEvent;
+import com.chestnut.spring.context.event.ContextClosedEvent;
+import com.chestnut.spring.context.event.ContextRefreshedEvent;
+
+@Component
+public class AuditListener {
+
+    public static final AtomicInteger CLOSED = new AtomicInteger();
+
+    public final List<String> events = new CopyOnWriteArrayList<>();
+
+    public final List<String> evictions = new CopyOnWriteArrayList<>();
+
+    public final CountDownLatch evicted = new CountDownLatch(2);
+
+    public volatile String evictThread;
+
+    @Order(2)
+    @EventListener
+    void onAnyEvent(ApplicationEvent event) {
+        events.add("any:" + event.getClass().getSimpleName());
+    }
+
+    @Order(1)
+    @EventListener
+    void onAudit(AuditEvent event) {
+        if ("fail".equals(event.action)) {
+            throw new IllegalStateException("audit failed");
+        }
+        events.add("audit:" + event.action);
+    }
+
+    @EventListener
+    void onRefreshed(ContextRefreshedEvent event) {
+        events.add("refreshed");
+    }
+
+    @EventListener
+    void onClosed(ContextClosedEvent event) {
+        CLOSED.incrementAndGet();
+    }
+
+    @EventListener(async = true)
+    void onCacheEvict(CacheEvictEvent event) {
+        evictThread = Thread.currentThread().getName();
+        evictions.add(event.key());
+        evicted.countDown();
+    }
+}
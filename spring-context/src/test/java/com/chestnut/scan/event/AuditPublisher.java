@@ -0,0 +1,16 @@
+package com.chestnut.scan.event;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.context.ApplicationContextUtils;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class AuditPublisher {
+
+    @PostConstruct
+    void init() {
+        // published before refresh completes:
+        ApplicationContextUtils.getRequiredApplicationContext().publishEvent(new AuditEvent(this, "init"));
+    }
+}
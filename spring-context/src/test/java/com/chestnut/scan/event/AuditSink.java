@@ -0,0 +1,8 @@
+package com.chestnut.scan.event;
+
+import java.util.List;
+
+public interface AuditSink {
+
+    List<String> received();
+}
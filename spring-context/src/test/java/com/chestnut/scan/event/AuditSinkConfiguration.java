@@ -0,0 +1,20 @@
+package com.chestnut.scan.event;
+
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.Configuration;
+import com.chestnut.spring.annotation.Lazy;
+
+@Configuration
+public class AuditSinkConfiguration {
+
+    @Bean
+    AuditSink auditSink() {
+        return new RecordingAuditSink();
+    }
+
+    @Bean
+    @Lazy
+    AuditSink lazyAuditSink() {
+        return new RecordingAuditSink();
+    }
+}
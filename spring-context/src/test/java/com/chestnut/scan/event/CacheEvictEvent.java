@@ -0,0 +1,4 @@
+package com.chestnut.scan.event;
+
+public record CacheEvictEvent(String key) {
+}
@@ -0,0 +1,22 @@
+package com.chestnut.scan.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.chestnut.spring.annotation.EventListener;
+
+public class RecordingAuditSink implements AuditSink {
+
+    final List<String> received = new CopyOnWriteArrayList<>();
+
+    @Override
+    public List<String> received() {
+        return received;
+    }
+
+    // declared on the implementation, not on the @Bean return type:
+    @EventListener
+    void onAudit(AuditEvent event) {
+        received.add(event.action);
+    }
+}
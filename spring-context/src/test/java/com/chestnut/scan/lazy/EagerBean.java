@@ -0,0 +1,14 @@
+package com.chestnut.scan.lazy;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+@Component
+public class EagerBean {
+
+    public final RequiredLazyBean required;
+
+    public EagerBean(@Autowired RequiredLazyBean required) {
+        this.required = required;
+    }
+}
@@ -0,0 +1,26 @@
+package com.chestnut.scan.lazy;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Lazy;
+import com.chestnut.spring.annotation.Value;
+
+import jakarta.annotation.PostConstruct;
+
+@Lazy
+@Component
+public class LazyBean {
+
+    @Autowired
+    public LazyPeerBean peer;
+
+    @Value("${app.title}")
+    String appTitle;
+
+    public String appName;
+
+    @PostConstruct
+    void init() {
+        this.appName = this.appTitle;
+    }
+}
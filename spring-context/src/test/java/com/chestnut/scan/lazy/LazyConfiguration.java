@@ -0,0 +1,16 @@
+package com.chestnut.scan.lazy;
+
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.Configuration;
+import com.chestnut.spring.annotation.Lazy;
+import com.chestnut.spring.annotation.Value;
+
+@Configuration
+public class LazyConfiguration {
+
+    @Bean
+    @Lazy
+    LazyReport lazyReport(@Value("${app.title}") String title) {
+        return new LazyReport(title);
+    }
+}
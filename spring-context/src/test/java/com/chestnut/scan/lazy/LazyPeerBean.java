@@ -0,0 +1,13 @@
+package com.chestnut.scan.lazy;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Lazy;
+
+@Lazy
+@Component
+public class LazyPeerBean {
+
+    @Autowired
+    public LazyBean lazyBean;
+}
@@ -0,0 +1,10 @@
+package com.chestnut.scan.lazy;
+
+public class LazyReport {
+
+    public final String title;
+
+    public LazyReport(String title) {
+        this.title = title;
+    }
+}
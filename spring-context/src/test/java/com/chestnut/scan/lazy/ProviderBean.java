@@ -0,0 +1,18 @@
+package com.chestnut.scan.lazy;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.context.ObjectProvider;
+
+@Component
+public class ProviderBean {
+
+    @Autowired
+    public ObjectProvider<LazyBean> lazyBeanProvider;
+
+    public final ObjectProvider<LazyReport> reportProvider;
+
+    public ProviderBean(@Autowired ObjectProvider<LazyReport> reportProvider) {
+        this.reportProvider = reportProvider;
+    }
+}
@@ -0,0 +1,10 @@
+package com.chestnut.scan.lazy;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Lazy;
+
+@Lazy
+@Component
+public class RequiredLazyBean {
+
+}
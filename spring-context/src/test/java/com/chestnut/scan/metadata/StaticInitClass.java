@@ -0,0 +1,10 @@
+package com.chestnut.scan.metadata;
+
+public class StaticInitClass {
+
+    public static final String PROPERTY = "chestnut.test.static-init";
+
+    static {
+        System.setProperty(PROPERTY, "initialized");
+    }
+}
@@ -0,0 +1,29 @@
+package com.chestnut.scan.prototype;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Pooled;
+
+import jakarta.annotation.PreDestroy;
+
+@Pooled(max = 2)
+@Component
+public class PooledParser {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    public static final AtomicInteger DESTROYED = new AtomicInteger();
+
+    public final AtomicBoolean inUse = new AtomicBoolean();
+
+    public PooledParser() {
+        CREATED.incrementAndGet();
+    }
+
+    @PreDestroy
+    void destroy() {
+        DESTROYED.incrementAndGet();
+    }
+}
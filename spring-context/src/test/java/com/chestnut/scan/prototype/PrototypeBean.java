@@ -0,0 +1,27 @@
+package com.chestnut.scan.prototype;
+
+import com.chestnut.scan.sub1.Sub1Bean;
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Scope;
+import com.chestnut.spring.annotation.Value;
+
+import jakarta.annotation.PostConstruct;
+
+@Scope(Scope.PROTOTYPE)
+@Component
+public class PrototypeBean {
+
+    @Autowired
+    public Sub1Bean singleton;
+
+    @Value("${app.title}")
+    String appTitle;
+
+    public String appName;
+
+    @PostConstruct
+    void init() {
+        this.appName = this.appTitle;
+    }
+}
@@ -0,0 +1,16 @@
+package com.chestnut.scan.prototype;
+
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.Configuration;
+import com.chestnut.spring.annotation.Scope;
+import com.chestnut.spring.annotation.Value;
+
+@Configuration
+public class PrototypeConfiguration {
+
+    @Bean
+    @Scope(Scope.PROTOTYPE)
+    PrototypeReport prototypeReport(@Value("${app.title}") String title) {
+        return new PrototypeReport(title);
+    }
+}
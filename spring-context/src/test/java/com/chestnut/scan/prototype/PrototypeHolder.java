@@ -0,0 +1,21 @@
+package com.chestnut.scan.prototype;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.context.ObjectProvider;
+
+@Component
+public class PrototypeHolder {
+
+    public final PrototypeBean first;
+
+    @Autowired
+    public PrototypeBean second;
+
+    @Autowired
+    public ObjectProvider<PooledParser> parsers;
+
+    public PrototypeHolder(@Autowired PrototypeBean first) {
+        this.first = first;
+    }
+}
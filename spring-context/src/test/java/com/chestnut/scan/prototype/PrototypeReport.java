@@ -0,0 +1,10 @@
+package com.chestnut.scan.prototype;
+
+public class PrototypeReport {
+
+    public final String title;
+
+    public PrototypeReport(String title) {
+        this.title = title;
+    }
+}
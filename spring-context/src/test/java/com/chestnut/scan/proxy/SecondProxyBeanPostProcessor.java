@@ -1,7 +1,7 @@
 package com.chestnut.scan.proxy;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +16,7 @@ public class SecondProxyBeanPostProcessor implements BeanPostProcessor {
 
     final Logger logger = LoggerFactory.getLogger(getClass());
 
-    Map<String, Object> originBeans = new HashMap<>();
+    Map<String, Object> originBeans = new ConcurrentHashMap<>();
 
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) {
@@ -0,0 +1,30 @@
+package com.chestnut.scan.scope;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DefaultScopedCounter implements ScopedCounter {
+
+    static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    public static final Set<Integer> CLOSED = ConcurrentHashMap.newKeySet();
+
+    final int id = SEQUENCE.incrementAndGet();
+
+    int count;
+
+    @Override
+    public int getId() {
+        return this.id;
+    }
+
+    @Override
+    public int increment() {
+        return ++this.count;
+    }
+
+    public void close() {
+        CLOSED.add(this.id);
+    }
+}
@@ -0,0 +1,21 @@
+package com.chestnut.scan.scope;
+
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.Configuration;
+import com.chestnut.spring.annotation.Scope;
+
+@Configuration
+public class ScopeConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @Scope(Scope.REQUEST)
+    ScopedCounter requestCounter() {
+        return new DefaultScopedCounter();
+    }
+
+    @Bean
+    @Scope(Scope.THREAD)
+    ScopedCounter threadCounter() {
+        return new DefaultScopedCounter();
+    }
+}
@@ -0,0 +1,17 @@
+package com.chestnut.scan.scope;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+
+@Component
+public class ScopeConsumer {
+
+    @Autowired(name = "requestCounter")
+    public ScopedCounter request;
+
+    public final ScopedCounter thread;
+
+    public ScopeConsumer(@Autowired(name = "threadCounter") ScopedCounter thread) {
+        this.thread = thread;
+    }
+}
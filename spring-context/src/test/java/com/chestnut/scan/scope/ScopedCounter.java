@@ -0,0 +1,8 @@
+package com.chestnut.scan.scope;
+
+public interface ScopedCounter {
+
+    int getId();
+
+    int increment();
+}
@@ -2,38 +2,80 @@ package com.chestnut.spring.context;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
+import com.chestnut.asyncinit.AsyncInitApplication;
+import com.chestnut.asyncinit.CacheClient;
+import com.chestnut.asyncinit.TemplateRegistry;
+import com.chestnut.asyncinit.WarmCache;
+import com.chestnut.filtered.FilteredApplication;
+import com.chestnut.filtered.FilteredService;
 import com.chestnut.imported.LocalDateConfiguration;
 import com.chestnut.imported.ZonedDateConfiguration;
+import com.chestnut.properties.AppProperties;
+import com.chestnut.properties.MailSettings;
+import com.chestnut.properties.PropertiesApplication;
+import com.chestnut.properties.PropertiesClient;
 import com.chestnut.scan.ScanApplication;
+import com.chestnut.scan.conditional.Greeter;
 import com.chestnut.scan.convert.ValueConverterBean;
 import com.chestnut.scan.custom.annotation.CustomAnnotationBean;
 import com.chestnut.scan.destroy.AnnotationDestroyBean;
+import com.chestnut.scan.destroy.DestroyOrder;
+import com.chestnut.scan.destroy.ServiceBean;
 import com.chestnut.scan.destroy.SpecifyDestroyBean;
+import com.chestnut.scan.event.AuditEvent;
+import com.chestnut.scan.event.AuditSink;
+import com.chestnut.scan.event.AuditListener;
+import com.chestnut.scan.event.CacheEvictEvent;
 import com.chestnut.scan.init.AnnotationInitBean;
 import com.chestnut.scan.init.SpecifyInitBean;
+import com.chestnut.scan.lazy.EagerBean;
+import com.chestnut.scan.lazy.LazyBean;
+import com.chestnut.scan.lazy.ProviderBean;
 import com.chestnut.scan.nested.OuterBean;
 import com.chestnut.scan.nested.OuterBean.NestedBean;
 import com.chestnut.scan.primary.DogBean;
 import com.chestnut.scan.primary.PersonBean;
 import com.chestnut.scan.primary.TeacherBean;
+import com.chestnut.scan.prototype.PooledParser;
+import com.chestnut.scan.prototype.PrototypeBean;
+import com.chestnut.scan.prototype.PrototypeHolder;
+import com.chestnut.scan.prototype.PrototypeReport;
+import com.chestnut.scan.proxy.FirstProxyBeanPostProcessor;
 import com.chestnut.scan.proxy.InjectProxyOnConstructorBean;
 import com.chestnut.scan.proxy.InjectProxyOnPropertyBean;
 import com.chestnut.scan.proxy.OriginBean;
 import com.chestnut.scan.proxy.SecondProxyBean;
+import com.chestnut.scan.scope.DefaultScopedCounter;
+import com.chestnut.scan.scope.ScopeConsumer;
+import com.chestnut.scan.scope.ScopedCounter;
 import com.chestnut.scan.sub1.Sub1Bean;
 import com.chestnut.scan.sub1.sub2.Sub2Bean;
 import com.chestnut.scan.sub1.sub2.sub3.Sub3Bean;
+import com.chestnut.spring.exception.BeanCreationException;
 import com.chestnut.spring.io.PropertyResolver;
+import com.chestnut.tenant.app.TenantApplication;
+import com.chestnut.tenant.app.TenantService;
+import com.chestnut.tenant.shared.SharedApplication;
+import com.chestnut.tenant.shared.SharedRepository;
 
 public class AnnotationConfigApplicationContextTest {
 
@@ -82,6 +124,19 @@ public class AnnotationConfigApplicationContextTest {
         assertNull(bean2.appTitle);
     }
 
+    @Test
+    public void testDestroyInReverseDependencyOrder() {
+        DestroyOrder.DESTROYED.clear();
+        var ps = createProperties();
+        ps.put("spring.context.shutdown.parallelism", "4");
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps))) {
+            assertNotNull(ctx.getBean(ServiceBean.class));
+            assertTrue(DestroyOrder.DESTROYED.isEmpty());
+        }
+        // service -> repository (field), service -> pool (field), repository -> pool (constructor):
+        assertEquals(List.of("service", "repository", "pool"), DestroyOrder.DESTROYED);
+    }
+
     @Test
     public void testConverter() {
         try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
@@ -171,7 +226,450 @@ public class AnnotationConfigApplicationContextTest {
         }
     }
 
+    @Test
+    public void testNonComponentNotLoaded() {
+        var ps = createProperties();
+        // force scanning class path instead of using component index:
+        ps.put("spring.context.component-index.enabled", "false");
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps))) {
+            assertNotNull(ctx.getBean(Sub3Bean.class));
+            assertNotNull(ctx.getBean(NestedBean.class));
+            assertNotNull(ctx.getBean(CustomAnnotationBean.class));
+            // class without @Component is never initialized:
+            assertNull(System.getProperty("chestnut.test.static-init"));
+        }
+    }
+
+    @Test
+    public void testParallelScan() {
+        var ps = createProperties();
+        ps.put("spring.context.component-index.enabled", "false");
+        ps.put("spring.context.scan.parallel", "true");
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps));
+                var expected = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            assertNotNull(ctx.getBean(Sub3Bean.class));
+            assertNotNull(ctx.getBean(NestedBean.class));
+            assertEquals("Scan App / v1.0", ctx.getBean(AnnotationInitBean.class).appName);
+            assertEquals(expected.findBeanDefinitions(Object.class).stream().map(BeanDefinition::getName).toList(),
+                    ctx.findBeanDefinitions(Object.class).stream().map(BeanDefinition::getName).toList());
+        }
+    }
+
+    @Test
+    public void testAsyncInit() {
+        for (String parallel : List.of("false", "true")) {
+            var ps = createProperties();
+            ps.put("spring.context.refresh.parallel", parallel);
+            try (var ctx = new AnnotationConfigApplicationContext(AsyncInitApplication.class, new PropertyResolver(ps))) {
+                assertTrue(ctx.awaitReady(5, TimeUnit.SECONDS));
+                WarmCache cache = ctx.getBean(WarmCache.class);
+                assertTrue(cache.warmed);
+                assertTrue(cache.initThread.startsWith("bean-async-init-"));
+                // async init starts after the init of its non-async dependencies:
+                assertTrue(cache.sourceLoadedAtWarm);
+                // dependents wait for the async init before their own init:
+                assertTrue(ctx.getBean(CacheClient.class).cacheWarmedAtInit);
+                TemplateRegistry registry = ctx.getBean(TemplateRegistry.class);
+                assertTrue(registry.compiled);
+                assertTrue(registry.cacheWarmedAtCompile);
+                assertTrue(ctx.findBeanDefinition("templateRegistry").isAsyncInit());
+            }
+        }
+        // no @AsyncInit beans, ready immediately:
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            assertTrue(ctx.awaitReady(0, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void testChildContexts() {
+        var parent = new AnnotationConfigApplicationContext(SharedApplication.class, createPropertyResolver());
+        SharedRepository repository = parent.getBean(SharedRepository.class);
+        var psA = createProperties();
+        psA.put("tenant.name", "a");
+        var psB = createProperties();
+        psB.put("tenant.name", "b");
+        var a = new AnnotationConfigApplicationContext(parent, TenantApplication.class, new PropertyResolver(psA));
+        var b = new AnnotationConfigApplicationContext(parent, TenantApplication.class, new PropertyResolver(psB));
+        assertSame(parent, a.getParent());
+        assertNull(parent.getParent());
+
+        // unmet dependencies are resolved from the parent:
+        TenantService serviceA = a.getBean(TenantService.class);
+        TenantService serviceB = b.getBean(TenantService.class);
+        assertNotSame(serviceA, serviceB);
+        assertEquals("a", serviceA.tenant);
+        assertEquals("b", serviceB.tenant);
+        assertSame(repository, serviceA.repository);
+        assertSame(repository, serviceB.repository);
+        assertSame(repository, a.getBean("sharedRepository"));
+        assertTrue(a.containsBean("sharedRepository"));
+        assertFalse(parent.containsBean("tenantService"));
+        // beans of the parent satisfy @ConditionalOnMissingBean:
+        assertTrue(a.getSkippedBeans().containsKey("fallbackRepository"));
+        // lookups of all beans by type stay local:
+        assertTrue(a.getBeans(SharedRepository.class).isEmpty());
+
+        // each child is bound while creating its beans, the root stays the default context:
+        assertSame(a, serviceA.initContext);
+        assertSame(b, serviceB.initContext);
+        assertSame(parent, ApplicationContextUtils.getApplicationContext());
+
+        // closing a child only destroys its own beans:
+        a.close();
+        assertTrue(serviceA.destroyed);
+        assertFalse(serviceB.destroyed);
+        assertFalse(repository.destroyed);
+        assertSame(parent, ApplicationContextUtils.getApplicationContext());
+        assertSame(repository, b.getBean(SharedRepository.class));
+        b.close();
+
+        parent.close();
+        assertTrue(repository.destroyed);
+        assertNull(ApplicationContextUtils.getApplicationContext());
+        // closing again does nothing:
+        repository.destroyed = false;
+        parent.close();
+        assertFalse(repository.destroyed);
+        assertThrows(IllegalArgumentException.class, () -> new AnnotationConfigApplicationContext(parent, TenantApplication.class, new PropertyResolver(psA)));
+    }
+
+    @Test
+    public void testConfigurationProperties() {
+        var ps = createProperties();
+        ps.put("app.name", "orders");
+        ps.put("app.timeout", "30s");
+        ps.put("app.servers[0]", "10.0.0.1");
+        ps.put("app.servers[1]", "10.0.0.2");
+        ps.put("mail.host", "smtp.example.com");
+        try (var ctx = new AnnotationConfigApplicationContext(PropertiesApplication.class, new PropertyResolver(ps))) {
+            AppProperties app = ctx.getBean(AppProperties.class);
+            assertEquals(new AppProperties("orders", Duration.ofSeconds(30), List.of("10.0.0.1", "10.0.0.2")), app);
+            assertSame(app, ctx.getBean(PropertiesClient.class).getProperties());
+            MailSettings mail = ctx.getBean(MailSettings.class);
+            assertEquals("smtp.example.com", mail.getHost());
+            assertEquals(25, mail.getPort());
+        }
+        // all binding errors are reported together:
+        ps.put("app.timeout", "soon");
+        ps.put("app.servers", "");
+        ps.put("app.name", "${app.missing}");
+        BeanCreationException e = assertThrows(BeanCreationException.class, () -> new AnnotationConfigApplicationContext(PropertiesApplication.class, new PropertyResolver(ps)));
+        assertTrue(e.getMessage().contains("app.timeout"), e.getMessage());
+        assertTrue(e.getMessage().contains("app.name"), e.getMessage());
+    }
+
+    @Test
+    public void testComponentScanFilters() {
+        for (String parallel : List.of("false", "true")) {
+            var ps = createProperties();
+            ps.put("spring.context.scan.parallel", parallel);
+            try (var ctx = new AnnotationConfigApplicationContext(FilteredApplication.class, new PropertyResolver(ps))) {
+                // included by annotation, meta-annotation and assignable type:
+                assertTrue(ctx.containsBean("filteredApplication"));
+                assertTrue(ctx.containsBean("markedBean"));
+                assertTrue(ctx.containsBean("orderService"));
+                // not matching any include filter:
+                assertFalse(ctx.containsBean("plainBean"));
+                // excluded by name, never loaded:
+                assertFalse(ctx.containsBean("legacyService"));
+                assertFalse(ctx.containsBean("orderDto"));
+                assertEquals(1, ctx.getBeans(FilteredService.class).size());
+            }
+        }
+    }
+
+    @Test
+    public void testParallelRefresh() {
+        var ps = createProperties();
+        ps.put("spring.context.refresh.parallel", "true");
+        ps.put("spring.context.refresh.parallelism", "4");
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps))) {
+            // init methods are called:
+            assertEquals("Scan App / v1.0", ctx.getBean(AnnotationInitBean.class).appName);
+            assertEquals("Scan App / v1.0", ctx.getBean(SpecifyInitBean.class).appName);
+            // primary:
+            assertEquals(TeacherBean.class, ctx.getBean(PersonBean.class).getClass());
+            // proxy is injected in both constructor and property:
+            OriginBean proxy = ctx.getBean(OriginBean.class);
+            assertSame(SecondProxyBean.class, proxy.getClass());
+            assertEquals("Scan App", proxy.getName());
+            assertSame(proxy, ctx.getBean(InjectProxyOnPropertyBean.class).injected);
+            assertSame(proxy, ctx.getBean(InjectProxyOnConstructorBean.class).injected);
+        }
+    }
+
+    @Test
+    public void testStartupTimeline() throws Exception {
+        Path file = Files.createTempFile("startup-timeline", ".json");
+        var ps = createProperties();
+        ps.put("spring.context.startup.timeline-file", file.toString());
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps))) {
+            StartupTimeline timeline = ctx.getStartupTimeline();
+            assertEquals(List.of("scan", "definition", "configuration-properties", "configuration-beans", "post-processors", "normal-beans", "injection", "init", "event-listeners"),
+                    timeline.getPhases().stream().map(StartupTimeline.Phase::name).toList());
+            // only singletons are recorded:
+            ctx.getBeans(Object.class);
+            assertEquals(ctx.findBeanDefinitions(Object.class).stream().filter(BeanDefinition::isSingleton).count(), timeline.getBeans().size());
+            // originBean is created while constructing injectProxyOnConstructorBean:
+            StartupTimeline.BeanStartup origin = timeline.getBean("originBean");
+            assertEquals(List.of("injectProxyOnConstructorBean"), origin.getDependencyChain());
+            assertTrue(origin.getPostProcessorNanos().containsKey(FirstProxyBeanPostProcessor.class.getName()));
+            assertTrue(timeline.getBean("injectProxyOnConstructorBean").getDependencies().contains("originBean"));
+            // critical path follows dependencies:
+            List<StartupTimeline.BeanStartup> path = timeline.getCriticalPath();
+            assertFalse(path.isEmpty());
+            for (int i = 1; i < path.size(); i++) {
+                assertTrue(path.get(i).getDependencies().contains(path.get(i - 1).getName()));
+            }
+            String json = Files.readString(file);
+            assertTrue(json.contains("\"criticalPath\""));
+            assertTrue(json.contains("\"requiredBy\": [\"injectProxyOnConstructorBean\"]"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLazy() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            // lazy beans are not created on startup:
+            assertNull(ctx.findBeanDefinition("lazyBean").getInstance());
+            assertNull(ctx.findBeanDefinition("lazyPeerBean").getInstance());
+            assertNull(ctx.findBeanDefinition("lazyReport").getInstance());
+            assertNull(ctx.getStartupTimeline().getBean("lazyBean"));
+            // lazy bean required by an eager bean is created on startup:
+            assertNotNull(ctx.getBean(EagerBean.class).required);
+            // providers are injected without creating the target:
+            ProviderBean providerBean = ctx.getBean(ProviderBean.class);
+            assertNotNull(providerBean.lazyBeanProvider);
+            assertNotNull(providerBean.reportProvider);
+            assertNull(ctx.findBeanDefinition("lazyBean").getInstance());
+
+            // concurrent first access creates one fully initialized instance:
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<LazyBean>> futures = executor.invokeAll(Collections.nCopies(8, () -> ctx.getBean(LazyBean.class)));
+                LazyBean lazyBean = futures.get(0).get();
+                for (Future<LazyBean> future : futures) {
+                    LazyBean bean = future.get();
+                    assertSame(lazyBean, bean);
+                    assertEquals("Scan App", bean.appName);
+                }
+                // circular field injection between lazy beans:
+                assertSame(lazyBean, lazyBean.peer.lazyBean);
+                assertSame(lazyBean, providerBean.lazyBeanProvider.getObject());
+            } finally {
+                executor.shutdownNow();
+            }
+            assertEquals("Scan App", providerBean.reportProvider.getIfAvailable().title);
+            assertNull(ctx.getBeanProvider(Runnable.class).getIfAvailable());
+            assertEquals(List.of(), ctx.getBeanProvider(Runnable.class).getObjects());
+        }
+    }
+
+    @Test
+    public void testPrototype() throws Exception {
+        int created = PooledParser.CREATED.get();
+        int destroyed = PooledParser.DESTROYED.get();
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            // prototype instances are never cached and keep creation metadata:
+            assertNull(ctx.findBeanDefinition("prototypeBean").getInstance());
+            assertNotNull(ctx.findBeanDefinition("prototypeBean").getConstructor());
+            PrototypeBean bean = ctx.getBean(PrototypeBean.class);
+            assertNotSame(bean, ctx.getBean(PrototypeBean.class));
+            assertEquals("Scan App", bean.appName);
+            assertNotNull(bean.singleton);
+            assertNotSame(ctx.getBean("prototypeReport", PrototypeReport.class), ctx.getBean("prototypeReport", PrototypeReport.class));
+            assertEquals("Scan App", ctx.getBean("prototypeReport", PrototypeReport.class).title);
+            // each injection point gets its own instance, injected and initialized on startup:
+            PrototypeHolder holder = ctx.getBean(PrototypeHolder.class);
+            assertNotSame(holder.first, holder.second);
+            assertEquals("Scan App", holder.first.appName);
+            assertSame(ctx.getBean(Sub1Bean.class), holder.first.singleton);
+
+            // pooled instances are reused after release, extra instances are destroyed:
+            assertEquals(created, PooledParser.CREATED.get());
+            PooledParser p1 = holder.parsers.getObject();
+            PooledParser p2 = holder.parsers.getObject();
+            PooledParser p3 = holder.parsers.getObject();
+            assertEquals(created + 3, PooledParser.CREATED.get());
+            holder.parsers.release(p1);
+            holder.parsers.release(p2);
+            holder.parsers.release(p3);
+            assertEquals(destroyed + 1, PooledParser.DESTROYED.get());
+            PooledParser idle = holder.parsers.getObject();
+            assertTrue(idle == p1 || idle == p2);
+            assertEquals(created + 3, PooledParser.CREATED.get());
+
+            // concurrent borrowers never share an instance:
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<Object>> futures = executor.invokeAll(Collections.nCopies(8, () -> {
+                    for (int i = 0; i < 1000; i++) {
+                        PooledParser parser = holder.parsers.getObject();
+                        assertTrue(parser.inUse.compareAndSet(false, true));
+                        parser.inUse.set(false);
+                        holder.parsers.release(parser);
+                    }
+                    return null;
+                }));
+                for (Future<Object> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        // idle instances are destroyed on close, the borrowed one is not:
+        assertEquals(PooledParser.CREATED.get() - created - 1, PooledParser.DESTROYED.get() - destroyed);
+    }
+
+    @Test
+    public void testRequestAndThreadScope() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            ScopeConsumer consumer = ctx.getBean(ScopeConsumer.class);
+            // singletons get scoped proxies, no instance is created outside a request:
+            assertSame(consumer.request, ctx.getBean("requestCounter"));
+            assertThrows(BeanCreationException.class, () -> consumer.request.getId());
+            assertEquals("ScopedProxy[requestCounter]", consumer.request.toString());
+
+            int first;
+            try (ScopedInstances scope = ctx.openRequestScope()) {
+                first = consumer.request.getId();
+                assertEquals(1, consumer.request.increment());
+                assertEquals(2, ctx.getBean("requestCounter", ScopedCounter.class).increment());
+                assertFalse(DefaultScopedCounter.CLOSED.contains(first));
+                // nested request restores the outer one on close:
+                try (ScopedInstances nested = ctx.openRequestScope()) {
+                    assertNotEquals(first, consumer.request.getId());
+                }
+                assertEquals(first, consumer.request.getId());
+            }
+            // destroy method is called when the request ends:
+            assertTrue(DefaultScopedCounter.CLOSED.contains(first));
+            try (ScopedInstances scope = ctx.openRequestScope()) {
+                assertNotEquals(first, consumer.request.getId());
+                assertEquals(1, consumer.request.increment());
+            }
+            assertThrows(BeanCreationException.class, () -> consumer.request.getId());
+
+            // one instance per thread:
+            int current = consumer.thread.getId();
+            assertEquals(current, consumer.thread.getId());
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                int other = executor.submit(() -> consumer.thread.getId()).get();
+                assertNotEquals(current, other);
+                assertEquals(other, executor.submit(() -> consumer.thread.getId()).get());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        int closed = AuditListener.CLOSED.get();
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            AuditListener listener = ctx.getBean(AuditListener.class);
+            // event published during refresh is delivered before the refreshed event:
+            assertEquals(List.of("audit:init", "any:AuditEvent", "any:ContextRefreshedEvent", "refreshed"), listener.events);
+
+            listener.events.clear();
+            ctx.publishEvent(new AuditEvent(this, "login"));
+            assertEquals(List.of("audit:login", "any:AuditEvent"), listener.events);
+            // sync listener exception reaches the publisher:
+            assertThrows(IllegalStateException.class, () -> ctx.publishEvent(new AuditEvent(this, "fail")));
+            // payload events without listeners are ignored:
+            ctx.publishEvent("no listener");
+
+            // async listeners run on the event thread:
+            ctx.publishEvent(new CacheEvictEvent("user:1"));
+            ctx.publishEvent(new CacheEvictEvent("user:2"));
+            assertTrue(listener.evicted.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("user:1", "user:2"), listener.evictions);
+            assertEquals("event-multicaster", listener.evictThread);
+            assertEquals(closed, AuditListener.CLOSED.get());
+        }
+        assertEquals(closed + 1, AuditListener.CLOSED.get());
+    }
+
+    @Test
+    public void testEventListenerOnBeanImplementation() {
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            // @Bean method returns the interface, the listener is declared on the implementation:
+            AuditSink sink = ctx.getBean("auditSink");
+            assertEquals(List.of("init"), sink.received());
+            ctx.publishEvent(new AuditEvent(this, "login"));
+            assertEquals(List.of("init", "login"), sink.received());
+
+            // lazy bean is registered when created:
+            assertNull(ctx.findBeanDefinition("lazyAuditSink").getInstance());
+            AuditSink lazySink = ctx.getBean("lazyAuditSink");
+            assertEquals(List.of(), lazySink.received());
+            ctx.publishEvent(new AuditEvent(this, "logout"));
+            assertEquals(List.of("logout"), lazySink.received());
+            assertEquals(List.of("init", "login", "logout"), sink.received());
+        }
+    }
+
+    @Test
+    public void testConditional() {
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            SortedMap<String, String> skipped = ctx.getSkippedBeans();
+            // property condition:
+            assertFalse(ctx.containsBean("featureService"));
+            assertEquals("@ConditionalOnProperty app.feature is missing", skipped.get("featureService"));
+            assertTrue(ctx.containsBean("propertyEnabledBean"));
+            // class condition on @Bean method and on configuration:
+            assertFalse(ctx.containsBean("missingLibraryService"));
+            assertEquals("@ConditionalOnClass com.example.MissingLibrary not found", skipped.get("missingLibraryService"));
+            assertFalse(ctx.containsBean("skippedConfiguration"));
+            assertTrue(skipped.containsKey("skippedConfiguration"));
+            // missing bean condition:
+            assertEquals("custom", ctx.getBean(Greeter.class).greet());
+            assertFalse(ctx.containsBean("defaultGreeter"));
+            assertTrue(skipped.get("defaultGreeter").contains("'customGreeter'"));
+            assertTrue(ctx.containsBean("fallbackClock"));
+        }
+        var ps = createProperties();
+        ps.put("app.feature", "ON");
+        ps.put("app.greeter.custom", "false");
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps))) {
+            assertTrue(ctx.containsBean("featureService"));
+            assertEquals("default", ctx.getBean(Greeter.class).greet());
+            assertEquals("@ConditionalOnProperty app.greeter.custom = 'false', expected 'not false'", ctx.getSkippedBeans().get("customGreeter"));
+        }
+    }
+
+    @Test
+    public void testFreeze() {
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            ContextFootprint footprint = ctx.getFootprint();
+            assertEquals(ctx.findBeanDefinitions(Object.class).size(), footprint.beanCount());
+            assertEquals(4, footprint.lazyBeanCount());
+            assertTrue(footprint.typeIndexEntries() >= footprint.beanCount());
+            assertTrue(footprint.releasedHandles() >= footprint.beanCount() - footprint.lazyBeanCount());
+            assertTrue(footprint.retainedBytes() > 0);
+            // definitions are immutable after refresh:
+            assertThrows(UnsupportedOperationException.class, () -> ctx.beans.remove("lazyBean"));
+            // creation metadata is released, except for lazy beans not yet created:
+            assertNull(ctx.findBeanDefinition("annotationInitBean").getConstructor());
+            assertNull(ctx.findBeanDefinition("createSpecifyInitBean").getFactoryMethod());
+            assertNotNull(ctx.findBeanDefinition("lazyBean").getConstructor());
+            assertEquals("Scan App", ctx.getBean(LazyBean.class).appName);
+            assertNull(ctx.findBeanDefinition("lazyBean").getConstructor());
+            // destroy methods are kept:
+            assertNotNull(ctx.findBeanDefinition("annotationDestroyBean").getDestroyMethod());
+        }
+    }
+
     PropertyResolver createPropertyResolver() {
+        return new PropertyResolver(createProperties());
+    }
+
+    Properties createProperties() {
         var ps = new Properties();
         ps.put("app.title", "Scan App");
         ps.put("app.version", "v1.0");
@@ -191,7 +689,6 @@ public class AnnotationConfigApplicationContextTest {
         ps.put("convert.zoneddatetime", "2023-03-29T20:45:01+08:00[Asia/Shanghai]");
         ps.put("convert.duration", "P2DT3H4M");
         ps.put("convert.zoneid", "Asia/Shanghai");
-        var pr = new PropertyResolver(ps);
-        return pr;
+        return ps;
     }
 }
@@ -0,0 +1,66 @@
+package com.chestnut.spring.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class BeanDependencyGraphTest {
+
+    @Test
+    public void levels() {
+        var a = define("a");
+        var b = define("b");
+        var c = define("c");
+        var d = define("d");
+        var graph = new BeanDependencyGraph(List.of(d, c, b, a));
+        // a -> b -> d, c -> d:
+        graph.addDependency(a, b);
+        graph.addDependency(b, d);
+        graph.addDependency(c, d);
+        assertTrue(graph.findCycle().isEmpty());
+        assertEquals(List.of(
+                List.of(List.of(d)),
+                List.of(List.of(b), List.of(c)),
+                List.of(List.of(a))), graph.getLevels());
+    }
+
+    @Test
+    public void ignoreDependencyOutsideGraph() {
+        var a = define("a");
+        var created = define("created");
+        var graph = new BeanDependencyGraph(List.of(a));
+        graph.addDependency(a, created);
+        assertEquals(List.of(List.of(List.of(a))), graph.getLevels());
+    }
+
+    @Test
+    public void cycle() {
+        var a = define("a");
+        var b = define("b");
+        var c = define("c");
+        var graph = new BeanDependencyGraph(List.of(a, b, c));
+        // a <-> b, c -> a:
+        graph.addDependency(a, b);
+        graph.addDependency(b, a);
+        graph.addDependency(c, a);
+        assertEquals(List.of(a, b), graph.findCycle());
+        // cycle is grouped into one level:
+        assertEquals(List.of(
+                List.of(List.of(a, b)),
+                List.of(List.of(c))), graph.getLevels());
+    }
+
+    @Test
+    public void selfCycle() {
+        var a = define("a");
+        var graph = new BeanDependencyGraph(List.of(a));
+        graph.addDependency(a, a);
+        assertEquals(List.of(a), graph.findCycle());
+    }
+
+    static BeanDefinition define(String name) {
+        return BeanTypeIndexTest.define(name, Object.class, 0, false);
+    }
+}
@@ -0,0 +1,79 @@
+package com.chestnut.spring.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.annotation.Scope;
+import com.chestnut.spring.exception.NoUniqueBeanDefinitionException;
+
+public class BeanTypeIndexTest {
+
+    interface Animal {
+    }
+
+    interface Pet extends Animal {
+    }
+
+    static class Dog implements Pet {
+    }
+
+    static class Cat implements Pet, Serializable {
+    }
+
+    static class Bird implements Animal {
+    }
+
+    @Test
+    public void lookupBySuperTypes() {
+        var dog = define("dog", Dog.class, 1, false);
+        var cat = define("cat", Cat.class, 0, false);
+        var bird = define("bird", Bird.class, 2, false);
+        var index = new BeanTypeIndex(List.of(dog, bird, cat));
+        // sorted by order:
+        assertEquals(List.of(cat, dog, bird), index.getDefinitions(Animal.class));
+        assertEquals(List.of(cat, dog), index.getDefinitions(Pet.class));
+        assertEquals(List.of(cat, dog, bird), index.getDefinitions(Object.class));
+        assertEquals(List.of(cat), index.getDefinitions(Serializable.class));
+        assertEquals(List.of(), index.getDefinitions(String.class));
+        assertThrows(UnsupportedOperationException.class, () -> index.getDefinitions(Pet.class).clear());
+        // unique resolution:
+        assertSame(bird, index.getUniqueDefinition(Bird.class));
+        assertNull(index.getUniqueDefinition(String.class));
+        assertThrows(NoUniqueBeanDefinitionException.class, () -> index.getUniqueDefinition(Pet.class));
+    }
+
+    @Test
+    public void lookupPrimary() {
+        var dog = define("dog", Dog.class, 0, true);
+        var cat = define("cat", Cat.class, 0, false);
+        var index = new BeanTypeIndex(List.of(dog, cat));
+        assertSame(dog, index.getUniqueDefinition(Pet.class));
+        assertSame(dog, index.getUniqueDefinition(Animal.class));
+
+        var primaryCat = define("cat", Cat.class, 0, true);
+        var ambiguous = new BeanTypeIndex(List.of(dog, primaryCat));
+        assertThrows(NoUniqueBeanDefinitionException.class, () -> ambiguous.getUniqueDefinition(Pet.class));
+    }
+
+    @Test
+    public void lookupArray() {
+        var names = define("names", String[].class, 0, false);
+        var index = new BeanTypeIndex(List.of(names));
+        assertEquals(List.of(names), index.getDefinitions(String[].class));
+        assertEquals(List.of(names), index.getDefinitions(Object[].class));
+        assertEquals(List.of(names), index.getDefinitions(Object.class));
+        assertEquals(List.of(), index.getDefinitions(Integer[].class));
+    }
+
+    static BeanDefinition define(String name, Class<?> beanClass, int order, boolean primary) {
+        try {
+            return new BeanDefinition(name, beanClass, Object.class.getConstructor(), order, primary, false, false, Scope.SINGLETON, 0, null, null, null, null);
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
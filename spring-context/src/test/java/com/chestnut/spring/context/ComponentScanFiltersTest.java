@@ -0,0 +1,49 @@
+package com.chestnut.spring.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.annotation.FilterType;
+
+public class ComponentScanFiltersTest {
+
+    @Test
+    public void antPattern() {
+        var pattern = ComponentScanFilters.toPattern("com.example.**.dto.*Dto");
+        assertTrue(pattern.matcher("com.example.dto.OrderDto").matches());
+        assertTrue(pattern.matcher("com.example.a.b.dto.OrderDto").matches());
+        assertFalse(pattern.matcher("com.example.dto.sub.OrderDto").matches());
+        assertFalse(pattern.matcher("com.example.dto.OrderService").matches());
+        assertTrue(ComponentScanFilters.toPattern("com.example.Order?").matcher("com.example.Order1").matches());
+        assertFalse(ComponentScanFilters.toPattern("com.example.*").matcher("com.example.sub.Order").matches());
+        assertTrue(ComponentScanFilters.toPattern("com.example.*").matcher("com.example.Outer$Inner").matches());
+    }
+
+    @Test
+    public void excludedPackage() {
+        var filters = new ComponentScanFilters(List.of(), List.of(new ComponentScanFilters.Rule(FilterType.ANT, List.of("com.example.**.generated.**"))));
+        assertTrue(filters.isExcludedPackage("com.example.generated"));
+        assertTrue(filters.isExcludedPackage("com.example.api.generated"));
+        assertFalse(filters.isExcludedPackage("com.example.api"));
+        assertFalse(filters.acceptName("com.example.api.generated.OrderDto"));
+        assertTrue(filters.acceptName("com.example.api.OrderService"));
+    }
+
+    @Test
+    public void includeByNameOrType() {
+        var filters = new ComponentScanFilters(List.of(
+                new ComponentScanFilters.Rule(FilterType.REGEX, List.of(".*Service")),
+                new ComponentScanFilters.Rule(FilterType.ANNOTATION, List.of("com.example.Marker"))), List.of());
+        // type-based include cannot be decided by name:
+        assertTrue(filters.acceptName("com.example.OrderDto"));
+        assertTrue(filters.accept("com.example.OrderService", a -> false, t -> false));
+        assertTrue(filters.accept("com.example.OrderDto", "com.example.Marker"::equals, t -> false));
+        assertFalse(filters.accept("com.example.OrderDto", a -> false, t -> false));
+
+        var nameOnly = new ComponentScanFilters(List.of(new ComponentScanFilters.Rule(FilterType.REGEX, List.of(".*Service"))), List.of());
+        assertFalse(nameOnly.acceptName("com.example.OrderDto"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.chestnut.spring.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Value;
+import com.chestnut.spring.exception.BeanDefinitionException;
+
+public class InjectionPlanTest {
+
+    static class BaseBean {
+        @Value("${app.title}")
+        private String title;
+    }
+
+    static class ChildBean extends BaseBean {
+        @Autowired
+        private Object dependency;
+
+        int port;
+
+        String ignored;
+
+        @Value("${app.port}")
+        void setPort(int port) {
+            this.port = port;
+        }
+    }
+
+    static class StaticFieldBean {
+        @Autowired
+        static Object dependency;
+    }
+
+    @Test
+    public void buildAndInject() {
+        var def = BeanTypeIndexTest.define("childBean", ChildBean.class, 0, false);
+        var plan = InjectionPlan.build(def, ChildBean.class);
+        // child class first, fields before methods:
+        List<String> names = plan.getPoints().stream().map(InjectionPlan.InjectionPoint::name).toList();
+        assertEquals(List.of("dependency", "setPort", "title"), names);
+        var dependency = plan.getPoints().get(0);
+        assertTrue(dependency.isField());
+        assertNotNull(dependency.autowired());
+        assertSame(ChildBean.class, dependency.declaringClass());
+        var setPort = plan.getPoints().get(1);
+        assertFalse(setPort.isField());
+        assertSame(int.class, setPort.type());
+
+        var bean = new ChildBean();
+        var injected = new Object();
+        dependency.inject(bean, injected);
+        setPort.inject(bean, 8080);
+        plan.getPoints().get(2).inject(bean, "Scan App");
+        assertSame(injected, bean.dependency);
+        assertEquals(8080, bean.port);
+        assertEquals("Scan App", ((BaseBean) bean).title);
+    }
+
+    @Test
+    public void rejectStaticField() {
+        var def = BeanTypeIndexTest.define("staticFieldBean", StaticFieldBean.class, 0, false);
+        assertThrows(BeanDefinitionException.class, () -> InjectionPlan.build(def, StaticFieldBean.class));
+    }
+}
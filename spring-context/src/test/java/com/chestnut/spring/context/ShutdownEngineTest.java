@@ -0,0 +1,100 @@
+package com.chestnut.spring.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.context.ShutdownEngine.ShutdownStatus;
+
+public class ShutdownEngineTest {
+
+    @Test
+    public void reverseDependencyOrder() {
+        var a = BeanDependencyGraphTest.define("a");
+        var b = BeanDependencyGraphTest.define("b");
+        var c = BeanDependencyGraphTest.define("c");
+        var graph = new BeanDependencyGraph(List.of(a, b, c));
+        // a -> b -> c:
+        graph.addDependency(a, b);
+        graph.addDependency(b, c);
+        List<String> destroyed = new CopyOnWriteArrayList<>();
+        var report = new ShutdownEngine(4, 5, 10, TimeUnit.SECONDS).shutdown(graph.getLevels(), def -> destroyed.add(def.getName()));
+        assertEquals(List.of("a", "b", "c"), destroyed);
+        assertEquals(List.of("a", "b", "c"), report.getNames(ShutdownStatus.DESTROYED));
+    }
+
+    @Test
+    public void parallelInLevel() {
+        var a = BeanDependencyGraphTest.define("a");
+        var b = BeanDependencyGraphTest.define("b");
+        var graph = new BeanDependencyGraph(List.of(a, b));
+        // a and b are independent, each waits for the other:
+        CountDownLatch latch = new CountDownLatch(2);
+        var report = new ShutdownEngine(2, 5, 10, TimeUnit.SECONDS).shutdown(graph.getLevels(), def -> {
+            latch.countDown();
+            await(latch);
+        });
+        assertEquals(List.of("a", "b"), report.getNames(ShutdownStatus.DESTROYED));
+    }
+
+    @Test
+    public void failureDoesNotStopShutdown() {
+        var a = BeanDependencyGraphTest.define("a");
+        var b = BeanDependencyGraphTest.define("b");
+        var graph = new BeanDependencyGraph(List.of(a, b));
+        graph.addDependency(a, b);
+        var report = new ShutdownEngine(1, 5, 10, TimeUnit.SECONDS).shutdown(graph.getLevels(), def -> {
+            if (def == a) {
+                throw new IllegalStateException("failed");
+            }
+        });
+        assertEquals(List.of("a"), report.getNames(ShutdownStatus.FAILED));
+        assertEquals(List.of("b"), report.getNames(ShutdownStatus.DESTROYED));
+    }
+
+    @Test
+    public void beanTimeout() {
+        var a = BeanDependencyGraphTest.define("a");
+        var b = BeanDependencyGraphTest.define("b");
+        var c = BeanDependencyGraphTest.define("c");
+        var graph = new BeanDependencyGraph(List.of(a, b, c));
+        graph.addDependency(a, c);
+        graph.addDependency(b, c);
+        CountDownLatch never = new CountDownLatch(1);
+        var report = new ShutdownEngine(2, 100, 10_000, TimeUnit.MILLISECONDS).shutdown(graph.getLevels(), def -> {
+            if (def == a) {
+                await(never);
+            }
+        });
+        // a is abandoned, others continue:
+        assertEquals(List.of("a"), report.getNames(ShutdownStatus.TIMED_OUT));
+        assertEquals(List.of("b", "c"), report.getNames(ShutdownStatus.DESTROYED));
+        assertEquals("a", report.getSlowest(1).get(0).name());
+    }
+
+    @Test
+    public void globalTimeout() {
+        var a = BeanDependencyGraphTest.define("a");
+        var b = BeanDependencyGraphTest.define("b");
+        var graph = new BeanDependencyGraph(List.of(a, b));
+        graph.addDependency(a, b);
+        CountDownLatch never = new CountDownLatch(1);
+        var report = new ShutdownEngine(1, 10_000, 100, TimeUnit.MILLISECONDS).shutdown(graph.getLevels(), def -> await(never));
+        assertEquals(List.of("a"), report.getNames(ShutdownStatus.TIMED_OUT));
+        assertEquals(List.of("b"), report.getNames(ShutdownStatus.SKIPPED));
+        assertTrue(report.getSlowest(5).stream().noneMatch(bean -> bean.name().equals("b")));
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.chestnut.spring.context.aot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.context.AnnotationConfigApplicationContext;
+import com.chestnut.spring.context.BeanDefinition;
+import com.chestnut.spring.io.PropertyResolver;
+
+import jakarta.annotation.PostConstruct;
+
+public class BeanFactoryProcessorTest {
+
+    static final Map<String, String> SOURCES = Map.of(
+            "aot/app/AotApplication.java", """
+                    package aot.app;
+                    import com.chestnut.spring.annotation.ComponentScan;
+                    @ComponentScan
+                    public class AotApplication {
+                    }
+                    """,
+            "aot/app/GreetingService.java", """
+                    package aot.app;
+                    import com.chestnut.spring.annotation.*;
+                    import jakarta.annotation.*;
+                    @Component
+                    public class GreetingService {
+                        final String title;
+                        boolean initialized;
+                        public GreetingService(@Value("${app.title}") String title) {
+                            this.title = title;
+                        }
+                        @PostConstruct
+                        void init() {
+                            initialized = true;
+                        }
+                    }
+                    """,
+            "aot/app/GreetingController.java", """
+                    package aot.app;
+                    import com.chestnut.spring.annotation.*;
+                    import java.util.function.Supplier;
+                    @Component
+                    public class GreetingController implements Supplier<String> {
+                        @Autowired
+                        GreetingService service;
+                        @Autowired(false)
+                        Runnable missing;
+                        StringBuilder builder;
+                        int port;
+                        @Autowired
+                        void setBuilder(StringBuilder builder) {
+                            this.builder = builder;
+                        }
+                        @Value("${app.port:8080}")
+                        void setPort(int port) {
+                            this.port = port;
+                        }
+                        public String get() {
+                            return service.title + "/" + service.initialized + "/" + builder + "/" + port + "/" + missing;
+                        }
+                    }
+                    """,
+            "aot/app/AppConfiguration.java", """
+                    package aot.app;
+                    import com.chestnut.spring.annotation.*;
+                    @Configuration
+                    public class AppConfiguration {
+                        @Bean
+                        StringBuilder versionBuilder(@Value("${app.version}") String version, @Autowired GreetingService service) {
+                            return new StringBuilder(version);
+                        }
+                    }
+                    """,
+            "aot/reflective/ReflectiveApplication.java", """
+                    package aot.reflective;
+                    import com.chestnut.spring.annotation.ComponentScan;
+                    @ComponentScan
+                    public class ReflectiveApplication {
+                    }
+                    """,
+            "aot/reflective/PrivateFieldBean.java", """
+                    package aot.reflective;
+                    import com.chestnut.spring.annotation.*;
+                    @Component
+                    public class PrivateFieldBean {
+                        @Value("${app.title}")
+                        private String title;
+                    }
+                    """);
+
+    Path dir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("aot");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void generatedFactoryUsedByContext() throws Exception {
+        compile();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.resolve("classes").toUri().toURL() }, getClass().getClassLoader())) {
+            Class<?> configClass = loader.loadClass("aot.app.AotApplication");
+            var ps = new Properties();
+            ps.put("app.title", "Scan App");
+            ps.put("app.version", "v1.0");
+            try (var ctx = new AnnotationConfigApplicationContext(configClass, new PropertyResolver(ps))) {
+                for (String name : List.of("greetingService", "greetingController", "appConfiguration", "versionBuilder")) {
+                    BeanDefinition def = ctx.findBeanDefinition(name);
+                    assertNotNull(def.getGenerated());
+                    assertNull(def.getConstructor());
+                    assertNull(def.getFactoryMethod());
+                }
+                @SuppressWarnings("unchecked")
+                Supplier<String> controller = (Supplier<String>) ctx.getBean("greetingController");
+                assertEquals("Scan App/true/v1.0/8080/null", controller.get());
+                // dependencies are recorded without reflection:
+                assertTrue(ctx.getStartupTimeline().getBean("greetingController").getDependencies().containsAll(List.of("greetingService", "versionBuilder")));
+                assertTrue(ctx.getStartupTimeline().getBean("versionBuilder").getDependencies().containsAll(List.of("appConfiguration", "greetingService")));
+            }
+        }
+    }
+
+    @Test
+    public void inaccessibleClassFallsBackToReflection() throws Exception {
+        compile();
+        String source = Files.readString(dir.resolve("generated/aot/reflective/ReflectiveApplication__BeanFactory.java"));
+        assertTrue(source.contains("return List.of(\"aot.reflective.PrivateFieldBean\");"));
+        assertFalse(source.contains("addBeans0"));
+    }
+
+    @Test
+    public void incrementalCompileKeepsBeans() throws Exception {
+        compile();
+        // recompile only one component and add a new one, the config class itself is not recompiled:
+        compile(Map.of("aot/app/AppConfiguration.java", SOURCES.get("aot/app/AppConfiguration.java"), "aot/app/FarewellService.java", """
+                package aot.app;
+                import com.chestnut.spring.annotation.*;
+                @Component
+                public class FarewellService {
+                    @Autowired
+                    GreetingService service;
+                }
+                """), List.of("-A" + BeanFactoryProcessor.AOT_OPTION + "=true"));
+        String source = Files.readString(dir.resolve("generated/aot/app/AotApplication__BeanFactory.java"));
+        assertTrue(source.contains("aot.app.FarewellService"));
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.resolve("classes").toUri().toURL() }, getClass().getClassLoader())) {
+            Class<?> configClass = loader.loadClass("aot.app.AotApplication");
+            var ps = new Properties();
+            ps.put("app.title", "Scan App");
+            ps.put("app.version", "v1.0");
+            try (var ctx = new AnnotationConfigApplicationContext(configClass, new PropertyResolver(ps))) {
+                for (String name : List.of("greetingService", "greetingController", "appConfiguration", "versionBuilder", "farewellService")) {
+                    assertNotNull(ctx.findBeanDefinition(name).getGenerated(), name);
+                }
+                assertNotNull(ctx.getBean("farewellService"));
+            }
+        }
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        compile(List.of());
+        assertFalse(Files.exists(dir.resolve("generated/aot/app/AotApplication__BeanFactory.java")));
+    }
+
+    void compile() throws Exception {
+        compile(List.of("-A" + BeanFactoryProcessor.AOT_OPTION + "=true"));
+    }
+
+    void compile(List<String> extraOptions) throws Exception {
+        compile(SOURCES, extraOptions);
+    }
+
+    void compile(Map<String, String> sources, List<String> extraOptions) throws Exception {
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<String, String> entry : sources.entrySet()) {
+            Path file = dir.resolve("src").resolve(entry.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, entry.getValue());
+            files.add(file.toFile());
+        }
+        Files.createDirectories(dir.resolve("classes"));
+        Files.createDirectories(dir.resolve("generated"));
+        // 类路径只包含框架本身、jakarta注解以及之前编译的输出目录，不依赖测试运行器的类路径
+        String classPath = Stream.concat(Stream.of(BeanFactoryProcessor.class, PostConstruct.class)
+                        .map(c -> new File(c.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath()),
+                        Stream.of(dir.resolve("classes").toString()))
+                .reduce((a, b) -> a + File.pathSeparator + b).orElseThrow();
+        List<String> options = new ArrayList<>(List.of("-cp", classPath, "-s", dir.resolve("generated").toString(), "-d", dir.resolve("classes").toString()));
+        options.addAll(extraOptions);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(List.of(new BeanFactoryProcessor()));
+            assertTrue(task.call());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.chestnut.spring.context.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class RingBufferExecutorTest {
+
+    @Test
+    public void runInOrder() {
+        var executor = new RingBufferExecutor("test-order", 4, 3, BackpressurePolicy.BLOCK);
+        List<Integer> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final int n = i;
+            executor.execute(() -> results.add(n));
+        }
+        assertTrue(executor.close(5, TimeUnit.SECONDS));
+        assertEquals(100, results.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, results.get(i));
+        }
+    }
+
+    @Test
+    public void drop() throws Exception {
+        var executor = new RingBufferExecutor("test-drop", 2, 1, BackpressurePolicy.DROP);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // worker is blocked, fill the buffer:
+        executor.execute(() -> {});
+        executor.execute(() -> {});
+        assertEquals(2, executor.getPendingCount());
+        executor.execute(() -> {});
+        assertEquals(1, executor.getDroppedCount());
+        release.countDown();
+        assertTrue(executor.close(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void callerRuns() throws Exception {
+        var executor = new RingBufferExecutor("test-caller", 1, 1, BackpressurePolicy.CALLER_RUNS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {});
+        List<String> threads = new CopyOnWriteArrayList<>();
+        executor.execute(() -> threads.add(Thread.currentThread().getName()));
+        assertEquals(List.of(Thread.currentThread().getName()), threads);
+        assertEquals(0, executor.getDroppedCount());
+        release.countDown();
+        assertTrue(executor.close(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void workerPublishesIntoFullBuffer() throws Exception {
+        var executor = new RingBufferExecutor("test-self", 1, 1, BackpressurePolicy.BLOCK);
+        List<String> results = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(() -> {
+            // the first fills the buffer, the second must not block the worker:
+            executor.execute(() -> {
+                results.add("queued");
+                done.countDown();
+            });
+            executor.execute(() -> results.add("inline:" + Thread.currentThread().getName()));
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("inline:test-self", "queued"), results);
+        assertEquals(0, executor.getDroppedCount());
+        assertTrue(executor.close(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void closeTimeout() throws Exception {
+        var executor = new RingBufferExecutor("test-timeout", 4, 4, BackpressurePolicy.BLOCK);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        executor.execute(() -> {});
+        assertFalse(executor.close(50, TimeUnit.MILLISECONDS));
+        release.countDown();
+        // tasks submitted after close run on the caller:
+        List<String> threads = new CopyOnWriteArrayList<>();
+        executor.execute(() -> threads.add(Thread.currentThread().getName()));
+        assertEquals(List.of(Thread.currentThread().getName()), threads);
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.chestnut.spring.context.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.utils.ClassPathUtils;
+
+public class ComponentIndexTest {
+
+    @Test
+    public void indexGeneratedAtCompileTime() {
+        ComponentIndex index = ComponentIndex.load(ClassPathUtils.getContextClassLoader());
+        assertFalse(index.isEmpty());
+        List<String> candidates = index.getCandidates("com.chestnut.scan");
+        // direct @Component:
+        assertTrue(candidates.contains("com.chestnut.scan.sub1.sub2.sub3.Sub3Bean"));
+        // nested class:
+        assertTrue(candidates.contains("com.chestnut.scan.nested.OuterBean$NestedBean"));
+        // meta-annotated by @Configuration and custom annotation:
+        assertTrue(candidates.contains("com.chestnut.scan.init.SpecifyInitConfiguration"));
+        assertTrue(candidates.contains("com.chestnut.scan.custom.annotation.CustomAnnotationBean"));
+        // not a component:
+        assertFalse(candidates.contains("com.chestnut.scan.ScanApplication"));
+        assertFalse(candidates.contains("com.chestnut.scan.custom.annotation.CustomAnnotation"));
+    }
+
+    @Test
+    public void emptyIndex() {
+        ComponentIndex index = ComponentIndex.empty();
+        assertTrue(index.isEmpty());
+        assertTrue(index.getCandidates("com.chestnut.scan").isEmpty());
+    }
+
+    @Test
+    public void incrementalCompileMergesIndex() throws Exception {
+        Path dir = Files.createTempDirectory("index");
+        try {
+            // full build:
+            compile(dir, Map.of(
+                    "inc/OrderService.java", "package inc; @com.chestnut.spring.annotation.Component public class OrderService { }",
+                    "inc/UserService.java", "package inc; @com.chestnut.spring.annotation.Component public class UserService { }",
+                    "inc/Outer.java", "package inc; public class Outer { @com.chestnut.spring.annotation.Component public static class Nested { } }",
+                    "inc/OldService.java", "package inc; @com.chestnut.spring.annotation.Component public class OldService { }"));
+            assertEquals(List.of("inc.OldService", "inc.OrderService", "inc.Outer$Nested", "inc.UserService"), readIndex(dir));
+
+            // incremental build, only changed sources are compiled, OldService has been deleted:
+            Files.delete(dir.resolve("classes/inc/OldService.class"));
+            compile(dir, Map.of(
+                    "inc/UserService.java", "package inc; public class UserService { }",
+                    "inc/PaymentService.java", "package inc; @com.chestnut.spring.annotation.Component public class PaymentService { }"));
+            assertEquals(List.of("inc.OrderService", "inc.Outer$Nested", "inc.PaymentService"), readIndex(dir));
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    List<String> readIndex(Path dir) throws Exception {
+        return Files.readAllLines(dir.resolve("classes").resolve(ComponentIndex.INDEX_LOCATION));
+    }
+
+    void compile(Path dir, Map<String, String> sources) throws Exception {
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<String, String> entry : sources.entrySet()) {
+            Path file = dir.resolve("src").resolve(entry.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, entry.getValue());
+            files.add(file.toFile());
+        }
+        Files.createDirectories(dir.resolve("classes"));
+        // 与增量编译一致，输出目录中之前编译的类也在类路径中
+        String classPath = new File(ComponentIndexProcessor.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath()
+                + File.pathSeparator + dir.resolve("classes");
+        List<String> options = List.of("-cp", classPath, "-d", dir.resolve("classes").toString());
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(List.of(new ComponentIndexProcessor()));
+            assertTrue(task.call());
+        }
+    }
+}
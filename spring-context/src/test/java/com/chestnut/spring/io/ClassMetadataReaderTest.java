@@ -0,0 +1,114 @@
+package com.chestnut.spring.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Configuration;
+import com.chestnut.spring.utils.ClassPathUtils;
+
+public class ClassMetadataReaderTest {
+
+    static final String COMPONENT = Component.class.getName();
+
+    @Test
+    public void readDirectAnnotation() {
+        var reader = new ClassMetadataReader(ClassPathUtils.getContextClassLoader());
+        ClassMetadata metadata = reader.getMetadata("com.chestnut.scan.sub1.sub2.sub3.Sub3Bean");
+        assertEquals("com.chestnut.scan.sub1.sub2.sub3.Sub3Bean", metadata.className());
+        assertEquals("java.lang.Object", metadata.superClassName());
+        assertTrue(metadata.annotationTypes().contains(COMPONENT));
+        assertTrue(reader.hasAnnotation(metadata, COMPONENT));
+    }
+
+    @Test
+    public void readMetaAnnotation() {
+        var reader = new ClassMetadataReader(ClassPathUtils.getContextClassLoader());
+        // @Configuration is annotated with @Component:
+        ClassMetadata config = reader.getMetadata("com.chestnut.scan.init.SpecifyInitConfiguration");
+        assertTrue(reader.hasAnnotation(config, Configuration.class.getName()));
+        assertTrue(reader.hasAnnotation(config, COMPONENT));
+        // custom annotation:
+        ClassMetadata custom = reader.getMetadata("com.chestnut.scan.custom.annotation.CustomAnnotationBean");
+        assertTrue(reader.hasAnnotation(custom, COMPONENT));
+        ClassMetadata annotation = reader.getMetadata("com.chestnut.scan.custom.annotation.CustomAnnotation");
+        assertTrue(annotation.isAnnotation());
+        assertTrue(annotation.isInterface());
+    }
+
+    @Test
+    public void readWithoutLoading() {
+        var reader = new ClassMetadataReader(ClassPathUtils.getContextClassLoader());
+        ClassMetadata metadata = reader.getMetadata("com.chestnut.scan.metadata.StaticInitClass");
+        assertFalse(reader.hasAnnotation(metadata, COMPONENT));
+        assertNull(System.getProperty("chestnut.test.static-init"));
+        assertNull(reader.getMetadata("com.chestnut.scan.NotExist"));
+    }
+
+    @Test
+    public void filterBeforeLoading() throws Exception {
+        List<String> classNames = new ResourceResolver("com.chestnut.scan").scan(res -> {
+            String name = res.name();
+            return name.endsWith(".class") ? name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".") : null;
+        });
+        // each loader loads the scanned classes again:
+        List<String> candidates = new ArrayList<>();
+        try (RecordingClassLoader loader = new RecordingClassLoader()) {
+            var reader = new ClassMetadataReader(loader);
+            for (String className : classNames) {
+                ClassMetadata metadata = reader.getMetadata(className);
+                if (metadata != null && !metadata.isInterface() && reader.hasAnnotation(metadata, COMPONENT)) {
+                    candidates.add(className);
+                }
+            }
+            // filtering reads class files only, no class is loaded:
+            assertEquals(List.of(), loader.loaded);
+        }
+        int loadedByMetadata = loadAll(candidates);
+        int loadedAll = loadAll(classNames);
+        assertFalse(candidates.isEmpty());
+        assertTrue(loadedByMetadata < loadedAll, loadedByMetadata + " < " + loadedAll);
+    }
+
+    int loadAll(List<String> classNames) throws Exception {
+        try (RecordingClassLoader loader = new RecordingClassLoader()) {
+            for (String className : classNames) {
+                Class.forName(className, false, loader);
+            }
+            return loader.loaded.size();
+        }
+    }
+
+    static class RecordingClassLoader extends URLClassLoader {
+
+        final List<String> loaded = new ArrayList<>();
+
+        RecordingClassLoader() throws Exception {
+            // parent is platform class loader so that application classes are always loaded again:
+            super(classPath(), ClassLoader.getPlatformClassLoader());
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            Class<?> clazz = super.findClass(name);
+            loaded.add(name);
+            return clazz;
+        }
+
+        static URL[] classPath() throws Exception {
+            String[] paths = System.getProperty("java.class.path").split(System.getProperty("path.separator"));
+            URL[] urls = new URL[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                urls[i] = Path.of(paths[i]).toUri().toURL();
+            }
+            return urls;
+        }
+    }
+}
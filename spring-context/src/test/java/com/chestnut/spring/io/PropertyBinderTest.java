@@ -0,0 +1,116 @@
+package com.chestnut.spring.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import com.chestnut.spring.exception.PropertyBindingException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropertyBinderTest {
+
+    public enum Mode {
+        ACTIVE, READ_ONLY
+    }
+
+    public record Endpoint(String host, int port) {
+    }
+
+    public record ServerProperties(String name, int port, boolean secure, Duration timeout, DataSize maxUpload, Mode mode,
+                                   List<String> tags, Set<Integer> ports, Map<String, Endpoint> endpoints, List<Endpoint> replicas, Endpoint primary) {
+    }
+
+    public static class PoolSettings {
+        private int maxSize = 10;
+        private Duration idleTimeout = Duration.ofMinutes(1);
+        List<String> names = new ArrayList<>();
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+    }
+
+    @Test
+    public void bindRecord() {
+        var props = new Properties();
+        props.setProperty("server.name", "main");
+        props.setProperty("server.port", "8443");
+        props.setProperty("server.secure", "true");
+        props.setProperty("server.timeout", "30s");
+        props.setProperty("server.max-upload", "10MB");
+        props.setProperty("server.mode", "read-only");
+        props.setProperty("server.tags[0]", "blue");
+        props.setProperty("server.tags[1]", "${server.name}");
+        props.setProperty("server.ports", "80, 443, 80");
+        props.setProperty("server.endpoints.admin.host", "localhost");
+        props.setProperty("server.endpoints.admin.port", "9000");
+        props.setProperty("server.endpoints.metrics.host", "10.0.0.1");
+        props.setProperty("server.replicas[0].host", "r1");
+        props.setProperty("server.replicas[1].host", "r2");
+        props.setProperty("server.replicas[1].port", "8081");
+
+        var binder = new PropertyBinder(new PropertyResolver(props));
+        ServerProperties server = binder.bind("server", ServerProperties.class);
+        assertEquals("main", server.name());
+        assertEquals(8443, server.port());
+        assertTrue(server.secure());
+        assertEquals(Duration.ofSeconds(30), server.timeout());
+        assertEquals(10 * 1024 * 1024, server.maxUpload().bytes());
+        assertEquals(Mode.READ_ONLY, server.mode());
+        assertEquals(List.of("blue", "main"), server.tags());
+        assertEquals(Set.of(80, 443), server.ports());
+        assertEquals(Map.of("admin", new Endpoint("localhost", 9000), "metrics", new Endpoint("10.0.0.1", 0)), server.endpoints());
+        assertEquals(List.of(new Endpoint("r1", 0), new Endpoint("r2", 8081)), server.replicas());
+        // nested object without properties is not created:
+        assertNull(server.primary());
+    }
+
+    @Test
+    public void bindPojo() {
+        var props = new Properties();
+        props.setProperty("pool.max-size", "20");
+        props.setProperty("pool.idleTimeout", "PT5M");
+        props.setProperty("pool.names", "a,b");
+
+        var binder = new PropertyBinder(new PropertyResolver(props));
+        PoolSettings pool = binder.bind("pool", PoolSettings.class);
+        assertEquals(20, pool.getMaxSize());
+        assertEquals(Duration.ofMinutes(5), pool.getIdleTimeout());
+        assertEquals(List.of("a", "b"), pool.names);
+
+        // missing properties keep the initial values:
+        PoolSettings defaults = binder.bindTo("other", new PoolSettings());
+        assertEquals(10, defaults.getMaxSize());
+        assertEquals(Duration.ofMinutes(1), defaults.getIdleTimeout());
+        assertThrows(PropertyBindingException.class, () -> binder.bindTo("server", new Endpoint("x", 1)));
+    }
+
+    @Test
+    public void reportAllErrors() {
+        var props = new Properties();
+        props.setProperty("server.port", "http");
+        props.setProperty("server.timeout", "soon");
+        props.setProperty("server.mode", "standby");
+        props.setProperty("server.replicas[0].port", "-x");
+
+        var binder = new PropertyBinder(new PropertyResolver(props));
+        PropertyBindingException e = assertThrows(PropertyBindingException.class, () -> binder.bind("server", ServerProperties.class));
+        assertEquals(4, e.getErrors().size(), e.getMessage());
+        assertTrue(e.getErrors().get(0).startsWith("server.port: "));
+        assertTrue(e.getMessage().contains("server.replicas[0].port"));
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.condition.OS;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -59,6 +60,26 @@ public class PropertyResolverTest {
         assertThrows(NullPointerException.class, () -> pr.getRequiredProperty("not.exist"));
     }
 
+    @Test
+    public void unitValues() {
+        var props = new Properties();
+        props.setProperty("server.timeout", "30s");
+        props.setProperty("server.idle", "500");
+        props.setProperty("server.keep-alive", "2h");
+        props.setProperty("server.max-upload", "10MB");
+        props.setProperty("server.buffer", "512");
+
+        var pr = new PropertyResolver(props);
+        assertEquals(Duration.ofSeconds(30), pr.getProperty("server.timeout", Duration.class));
+        assertEquals(Duration.ofMillis(500), pr.getProperty("server.idle", Duration.class));
+        assertEquals(Duration.ofHours(2), pr.getProperty("server.keep-alive", Duration.class));
+        assertEquals(Duration.ofSeconds(5), pr.getProperty("${server.linger:PT5S}", Duration.class));
+        assertEquals(DataSize.ofMegabytes(10), pr.getProperty("server.max-upload", DataSize.class));
+        assertEquals(512, pr.getProperty("server.buffer", DataSize.class).bytes());
+        assertThrows(IllegalArgumentException.class, () -> DataSize.parse("10XB"));
+        assertEquals(List.of("server.buffer", "server.idle", "server.keep-alive"), List.copyOf(pr.getPropertyNames("server.").headSet("server.m")));
+    }
+
     @Test
     @DisabledOnOs(OS.WINDOWS)
     public void propertyHolder() {
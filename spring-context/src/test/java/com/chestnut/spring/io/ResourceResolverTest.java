@@ -9,8 +9,11 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ResourceResolverTest {
@@ -67,6 +70,34 @@ public class ResourceResolverTest {
         assertTrue(classes.contains(AnnoScan.class.getName()));
     }
 
+    @Test
+    public void scanInParallel() {
+        var pkgs = new String[] { PostConstruct.class.getPackageName(), "com.chestnut.scan" };
+        var pool = new ForkJoinPool(4);
+        try (var sequential = new ResourceResolver(null, pkgs); var parallel = new ResourceResolver(pool, pkgs)) {
+            Function<Resource, String> mapper = res -> {
+                String name = res.name();
+                if (name.endsWith(".class")) {
+                    return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
+                }
+                return null;
+            };
+            List<String> expected = sequential.scan(mapper);
+            List<String> classes = parallel.scan(mapper);
+            Collections.sort(expected);
+            Collections.sort(classes);
+            assertEquals(expected, classes);
+            assertTrue(classes.contains(PostConstruct.class.getName()));
+            assertTrue(classes.contains("com.chestnut.scan.sub1.sub2.sub3.Sub3Bean"));
+            // jar file system is shared and still open for the next scan:
+            List<String> again = parallel.scan(mapper);
+            Collections.sort(again);
+            assertEquals(classes, again);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void scanTxt() {
         var pkg = "com.chestnut.scan";
@@ -57,6 +57,26 @@ public class AnnoUtilsTest {
         assertThrows(BeanDefinitionException.class, () -> ClassUtils.findAnnotation(DuplicateComponent.class, Component.class));
         assertThrows(BeanDefinitionException.class, () -> ClassUtils.findAnnotation(DuplicateComponent2.class, Component.class));
     }
+
+    @Test
+    public void cachedLookup() throws Exception {
+        Component first = ClassUtils.findAnnotation(CustomWithName.class, Component.class);
+        assertSame(first, ClassUtils.findAnnotation(CustomWithName.class, Component.class));
+        assertEquals("customName", ClassUtils.getBeanName(CustomWithName.class));
+        assertEquals("customName", ClassUtils.getBeanName(CustomWithName.class));
+        // 重复注解的错误在每次查找时都会抛出
+        assertThrows(BeanDefinitionException.class, () -> ClassUtils.findAnnotation(DuplicateComponent.class, Component.class));
+        assertThrows(BeanDefinitionException.class, () -> ClassUtils.findAnnotation(DuplicateComponent.class, Component.class));
+    }
+
+    @Test
+    public void directAnnotation() throws Exception {
+        assertNotNull(ClassUtils.getAnnotation(Simple.class, Order.class));
+        assertEquals(1, ClassUtils.getAnnotation(Simple.class, Order.class).value());
+        // 元注解上的@Component不是直接标注的注解
+        assertNull(ClassUtils.getAnnotation(Custom.class, Component.class));
+        assertNotNull(ClassUtils.getAnnotation(Custom.class, CustomComponent.class));
+    }
 }
 
 @Order(1)
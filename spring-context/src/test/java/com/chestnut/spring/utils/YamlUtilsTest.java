@@ -3,6 +3,7 @@ package com.chestnut.spring.utils;
 import com.chestnut.spring.utils.YamlUtils;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -26,5 +27,9 @@ public class YamlUtilsTest {
 
         assertEquals("0x1a2b3c", configs.get("other.hex-data"));
         assertEquals("0x1a2b3c", configs.get("other.hex-string"));
+
+        assertEquals("Apple", configs.get("other.list[0]"));
+        assertEquals("Pear", configs.get("other.list[2]"));
+        assertEquals(List.of("Apple", "Orange", "Pear"), configs.get("other.list"));
     }
 }
\ No newline at end of file
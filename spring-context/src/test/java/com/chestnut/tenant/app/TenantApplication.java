@@ -0,0 +1,18 @@
+package com.chestnut.tenant.app;
+
+import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.ComponentScan;
+import com.chestnut.spring.annotation.ConditionalOnMissingBean;
+import com.chestnut.spring.annotation.Configuration;
+import com.chestnut.tenant.shared.SharedRepository;
+
+@Configuration
+@ComponentScan
+public class TenantApplication {
+
+    @Bean
+    @ConditionalOnMissingBean
+    SharedRepository fallbackRepository() {
+        return new SharedRepository();
+    }
+}
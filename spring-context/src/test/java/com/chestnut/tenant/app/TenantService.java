@@ -0,0 +1,38 @@
+package com.chestnut.tenant.app;
+
+import com.chestnut.spring.annotation.Autowired;
+import com.chestnut.spring.annotation.Component;
+import com.chestnut.spring.annotation.Value;
+import com.chestnut.spring.context.ApplicationContext;
+import com.chestnut.spring.context.ApplicationContextUtils;
+import com.chestnut.tenant.shared.SharedRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class TenantService {
+
+    public final SharedRepository repository;
+
+    @Value("${tenant.name}")
+    public String tenant;
+
+    public ApplicationContext initContext;
+
+    public boolean destroyed;
+
+    public TenantService(@Autowired SharedRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostConstruct
+    void init() {
+        this.initContext = ApplicationContextUtils.getRequiredApplicationContext();
+    }
+
+    @PreDestroy
+    void destroy() {
+        this.destroyed = true;
+    }
+}
@@ -0,0 +1,9 @@
+package com.chestnut.tenant.shared;
+
+import com.chestnut.spring.annotation.ComponentScan;
+import com.chestnut.spring.annotation.Configuration;
+
+@Configuration
+@ComponentScan
+public class SharedApplication {
+}
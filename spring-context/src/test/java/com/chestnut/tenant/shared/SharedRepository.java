@@ -0,0 +1,16 @@
+package com.chestnut.tenant.shared;
+
+import com.chestnut.spring.annotation.Component;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class SharedRepository {
+
+    public boolean destroyed;
+
+    @PreDestroy
+    void destroy() {
+        this.destroyed = true;
+    }
+}
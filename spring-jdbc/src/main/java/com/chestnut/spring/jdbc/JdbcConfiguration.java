@@ -3,6 +3,9 @@ package com.chestnut.spring.jdbc;
 import com.alibaba.druid.pool.DruidDataSource;
 import com.chestnut.spring.annotation.Autowired;
 import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.ConditionalOnClass;
+import com.chestnut.spring.annotation.ConditionalOnMissingBean;
+import com.chestnut.spring.annotation.ConditionalOnProperty;
 import com.chestnut.spring.annotation.Configuration;
 import com.chestnut.spring.annotation.Value;
 import com.chestnut.spring.jdbc.transaction.DataSourceTransactionManager;
@@ -13,15 +16,16 @@ import com.chestnut.spring.jdbc.transaction.TransactionalBeanPostProcessor;
 import javax.sql.DataSource;
 
 /**
- * JDBC配置类
+ * JDBC配置类，未设置 spring.datasource.url 时不注册JDBC相关的Bean
  *
  * @author: Chestnut
  * @since: 2023-07-20
  **/
 @Configuration
+@ConditionalOnProperty(name = "spring.datasource.url")
 public class JdbcConfiguration {
     /**
-     * 连接池数据源工厂方法
+     * 连接池数据源工厂方法，已定义其他DataSource时不创建
      *
      * @param url             数据库连接URL
      * @param username        数据库用户名
@@ -33,6 +37,8 @@ public class JdbcConfiguration {
      * @return 配置完成的连接池数据源
      */
     @Bean(destroyMethod = "close")
+    @ConditionalOnClass("com.alibaba.druid.pool.DruidDataSource")
+    @ConditionalOnMissingBean
     public DataSource dataSource(
             // properties:
             @Value("${spring.datasource.url}") String url,
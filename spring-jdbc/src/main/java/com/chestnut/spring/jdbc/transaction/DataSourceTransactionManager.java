@@ -1,13 +1,12 @@
 package com.chestnut.spring.jdbc.transaction;
 
+import com.chestnut.spring.aop.MethodInterceptor;
+import com.chestnut.spring.aop.MethodInvocation;
 import com.chestnut.spring.exception.TransactionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.SQLException;
 
@@ -17,7 +16,7 @@ import java.sql.SQLException;
  * @author: Chestnut
  * @since: 2023-07-20
  **/
-public class DataSourceTransactionManager implements PlatformTransactionManager, InvocationHandler {
+public class DataSourceTransactionManager implements PlatformTransactionManager, MethodInterceptor {
     /**
      * 事务状态，访问该变量的每个线程都会拥有该变量的本地副本
      * ThreadLocal允许在每个线程中创建自己的本地变量，并且该变量对于其他线程是不可见的。
@@ -49,14 +48,12 @@ public class DataSourceTransactionManager implements PlatformTransactionManager,
     /**
      * 代理对象的方法被调用时执行
      *
-     * @param proxy  代理对象
-     * @param method 被调用的方法对象
-     * @param args   调用方法时传递的参数数组
+     * @param invocation 方法调用
      * @return 调用方法的返回值
      * @throws Throwable invoke过程中抛出异常
      */
     @Override
-    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    public Object invoke(MethodInvocation invocation) throws Throwable {
         // 获取当前线程的事务状态
         TransactionStatus ts = transactionStatus.get();
         // 当前线程没有事务，开始一个新的事务
@@ -72,14 +69,14 @@ public class DataSourceTransactionManager implements PlatformTransactionManager,
                     // 设置当前线程的事务状态
                     transactionStatus.set(new TransactionStatus(connection));
                     // 执行实际的数据库操作
-                    Object r = method.invoke(proxy, args);
+                    Object r = invocation.proceed();
                     // 事务执行成功，提交事务
                     connection.commit();
                     return r;
-                } catch (InvocationTargetException e) {
-                    logger.warn("will rollback transaction for caused exception: {}", e.getCause() == null ? "null" : e.getCause().getClass().getName());
+                } catch (Throwable e) {
+                    logger.warn("will rollback transaction for caused exception: {}", e.getClass().getName());
                     // 事务处理异常为主要异常
-                    TransactionException te = new TransactionException(e.getCause());
+                    TransactionException te = new TransactionException(e);
                     try {
                         // 回滚事务
                         connection.rollback();
@@ -99,6 +96,6 @@ public class DataSourceTransactionManager implements PlatformTransactionManager,
             }
         }
         // 当前线程已经有事务，则直接执行目标方法
-        return method.invoke(proxy, args);
+        return invocation.proceed();
     }
 }
@@ -2,7 +2,6 @@ package com.chestnut.spring.web;
 
 import com.chestnut.spring.context.AnnotationConfigApplicationContext;
 import com.chestnut.spring.context.ApplicationContext;
-import com.chestnut.spring.context.ApplicationContextUtils;
 import com.chestnut.spring.exception.NestedRuntimeException;
 import com.chestnut.spring.io.PropertyResolver;
 import com.chestnut.spring.utils.ClassPathUtils;
@@ -61,8 +60,8 @@ public class ContextLoaderListener implements ServletContextListener {
         ApplicationContext applicationContext = createApplicationContext(configClassName, propertyResolver);
 
         // 配置过滤器和调度器
-        registerFilters(servletContext);
-        registerDispatcherServlet(servletContext, propertyResolver);
+        registerFilters(servletContext, applicationContext);
+        registerDispatcherServlet(servletContext, applicationContext, propertyResolver);
 
         // Servlet上下文 存放 应用程序上下文
         servletContext.setAttribute("applicationContext", applicationContext);
@@ -81,6 +80,7 @@ public class ContextLoaderListener implements ServletContextListener {
             // 尝试加载application.yml
             Map<String, Object> ymlMap = YamlUtils.loadYamlAsPlainMap(CONFIG_APP_YAML);
             logger.info("load config: {}", CONFIG_APP_YAML);
+            // 列表中的元素已按下标展开为字符串，列表本身不作为属性值
             for (String key : ymlMap.keySet()) {
                 Object value = ymlMap.get(key);
                 if (value instanceof String strValue) {
@@ -127,10 +127,10 @@ public class ContextLoaderListener implements ServletContextListener {
     /**
      * 在Servlet容器中注册过滤器
      *
-     * @param servletContext Servlet上下文对象，用于注册Filter
+     * @param servletContext     Servlet上下文对象，用于注册Filter
+     * @param applicationContext 应用程序上下文
      */
-    private void registerFilters(ServletContext servletContext) {
-        ApplicationContext applicationContext = ApplicationContextUtils.getRequiredApplicationContext();
+    private void registerFilters(ServletContext servletContext, ApplicationContext applicationContext) {
         // 遍历所有 FilterRegistrationBean 类型的 bean，这些 bean 是在 Spring 配置中定义的过滤器
         for (FilterRegistrationBean filterRegBean : applicationContext.getBeans(FilterRegistrationBean.class)) {
             // 获取过滤器的 URL 模式列表
@@ -150,11 +150,11 @@ public class ContextLoaderListener implements ServletContextListener {
     /**
      * 在Servlet容器中注册调度器
      *
-     * @param servletContext   Servlet上下文对象，用于注册Servlet
-     * @param propertyResolver 用于解析Servlet配置属性的PropertyResolver
+     * @param servletContext     Servlet上下文对象，用于注册Servlet
+     * @param applicationContext 应用程序上下文
+     * @param propertyResolver   用于解析Servlet配置属性的PropertyResolver
      */
-    private void registerDispatcherServlet(ServletContext servletContext, PropertyResolver propertyResolver) {
-        ApplicationContext applicationContext = ApplicationContextUtils.getRequiredApplicationContext();
+    private void registerDispatcherServlet(ServletContext servletContext, ApplicationContext applicationContext, PropertyResolver propertyResolver) {
         // 获取 DispatcherServlet 实例
         DispatcherServlet dispatcherServlet = new DispatcherServlet(applicationContext, propertyResolver);
         logger.info("register servlet {} for URL '/'", dispatcherServlet.getClass().getName());
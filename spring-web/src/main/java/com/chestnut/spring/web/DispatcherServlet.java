@@ -4,10 +4,13 @@ import com.chestnut.spring.annotation.*;
 import com.chestnut.spring.context.ApplicationContext;
 import com.chestnut.spring.context.BeanDefinition;
 import com.chestnut.spring.context.ConfigurableApplicationContext;
+import com.chestnut.spring.context.ScopedInstances;
 import com.chestnut.spring.exception.ErrorResponseException;
 import com.chestnut.spring.exception.NestedRuntimeException;
 import com.chestnut.spring.io.PropertyResolver;
+import com.chestnut.spring.utils.ClassUtils;
 import com.chestnut.spring.web.utils.JsonUtils;
+import jakarta.annotation.Nullable;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletOutputStream;
@@ -24,6 +27,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 调度器
@@ -41,8 +46,9 @@ public class DispatcherServlet extends HttpServlet {
      */
     private final ApplicationContext applicationContext;
     /**
-     * 视图解析器
+     * 视图解析器，未配置视图解析器（例如纯REST服务）时为null
      */
+    @Nullable
     private final ViewResolver viewResolver;
     /**
      * 图标路径
@@ -60,6 +66,22 @@ public class DispatcherServlet extends HttpServlet {
      * Post请求处理器
      */
     private List<Dispatcher> postDispatchers = new ArrayList<>();
+    /**
+     * 关闭时等待处理中的请求完成的最长时间，单位为毫秒
+     */
+    private final long drainTimeout;
+    /**
+     * 处理中的请求数
+     */
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    /**
+     * 等待处理中的请求完成时使用的锁
+     */
+    private final Object drainLock = new Object();
+    /**
+     * 是否正在关闭，关闭后到达的请求返回503
+     */
+    private volatile boolean shuttingDown;
 
     /**
      * 创建一个调度器实例
@@ -69,13 +91,15 @@ public class DispatcherServlet extends HttpServlet {
      */
     public DispatcherServlet(ApplicationContext applicationContext, PropertyResolver propertyResolver) {
         this.applicationContext = applicationContext;
-        this.viewResolver = applicationContext.getBean(ViewResolver.class);
+        this.viewResolver = ((ConfigurableApplicationContext) applicationContext).findBeanDefinition(ViewResolver.class) == null
+                ? null : applicationContext.getBean(ViewResolver.class);
         this.faviconPath = propertyResolver.getProperty("${spring.web.favicon-path:/favicon.ico}");
         String resourcePath = propertyResolver.getProperty("${spring.web.static-path:/static/}");
         if (!resourcePath.endsWith("/")) {
             resourcePath = resourcePath + "/";
         }
         this.resourcePath = resourcePath;
+        this.drainTimeout = propertyResolver.getProperty("${spring.web.shutdown.drain-timeout:30000}", long.class);
     }
 
     /**
@@ -92,17 +116,21 @@ public class DispatcherServlet extends HttpServlet {
             // 获取定义基本信息
             Class<?> beanClass = def.getBeanClass();
             String name = def.getName();
-            Object controllerInstance = def.getRequiredInstance();
+            Controller controller = ClassUtils.getAnnotation(beanClass, Controller.class);
+            RestController restController = ClassUtils.getAnnotation(beanClass, RestController.class);
+            if (controller == null && restController == null) {
+                continue;
+            }
+            // 通过容器获取实例，@Lazy的控制器在此时创建，其他@Lazy Bean不会被提前创建
+            Object controllerInstance = this.applicationContext.getBean(name);
             Class<?> instanceClass = controllerInstance.getClass();
 
             // 添加MVC Dispatchers
-            Controller controller = beanClass.getAnnotation(Controller.class);
             if (controller != null) {
                 logger.info("add MVC controller '{}': {}", name, instanceClass.getName());
                 addDispatchers(false, instanceClass, controllerInstance);
             }
             // 添加REST Dispatchers
-            RestController restController = beanClass.getAnnotation(RestController.class);
             if (restController != null) {
                 logger.info("add REST controller '{}': {}", name, instanceClass.getName());
                 addDispatchers(true, instanceClass, controllerInstance);
@@ -111,13 +139,65 @@ public class DispatcherServlet extends HttpServlet {
     }
 
     /**
-     * 销毁调度器实例的方法
+     * 销毁调度器实例的方法，先拒绝新请求并等待处理中的请求完成，再关闭容器
      */
     @Override
     public void destroy() {
+        this.shuttingDown = true;
+        awaitActiveRequests();
         this.applicationContext.close();
     }
 
+    /**
+     * 等待处理中的请求完成，超过drainTimeout时不再等待
+     */
+    private void awaitActiveRequests() {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.drainTimeout);
+        synchronized (this.drainLock) {
+            while (this.activeRequests.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    logger.warn("{} requests still active after {} ms, closing context anyway.", this.activeRequests.get(), this.drainTimeout);
+                    return;
+                }
+                logger.atInfo().log("waiting for {} active requests...", this.activeRequests.get());
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this.drainLock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 处理HTTP请求，记录处理中的请求数，正在关闭时返回503
+     *
+     * @param request  客户端发送的HTTP请求对象
+     * @param response 服务端发送的HTTP响应对象
+     * @throws ServletException 如果在Servlet处理过程中发生异常
+     * @throws IOException      如果在处理请求和响应时发生I/O异常
+     */
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        // 先计数再检查关闭标志，保证destroy要么看到该请求，要么该请求看到关闭标志
+        this.activeRequests.incrementAndGet();
+        try {
+            if (this.shuttingDown) {
+                response.sendError(503, "Service Unavailable");
+                return;
+            }
+            super.service(request, response);
+        } finally {
+            if (this.activeRequests.decrementAndGet() == 0 && this.shuttingDown) {
+                synchronized (this.drainLock) {
+                    this.drainLock.notifyAll();
+                }
+            }
+        }
+    }
+
     /**
      * 添加方法
      *
@@ -243,7 +323,8 @@ public class DispatcherServlet extends HttpServlet {
      */
     private void doService(List<Dispatcher> dispatchers, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
         String uri = request.getRequestURI();
-        try {
+        // 为当前请求绑定request作用域，请求结束后销毁本次请求创建的Bean
+        try (ScopedInstances ignored = ((ConfigurableApplicationContext) this.applicationContext).openRequestScope()) {
             // 调用方法进行请求分发处理
             dispatch(dispatchers, request, response);
         } catch (ErrorResponseException e) {
@@ -359,6 +440,8 @@ public class DispatcherServlet extends HttpServlet {
             String view = mv.getViewName();
             if (view.startsWith("redirect:")) {
                 response.sendRedirect(view.substring(9));
+            } else if (this.viewResolver == null) {
+                throw new ServletException("No ViewResolver configured to render view '" + view + "' when handle url: " + uri);
             } else {
                 this.viewResolver.render(view, mv.getModel(), request, response);
             }
@@ -2,6 +2,9 @@ package com.chestnut.spring.web;
 
 import com.chestnut.spring.annotation.Autowired;
 import com.chestnut.spring.annotation.Bean;
+import com.chestnut.spring.annotation.ConditionalOnClass;
+import com.chestnut.spring.annotation.ConditionalOnMissingBean;
+import com.chestnut.spring.annotation.ConditionalOnProperty;
 import com.chestnut.spring.annotation.Configuration;
 import com.chestnut.spring.annotation.Value;
 import jakarta.servlet.ServletContext;
@@ -45,7 +48,8 @@ public class WebMvcConfiguration {
     }
 
     /**
-     * 视图解析器工厂方法
+     * 视图解析器工厂方法，类路径中存在FreeMarker且未设置 spring.web.freemarker.enabled=false 时才创建，
+     * 已定义其他ViewResolver时不创建
      *
      * @param servletContext   Servlet上下文
      * @param templatePath     FreeMarker模板文件路径
@@ -53,6 +57,9 @@ public class WebMvcConfiguration {
      * @return 视图解析器
      */
     @Bean(initMethod = "init")
+    @ConditionalOnClass("freemarker.template.Configuration")
+    @ConditionalOnProperty(name = "spring.web.freemarker.enabled", matchIfMissing = true)
+    @ConditionalOnMissingBean
     public ViewResolver viewResolver(
             @Autowired ServletContext servletContext,
             @Value("${spring.web.freemarker.template-path:/WEB-INF/templates}") String templatePath,